@@ -0,0 +1,68 @@
+package uk.bot_by.w3w;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Build coordinates with range checks and squared addresses with a map link.
+ * <p>
+ * Run it with {@code mvn -P benchmark test-compile exec:exec -Djmh.includes=BuilderBenchmark},
+ * the rejected values show the cost of exceptions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class BuilderBenchmark {
+
+  private final BigDecimal latitude = new BigDecimal("51.381051");
+  private final BigDecimal longitude = new BigDecimal("-2.359591");
+  private final String mapLink = "https://w3w.co/spring.tops.issued";
+  private final String wrongMapLink = "w3w.co/spring.tops.issued";
+  private final BigDecimal wrongLatitude = new BigDecimal("91.000001");
+
+  @Benchmark
+  public Object bigDecimalCoordinates() {
+    return Coordinates.builder().latitude(latitude).longitude(longitude).build();
+  }
+
+  @Benchmark
+  public Object doubleCoordinates() {
+    return Coordinates.builder().latitude(51.381051).longitude(-2.359591).build();
+  }
+
+  @Benchmark
+  public Object mapLink() {
+    return SquaredAddress.builder().map(mapLink);
+  }
+
+  @Benchmark
+  public Object wrongCoordinates() {
+    try {
+      return Coordinates.builder().latitude(wrongLatitude);
+    } catch (IllegalArgumentException exception) {
+      return exception;
+    }
+  }
+
+  @Benchmark
+  public Object wrongMapLink() {
+    try {
+      return SquaredAddress.builder().map(wrongMapLink);
+    } catch (IllegalArgumentException exception) {
+      return exception;
+    }
+  }
+
+}
@@ -0,0 +1,101 @@
+package uk.bot_by.w3w;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import feign.Request;
+import feign.Response;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encode and decode a squared address by {@link SquaredAddressCodec} and as JSON.
+ * <p>
+ * JSON is written by org.json like the stand-in server does and read by
+ * {@link What3WordsStreamingDecoder}. The sizes of both forms are printed by the setup. Run it
+ * with {@code mvn -P benchmark test-compile exec:exec -Djmh.includes=CodecBenchmark}, the GC
+ * profiler reports allocation per operation as {@code gc.alloc.rate.norm}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class CodecBenchmark {
+
+  private ByteBuffer binary;
+  private final ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+  private What3WordsStreamingDecoder decoder;
+  private Response json;
+  private SquaredAddress squaredAddress;
+
+  private static JSONObject coordinates(Coordinates coordinates) {
+    return new JSONObject().put("lat", coordinates.getLatitude())
+        .put("lng", coordinates.getLongitude());
+  }
+
+  @Setup
+  public void setUp() throws IOException {
+    byte[] body;
+
+    try (InputStream stream = getClass().getResourceAsStream("/squared_address.json")) {
+      body = stream.readAllBytes();
+    }
+    decoder = new What3WordsStreamingDecoder();
+    json = Response.builder().request(
+            Request.create(Request.HttpMethod.GET, "/v3/convert-to-3wa", Collections.emptyMap(),
+                null, UTF_8, null)).status(200).reason("OK").headers(Collections.emptyMap())
+        .body(body).build();
+    squaredAddress = (SquaredAddress) decoder.decode(json, SquaredAddress.class);
+    binary = ByteBuffer.allocate(1024);
+    SquaredAddressCodec.encode(squaredAddress, binary);
+    binary.flip();
+    System.out.printf("%nsquared address: binary %d bytes, JSON %d bytes%n", binary.limit(),
+        encodeJson().length);
+  }
+
+  @Benchmark
+  public int encodeBinary() {
+    buffer.clear();
+    SquaredAddressCodec.encode(squaredAddress, buffer);
+    return buffer.position();
+  }
+
+  @Benchmark
+  public byte[] encodeJson() {
+    return new JSONObject().put("country", squaredAddress.getCountry())
+        .put("square", new JSONObject()
+            .put("southwest", coordinates(squaredAddress.getSquare().getSouthwest()))
+            .put("northeast", coordinates(squaredAddress.getSquare().getNortheast())))
+        .put("nearestPlace", squaredAddress.getNearestPlace())
+        .put("coordinates", coordinates(squaredAddress.getCoordinates()))
+        .put("words", squaredAddress.getWords().toString())
+        .put("language", squaredAddress.getLanguage().getCode())
+        .put("map", squaredAddress.getMap().toString()).toString().getBytes(UTF_8);
+  }
+
+  @Benchmark
+  public Object decodeBinary() {
+    return SquaredAddressCodec.decodeSquaredAddress(binary.duplicate());
+  }
+
+  @Benchmark
+  public Object decodeJson() throws IOException {
+    return decoder.decode(json, SquaredAddress.class);
+  }
+
+}
@@ -0,0 +1,91 @@
+package uk.bot_by.w3w;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import feign.Request;
+import feign.Response;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decode responses of <em>convert-to-3wa</em> and <em>available-languages</em> and an error
+ * response.
+ * <p>
+ * Run it with {@code mvn -P benchmark test-compile exec:exec -Djmh.includes=DecoderBenchmark},
+ * the GC profiler reports allocation per operation as {@code gc.alloc.rate.norm}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class DecoderBenchmark {
+
+  private static final String AVAILABLE_LANGUAGES = "{\"languages\":["
+      + "{\"nativeName\":\"Deutsch\",\"code\":\"de\",\"name\":\"German\"},"
+      + "{\"nativeName\":\"Norsk\",\"code\":\"no\",\"name\":\"Norwegian\"},"
+      + "{\"nativeName\":\"العربية\",\"code\":\"ar\",\"name\":\"Arabic\"},"
+      + "{\"nativeName\":\"Ελληνικά\",\"code\":\"el\",\"name\":\"Greek\"},"
+      + "{\"nativeName\":\"Türkçe\",\"code\":\"tr\",\"name\":\"Turkish\"}]}";
+  private static final String ERROR = "{\"error\":{\"code\":\"BadWords\","
+      + "\"message\":\"Invalid or non-existent 3 word address\"}}";
+
+  private What3WordsDecoder decoder;
+  private What3WordsErrorDecoder errorDecoder;
+  private Response errorResponse;
+  private Response languagesResponse;
+  private Type languagesType;
+  private Response squaredAddressResponse;
+
+  private static Response response(int status, byte[] body) {
+    return Response.builder().request(
+            Request.create(Request.HttpMethod.GET, "/v3/convert-to-3wa", Collections.emptyMap(),
+                null, UTF_8, null)).status(status).reason("OK").headers(Collections.emptyMap())
+        .body(body).build();
+  }
+
+  @Setup
+  public void setUp() throws IOException, NoSuchMethodException {
+    byte[] squaredAddress;
+
+    try (InputStream stream = getClass().getResourceAsStream("/squared_address.json")) {
+      squaredAddress = stream.readAllBytes();
+    }
+    decoder = new What3WordsDecoder();
+    errorDecoder = new What3WordsErrorDecoder();
+    errorResponse = response(400, ERROR.getBytes(UTF_8));
+    languagesResponse = response(200, AVAILABLE_LANGUAGES.getBytes(UTF_8));
+    languagesType = What3Words.class.getMethod("availableLanguages").getGenericReturnType();
+    squaredAddressResponse = response(200, squaredAddress);
+  }
+
+  @Benchmark
+  public Object availableLanguages() throws IOException {
+    return decoder.decode(languagesResponse, languagesType);
+  }
+
+  @Benchmark
+  public Object error() {
+    return errorDecoder.decode("What3Words#convertToAddress(WordsRequest)", errorResponse);
+  }
+
+  @Benchmark
+  public Object squaredAddress() throws IOException {
+    return decoder.decode(squaredAddressResponse, SquaredAddress.class);
+  }
+
+}
@@ -0,0 +1,67 @@
+package uk.bot_by.w3w;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Convert random points of an area by {@link SyntheticWhat3Words} through caching decorators.
+ * <p>
+ * The area is about {@code side} metres wide, 100 metres are about 900 squares. Run it with
+ * {@code mvn -P benchmark test-compile exec:exec -Djmh.includes=DecoratorBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class DecoratorBenchmark {
+
+  private static final double METRES_PER_DEGREE = 111_000;
+
+  private What3Words api;
+  @Param({"none", "caching", "square"})
+  private String decorator;
+  @Param({"100", "1000"})
+  private int side;
+
+  private double degrees;
+
+  @Setup
+  public void setUp() {
+    What3Words synthetic = new SyntheticWhat3Words();
+
+    degrees = side / METRES_PER_DEGREE;
+    switch (decorator) {
+      case "caching":
+        api = CachingWhat3Words.builder().delegate(synthetic).build();
+        break;
+      case "square":
+        api = SquareCachingWhat3Words.builder().delegate(synthetic).build();
+        break;
+      default:
+        api = synthetic;
+    }
+  }
+
+  @Benchmark
+  public Object convertToAddress() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+
+    return api.convertToAddress(
+        WordsRequest.builder().coordinates(51.38 + random.nextDouble(degrees),
+            -2.36 + random.nextDouble(degrees)).build());
+  }
+
+}
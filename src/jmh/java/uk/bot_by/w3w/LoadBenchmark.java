@@ -0,0 +1,125 @@
+package uk.bot_by.w3w;
+
+import feign.Client;
+import feign.Feign;
+import feign.Request;
+import feign.http2client.Http2Client;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Drive a Feign-built or direct {@link What3Words} against a local stand-in server.
+ * <p>
+ * The throughput mode reports requests per second, the sample mode reports latency percentiles
+ * {@code p0.50}, {@code p0.99} and {@code p0.999}. The concurrency is the number of JMH threads,
+ * run it with
+ * {@code mvn -P benchmark test-compile exec:exec -Djmh.includes=LoadBenchmark -Djmh.threads=64}.
+ * <p>
+ * The stand-in server is {@link SyntheticServer} that is started in the benchmark JVM. The
+ * parameter {@code target} points the client to another server, e.g. MockServer of the
+ * integration tests with JMH option {@code -p target=http://localhost:9876}. The stand-in speaks
+ * HTTP/1.1 only: {@code java11-h2-fallback} is the client that prefers HTTP/2, it falls back to
+ * HTTP/1.1 after the upgrade is refused. It is not a measurement of HTTP/2, an HTTP/2 server is
+ * needed to compare protocols.
+ * <p>
+ * The client {@code direct} is {@link HttpClientWhat3Words} on the same HTTP/1.1 client as
+ * {@code java11-http1}, their difference is the overhead of Feign's proxy.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@Fork(1)
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+public class LoadBenchmark {
+
+  private What3Words api;
+  @Param({"urlconnection", "java11-http1", "java11-h2-fallback", "direct"})
+  private String client;
+  private SyntheticServer server;
+  @Param("")
+  private String target;
+
+  private final WordsRequest wordsRequest = WordsRequest.builder()
+      .coordinates(51.381051, -2.359591).build();
+  private final CoordinatesRequest coordinatesRequest = CoordinatesRequest.builder()
+      .words(new SyntheticWhat3Words().convertToAddress(wordsRequest).getWords()).build();
+
+  /*
+   * Http2Client creates a new HttpClient for every request if the configuration of its client
+   * differs from the request options, so the client follows Feign's default options.
+   */
+  private static Client client(String client) {
+    switch (client) {
+      case "java11-http1":
+        return new Http2Client(httpClient(HttpClient.Version.HTTP_1_1));
+      case "java11-h2-fallback":
+        return new Http2Client(httpClient(HttpClient.Version.HTTP_2));
+      default:
+        return new Client.Default(null, null);
+    }
+  }
+
+  private static HttpClient httpClient(HttpClient.Version version) {
+    Request.Options options = new Request.Options();
+
+    return HttpClient.newBuilder().version(version)
+        .connectTimeout(Duration.ofMillis(options.connectTimeoutMillis()))
+        .followRedirects(HttpClient.Redirect.ALWAYS).build();
+  }
+
+  @Setup
+  public void setUp() throws IOException {
+    String url = target;
+
+    if (url.isEmpty()) {
+      server = SyntheticServer.start(0);
+      url = server.getUrl();
+    }
+    if ("direct".equals(client)) {
+      api = HttpClientWhat3Words.builder().httpClient(httpClient(HttpClient.Version.HTTP_1_1))
+          .key("abc-api-key").url(url).build();
+      return;
+    }
+    api = Feign.builder().client(client(client)).decoder(new What3WordsDecoder())
+        .errorDecoder(new What3WordsErrorDecoder())
+        .requestInterceptor(new KeyInterceptor("abc-api-key")).target(What3Words.class, url);
+  }
+
+  @TearDown
+  public void tearDown() {
+    if (null != server) {
+      server.close();
+    }
+  }
+
+  @Benchmark
+  public Object availableLanguages() {
+    return api.availableLanguages();
+  }
+
+  @Benchmark
+  public Object convertToAddress() {
+    return api.convertToAddress(wordsRequest);
+  }
+
+  @Benchmark
+  public Object convertToCoordinates() {
+    return api.convertToCoordinates(coordinatesRequest);
+  }
+
+}
@@ -0,0 +1,69 @@
+package uk.bot_by.w3w;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import feign.Feign;
+import feign.Response;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Call a Feign client with an in-memory response without the phase timer, with the enabled timer
+ * and with the disabled one.
+ * <p>
+ * Run it with {@code mvn -P benchmark test-compile exec:exec -Djmh.includes=PhaseTimerBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class PhaseTimerBenchmark {
+
+  private static final String SQUARED_ADDRESS = "{\"country\":\"GB\",\"square\":{\"southwest\":"
+      + "{\"lng\":-0.195543,\"lat\":51.520833},\"northeast\":{\"lng\":-0.195499,"
+      + "\"lat\":51.52086}},\"nearestPlace\":\"Bayswater, London\",\"coordinates\":"
+      + "{\"lng\":-0.195521,\"lat\":51.520847},\"words\":\"filled.count.soap\","
+      + "\"language\":\"en\",\"map\":\"https://w3w.co/filled.count.soap\"}";
+
+  private What3Words api;
+  private WordsRequest request;
+  @Param({"none", "enabled", "disabled"})
+  private String timer;
+
+  @Setup
+  public void setUp() {
+    byte[] body = SQUARED_ADDRESS.getBytes(UTF_8);
+    Feign.Builder builder = Feign.builder()
+        .client((request, options) -> Response.builder().request(request).status(200)
+            .headers(Map.of()).body(body).build())
+        .decoder(new What3WordsStreamingDecoder());
+
+    if (!"none".equals(timer)) {
+      PhaseTimer phaseTimer = PhaseTimer.builder().build();
+
+      phaseTimer.setEnabled("enabled".equals(timer));
+      builder.addCapability(phaseTimer);
+    }
+    api = builder.target(What3Words.class, "http://localhost");
+    request = WordsRequest.builder().coordinates(51.520847, -0.195521).build();
+  }
+
+  @Benchmark
+  public Object convertToAddress() {
+    return api.convertToAddress(request);
+  }
+
+}
@@ -0,0 +1,63 @@
+package uk.bot_by.w3w;
+
+import feign.QueryMapEncoder;
+import feign.querymap.FieldQueryMapEncoder;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare Feign's field encoder with {@link What3WordsQueryMapEncoder} on a new request and on a
+ * request that is sent again.
+ * <p>
+ * Run it with {@code mvn -P benchmark test-compile exec:exec -Djmh.includes=QueryMapEncoder}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class QueryMapEncoderBenchmark {
+
+  private final QueryMapEncoder fieldEncoder = new FieldQueryMapEncoder();
+  private final QueryMapEncoder what3WordsEncoder = new What3WordsQueryMapEncoder();
+  private final WordsRequest wordsRequest = WordsRequest.builder()
+      .coordinates(51.381051, -2.359591).language("en").build();
+
+  private double latitude = 51.381051;
+
+  private Object render(QueryMapEncoder encoder, WordsRequest request) {
+    return encoder.encode(request).get("coordinates").toString();
+  }
+
+  @Benchmark
+  public Object fieldNewRequest() {
+    return render(fieldEncoder,
+        WordsRequest.builder().coordinates(latitude, -2.359591).language("en").build());
+  }
+
+  @Benchmark
+  public Object fieldSameRequest() {
+    return render(fieldEncoder, wordsRequest);
+  }
+
+  @Benchmark
+  public Object what3WordsNewRequest() {
+    return render(what3WordsEncoder,
+        WordsRequest.builder().coordinates(latitude, -2.359591).language("en").build());
+  }
+
+  @Benchmark
+  public Object what3WordsSameRequest() {
+    return render(what3WordsEncoder, wordsRequest);
+  }
+
+}
@@ -0,0 +1,93 @@
+package uk.bot_by.w3w;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import feign.Request;
+import feign.Response;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare the tree decoder with the streaming one on a <em>convert-to-3wa</em> response.
+ * <p>
+ * The lazy streaming decoder and the projection of words are measured when only words are read,
+ * the way most callers use it.
+ * <p>
+ * Run it with {@code mvn -P benchmark test-compile exec:exec -Djmh.includes=StreamingDecoder},
+ * the GC profiler reports allocation per operation as {@code gc.alloc.rate.norm}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class StreamingDecoderBenchmark {
+
+  private What3WordsDecoder treeDecoder;
+  private final Set<SquaredAddress.Field> words = EnumSet.of(SquaredAddress.Field.WORDS);
+  private What3WordsStreamingDecoder lazyDecoder;
+  private What3WordsStreamingDecoder streamingDecoder;
+  private Response response;
+
+  @Setup
+  public void setUp() throws IOException {
+    byte[] squaredAddress;
+
+    try (InputStream stream = getClass().getResourceAsStream("/squared_address.json")) {
+      squaredAddress = stream.readAllBytes();
+    }
+    treeDecoder = new What3WordsDecoder();
+    streamingDecoder = new What3WordsStreamingDecoder();
+    lazyDecoder = new What3WordsStreamingDecoder(true);
+    response = Response.builder().request(
+            Request.create(Request.HttpMethod.GET, "/v3/convert-to-3wa", Collections.emptyMap(),
+                null, UTF_8, null)).status(200).reason("OK").headers(Collections.emptyMap())
+        .body(squaredAddress).build();
+  }
+
+  @Benchmark
+  public Object tree() throws IOException {
+    return treeDecoder.decode(response, SquaredAddress.class);
+  }
+
+  @Benchmark
+  public Object streaming() throws IOException {
+    return streamingDecoder.decode(response, SquaredAddress.class);
+  }
+
+  @Benchmark
+  public Object streamingWords() throws IOException {
+    return ((SquaredAddress) streamingDecoder.decode(response, SquaredAddress.class)).getWords();
+  }
+
+  @Benchmark
+  public Object lazyWords() throws IOException {
+    return ((SquaredAddress) lazyDecoder.decode(response, SquaredAddress.class)).getWords();
+  }
+
+  @Benchmark
+  public Object projectedWords() throws IOException {
+    return streamingDecoder.decodeSquaredAddress(response, words).getWords();
+  }
+
+  @Benchmark
+  public Object treeProjectedWords() throws IOException {
+    return treeDecoder.decodeSquaredAddress(response, words).getWords();
+  }
+
+}
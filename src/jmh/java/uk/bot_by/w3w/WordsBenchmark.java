@@ -0,0 +1,72 @@
+package uk.bot_by.w3w;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare the single-pass scanner of {@link Words.WordsBuilder#words(String)} with splitting by a
+ * regular expression and matching each word by another one, like the builder did before.
+ * <p>
+ * Run it with {@code mvn -P benchmark test-compile exec:exec -Djmh.includes=Words}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class WordsBenchmark {
+
+  private static final Pattern WORD_ADDRESS_PATTERN = Pattern.compile(
+      "^[^0-9`~!@#$%^&*()+\\-_=\\[{}\\\\|'<,.>?/\";:£§º©®\\s]{1,}$");
+
+  @Param({"///spring.tops.issued", "spring・tops・issued", "spring.top$.issued"})
+  private String words;
+
+  private static boolean splitAndMatch(String words) {
+    if (words.isBlank()) {
+      return false;
+    }
+    if (words.startsWith("///")) {
+      return splitAndMatch(words.substring(3));
+    }
+
+    String[] parts = words.split("[・.。]");
+
+    if (3 > parts.length) {
+      return false;
+    }
+    for (int i = 0; 3 > i; i++) {
+      if (parts[i].isBlank() || !WORD_ADDRESS_PATTERN.matcher(parts[i]).matches()) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  @Benchmark
+  public boolean regularExpressions() {
+    return splitAndMatch(words);
+  }
+
+  @Benchmark
+  public boolean scanner() {
+    try {
+      return null != Words.builder().words(words).build();
+    } catch (IllegalArgumentException exception) {
+      return false;
+    }
+  }
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2021,2022 Witalij Berdinskich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.w3w;
+
+import feign.Headers;
+import feign.Param;
+import feign.QueryMap;
+import feign.RequestLine;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Asynchronous <em>what3words</em> API.
+ * <p>
+ * It is the non-blocking counterpart of {@link What3Words}, the methods have the same requests
+ * and return futures instead of results. Use it with
+ * {@linkplain feign.AsyncFeign Feign's async builder}, the decoders and the interceptor of
+ * {@link What3Words} are used as is:
+ * <pre><code class="language-java">
+ * api = AsyncFeign.builder()
+ *                 .client(new Http2Client())
+ *                 .decoder(new What3WordsDecoder())
+ *                 .errorDecoder(new What3WordsErrorDecoder())
+ *                 .requestInterceptor(new KeyInterceptor("qwerty-api-key"))
+ *                 .target(AsyncWhat3Words.class, What3Words.W3W_API);
+ * </code></pre>
+ * A future is completed exceptionally with {@link What3WordsException} if <em>what3words</em> API
+ * returns error or with {@link feign.FeignException} if a remote server is not available or
+ * returns unknown error.
+ *
+ * @see What3Words
+ * @since 1.2.0
+ */
+@Headers("Accept: application/json")
+public interface AsyncWhat3Words {
+
+  /**
+   * Get available languages.
+   * <p>
+   * Use {@link KeyInterceptor} to set up API key.
+   *
+   * @return available languages of <em>what3words</em> API
+   * @see What3Words#availableLanguages()
+   */
+  @NotNull
+  @RequestLine("GET /v3/available-languages")
+  CompletableFuture<Collection<Language>> availableLanguages();
+
+  /**
+   * Get available languages.
+   * <p>
+   * It overrides API key of {@link KeyInterceptor} if it is used.
+   *
+   * @param key API key, will be added to request as the header {@code X-Api-Key}
+   * @return available languages of <em>what3words</em> API
+   * @see What3Words#availableLanguages(String)
+   */
+  @NotNull
+  @RequestLine("GET /v3/available-languages")
+  @Headers("X-Api-Key: {w3w-api-key}")
+  CompletableFuture<Collection<Language>> availableLanguages(
+      @NotNull @Param("w3w-api-key") String key);
+
+  /**
+   * Get a <abbr class="tooltip">3wa<span class="tooltiptext">3 word address</span></abbr> by its
+   * coordinates.
+   * <p>
+   * Use {@link KeyInterceptor} to set up API key or add the query parameter {@code key}.
+   *
+   * @param queryParameters query parameters, coordinates are required and language is optional
+   * @return 3 word address
+   * @see What3Words#convertToAddress(Map)
+   */
+  @NotNull
+  @RequestLine("GET /v3/convert-to-3wa")
+  CompletableFuture<SquaredAddress> convertToAddress(
+      @QueryMap Map<String, Object> queryParameters);
+
+  /**
+   * Get a <abbr class="tooltip">3wa<span class="tooltiptext">3 word address</span></abbr> by its
+   * coordinates.
+   * <p>
+   * Use {@link KeyInterceptor} to set up API key.
+   *
+   * @param wordsRequest query parameters, coordinates are required and language is optional
+   * @return 3 word address
+   * @see What3Words#convertToAddress(WordsRequest)
+   */
+  @NotNull
+  @RequestLine("GET /v3/convert-to-3wa")
+  CompletableFuture<SquaredAddress> convertToAddress(@QueryMap WordsRequest wordsRequest);
+
+  /**
+   * Get a <abbr class="tooltip">3wa<span class="tooltiptext">3 word address</span></abbr> by its
+   * coordinates.
+   * <p>
+   * It overrides API key of {@link KeyInterceptor} if it is used.
+   *
+   * @param key          API key, will be added as the header {@code X-Api-Key}
+   * @param wordsRequest query parameters, coordinates are required and language is optional
+   * @return 3 word address
+   * @see What3Words#convertToAddress(String, WordsRequest)
+   */
+  @NotNull
+  @RequestLine("GET /v3/convert-to-3wa")
+  @Headers("X-Api-Key: {w3w-api-key}")
+  CompletableFuture<SquaredAddress> convertToAddress(@NotNull @Param("w3w-api-key") String key,
+      @QueryMap WordsRequest wordsRequest);
+
+  /**
+   * Get coordinates by a <abbr class="tooltip">3wa<span class="tooltiptext">3 word
+   * address</span></abbr>.
+   * <p>
+   * Use {@link KeyInterceptor} to set up API key or add the query parameter {@code key}.
+   *
+   * @param queryParameters query parameters, words is required
+   * @return coordinates
+   * @see What3Words#convertToCoordinates(Map)
+   */
+  @NotNull
+  @RequestLine("GET /v3/convert-to-coordinates")
+  CompletableFuture<SquaredAddress> convertToCoordinates(
+      @QueryMap Map<String, Object> queryParameters);
+
+  /**
+   * Get coordinates by a <abbr class="tooltip">3wa<span class="tooltiptext">3 word
+   * address</span></abbr>.
+   * <p>
+   * Use {@link KeyInterceptor} to set up API key.
+   *
+   * @param coordinatesRequest query parameters, words is required
+   * @return coordinates
+   * @see What3Words#convertToCoordinates(CoordinatesRequest)
+   */
+  @NotNull
+  @RequestLine("GET /v3/convert-to-coordinates")
+  CompletableFuture<SquaredAddress> convertToCoordinates(
+      @QueryMap CoordinatesRequest coordinatesRequest);
+
+  /**
+   * Get coordinates by a <abbr class="tooltip">3wa<span class="tooltiptext">3 word
+   * address</span></abbr>.
+   * <p>
+   * It overrides API key of {@link KeyInterceptor} if it is used.
+   *
+   * @param key                API key
+   * @param coordinatesRequest query parameters, words is required
+   * @return coordinates
+   * @see What3Words#convertToCoordinates(String, CoordinatesRequest)
+   */
+  @NotNull
+  @RequestLine("GET /v3/convert-to-coordinates")
+  @Headers("X-Api-Key: {w3w-api-key}")
+  CompletableFuture<SquaredAddress> convertToCoordinates(@Param("w3w-api-key") String key,
+      @QueryMap CoordinatesRequest coordinatesRequest);
+
+}
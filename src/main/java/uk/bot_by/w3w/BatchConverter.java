@@ -0,0 +1,419 @@
+/*
+ * Copyright 2021,2022 Witalij Berdinskich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.w3w;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Convert many requests with bounded concurrency.
+ * <p>
+ * The converter works on {@link AsyncWhat3Words} or on {@link What3Words} with an executor. It
+ * keeps at most {@linkplain BatchConverterBuilder#maxInFlight(int) max-in-flight} requests
+ * running: the thread that calls a batch method waits for a free slot before it sends the next
+ * request, so an iterator is consumed lazily. A request that is equal to an earlier one of the
+ * batch is not sent but shares its result. In completion order only running requests are kept
+ * to bound memory, so a request that is equal to a completed one is sent again.
+ * <p>
+ * Every item gets its own {@link Result} with either a squared address or an exception, usually
+ * {@link What3WordsException}, so one bad item does not fail the batch. The results are returned
+ * in input order or passed to a consumer in completion order: the converter does not keep
+ * consumed results, so a long iterator could be converted in constant memory.
+ * <p>
+ * If the calling thread is interrupted while it waits for a free slot, the batch method throws
+ * {@link CancellationException} and keeps the interrupt status, running requests are not
+ * cancelled.
+ * <pre><code class="language-java">
+ * BatchConverter converter = BatchConverter.builder()
+ *                                          .api(asyncApi)
+ *                                          .maxInFlight(64)
+ *                                          .build();
+ *
+ * for (BatchConverter.Result&lt;WordsRequest&gt; result : converter.convertToAddress(requests)) {
+ *   if (result.isSuccessful()) {
+ *     System.out.println(result.getSquaredAddress().getWords());
+ *   }
+ * }
+ * </code></pre>
+ *
+ * @since 1.2.0
+ */
+public class BatchConverter {
+
+  private final Function<WordsRequest, CompletableFuture<SquaredAddress>> addressCall;
+  private final Function<CoordinatesRequest, CompletableFuture<SquaredAddress>> coordinatesCall;
+  private final int maxInFlight;
+
+  private BatchConverter(BatchConverterBuilder builder) {
+    if (null == builder.asyncApi) {
+      What3Words api = builder.api;
+      Executor executor = builder.executor;
+
+      addressCall = request -> CompletableFuture.supplyAsync(() -> api.convertToAddress(request),
+          executor);
+      coordinatesCall = request -> CompletableFuture.supplyAsync(
+          () -> api.convertToCoordinates(request), executor);
+    } else {
+      addressCall = builder.asyncApi::convertToAddress;
+      coordinatesCall = builder.asyncApi::convertToCoordinates;
+    }
+    maxInFlight = builder.maxInFlight;
+  }
+
+  /**
+   * Get a builder of the converter.
+   *
+   * @return a builder
+   */
+  public static BatchConverterBuilder builder() {
+    return new BatchConverterBuilder();
+  }
+
+  /**
+   * Convert coordinates to <abbr class="tooltip">3wa<span class="tooltiptext">3 word
+   * address</span></abbr>es, it waits for all requests.
+   *
+   * @param requests requests
+   * @return results in input order
+   */
+  public List<Result<WordsRequest>> convertToAddress(@NotNull Collection<WordsRequest> requests) {
+    return inInputOrder(requests.iterator(), addressCall);
+  }
+
+  /**
+   * Convert coordinates to <abbr class="tooltip">3wa<span class="tooltiptext">3 word
+   * address</span></abbr>es, it waits for all requests.
+   *
+   * @param requests requests
+   * @return results in input order
+   */
+  public List<Result<WordsRequest>> convertToAddress(@NotNull Iterator<WordsRequest> requests) {
+    return inInputOrder(requests, addressCall);
+  }
+
+  /**
+   * Convert coordinates to <abbr class="tooltip">3wa<span class="tooltiptext">3 word
+   * address</span></abbr>es and pass results to the consumer as soon as they are completed.
+   * <p>
+   * The consumer is called from threads that complete requests so it must be thread-safe. The
+   * method returns when all requests are sent.
+   *
+   * @param requests requests
+   * @param consumer consumer of results
+   * @return a future that is completed when all results are consumed
+   */
+  public CompletableFuture<Void> convertToAddress(@NotNull Iterator<WordsRequest> requests,
+      @NotNull Consumer<Result<WordsRequest>> consumer) {
+    return inCompletionOrder(requests, addressCall, consumer);
+  }
+
+  /**
+   * Convert <abbr class="tooltip">3wa<span class="tooltiptext">3 word address</span></abbr>es to
+   * coordinates, it waits for all requests.
+   *
+   * @param requests requests
+   * @return results in input order
+   */
+  public List<Result<CoordinatesRequest>> convertToCoordinates(
+      @NotNull Collection<CoordinatesRequest> requests) {
+    return inInputOrder(requests.iterator(), coordinatesCall);
+  }
+
+  /**
+   * Convert <abbr class="tooltip">3wa<span class="tooltiptext">3 word address</span></abbr>es to
+   * coordinates, it waits for all requests.
+   *
+   * @param requests requests
+   * @return results in input order
+   */
+  public List<Result<CoordinatesRequest>> convertToCoordinates(
+      @NotNull Iterator<CoordinatesRequest> requests) {
+    return inInputOrder(requests, coordinatesCall);
+  }
+
+  /**
+   * Convert <abbr class="tooltip">3wa<span class="tooltiptext">3 word address</span></abbr>es to
+   * coordinates and pass results to the consumer as soon as they are completed.
+   * <p>
+   * The consumer is called from threads that complete requests so it must be thread-safe. The
+   * method returns when all requests are sent.
+   *
+   * @param requests requests
+   * @param consumer consumer of results
+   * @return a future that is completed when all results are consumed
+   */
+  public CompletableFuture<Void> convertToCoordinates(
+      @NotNull Iterator<CoordinatesRequest> requests,
+      @NotNull Consumer<Result<CoordinatesRequest>> consumer) {
+    return inCompletionOrder(requests, coordinatesCall, consumer);
+  }
+
+  /*
+   * The submission holds one pending count, so the batch is not done until all items are sent.
+   */
+  private <R> CompletableFuture<Void> inCompletionOrder(Iterator<R> requests,
+      Function<R, CompletableFuture<SquaredAddress>> call, Consumer<Result<R>> consumer) {
+    CompletableFuture<Void> done = new CompletableFuture<>();
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    AtomicInteger pending = new AtomicInteger(1);
+    Runnable consumed = () -> {
+      if (0 == pending.decrementAndGet()) {
+        Throwable exception = failure.get();
+
+        if (null == exception) {
+          done.complete(null);
+        } else {
+          done.completeExceptionally(exception);
+        }
+      }
+    };
+
+    submit(requests, call, false, result -> {
+      pending.incrementAndGet();
+      result.thenAccept(consumer).whenComplete((value, exception) -> {
+        if (null != exception) {
+          failure.compareAndSet(null, exception);
+        }
+        consumed.run();
+      });
+    });
+    consumed.run();
+
+    return done;
+  }
+
+  private <R> List<Result<R>> inInputOrder(Iterator<R> requests,
+      Function<R, CompletableFuture<SquaredAddress>> call) {
+    List<CompletableFuture<Result<R>>> futures = new ArrayList<>();
+    List<Result<R>> results = new ArrayList<>();
+
+    submit(requests, call, true, futures::add);
+    for (CompletableFuture<Result<R>> future : futures) {
+      results.add(future.join());
+    }
+
+    return results;
+  }
+
+  /*
+   * Passes a future of every item to the collector in input order. Unless completed requests are
+   * kept, a request is removed by the thread that completes its result.
+   */
+  private <R> void submit(Iterator<R> requests,
+      Function<R, CompletableFuture<SquaredAddress>> call, boolean keepCompleted,
+      Consumer<CompletableFuture<Result<R>>> collector) {
+    Map<R, CompletableFuture<Result<R>>> sentRequests = new ConcurrentHashMap<>();
+    Semaphore permits = new Semaphore(maxInFlight);
+
+    while (requests.hasNext()) {
+      R request = Objects.requireNonNull(requests.next(), "request is null");
+      CompletableFuture<Result<R>> result = sentRequests.get(request);
+
+      if (null == result) {
+        CompletableFuture<Result<R>> sent = new CompletableFuture<>();
+
+        try {
+          permits.acquire();
+        } catch (InterruptedException exception) {
+          Thread.currentThread().interrupt();
+          throw new CancellationException("batch is interrupted");
+        }
+        // the request is registered before it could be completed
+        sentRequests.put(request, sent);
+        sent.whenComplete((value, exception) -> {
+          if (!keepCompleted) {
+            sentRequests.remove(request, sent);
+          }
+          permits.release();
+        });
+        send(request, call).thenAccept(sent::complete);
+        result = sent;
+      }
+      collector.accept(result);
+    }
+  }
+
+  private <R> CompletableFuture<Result<R>> send(R request,
+      Function<R, CompletableFuture<SquaredAddress>> call) {
+    CompletableFuture<SquaredAddress> future;
+
+    try {
+      future = call.apply(request);
+    } catch (RuntimeException exception) {
+      future = CompletableFuture.failedFuture(exception);
+    }
+
+    return future.handle((squaredAddress, exception) -> new Result<>(request, squaredAddress,
+        (exception instanceof CompletionException && null != exception.getCause())
+            ? exception.getCause() : exception));
+  }
+
+  /**
+   * Result of a batch item.
+   *
+   * @param <R> type of request
+   * @since 1.2.0
+   */
+  public static final class Result<R> {
+
+    private final Throwable exception;
+    private final R request;
+    private final SquaredAddress squaredAddress;
+
+    private Result(R request, SquaredAddress squaredAddress, Throwable exception) {
+      this.exception = exception;
+      this.request = request;
+      this.squaredAddress = squaredAddress;
+    }
+
+    /**
+     * Get an exception of a failed request.
+     *
+     * @return an exception, usually {@link What3WordsException} or {@link feign.FeignException},
+     * or {@code null} if the request is successful
+     */
+    public @Nullable Throwable getException() {
+      return exception;
+    }
+
+    /**
+     * Get the request.
+     *
+     * @return the request
+     */
+    public R getRequest() {
+      return request;
+    }
+
+    /**
+     * Get a squared address.
+     *
+     * @return a squared address or {@code null} if the request is failed
+     */
+    public @Nullable SquaredAddress getSquaredAddress() {
+      return squaredAddress;
+    }
+
+    /**
+     * Check if the request is successful.
+     *
+     * @return {@code true} if there is a squared address
+     */
+    public boolean isSuccessful() {
+      return null == exception;
+    }
+
+    @Override
+    public String toString() {
+      return new StringJoiner(", ", "{", "}").add("request:" + request)
+          .add(isSuccessful() ? "squared address:" + squaredAddress : "exception:" + exception)
+          .toString();
+    }
+
+  }
+
+  /**
+   * Helper to build the batch converter.
+   *
+   * @since 1.2.0
+   */
+  public static class BatchConverterBuilder {
+
+    private static final int DEFAULT_MAX_IN_FLIGHT = 16;
+
+    private What3Words api;
+    private AsyncWhat3Words asyncApi;
+    private Executor executor;
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+
+    private BatchConverterBuilder() {
+    }
+
+    /**
+     * Build the batch converter.
+     *
+     * @return the batch converter
+     * @throws NullPointerException if neither API is set
+     */
+    public BatchConverter build() throws NullPointerException {
+      if (null == asyncApi) {
+        Objects.requireNonNull(api, "API is null");
+      }
+      return new BatchConverter(this);
+    }
+
+    /**
+     * Set asynchronous API.
+     *
+     * @param asyncApi asynchronous <em>what3words</em> API
+     * @return the builder
+     */
+    public BatchConverterBuilder api(@NotNull AsyncWhat3Words asyncApi) {
+      this.api = null;
+      this.asyncApi = asyncApi;
+      this.executor = null;
+      return this;
+    }
+
+    /**
+     * Set blocking API, requests are sent by the executor.
+     *
+     * @param api      <em>what3words</em> API
+     * @param executor executor, it should have at least max-in-flight threads
+     * @return the builder
+     */
+    public BatchConverterBuilder api(@NotNull What3Words api, @NotNull Executor executor) {
+      this.api = Objects.requireNonNull(api, "API is null");
+      this.asyncApi = null;
+      this.executor = Objects.requireNonNull(executor, "executor is null");
+      return this;
+    }
+
+    /**
+     * Set maximum number of requests that are running at the same time, default is 16.
+     *
+     * @param maxInFlight maximum number of running requests
+     * @return the builder
+     * @throws IllegalArgumentException if the number is not positive
+     */
+    public BatchConverterBuilder maxInFlight(int maxInFlight) throws IllegalArgumentException {
+      if (0 >= maxInFlight) {
+        throw new IllegalArgumentException("max in flight must be positive");
+      }
+      this.maxInFlight = maxInFlight;
+      return this;
+    }
+
+  }
+
+}
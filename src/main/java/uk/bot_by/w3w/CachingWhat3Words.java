@@ -0,0 +1,324 @@
+/*
+ * Copyright 2021,2022 Witalij Berdinskich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.w3w;
+
+import feign.FeignException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Caching decorator of {@link What3Words}.
+ * <p>
+ * The mapping between a <abbr class="tooltip">3wa<span class="tooltiptext">3 word
+ * address</span></abbr> and its coordinates is stable so results of
+ * {@link #convertToAddress(WordsRequest) convertToAddress} and
+ * {@link #convertToCoordinates(CoordinatesRequest) convertToCoordinates} are kept in a
+ * size-bounded cache for the configured time. The cache admits a new entry only if it is
+ * requested more often than the least recently used one, so a scan of rarely used addresses does
+ * not wash hot ones out.
+ * <p>
+ * Query-map and typed-request methods share the cache: a query map is converted to the request
+ * if it contains only known parameters ({@code coordinates} and {@code language} or
+ * {@code words}) and the API key {@code key}, otherwise the call goes to the delegate as is. The
+ * API key does not take part in the cache key. Errors are not cached, available languages are
+ * not cached.
+ * <pre><code class="language-java">
+ * What3Words api = CachingWhat3Words.builder()
+ *                      .delegate(feignApi)
+ *                      .maximumSize(10_000)
+ *                      .timeToLive(Duration.ofHours(12))
+ *                      .build();
+ * </code></pre>
+ *
+ * @since 1.2.0
+ */
+public class CachingWhat3Words implements What3Words {
+
+  private static final String COORDINATES = "coordinates";
+  private static final String KEY = "key";
+  private static final String LANGUAGE = "language";
+  private static final String WORDS = "words";
+
+  private final TinyLfuCache<Object, SquaredAddress> cache;
+  private final What3Words delegate;
+
+  private CachingWhat3Words(CachingWhat3WordsBuilder builder) {
+    cache = new TinyLfuCache<>(builder.maximumSize, builder.timeToLive.toNanos(),
+        builder.ticker);
+    delegate = builder.delegate;
+  }
+
+  /**
+   * Get a builder of the caching decorator.
+   *
+   * @return a builder
+   */
+  public static CachingWhat3WordsBuilder builder() {
+    return new CachingWhat3WordsBuilder();
+  }
+
+  @Override
+  public @NotNull Collection<Language> availableLanguages()
+      throws FeignException, What3WordsException {
+    return delegate.availableLanguages();
+  }
+
+  @Override
+  public @NotNull Collection<Language> availableLanguages(@NotNull String key)
+      throws FeignException, What3WordsException {
+    return delegate.availableLanguages(key);
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToAddress(Map<String, Object> queryParameters)
+      throws FeignException, What3WordsException {
+    return cached(toWordsRequest(queryParameters),
+        () -> delegate.convertToAddress(queryParameters));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToAddress(WordsRequest wordsRequest)
+      throws FeignException, What3WordsException {
+    return cached(wordsRequest, () -> delegate.convertToAddress(wordsRequest));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToAddress(@NotNull String key, WordsRequest wordsRequest)
+      throws FeignException, What3WordsException {
+    return cached(wordsRequest, () -> delegate.convertToAddress(key, wordsRequest));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToCoordinates(Map<String, Object> queryParameters)
+      throws FeignException, What3WordsException {
+    return cached(toCoordinatesRequest(queryParameters),
+        () -> delegate.convertToCoordinates(queryParameters));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToCoordinates(CoordinatesRequest coordinatesRequest)
+      throws FeignException, What3WordsException {
+    return cached(coordinatesRequest, () -> delegate.convertToCoordinates(coordinatesRequest));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToCoordinates(String key,
+      CoordinatesRequest coordinatesRequest) throws FeignException, What3WordsException {
+    return cached(coordinatesRequest,
+        () -> delegate.convertToCoordinates(key, coordinatesRequest));
+  }
+
+  /**
+   * Get a number of requests that were served by the cache.
+   *
+   * @return hit count
+   */
+  public long getHitCount() {
+    return cache.hitCount();
+  }
+
+  /**
+   * Get a number of requests that went to the delegate.
+   *
+   * @return miss count
+   */
+  public long getMissCount() {
+    return cache.missCount();
+  }
+
+  /**
+   * Get a number of entries that were evicted, expired or not admitted to the cache.
+   *
+   * @return eviction count
+   */
+  public long getEvictionCount() {
+    return cache.evictionCount();
+  }
+
+  /**
+   * Get a number of cached entries, expired entries could be counted until they are evicted.
+   *
+   * @return size
+   */
+  public int getSize() {
+    return cache.size();
+  }
+
+  private SquaredAddress cached(Object request, Supplier<SquaredAddress> call) {
+    if (null == request) {
+      return call.get();
+    }
+
+    SquaredAddress squaredAddress = cache.get(request);
+
+    if (null == squaredAddress) {
+      squaredAddress = call.get();
+      if (null != squaredAddress) {
+        cache.put(request, squaredAddress);
+      }
+    }
+
+    return squaredAddress;
+  }
+
+  private static boolean hasUnknownParameters(Map<String, Object> queryParameters,
+      String... knownParameters) {
+    int known = queryParameters.containsKey(KEY) ? 1 : 0;
+
+    for (String knownParameter : knownParameters) {
+      if (queryParameters.containsKey(knownParameter)) {
+        known++;
+      }
+    }
+
+    return queryParameters.size() != known;
+  }
+
+  /*
+   * Returns null if the query map could not be converted.
+   */
+  static CoordinatesRequest toCoordinatesRequest(Map<String, Object> queryParameters) {
+    Object words = queryParameters.get(WORDS);
+
+    if (null == words || hasUnknownParameters(queryParameters, WORDS)) {
+      return null;
+    }
+    try {
+      return CoordinatesRequest.builder().words(words.toString()).build();
+    } catch (IllegalArgumentException exception) {
+      return null;
+    }
+  }
+
+  /*
+   * Returns null if the query map could not be converted.
+   */
+  static WordsRequest toWordsRequest(Map<String, Object> queryParameters) {
+    Object coordinates = queryParameters.get(COORDINATES);
+    Object language = queryParameters.get(LANGUAGE);
+
+    if (null == coordinates || hasUnknownParameters(queryParameters, COORDINATES, LANGUAGE)) {
+      return null;
+    }
+
+    String value = coordinates.toString();
+    int comma = value.indexOf(',');
+
+    if (0 > comma) {
+      return null;
+    }
+    try {
+      WordsRequest.WordsRequestBuilder builder = WordsRequest.builder()
+          .coordinates(new BigDecimal(value.substring(0, comma).trim()),
+              new BigDecimal(value.substring(comma + 1).trim()));
+
+      if (null != language) {
+        builder.language(language.toString());
+      }
+
+      return builder.build();
+    } catch (IllegalArgumentException exception) {
+      // NumberFormatException is IllegalArgumentException too
+      return null;
+    }
+  }
+
+  /**
+   * Helper to build the caching decorator.
+   *
+   * @since 1.2.0
+   */
+  public static class CachingWhat3WordsBuilder {
+
+    private static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+    private static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofDays(1);
+
+    private What3Words delegate;
+    private int maximumSize = DEFAULT_MAXIMUM_SIZE;
+    private LongSupplier ticker = System::nanoTime;
+    private Duration timeToLive = DEFAULT_TIME_TO_LIVE;
+
+    private CachingWhat3WordsBuilder() {
+    }
+
+    /**
+     * Build the caching decorator.
+     *
+     * @return the caching decorator
+     * @throws NullPointerException if the delegate is null
+     */
+    public CachingWhat3Words build() throws NullPointerException {
+      Objects.requireNonNull(delegate, "delegate is null");
+      return new CachingWhat3Words(this);
+    }
+
+    /**
+     * Set the decorated API.
+     *
+     * @param delegate <em>what3words</em> API
+     * @return the builder
+     */
+    public CachingWhat3WordsBuilder delegate(@NotNull What3Words delegate) {
+      this.delegate = delegate;
+      return this;
+    }
+
+    /**
+     * Set maximum number of cached entries, default is 10000.
+     *
+     * @param maximumSize maximum number of entries
+     * @return the builder
+     * @throws IllegalArgumentException if the size is not positive
+     */
+    public CachingWhat3WordsBuilder maximumSize(int maximumSize)
+        throws IllegalArgumentException {
+      if (0 >= maximumSize) {
+        throw new IllegalArgumentException("maximum size must be positive");
+      }
+      this.maximumSize = maximumSize;
+      return this;
+    }
+
+    /**
+     * Set time to live of an entry, default is one day.
+     *
+     * @param timeToLive time to live
+     * @return the builder
+     * @throws IllegalArgumentException if the time is not positive
+     */
+    public CachingWhat3WordsBuilder timeToLive(@NotNull Duration timeToLive)
+        throws IllegalArgumentException {
+      if (timeToLive.isNegative() || timeToLive.isZero()) {
+        throw new IllegalArgumentException("time to live must be positive");
+      }
+      this.timeToLive = timeToLive;
+      return this;
+    }
+
+    CachingWhat3WordsBuilder ticker(LongSupplier ticker) {
+      this.ticker = ticker;
+      return this;
+    }
+
+  }
+
+}
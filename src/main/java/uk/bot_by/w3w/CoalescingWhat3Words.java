@@ -0,0 +1,213 @@
+/*
+ * Copyright 2021,2022 Witalij Berdinskich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.w3w;
+
+import feign.FeignException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Decorator of {@link What3Words} that coalesces equal requests in flight.
+ * <p>
+ * If a thread calls the API while another thread waits for the response to an equal request, it
+ * does not send its own request but waits for the same response and gets its result or its
+ * exception. Requests are equal if they have equal words, or equal coordinates and language, and
+ * the same API key. Query maps are compared as requests if they could be converted to them, see
+ * {@link CachingWhat3Words}.
+ * <p>
+ * The requests in flight are kept in a concurrent map, there is no global lock.
+ * <pre><code class="language-java">
+ * What3Words api = new CoalescingWhat3Words(feignApi);
+ * </code></pre>
+ *
+ * @since 1.2.0
+ */
+public class CoalescingWhat3Words implements What3Words {
+
+  private static final Object AVAILABLE_LANGUAGES = new Object();
+
+  private final LongAdder coalesced = new LongAdder();
+  private final What3Words delegate;
+  private final ConcurrentMap<Key, CompletableFuture<Object>> inFlight;
+
+  /**
+   * Create the decorator.
+   *
+   * @param delegate <em>what3words</em> API
+   */
+  public CoalescingWhat3Words(@NotNull What3Words delegate) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate is null");
+    inFlight = new ConcurrentHashMap<>();
+  }
+
+  @Override
+  public @NotNull Collection<Language> availableLanguages()
+      throws FeignException, What3WordsException {
+    return coalesce(new Key(AVAILABLE_LANGUAGES, null), delegate::availableLanguages);
+  }
+
+  @Override
+  public @NotNull Collection<Language> availableLanguages(@NotNull String key)
+      throws FeignException, What3WordsException {
+    return coalesce(new Key(AVAILABLE_LANGUAGES, key), () -> delegate.availableLanguages(key));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToAddress(Map<String, Object> queryParameters)
+      throws FeignException, What3WordsException {
+    return coalesce(key(CachingWhat3Words.toWordsRequest(queryParameters), queryParameters),
+        () -> delegate.convertToAddress(queryParameters));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToAddress(WordsRequest wordsRequest)
+      throws FeignException, What3WordsException {
+    return coalesce(new Key(wordsRequest, null), () -> delegate.convertToAddress(wordsRequest));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToAddress(@NotNull String key, WordsRequest wordsRequest)
+      throws FeignException, What3WordsException {
+    return coalesce(new Key(wordsRequest, key),
+        () -> delegate.convertToAddress(key, wordsRequest));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToCoordinates(Map<String, Object> queryParameters)
+      throws FeignException, What3WordsException {
+    return coalesce(key(CachingWhat3Words.toCoordinatesRequest(queryParameters), queryParameters),
+        () -> delegate.convertToCoordinates(queryParameters));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToCoordinates(CoordinatesRequest coordinatesRequest)
+      throws FeignException, What3WordsException {
+    return coalesce(new Key(coordinatesRequest, null),
+        () -> delegate.convertToCoordinates(coordinatesRequest));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToCoordinates(String key,
+      CoordinatesRequest coordinatesRequest) throws FeignException, What3WordsException {
+    return coalesce(new Key(coordinatesRequest, key),
+        () -> delegate.convertToCoordinates(key, coordinatesRequest));
+  }
+
+  /**
+   * Get a number of calls that did not send a request but got a response to an equal one.
+   *
+   * @return coalesced count
+   */
+  public long getCoalescedCount() {
+    return coalesced.sum();
+  }
+
+  /*
+   * Returns null if the query map could not be converted to a request.
+   */
+  private static Key key(Object request, Map<String, Object> queryParameters) {
+    if (null == request) {
+      return null;
+    }
+
+    Object apiKey = queryParameters.get("key");
+
+    return new Key(request, (null == apiKey) ? null : apiKey.toString());
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T coalesce(Key key, Supplier<T> call) {
+    if (null == key || null == key.request) {
+      return call.get();
+    }
+
+    CompletableFuture<Object> future = new CompletableFuture<>();
+    CompletableFuture<Object> leader = inFlight.putIfAbsent(key, future);
+
+    if (null != leader) {
+      coalesced.increment();
+      try {
+        return (T) leader.join();
+      } catch (CompletionException exception) {
+        Throwable cause = exception.getCause();
+
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+        throw exception;
+      }
+    }
+    try {
+      T result = call.get();
+
+      future.complete(result);
+      return result;
+    } catch (RuntimeException | Error exception) {
+      future.completeExceptionally(exception);
+      throw exception;
+    } finally {
+      inFlight.remove(key, future);
+    }
+  }
+
+  private static final class Key {
+
+    private final String apiKey;
+    private final Object request;
+
+    private Key(Object request, String apiKey) {
+      this.apiKey = apiKey;
+      this.request = request;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+
+      Key that = (Key) o;
+
+      if (!request.equals(that.request)) {
+        return false;
+      }
+      return Objects.equals(apiKey, that.apiKey);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = request.hashCode();
+      result = 31 * result + Objects.hashCode(apiKey);
+      return result;
+    }
+
+  }
+
+}
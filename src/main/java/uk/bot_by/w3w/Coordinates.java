@@ -29,6 +29,15 @@ import org.jetbrains.annotations.NotNull;
  */
 public interface Coordinates {
 
+  /**
+   * Multiplier of fixed-point coordinates.
+   *
+   * @see #getLatitudeE7()
+   * @see #getLongitudeE7()
+   * @since 1.2.0
+   */
+  double E7 = 1e7;
+
   /**
    * Get a builder to constraint coordinates.
    *
@@ -52,6 +61,46 @@ public interface Coordinates {
    */
   BigDecimal getLongitude();
 
+  /**
+   * Get latitude as a double value.
+   *
+   * @return latitude
+   * @since 1.2.0
+   */
+  default double getLatitudeAsDouble() {
+    return getLatitude().doubleValue();
+  }
+
+  /**
+   * Get longitude as a double value.
+   *
+   * @return longitude
+   * @since 1.2.0
+   */
+  default double getLongitudeAsDouble() {
+    return getLongitude().doubleValue();
+  }
+
+  /**
+   * Get latitude in units of 10<sup>-7</sup> degree, rounded to the nearest one.
+   *
+   * @return latitude multiplied by 10<sup>7</sup>
+   * @since 1.2.0
+   */
+  default long getLatitudeE7() {
+    return Math.round(getLatitudeAsDouble() * E7);
+  }
+
+  /**
+   * Get longitude in units of 10<sup>-7</sup> degree, rounded to the nearest one.
+   *
+   * @return longitude multiplied by 10<sup>7</sup>
+   * @since 1.2.0
+   */
+  default long getLongitudeE7() {
+    return Math.round(getLongitudeAsDouble() * E7);
+  }
+
   /**
    * Basic implementation of {@link Coordinates}.
    *
@@ -61,6 +110,7 @@ public interface Coordinates {
 
     private final BigDecimal latitude;
     private final BigDecimal longitude;
+    private String text;
 
     private BasicCoordinates(CoordinatesBuilder builder) {
       latitude = builder.latitude;
@@ -87,7 +137,15 @@ public interface Coordinates {
      */
     @Override
     public String toString() {
-      return new StringJoiner(",").add(latitude.toString()).add(longitude.toString()).toString();
+      String value = text;
+
+      if (null == value) {
+        // it is rendered for every request, a race only renders it twice
+        text = value = new StringJoiner(",").add(latitude.toString()).add(longitude.toString())
+            .toString();
+      }
+
+      return value;
     }
 
     @Override
@@ -116,6 +174,149 @@ public interface Coordinates {
 
   }
 
+  /**
+   * Implementation of {@link Coordinates} that keeps latitude and longitude as doubles.
+   * <p>
+   * The {@link BigDecimal} values are created on first call of {@link #getLatitude()} or
+   * {@link #getLongitude()}. They are the same as {@link BasicCoordinates} has: either
+   * {@link BigDecimal#valueOf(double)} of the double value or, if the coordinates were read from
+   * a text, the number with the scale of the text. So {@link #equals(Object) equals} and
+   * {@link #hashCode() hashCode} are consistent with {@link BasicCoordinates}.
+   *
+   * @since 1.2.0
+   */
+  class DoubleCoordinates implements Coordinates {
+
+    private static final int NO_SCALE = -1;
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8,
+        1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15};
+
+    private final double latitude;
+    private final int latitudeScale;
+    private final double longitude;
+    private final int longitudeScale;
+    private int hash;
+    private BigDecimal latitudeDecimal;
+    private BigDecimal longitudeDecimal;
+    private String text;
+
+    private DoubleCoordinates(double latitude, int latitudeScale, double longitude,
+        int longitudeScale) {
+      this.latitude = latitude;
+      this.latitudeScale = latitudeScale;
+      this.longitude = longitude;
+      this.longitudeScale = longitudeScale;
+    }
+
+    private static BigDecimal toDecimal(double value, int scale) {
+      if (NO_SCALE == scale) {
+        return BigDecimal.valueOf(value);
+      }
+      return BigDecimal.valueOf(Math.round(value * POWERS_OF_TEN[scale]), scale);
+    }
+
+    @Override
+    public BigDecimal getLatitude() {
+      BigDecimal decimal = latitudeDecimal;
+
+      if (null == decimal) {
+        latitudeDecimal = decimal = toDecimal(latitude, latitudeScale);
+      }
+
+      return decimal;
+    }
+
+    @Override
+    public BigDecimal getLongitude() {
+      BigDecimal decimal = longitudeDecimal;
+
+      if (null == decimal) {
+        longitudeDecimal = decimal = toDecimal(longitude, longitudeScale);
+      }
+
+      return decimal;
+    }
+
+    @Override
+    public double getLatitudeAsDouble() {
+      return latitude;
+    }
+
+    /*
+     * A number of fraction digits of the text it was read from, -1 if it was not read from a text.
+     */
+    int getLatitudeScale() {
+      return latitudeScale;
+    }
+
+    int getLongitudeScale() {
+      return longitudeScale;
+    }
+
+    @Override
+    public double getLongitudeAsDouble() {
+      return longitude;
+    }
+
+    /**
+     * Returns coordinates as comma-separated string of numbers with decimal point.
+     * <pre><code class="language-csv">
+     * 51.381051,-2.359591
+     * </code></pre>
+     *
+     * @return comma-separated string of latitude and longitude
+     */
+    @Override
+    public String toString() {
+      String value = text;
+
+      if (null == value) {
+        text = value = new StringJoiner(",").add(getLatitude().toString())
+            .add(getLongitude().toString()).toString();
+      }
+
+      return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o instanceof DoubleCoordinates) {
+        DoubleCoordinates that = (DoubleCoordinates) o;
+
+        if (latitudeScale == that.latitudeScale && longitudeScale == that.longitudeScale) {
+          return latitude == that.latitude && longitude == that.longitude;
+        }
+      }
+      if (!(o instanceof Coordinates)) {
+        return false;
+      }
+
+      Coordinates that = (Coordinates) o;
+
+      if (!getLatitude().equals(that.getLatitude())) {
+        return false;
+      }
+      return getLongitude().equals(that.getLongitude());
+    }
+
+    @Override
+    public int hashCode() {
+      int result = hash;
+
+      if (0 == result) {
+        result = getLatitude().hashCode();
+        result = 31 * result + getLongitude().hashCode();
+        hash = result;
+      }
+
+      return result;
+    }
+
+  }
+
   /**
    * Helper to constraint coordinates.
    *
@@ -127,9 +328,14 @@ public interface Coordinates {
     private static final BigDecimal LATITUDE_MINIMUM = BigDecimal.valueOf(-90);
     private static final BigDecimal LONGITUDE_MAXIMUM = BigDecimal.valueOf(180);
     private static final BigDecimal LONGITUDE_MINIMUM = BigDecimal.valueOf(-180);
+    private static final int MAXIMUM_SCALE = 15;
 
     private BigDecimal latitude;
+    private double latitudeValue = Double.NaN;
+    private int latitudeScale = DoubleCoordinates.NO_SCALE;
     private BigDecimal longitude;
+    private double longitudeValue = Double.NaN;
+    private int longitudeScale = DoubleCoordinates.NO_SCALE;
 
     private CoordinatesBuilder() {
     }
@@ -138,11 +344,26 @@ public interface Coordinates {
      * Get coordinates.
      * <p>
      * It checks that latitude and longitude are not null.
+     * <p>
+     * If both latitude and longitude are set as doubles it returns {@link DoubleCoordinates}.
      *
      * @return coordinates
      * @throws NullPointerException if latitude or longitude are null
      */
     public Coordinates build() throws NullPointerException {
+      boolean latitudeIsDouble = !Double.isNaN(latitudeValue);
+      boolean longitudeIsDouble = !Double.isNaN(longitudeValue);
+
+      if (latitudeIsDouble && longitudeIsDouble) {
+        return new DoubleCoordinates(latitudeValue, latitudeScale, longitudeValue,
+            longitudeScale);
+      }
+      if (latitudeIsDouble) {
+        latitude = DoubleCoordinates.toDecimal(latitudeValue, latitudeScale);
+      }
+      if (longitudeIsDouble) {
+        longitude = DoubleCoordinates.toDecimal(longitudeValue, longitudeScale);
+      }
       Objects.requireNonNull(latitude, "latitude is null");
       Objects.requireNonNull(longitude, "longitude is null");
       return new BasicCoordinates(this);
@@ -188,7 +409,21 @@ public interface Coordinates {
      * @throws IllegalArgumentException if latitude is out of range
      */
     public CoordinatesBuilder latitude(double latitude) throws IllegalArgumentException {
-      return latitude(BigDecimal.valueOf(latitude));
+      return latitude(latitude, DoubleCoordinates.NO_SCALE);
+    }
+
+    /*
+     * The scale is a number of fraction digits of a decimal text with up to 15 digits,
+     * the value is its nearest double.
+     */
+    CoordinatesBuilder latitude(double latitude, int scale) throws IllegalArgumentException {
+      if (isOutOfRange(latitude, 90)) {
+        throw new IllegalArgumentException("latitude must be in the range of -90 to 90");
+      }
+      this.latitude = null;
+      latitudeValue = latitude;
+      latitudeScale = (MAXIMUM_SCALE < scale) ? DoubleCoordinates.NO_SCALE : scale;
+      return this;
     }
 
     /**
@@ -206,6 +441,7 @@ public interface Coordinates {
         throw new IllegalArgumentException("latitude must be in the range of -90 to 90");
       }
       this.latitude = latitude;
+      latitudeValue = Double.NaN;
       return this;
     }
 
@@ -219,7 +455,21 @@ public interface Coordinates {
      * @throws IllegalArgumentException if longitude is out of range
      */
     public CoordinatesBuilder longitude(double longitude) throws IllegalArgumentException {
-      return longitude(BigDecimal.valueOf(longitude));
+      return longitude(longitude, DoubleCoordinates.NO_SCALE);
+    }
+
+    /*
+     * The scale is a number of fraction digits of a decimal text with up to 15 digits,
+     * the value is its nearest double.
+     */
+    CoordinatesBuilder longitude(double longitude, int scale) throws IllegalArgumentException {
+      if (isOutOfRange(longitude, 180)) {
+        throw new IllegalArgumentException("longitude must be in the range of -180 to 180");
+      }
+      this.longitude = null;
+      longitudeValue = longitude;
+      longitudeScale = (MAXIMUM_SCALE < scale) ? DoubleCoordinates.NO_SCALE : scale;
+      return this;
     }
 
     /**
@@ -238,9 +488,14 @@ public interface Coordinates {
         throw new IllegalArgumentException("longitude must be in the range of -180 to 180");
       }
       this.longitude = longitude;
+      longitudeValue = Double.NaN;
       return this;
     }
 
+    private static boolean isOutOfRange(double value, double limit) {
+      return !(-limit <= value && limit >= value);
+    }
+
   }
 
 }
@@ -16,6 +16,7 @@
 package uk.bot_by.w3w;
 
 import java.util.List;
+import java.util.Objects;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -50,6 +51,22 @@ public class CoordinatesRequest {
     return words;
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof CoordinatesRequest)) {
+      return false;
+    }
+    return Objects.equals(words, ((CoordinatesRequest) o).words);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(words);
+  }
+
   /**
    * Helper to constraint coordinates query parameters.
    *
@@ -0,0 +1,522 @@
+/*
+ * Copyright 2021,2022 Witalij Berdinskich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.w3w;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Request.HttpMethod;
+import feign.Response;
+import feign.RetryableException;
+import feign.Retryer;
+import feign.codec.DecodeException;
+import feign.codec.Decoder;
+import feign.codec.ErrorDecoder;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Implementation of {@link What3Words} on {@link HttpClient} without Feign's proxy.
+ * <p>
+ * Feign parses the annotations of the interface by reflection when the client is built and
+ * expands request templates on every call. This implementation has the request lines written by
+ * hand: URIs of endpoints are prepared when it is built, a query is appended to them as is.
+ * <p>
+ * Responses are handled as Feign does: a successful response is decoded by the decoder, other
+ * ones are passed to the error decoder and its exception is thrown, I/O errors are thrown as
+ * {@link RetryableException} and retried by the retryer. By default, they are
+ * {@link What3WordsDecoder}, {@link What3WordsErrorDecoder} and Feign's default retryer.
+ * Request interceptors are not supported, the API key is set by the builder.
+ * <pre><code class="language-java">
+ * What3Words api = HttpClientWhat3Words.builder()
+ *                                      .key("what3words-api-key")
+ *                                      .decoder(new What3WordsStreamingDecoder())
+ *                                      .errorDecoder(new What3WordsStreamingErrorDecoder())
+ *                                      .build();
+ * </code></pre>
+ *
+ * @since 1.2.0
+ */
+public class HttpClientWhat3Words implements What3Words {
+
+  private static final String API_KEY = "X-Api-Key";
+  private static final int OK = 200;
+  private static final int MULTIPLE_CHOICES = 300;
+  private static final Type LANGUAGES_TYPE;
+
+  static {
+    try {
+      LANGUAGES_TYPE = What3Words.class.getMethod("availableLanguages").getGenericReturnType();
+    } catch (NoSuchMethodException exception) {
+      throw new ExceptionInInitializerError(exception);
+    }
+  }
+
+  private final String convertToAddressUrl;
+  private final String convertToCoordinatesUrl;
+  private final Decoder decoder;
+  private final ErrorDecoder errorDecoder;
+  private final HttpClient httpClient;
+  private final String key;
+  private final URI languagesUri;
+  private final Duration readTimeout;
+  private final Retryer retryer;
+  private final String url;
+
+  private HttpClientWhat3Words(HttpClientWhat3WordsBuilder builder) {
+    url = builder.url.endsWith("/") ? builder.url.substring(0, builder.url.length() - 1)
+        : builder.url;
+    convertToAddressUrl = url + "/v3/convert-to-3wa?";
+    convertToCoordinatesUrl = url + "/v3/convert-to-coordinates?";
+    decoder = builder.decoder;
+    errorDecoder = builder.errorDecoder;
+    httpClient = (null == builder.httpClient) ? HttpClient.newBuilder()
+        .connectTimeout(builder.connectTimeout).followRedirects(HttpClient.Redirect.ALWAYS).build()
+        : builder.httpClient;
+    key = builder.key;
+    languagesUri = URI.create(url + "/v3/available-languages");
+    readTimeout = builder.readTimeout;
+    retryer = builder.retryer;
+  }
+
+  /**
+   * Get a builder of the implementation.
+   *
+   * @return the builder
+   */
+  public static HttpClientWhat3WordsBuilder builder() {
+    return new HttpClientWhat3WordsBuilder();
+  }
+
+  /*
+   * Characters that are not encoded by Feign in query values, most of values consist of them.
+   * A comma is encoded as %2C like Feign does.
+   */
+  private static boolean isSafe(char character) {
+    return ('a' <= character && 'z' >= character) || ('A' <= character && 'Z' >= character)
+        || ('0' <= character && '9' >= character) || '.' == character || '-' == character
+        || '_' == character || '~' == character;
+  }
+
+  private static void appendParameter(StringBuilder query, String name, Object value) {
+    if (null == value) {
+      return;
+    }
+    if (value instanceof Iterable) {
+      for (Object item : (Iterable<?>) value) {
+        appendParameter(query, name, item);
+      }
+      return;
+    }
+    if ('?' != query.charAt(query.length() - 1)) {
+      query.append('&');
+    }
+    appendEncoded(query, name);
+    query.append('=');
+    appendEncoded(query, value.toString());
+  }
+
+  private static void appendEncoded(StringBuilder query, String value) {
+    for (int i = 0; value.length() > i; i++) {
+      if (!isSafe(value.charAt(i))) {
+        query.append(URLEncoder.encode(value, UTF_8).replace("+", "%20"));
+        return;
+      }
+    }
+    query.append(value);
+  }
+
+  @Override
+  public @NotNull Collection<Language> availableLanguages()
+      throws FeignException, What3WordsException {
+    return call("What3Words#availableLanguages()", languagesUri, key, LANGUAGES_TYPE, null);
+  }
+
+  @Override
+  public @NotNull Collection<Language> availableLanguages(@NotNull String key)
+      throws FeignException, What3WordsException {
+    return call("What3Words#availableLanguages(String)", languagesUri, key, LANGUAGES_TYPE, null);
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToAddress(Map<String, Object> queryParameters)
+      throws FeignException, What3WordsException {
+    return call("What3Words#convertToAddress(Map)", uri(convertToAddressUrl, queryParameters),
+        queryKey(queryParameters), SquaredAddress.class, null);
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToAddress(WordsRequest wordsRequest)
+      throws FeignException, What3WordsException {
+    return call("What3Words#convertToAddress(WordsRequest)",
+        uri(convertToAddressUrl, wordsRequest), key, SquaredAddress.class, null);
+  }
+
+  /**
+   * Convert coordinates to a
+   * <abbr class="tooltip">3wa<span class="tooltiptext">3 word address</span></abbr> and decode
+   * only some properties of the squared address.
+   * <p>
+   * The projection is not sent to the API, it is applied by {@link What3WordsDecoder} and
+   * {@link What3WordsStreamingDecoder}: other properties are skipped and their getters throw
+   * {@link IllegalStateException}. Other decoders decode all properties.
+   *
+   * @param wordsRequest query parameters, coordinates are required and language is optional
+   * @param fields       properties of the squared address
+   * @return the squared address
+   * @throws FeignException           if a remote server is not available or returns unknown error
+   * @throws What3WordsException      if <em>what3words</em> API returns error
+   * @throws IllegalArgumentException if no properties are specified
+   */
+  public @NotNull SquaredAddress convertToAddress(WordsRequest wordsRequest,
+      @NotNull SquaredAddress.Field... fields)
+      throws FeignException, What3WordsException, IllegalArgumentException {
+    return call("What3Words#convertToAddress(WordsRequest)",
+        uri(convertToAddressUrl, wordsRequest), key, SquaredAddress.class, projection(fields));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToAddress(@NotNull String key, WordsRequest wordsRequest)
+      throws FeignException, What3WordsException {
+    return call("What3Words#convertToAddress(String,WordsRequest)",
+        uri(convertToAddressUrl, wordsRequest), key, SquaredAddress.class, null);
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToCoordinates(Map<String, Object> queryParameters)
+      throws FeignException, What3WordsException {
+    return call("What3Words#convertToCoordinates(Map)",
+        uri(convertToCoordinatesUrl, queryParameters), queryKey(queryParameters),
+        SquaredAddress.class, null);
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToCoordinates(CoordinatesRequest coordinatesRequest)
+      throws FeignException, What3WordsException {
+    return call("What3Words#convertToCoordinates(CoordinatesRequest)",
+        uri(convertToCoordinatesUrl, coordinatesRequest), key, SquaredAddress.class, null);
+  }
+
+  /**
+   * Convert a <abbr class="tooltip">3wa<span class="tooltiptext">3 word address</span></abbr> to
+   * coordinates and decode only some properties of the squared address.
+   *
+   * @param coordinatesRequest query parameters, words are required
+   * @param fields             properties of the squared address
+   * @return the squared address
+   * @throws FeignException           if a remote server is not available or returns unknown error
+   * @throws What3WordsException      if <em>what3words</em> API returns error
+   * @throws IllegalArgumentException if no properties are specified
+   * @see #convertToAddress(WordsRequest, SquaredAddress.Field...)
+   */
+  public @NotNull SquaredAddress convertToCoordinates(CoordinatesRequest coordinatesRequest,
+      @NotNull SquaredAddress.Field... fields)
+      throws FeignException, What3WordsException, IllegalArgumentException {
+    return call("What3Words#convertToCoordinates(CoordinatesRequest)",
+        uri(convertToCoordinatesUrl, coordinatesRequest), key, SquaredAddress.class,
+        projection(fields));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToCoordinates(String key,
+      CoordinatesRequest coordinatesRequest) throws FeignException, What3WordsException {
+    return call("What3Words#convertToCoordinates(String,CoordinatesRequest)",
+        uri(convertToCoordinatesUrl, coordinatesRequest), key, SquaredAddress.class, null);
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "{ url=" + url + " }";
+  }
+
+  /*
+   * Like the key interceptor, the key of the builder is not sent if the query has its own one.
+   */
+  private String queryKey(Map<String, Object> queryParameters) {
+    return (null == queryParameters || queryParameters.containsKey("key")) ? null : key;
+  }
+
+  private URI uri(String url, Map<String, Object> queryParameters) {
+    StringBuilder query = new StringBuilder(url);
+
+    if (null != queryParameters) {
+      queryParameters.forEach((name, value) -> appendParameter(query, name, value));
+    }
+
+    return URI.create(query.toString());
+  }
+
+  private URI uri(String url, WordsRequest wordsRequest) {
+    StringBuilder query = new StringBuilder(url.length() + 64).append(url);
+
+    if (null != wordsRequest) {
+      appendParameter(query, "coordinates", wordsRequest.getCoordinates());
+      appendParameter(query, "language", wordsRequest.getLanguage());
+    }
+
+    return URI.create(query.toString());
+  }
+
+  private URI uri(String url, CoordinatesRequest coordinatesRequest) {
+    StringBuilder query = new StringBuilder(url.length() + 64).append(url);
+
+    if (null != coordinatesRequest) {
+      appendParameter(query, "words", coordinatesRequest.getWords());
+    }
+
+    return URI.create(query.toString());
+  }
+
+  private static Set<SquaredAddress.Field> projection(SquaredAddress.Field... fields) {
+    if (0 == fields.length) {
+      throw new IllegalArgumentException("fields are empty");
+    }
+
+    Set<SquaredAddress.Field> projection = EnumSet.noneOf(SquaredAddress.Field.class);
+
+    Collections.addAll(projection, fields);
+
+    return projection;
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T call(String methodKey, URI uri, String key, Type type,
+      Set<SquaredAddress.Field> fields) {
+    HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(readTimeout)
+        .header("Accept", "application/json");
+
+    if (null != key) {
+      builder.header(API_KEY, key);
+    }
+
+    HttpRequest httpRequest = builder.GET().build();
+    Request request = Request.create(HttpMethod.GET, uri.toString(),
+        Collections.unmodifiableMap(httpRequest.headers().map()), null, UTF_8, null);
+    Retryer callRetryer = retryer.clone();
+
+    while (true) {
+      try {
+        return (T) execute(methodKey, httpRequest, request, type, fields);
+      } catch (RetryableException exception) {
+        callRetryer.continueOrPropagate(exception);
+      }
+    }
+  }
+
+  private Object execute(String methodKey, HttpRequest httpRequest, Request request, Type type,
+      Set<SquaredAddress.Field> fields) {
+    HttpResponse<byte[]> httpResponse;
+
+    try {
+      httpResponse = httpClient.send(httpRequest, BodyHandlers.ofByteArray());
+    } catch (IOException exception) {
+      throw retryable(request, exception);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw retryable(request, new IOException("interrupted", exception));
+    }
+
+    Response response = Response.builder().status(httpResponse.statusCode())
+        .headers(Collections.unmodifiableMap(httpResponse.headers().map()))
+        .body(httpResponse.body()).request(request).build();
+
+    if (OK > response.status() || MULTIPLE_CHOICES <= response.status()) {
+      Exception exception = errorDecoder.decode(methodKey, response);
+
+      if (exception instanceof RuntimeException) {
+        throw (RuntimeException) exception;
+      }
+      throw new DecodeException(response.status(), exception.getMessage(), request, exception);
+    }
+    try {
+      if (null != fields && decoder instanceof ProjectingDecoder) {
+        return ((ProjectingDecoder) decoder).decodeSquaredAddress(response, fields);
+      }
+      return decoder.decode(response, type);
+    } catch (FeignException exception) {
+      throw exception;
+    } catch (IOException exception) {
+      throw new DecodeException(response.status(),
+          String.format("%s reading GET %s", exception.getMessage(), request.url()), request,
+          exception);
+    } catch (RuntimeException exception) {
+      throw new DecodeException(response.status(), exception.getMessage(), request, exception);
+    }
+  }
+
+  private RetryableException retryable(Request request, IOException exception) {
+    return new RetryableException(-1,
+        String.format("%s executing GET %s", exception.getMessage(), request.url()),
+        HttpMethod.GET, exception, null, request);
+  }
+
+  /**
+   * Builder of {@link HttpClientWhat3Words}.
+   *
+   * @since 1.2.0
+   */
+  public static class HttpClientWhat3WordsBuilder {
+
+    private Duration connectTimeout = Duration.ofSeconds(10);
+    private Decoder decoder = new What3WordsDecoder();
+    private ErrorDecoder errorDecoder = new What3WordsErrorDecoder();
+    private HttpClient httpClient;
+    private String key;
+    private Duration readTimeout = Duration.ofSeconds(60);
+    private Retryer retryer = new Retryer.Default();
+    private String url = W3W_API;
+
+    private HttpClientWhat3WordsBuilder() {
+    }
+
+    /**
+     * Build the implementation.
+     *
+     * @return the implementation
+     */
+    public HttpClientWhat3Words build() {
+      return new HttpClientWhat3Words(this);
+    }
+
+    /**
+     * Set the connect timeout of the default HTTP client, default is 10 seconds.
+     * <p>
+     * It is ignored if the HTTP client is set.
+     *
+     * @param connectTimeout the timeout
+     * @return the builder
+     * @throws IllegalArgumentException if the timeout is not positive
+     */
+    public HttpClientWhat3WordsBuilder connectTimeout(@NotNull Duration connectTimeout)
+        throws IllegalArgumentException {
+      if (Objects.requireNonNull(connectTimeout, "connect timeout is null").isNegative()
+          || connectTimeout.isZero()) {
+        throw new IllegalArgumentException("connect timeout must be positive");
+      }
+      this.connectTimeout = connectTimeout;
+      return this;
+    }
+
+    /**
+     * Set the decoder of successful responses, default is {@link What3WordsDecoder}.
+     *
+     * @param decoder the decoder
+     * @return the builder
+     */
+    public HttpClientWhat3WordsBuilder decoder(@NotNull Decoder decoder) {
+      this.decoder = Objects.requireNonNull(decoder, "decoder is null");
+      return this;
+    }
+
+    /**
+     * Set the decoder of error responses, default is {@link What3WordsErrorDecoder}.
+     *
+     * @param errorDecoder the error decoder
+     * @return the builder
+     */
+    public HttpClientWhat3WordsBuilder errorDecoder(@NotNull ErrorDecoder errorDecoder) {
+      this.errorDecoder = Objects.requireNonNull(errorDecoder, "error decoder is null");
+      return this;
+    }
+
+    /**
+     * Set the HTTP client, by default a client with the connect timeout that follows redirects
+     * is created.
+     *
+     * @param httpClient the HTTP client
+     * @return the builder
+     */
+    public HttpClientWhat3WordsBuilder httpClient(@NotNull HttpClient httpClient) {
+      this.httpClient = Objects.requireNonNull(httpClient, "http client is null");
+      return this;
+    }
+
+    /**
+     * Set the API key that is sent as the header {@code X-Api-Key}.
+     * <p>
+     * Methods with the key parameter send their own key. A query map with the parameter
+     * {@code key} is sent without the header.
+     *
+     * @param key API key, {@code null} to send requests without it
+     * @return the builder
+     */
+    public HttpClientWhat3WordsBuilder key(@Nullable String key) {
+      this.key = key;
+      return this;
+    }
+
+    /**
+     * Set the timeout of a response, default is 60 seconds.
+     *
+     * @param readTimeout the timeout
+     * @return the builder
+     * @throws IllegalArgumentException if the timeout is not positive
+     */
+    public HttpClientWhat3WordsBuilder readTimeout(@NotNull Duration readTimeout)
+        throws IllegalArgumentException {
+      if (Objects.requireNonNull(readTimeout, "read timeout is null").isNegative()
+          || readTimeout.isZero()) {
+        throw new IllegalArgumentException("read timeout must be positive");
+      }
+      this.readTimeout = readTimeout;
+      return this;
+    }
+
+    /**
+     * Set the retryer of I/O errors, default is Feign's {@link Retryer.Default}.
+     *
+     * @param retryer the retryer, {@link Retryer#NEVER_RETRY} to disable retries
+     * @return the builder
+     */
+    public HttpClientWhat3WordsBuilder retryer(@NotNull Retryer retryer) {
+      this.retryer = Objects.requireNonNull(retryer, "retryer is null");
+      return this;
+    }
+
+    /**
+     * Set the base URL of the API, default is {@link What3Words#W3W_API}.
+     *
+     * @param url the base URL
+     * @return the builder
+     * @throws IllegalArgumentException if the URL is not absolute
+     */
+    public HttpClientWhat3WordsBuilder url(@NotNull String url) throws IllegalArgumentException {
+      if (!URI.create(Objects.requireNonNull(url, "url is null")).isAbsolute()) {
+        throw new IllegalArgumentException("url is not absolute");
+      }
+      this.url = url;
+      return this;
+    }
+
+  }
+
+}
@@ -0,0 +1,473 @@
+/*
+ * Copyright 2021,2022 Witalij Berdinskich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.w3w;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import org.json.JSONException;
+
+/**
+ * Pull parser of JSON that works on UTF-8 bytes.
+ * <p>
+ * Property names are compared as bytes and strings are materialized only when a value is
+ * requested. Read errors are reported as {@link JSONException} like <em>org.json</em> does.
+ */
+final class JsonReader {
+
+  private static final int BUFFER_SIZE = 4096;
+  private static final int MAX_DOUBLE_DIGITS = 15;
+  private static final int MAX_LONG_DIGITS = 18;
+  private static final int MAX_POOLED_BUFFER_SIZE = 65536;
+  private static final ThreadLocal<byte[]> BUFFERS = ThreadLocal.withInitial(
+      () -> new byte[BUFFER_SIZE]);
+  private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8,
+      1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15};
+
+  private final byte[] buffer;
+  private final int limit;
+  private int digits;
+  private boolean exponent;
+  private int nameEnd;
+  private int nameStart;
+  private boolean negative;
+  private int numberStart;
+  private int position;
+  private int scale;
+  private long unscaled;
+
+  JsonReader(byte[] buffer, int offset, int length) {
+    this.buffer = buffer;
+    this.limit = offset + length;
+    this.position = offset;
+  }
+
+  /**
+   * Read a stream to a buffer of the current thread.
+   * <p>
+   * The buffer is reused by the next call on the same thread so values must be materialized
+   * before that.
+   *
+   * @param stream a stream
+   * @return a reader
+   * @throws IOException if the stream could not be read
+   */
+  static JsonReader pooled(InputStream stream) throws IOException {
+    byte[] buffer = BUFFERS.get();
+    int length = 0;
+
+    for (int count; -1 != (count = stream.read(buffer, length, buffer.length - length)); ) {
+      length += count;
+      if (buffer.length == length) {
+        buffer = Arrays.copyOf(buffer, buffer.length << 1);
+        if (MAX_POOLED_BUFFER_SIZE >= buffer.length) {
+          BUFFERS.set(buffer);
+        }
+      }
+    }
+
+    return new JsonReader(buffer, 0, length);
+  }
+
+  static byte[] name(String name) {
+    return name.getBytes(US_ASCII);
+  }
+
+  /**
+   * Consume the beginning of an array.
+   */
+  void beginArray() {
+    if ('[' != nextClean()) {
+      throw syntaxError("A JSONArray text must start with '['");
+    }
+  }
+
+  /**
+   * Consume the beginning of an object.
+   */
+  void beginObject() {
+    if ('{' != nextClean()) {
+      throw syntaxError("A JSONObject text must begin with '{'");
+    }
+  }
+
+  /**
+   * Check if there is the next element of an array, it consumes the end of the array.
+   *
+   * @return {@code true} if the array has the next element
+   */
+  boolean hasNextElement() {
+    int next = nextClean();
+
+    if (',' == next) {
+      next = nextClean();
+    }
+    if (']' == next) {
+      return false;
+    }
+    position--;
+
+    return true;
+  }
+
+  /**
+   * Compare a name of the current property.
+   *
+   * @param name expected name as ASCII bytes
+   * @return {@code true} if names are equal
+   */
+  boolean isName(byte[] name) {
+    return Arrays.equals(buffer, nameStart, nameEnd, name, 0, name.length);
+  }
+
+  /**
+   * Read a number.
+   *
+   * @return a number with the same scale as the text has
+   */
+  BigDecimal nextDecimal() {
+    readNumber();
+    if (exponent || MAX_LONG_DIGITS < digits) {
+      return bigDecimal(numberStart);
+    }
+
+    return BigDecimal.valueOf(negative ? -unscaled : unscaled, scale);
+  }
+
+  /**
+   * Consume {@code null} if it is the next value.
+   *
+   * @return {@code true} if the next value is {@code null}
+   */
+  boolean nextNull() {
+    skipWhitespace();
+    if (limit >= position + 4 && 'n' == buffer[position] && 'u' == buffer[position + 1]
+        && 'l' == buffer[position + 2] && 'l' == buffer[position + 3]) {
+      position += 4;
+      return true;
+    }
+
+    return false;
+  }
+
+  /**
+   * Read a number with up to 15 digits and without exponent as the nearest double.
+   * <p>
+   * If the number does not fit it returns {@link Double#NaN} and stays before the number, use
+   * {@link #nextDecimal()} then.
+   *
+   * @return a number or {@link Double#NaN}
+   * @see #scale()
+   */
+  double nextShortDouble() {
+    readNumber();
+    if (exponent || MAX_DOUBLE_DIGITS < digits) {
+      position = numberStart;
+      return Double.NaN;
+    }
+
+    // both are exact so the quotient is correctly rounded
+    double value = unscaled / POWERS_OF_TEN[scale];
+
+    return negative ? -value : value;
+  }
+
+  /**
+   * Move to the next property of the current object, it consumes the end of the object.
+   *
+   * @return {@code false} if there are no more properties
+   */
+  boolean nextName() {
+    int next = nextClean();
+
+    if (',' == next) {
+      next = nextClean();
+    }
+    if ('}' == next) {
+      return false;
+    }
+    if ('"' != next) {
+      throw syntaxError("Expected a ',' or '}'");
+    }
+    nameStart = position;
+    nameEnd = skipString();
+    if (':' != nextClean()) {
+      throw syntaxError("Expected a ':' after a key");
+    }
+
+    return true;
+  }
+
+  /**
+   * Read a string.
+   *
+   * @return a string
+   */
+  String nextString() {
+    if ('"' != nextClean()) {
+      throw syntaxError("Expected a string");
+    }
+
+    int start = position;
+
+    for (; position < limit; position++) {
+      byte current = buffer[position];
+
+      if ('"' == current) {
+        return new String(buffer, start, position++ - start, UTF_8);
+      }
+      if ('\\' == current) {
+        return unescapeString(start);
+      }
+    }
+
+    throw syntaxError("Unterminated string");
+  }
+
+  /**
+   * Get the current position in the buffer, it is the start of the next value after
+   * {@link #nextName()}.
+   *
+   * @return a position
+   */
+  int position() {
+    return skipWhitespace();
+  }
+
+  /**
+   * Get a number of fraction digits of the last number.
+   *
+   * @return a scale
+   */
+  int scale() {
+    return scale;
+  }
+
+  /**
+   * Skip a value of any type.
+   */
+  void skipValue() {
+    int next = nextClean();
+
+    switch (next) {
+      case '"':
+        skipString();
+        break;
+      case '{':
+        while (nextName()) {
+          skipValue();
+        }
+        break;
+      case '[':
+        while (hasNextElement()) {
+          skipValue();
+        }
+        break;
+      default:
+        int start = --position;
+
+        while (position < limit && isLetter(buffer[position])) {
+          position++;
+        }
+        skipNumber();
+        if (start == position) {
+          throw syntaxError("Unexpected value");
+        }
+    }
+  }
+
+  JSONException syntaxError(String message) {
+    return new JSONException(message + " at " + position);
+  }
+
+  private BigDecimal bigDecimal(int start) {
+    try {
+      return new BigDecimal(new String(buffer, start, position - start, US_ASCII));
+    } catch (NumberFormatException exception) {
+      throw new JSONException("Bad number at " + start, exception);
+    }
+  }
+
+  private static boolean isDigit(byte value) {
+    return '0' <= value && '9' >= value;
+  }
+
+  private static boolean isLetter(byte value) {
+    return 'a' <= value && 'z' >= value;
+  }
+
+  private int nextClean() {
+    skipWhitespace();
+    if (position == limit) {
+      throw syntaxError("Unexpected end of input");
+    }
+    return buffer[position++];
+  }
+
+  private void readNumber() {
+    numberStart = skipWhitespace();
+    negative = false;
+    exponent = false;
+    digits = 0;
+    scale = 0;
+    unscaled = 0;
+
+    if (position < limit && '-' == buffer[position]) {
+      negative = true;
+      position++;
+    }
+    for (; position < limit && isDigit(buffer[position]); position++) {
+      unscaled = unscaled * 10 + buffer[position] - '0';
+      digits++;
+    }
+    if (0 == digits) {
+      throw syntaxError("Expected a number");
+    }
+    if (position < limit && '.' == buffer[position]) {
+      for (position++; position < limit && isDigit(buffer[position]); position++) {
+        unscaled = unscaled * 10 + buffer[position] - '0';
+        digits++;
+        scale++;
+      }
+    }
+    if (position < limit && ('e' == buffer[position] || 'E' == buffer[position])) {
+      exponent = true;
+      skipNumber();
+    }
+  }
+
+  private void skipNumber() {
+    while (position < limit) {
+      byte current = buffer[position];
+
+      if (isDigit(current) || '-' == current || '+' == current || '.' == current
+          || 'e' == current || 'E' == current) {
+        position++;
+      } else {
+        break;
+      }
+    }
+  }
+
+  /*
+   * Skips a string, the opening quote is already consumed.
+   * Returns the position of the closing quote.
+   */
+  private int skipString() {
+    for (; position < limit; position++) {
+      byte current = buffer[position];
+
+      if ('"' == current) {
+        return position++;
+      }
+      if ('\\' == current) {
+        position++;
+      }
+    }
+
+    throw syntaxError("Unterminated string");
+  }
+
+  private int skipWhitespace() {
+    while (position < limit) {
+      byte current = buffer[position];
+
+      if (' ' == current || '\n' == current || '\r' == current || '\t' == current) {
+        position++;
+      } else {
+        break;
+      }
+    }
+
+    return position;
+  }
+
+  private String unescapeString(int start) {
+    StringBuilder builder = new StringBuilder(position - start + 16);
+    int segment = start;
+
+    while (position < limit) {
+      byte current = buffer[position];
+
+      if ('"' == current) {
+        builder.append(new String(buffer, segment, position++ - segment, UTF_8));
+        return builder.toString();
+      }
+      if ('\\' != current) {
+        position++;
+        continue;
+      }
+      builder.append(new String(buffer, segment, position - segment, UTF_8));
+      if (limit <= ++position) {
+        break;
+      }
+      switch (buffer[position++]) {
+        case 'b':
+          builder.append('\b');
+          break;
+        case 'f':
+          builder.append('\f');
+          break;
+        case 'n':
+          builder.append('\n');
+          break;
+        case 'r':
+          builder.append('\r');
+          break;
+        case 't':
+          builder.append('\t');
+          break;
+        case 'u':
+          builder.append(unicode());
+          break;
+        case '"':
+        case '\\':
+        case '/':
+          builder.append((char) buffer[position - 1]);
+          break;
+        default:
+          throw syntaxError("Illegal escape");
+      }
+      segment = position;
+    }
+
+    throw syntaxError("Unterminated string");
+  }
+
+  private char unicode() {
+    if (limit < position + 4) {
+      throw syntaxError("Illegal escape");
+    }
+
+    int value = 0;
+
+    for (int i = 0; 4 > i; i++) {
+      int digit = Character.digit(buffer[position++], 16);
+
+      if (0 > digit) {
+        throw syntaxError("Illegal escape");
+      }
+      value = (value << 4) | digit;
+    }
+
+    return (char) value;
+  }
+
+}
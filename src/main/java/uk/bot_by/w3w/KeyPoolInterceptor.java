@@ -0,0 +1,405 @@
+/*
+ * Copyright 2021,2022 Witalij Berdinskich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.w3w;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import feign.codec.ErrorDecoder;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The key pool interceptor spreads requests across several <em>what3words</em> API keys.
+ * <p>
+ * Like {@link KeyInterceptor} it adds the HTTP header {@code X-Api-Key} to each request if the
+ * {@linkplain RequestTemplate request template} does not contain the header {@code X-Api-Key} or
+ * request parameter {@code key}. The key is chosen by {@linkplain Rotation#ROUND_ROBIN
+ * round-robin} or as the {@linkplain Rotation#LEAST_USED least used} one.
+ * <p>
+ * Wrap the error decoder to report failed keys: a key is sidelined for a while if the API responds
+ * with the status {@code 401} (invalid key), {@code 402} (quota is exhausted) or {@code 429} (too
+ * many requests). Sidelined keys are skipped, if all keys are sidelined the one that is released
+ * first is used.
+ * <p>
+ * Keys are chosen without locks, call counts and sideline times are kept in atomic arrays.
+ * <pre><code class="language-java">
+ * KeyPoolInterceptor keyPool = KeyPoolInterceptor.builder()
+ *                                                .key("first-key")
+ *                                                .key("second-key")
+ *                                                .rotation(KeyPoolInterceptor.Rotation.LEAST_USED)
+ *                                                .build();
+ *
+ * api = Feign.builder()
+ *            .client(new Http2Client())
+ *            .decoder(new What3WordsDecoder())
+ *            .errorDecoder(keyPool.errorDecoder(new What3WordsErrorDecoder()))
+ *            .requestInterceptor(keyPool)
+ *            .target(What3Words.class, What3Words.W3W_API);
+ * </code></pre>
+ *
+ * @since 1.2.0
+ */
+public class KeyPoolInterceptor implements RequestInterceptor {
+
+  private static final String API_KEY = "X-Api-Key";
+  private static final int INVALID_KEY = 401;
+  private static final int QUOTA_EXCEEDED = 402;
+  private static final int TOO_MANY_REQUESTS = 429;
+
+  private final AtomicLongArray calls;
+  private final AtomicInteger counter = new AtomicInteger();
+  private final long exhaustedTime;
+  private final AtomicLongArray failures;
+  private final Map<String, Integer> indexes;
+  private final long invalidTime;
+  private final String[] keys;
+  private final Rotation rotation;
+  private final AtomicLongArray sidelinedUntil;
+  private final long throttledTime;
+  private final LongSupplier ticker;
+
+  private KeyPoolInterceptor(KeyPoolInterceptorBuilder builder) {
+    keys = builder.keys.toArray(new String[0]);
+    calls = new AtomicLongArray(keys.length);
+    exhaustedTime = builder.exhaustedTime.toNanos();
+    failures = new AtomicLongArray(keys.length);
+    indexes = new HashMap<>();
+    invalidTime = builder.invalidTime.toNanos();
+    rotation = builder.rotation;
+    sidelinedUntil = new AtomicLongArray(keys.length);
+    throttledTime = builder.throttledTime.toNanos();
+    ticker = builder.ticker;
+
+    long now = ticker.getAsLong();
+
+    for (int i = 0; keys.length > i; i++) {
+      indexes.put(keys[i], i);
+      sidelinedUntil.set(i, now);
+    }
+  }
+
+  /**
+   * Get a builder of the key pool interceptor.
+   *
+   * @return a builder
+   */
+  public static KeyPoolInterceptorBuilder builder() {
+    return new KeyPoolInterceptorBuilder();
+  }
+
+  /**
+   * Add one of <em>what3words</em> API keys to a request template.
+   * <p>
+   * If a request template has the header {@code X-Api-Key} or query parameter {@code key} it does
+   * nothing.
+   *
+   * @param template a request template
+   */
+  @Override
+  public void apply(RequestTemplate template) {
+    if (!(template.headers().containsKey(API_KEY) || template.queries().containsKey("key"))) {
+      int index = nextKey();
+
+      calls.incrementAndGet(index);
+      template.header(API_KEY, keys[index]);
+    }
+  }
+
+  /**
+   * Wrap an error decoder to report keys of responses with the statuses {@code 401}, {@code 402}
+   * and {@code 429}.
+   *
+   * @param errorDecoder an error decoder
+   * @return the wrapped error decoder
+   */
+  public ErrorDecoder errorDecoder(@NotNull ErrorDecoder errorDecoder) {
+    Objects.requireNonNull(errorDecoder, "error decoder is null");
+    return (methodKey, response) -> {
+      Collection<String> values = response.request().headers().get(API_KEY);
+
+      if (null != values && !values.isEmpty()) {
+        report(values.iterator().next(), response.status());
+      }
+      return errorDecoder.decode(methodKey, response);
+    };
+  }
+
+  /**
+   * Get a number of requests with the key.
+   *
+   * @param key API key
+   * @return call count or zero if the key is not in the pool
+   */
+  public long getCallCount(@NotNull String key) {
+    Integer index = indexes.get(key);
+
+    return (null == index) ? 0 : calls.get(index);
+  }
+
+  /**
+   * Get a number of responses with the statuses {@code 401}, {@code 402} and {@code 429} to
+   * requests with the key.
+   *
+   * @param key API key
+   * @return failure count or zero if the key is not in the pool
+   */
+  public long getFailureCount(@NotNull String key) {
+    Integer index = indexes.get(key);
+
+    return (null == index) ? 0 : failures.get(index);
+  }
+
+  /**
+   * Check if the key is sidelined now.
+   *
+   * @param key API key
+   * @return {@code true} if the key is sidelined
+   */
+  public boolean isSidelined(@NotNull String key) {
+    Integer index = indexes.get(key);
+
+    return null != index && 0 < sidelinedUntil.get(index) - ticker.getAsLong();
+  }
+
+  /**
+   * Report a status of a response to a request with the key. The statuses {@code 401},
+   * {@code 402} and {@code 429} sideline the key, others are ignored.
+   *
+   * @param key    API key
+   * @param status HTTP status
+   */
+  public void report(@NotNull String key, int status) {
+    Integer index = indexes.get(key);
+    long sidelineTime;
+
+    switch (status) {
+      case INVALID_KEY:
+        sidelineTime = invalidTime;
+        break;
+      case QUOTA_EXCEEDED:
+        sidelineTime = exhaustedTime;
+        break;
+      case TOO_MANY_REQUESTS:
+        sidelineTime = throttledTime;
+        break;
+      default:
+        return;
+    }
+    if (null == index) {
+      return;
+    }
+    failures.incrementAndGet(index);
+
+    long until = ticker.getAsLong() + sidelineTime;
+    long current;
+
+    do {
+      current = sidelinedUntil.get(index);
+    } while (0 < until - current && !sidelinedUntil.compareAndSet(index, current, until));
+  }
+
+  @Override
+  public String toString() {
+    List<Integer> hashes = new ArrayList<>(keys.length);
+
+    for (String key : keys) {
+      hashes.add(key.hashCode());
+    }
+
+    return getClass().getSimpleName() + "{ key hashes=" + hashes + ", rotation=" + rotation
+        + " }";
+  }
+
+  /*
+   * Available keys are preferred, if there are none the key that is released first is chosen.
+   */
+  private int nextKey() {
+    long now = ticker.getAsLong();
+    int start = (Rotation.ROUND_ROBIN == rotation)
+        ? Math.floorMod(counter.getAndIncrement(), keys.length) : 0;
+    int chosen = -1;
+    int soonest = start;
+
+    for (int i = 0; keys.length > i; i++) {
+      int index = (start + i) % keys.length;
+      long until = sidelinedUntil.get(index);
+
+      if (0 < until - now) {
+        if (0 > until - sidelinedUntil.get(soonest)) {
+          soonest = index;
+        }
+      } else if (Rotation.ROUND_ROBIN == rotation) {
+        return index;
+      } else if (0 > chosen || calls.get(index) < calls.get(chosen)) {
+        chosen = index;
+      }
+    }
+
+    return (0 > chosen) ? soonest : chosen;
+  }
+
+  /**
+   * How to choose a key.
+   *
+   * @since 1.2.0
+   */
+  public enum Rotation {
+
+    /**
+     * Keys are used one by one.
+     */
+    ROUND_ROBIN,
+    /**
+     * The key with the least number of calls is used.
+     */
+    LEAST_USED
+
+  }
+
+  /**
+   * Helper to build the key pool interceptor.
+   *
+   * @since 1.2.0
+   */
+  public static class KeyPoolInterceptorBuilder {
+
+    private static final Duration DEFAULT_EXHAUSTED_TIME = Duration.ofHours(1);
+    private static final Duration DEFAULT_INVALID_TIME = Duration.ofDays(1);
+    private static final Duration DEFAULT_THROTTLED_TIME = Duration.ofMinutes(1);
+
+    private final List<String> keys = new ArrayList<>();
+
+    private Duration exhaustedTime = DEFAULT_EXHAUSTED_TIME;
+    private Duration invalidTime = DEFAULT_INVALID_TIME;
+    private Rotation rotation = Rotation.ROUND_ROBIN;
+    private Duration throttledTime = DEFAULT_THROTTLED_TIME;
+    private LongSupplier ticker = System::nanoTime;
+
+    private KeyPoolInterceptorBuilder() {
+    }
+
+    /**
+     * Build the key pool interceptor.
+     *
+     * @return the key pool interceptor
+     * @throws IllegalArgumentException if there are no keys
+     */
+    public KeyPoolInterceptor build() throws IllegalArgumentException {
+      if (keys.isEmpty()) {
+        throw new IllegalArgumentException("there are no keys");
+      }
+      return new KeyPoolInterceptor(this);
+    }
+
+    /**
+     * Set how long a key is sidelined after the status {@code 402}, default is one hour.
+     *
+     * @param exhaustedTime sideline time
+     * @return the builder
+     * @throws IllegalArgumentException if the time is negative
+     */
+    public KeyPoolInterceptorBuilder exhaustedTime(@NotNull Duration exhaustedTime)
+        throws IllegalArgumentException {
+      this.exhaustedTime = sidelineTime(exhaustedTime);
+      return this;
+    }
+
+    /**
+     * Set how long a key is sidelined after the status {@code 401}, default is one day.
+     *
+     * @param invalidTime sideline time
+     * @return the builder
+     * @throws IllegalArgumentException if the time is negative
+     */
+    public KeyPoolInterceptorBuilder invalidTime(@NotNull Duration invalidTime)
+        throws IllegalArgumentException {
+      this.invalidTime = sidelineTime(invalidTime);
+      return this;
+    }
+
+    /**
+     * Add API key to the pool, duplicates are ignored.
+     *
+     * @param key API key
+     * @return the builder
+     */
+    public KeyPoolInterceptorBuilder key(@NotNull String key) {
+      Objects.requireNonNull(key, "key is null");
+      if (!keys.contains(key)) {
+        keys.add(key);
+      }
+      return this;
+    }
+
+    /**
+     * Add API keys to the pool, duplicates are ignored.
+     *
+     * @param keys API keys
+     * @return the builder
+     */
+    public KeyPoolInterceptorBuilder keys(@NotNull Collection<String> keys) {
+      keys.forEach(this::key);
+      return this;
+    }
+
+    /**
+     * Set how to choose a key, default is {@link Rotation#ROUND_ROBIN}.
+     *
+     * @param rotation the rotation
+     * @return the builder
+     */
+    public KeyPoolInterceptorBuilder rotation(@NotNull Rotation rotation) {
+      this.rotation = Objects.requireNonNull(rotation, "rotation is null");
+      return this;
+    }
+
+    /**
+     * Set how long a key is sidelined after the status {@code 429}, default is one minute.
+     *
+     * @param throttledTime sideline time
+     * @return the builder
+     * @throws IllegalArgumentException if the time is negative
+     */
+    public KeyPoolInterceptorBuilder throttledTime(@NotNull Duration throttledTime)
+        throws IllegalArgumentException {
+      this.throttledTime = sidelineTime(throttledTime);
+      return this;
+    }
+
+    KeyPoolInterceptorBuilder ticker(LongSupplier ticker) {
+      this.ticker = ticker;
+      return this;
+    }
+
+    private static Duration sidelineTime(Duration sidelineTime) {
+      if (sidelineTime.isNegative()) {
+        throw new IllegalArgumentException("sideline time is negative");
+      }
+      return sidelineTime;
+    }
+
+  }
+
+}
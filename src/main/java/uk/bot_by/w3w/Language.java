@@ -110,9 +110,12 @@ public interface Language {
       return code.equals(((Language) another).getCode());
     }
 
+    /*
+     * The same value as Objects.hash(code) has, without an array of arguments.
+     */
     @Override
     public int hashCode() {
-      return Objects.hash(code);
+      return 31 + code.hashCode();
     }
 
   }
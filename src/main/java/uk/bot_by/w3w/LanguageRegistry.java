@@ -0,0 +1,317 @@
+/*
+ * Copyright 2021,2022 Witalij Berdinskich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.w3w;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Canonical languages with dense ids.
+ * <p>
+ * A registry hands out one instance of every language, {@link RegisteredLanguage}, and numbers
+ * languages from zero so that data of a language could be kept in an array by its id. Registered
+ * languages are equal to other languages with the same code.
+ * <p>
+ * {@linkplain #bundled() The bundled registry} has the codes of <em>what3words</em> API
+ * languages, its languages do not have names. Its ids are stable, new codes are appended only,
+ * so they could be stored: {@link SquaredAddressCodec} writes them. The decoders return its
+ * instances. A registry of {@linkplain #of(Collection) the available languages} has their names,
+ * its ids are indexes of codes in alphabetical order.
+ * <pre><code class="language-java">
+ * LanguageRegistry registry = LanguageRegistry.of(api.availableLanguages());
+ *
+ * api.convertToAddress(WordsRequest.builder()
+ *                                  .coordinates(51.381051, -2.359591)
+ *                                  .language(registry.language(userLanguage))
+ *                                  .build());
+ * </code></pre>
+ *
+ * @since 1.2.0
+ */
+public final class LanguageRegistry {
+
+  /*
+   * Codes of the API languages in order of their ids. New codes are appended only.
+   */
+  private static final String BUNDLED_CODES = "afamarbgbnbscacscydadeeleneseteufafifrgagl"
+      + "guhehihrhuhyidisitjakakkkmknkololvltmkmlmnmrmsmynenlnoocorpaplptrorusiskslsosqsrsv"
+      + "swtatethtltrukurvixhzhzu";
+  private static final int LETTERS = 26;
+  private static final LanguageRegistry BUNDLED;
+
+  static {
+    List<Language> languages = new ArrayList<>();
+
+    for (int i = 0; BUNDLED_CODES.length() > i; i += 2) {
+      languages.add(Language.builder().code(BUNDLED_CODES.substring(i, i + 2)).build());
+    }
+    BUNDLED = new LanguageRegistry(languages);
+  }
+
+  private final Map<String, RegisteredLanguage> byCode = new HashMap<>();
+  private final RegisteredLanguage[] byId;
+  /*
+   * Two lowercase letters, most of codes, are looked up without hashing.
+   */
+  private final RegisteredLanguage[] byLetters = new RegisteredLanguage[LETTERS * LETTERS];
+  private final List<Language> languages;
+
+  private LanguageRegistry(List<Language> languages) {
+    byId = new RegisteredLanguage[languages.size()];
+    for (Language language : languages) {
+      if (byCode.containsKey(language.getCode())) {
+        throw new IllegalArgumentException("duplicate language code " + language.getCode());
+      }
+
+      RegisteredLanguage registered = new RegisteredLanguage(this, byCode.size(), language);
+      int letters = letters(registered.code);
+
+      byId[registered.id] = registered;
+      byCode.put(registered.code, registered);
+      if (0 <= letters) {
+        byLetters[letters] = registered;
+      }
+    }
+    this.languages = Collections.unmodifiableList(Arrays.asList(byId));
+  }
+
+  /**
+   * Get the registry of the bundled codes of <em>what3words</em> API languages.
+   *
+   * @return the bundled registry
+   */
+  public static LanguageRegistry bundled() {
+    return BUNDLED;
+  }
+
+  /**
+   * Create a registry of languages, for example of {@link What3Words#availableLanguages()}.
+   *
+   * @param languages languages
+   * @return a registry, ids are indexes of codes in alphabetical order
+   * @throws IllegalArgumentException if codes are not unique
+   */
+  public static LanguageRegistry of(@NotNull Collection<Language> languages)
+      throws IllegalArgumentException {
+    List<Language> sorted = new ArrayList<>(languages);
+
+    sorted.sort(Comparator.comparing(Language::getCode));
+
+    return new LanguageRegistry(sorted);
+  }
+
+  private static int letters(String code) {
+    if (2 != code.length()) {
+      return -1;
+    }
+
+    int first = code.charAt(0) - 'a';
+    int second = code.charAt(1) - 'a';
+
+    if (0 > first || LETTERS <= first || 0 > second || LETTERS <= second) {
+      return -1;
+    }
+
+    return first * LETTERS + second;
+  }
+
+  /**
+   * Check if a language code is registered.
+   *
+   * @param code language code
+   * @return {@code true} if the registry has the language
+   */
+  public boolean contains(@NotNull String code) {
+    return null != get(code);
+  }
+
+  /**
+   * Get a language by its id.
+   *
+   * @param id id of a language
+   * @return the language
+   * @throws IllegalArgumentException if the id is unknown
+   */
+  public RegisteredLanguage get(int id) throws IllegalArgumentException {
+    if (0 > id || byId.length <= id) {
+      throw new IllegalArgumentException("unknown language id " + id);
+    }
+    return byId[id];
+  }
+
+  /**
+   * Get a language by its code.
+   *
+   * @param code language code
+   * @return the language or {@code null} if the code is unknown
+   */
+  public @Nullable RegisteredLanguage get(@NotNull String code) {
+    int letters = letters(code);
+
+    return (0 <= letters) ? byLetters[letters] : byCode.get(code);
+  }
+
+  /**
+   * Get an id of a language.
+   *
+   * @param language a language
+   * @return the id or {@code -1} if the language is unknown
+   */
+  public int id(@NotNull Language language) {
+    if (language instanceof RegisteredLanguage
+        && this == ((RegisteredLanguage) language).registry) {
+      return ((RegisteredLanguage) language).id;
+    }
+
+    RegisteredLanguage registered = get(language.getCode());
+
+    return (null == registered) ? -1 : registered.id;
+  }
+
+  /**
+   * Get a language by its code, it validates a code before a request is sent.
+   *
+   * @param code language code
+   * @return the language
+   * @throws IllegalArgumentException if the code is unknown
+   */
+  public RegisteredLanguage language(@NotNull String code) throws IllegalArgumentException {
+    RegisteredLanguage registered = get(Objects.requireNonNull(code, "language code is null"));
+
+    if (null == registered) {
+      throw new IllegalArgumentException("unknown language code " + code);
+    }
+
+    return registered;
+  }
+
+  /**
+   * Get languages in order of their ids.
+   *
+   * @return languages
+   */
+  public List<Language> languages() {
+    return languages;
+  }
+
+  /**
+   * Get a number of languages, ids are less than it.
+   *
+   * @return size of the registry
+   */
+  public int size() {
+    return byId.length;
+  }
+
+  /**
+   * Get a registered language or a new one if the code is unknown.
+   *
+   * @param code language code
+   * @return a language
+   */
+  public Language valueOf(@NotNull String code) {
+    RegisteredLanguage registered = get(Objects.requireNonNull(code, "language code is null"));
+
+    return (null == registered) ? Language.builder().code(code).build() : registered;
+  }
+
+  /**
+   * Language of a registry.
+   *
+   * @since 1.2.0
+   */
+  public static final class RegisteredLanguage implements Language {
+
+    private final String code;
+    private final int id;
+    private final String name;
+    private final String nativeName;
+    private final LanguageRegistry registry;
+
+    private RegisteredLanguage(LanguageRegistry registry, int id, Language language) {
+      this.code = language.getCode();
+      this.id = id;
+      this.name = language.getName();
+      this.nativeName = language.getNativeName();
+      this.registry = registry;
+    }
+
+    @Override
+    public String getCode() {
+      return code;
+    }
+
+    /**
+     * Get an id of the language in its registry.
+     *
+     * @return the id
+     */
+    public int getId() {
+      return id;
+    }
+
+    @Override
+    public String getName() {
+      return (null == name) ? code : name;
+    }
+
+    @Override
+    public String getNativeName() {
+      return (null == nativeName) ? code : nativeName;
+    }
+
+    /**
+     * Returns language code.
+     *
+     * @return language code
+     */
+    @Override
+    public String toString() {
+      return code;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Language)) {
+        return false;
+      }
+
+      return code.equals(((Language) o).getCode());
+    }
+
+    /*
+     * The same as the hash code of BasicLanguage.
+     */
+    @Override
+    public int hashCode() {
+      return 31 + code.hashCode();
+    }
+
+  }
+
+}
@@ -0,0 +1,375 @@
+/*
+ * Copyright 2021,2022 Witalij Berdinskich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.w3w;
+
+import feign.FeignException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Decorator of {@link What3Words} that keeps available languages and refreshes them in the
+ * background.
+ * <p>
+ * The first call of {@link #availableLanguages() availableLanguages} goes to the delegate, then
+ * the languages are served from memory: a call reads one volatile field. When they are older than
+ * the refresh interval, the call still returns them but starts a refresh by the executor, only one
+ * refresh runs at a time. If the refresh fails, the last known languages are kept and the refresh
+ * is retried after the retry interval. Languages are never expired.
+ * <p>
+ * Every API key of {@link #availableLanguages(String)} has its own languages, the calls without
+ * a key share the languages of {@link KeyInterceptor}'s key. If the first call fails, its exception
+ * is thrown and the next call goes to the delegate again. Conversions are not cached.
+ * <pre><code class="language-java">
+ * LanguagesCachingWhat3Words api = LanguagesCachingWhat3Words.builder()
+ *                                      .delegate(feignApi)
+ *                                      .refreshInterval(Duration.ofHours(6))
+ *                                      .build();
+ *
+ * api.getRegistry().language(userLanguage);
+ * </code></pre>
+ *
+ * @since 1.2.0
+ */
+public class LanguagesCachingWhat3Words implements What3Words {
+
+  private final What3Words delegate;
+  private final Executor executor;
+  private final LongAdder failures = new LongAdder();
+  private final ConcurrentMap<String, View> keys = new ConcurrentHashMap<>();
+  private final View languages;
+  private final long refreshInterval;
+  private final LongAdder refreshes = new LongAdder();
+  private final long retryInterval;
+  private final LongSupplier ticker;
+
+  private LanguagesCachingWhat3Words(LanguagesCachingWhat3WordsBuilder builder) {
+    delegate = builder.delegate;
+    executor = builder.executor;
+    refreshInterval = builder.refreshInterval.toNanos();
+    retryInterval = builder.retryInterval.toNanos();
+    ticker = builder.ticker;
+    languages = new View(delegate::availableLanguages);
+  }
+
+  /**
+   * Get a builder of the decorator.
+   *
+   * @return a builder
+   */
+  public static LanguagesCachingWhat3WordsBuilder builder() {
+    return new LanguagesCachingWhat3WordsBuilder();
+  }
+
+  @Override
+  public @NotNull Collection<Language> availableLanguages()
+      throws FeignException, What3WordsException {
+    return languages.snapshot().languages;
+  }
+
+  @Override
+  public @NotNull Collection<Language> availableLanguages(@NotNull String key)
+      throws FeignException, What3WordsException {
+    return view(key).snapshot().languages;
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToAddress(Map<String, Object> queryParameters)
+      throws FeignException, What3WordsException {
+    return delegate.convertToAddress(queryParameters);
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToAddress(WordsRequest wordsRequest)
+      throws FeignException, What3WordsException {
+    return delegate.convertToAddress(wordsRequest);
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToAddress(@NotNull String key, WordsRequest wordsRequest)
+      throws FeignException, What3WordsException {
+    return delegate.convertToAddress(key, wordsRequest);
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToCoordinates(Map<String, Object> queryParameters)
+      throws FeignException, What3WordsException {
+    return delegate.convertToCoordinates(queryParameters);
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToCoordinates(CoordinatesRequest coordinatesRequest)
+      throws FeignException, What3WordsException {
+    return delegate.convertToCoordinates(coordinatesRequest);
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToCoordinates(String key,
+      CoordinatesRequest coordinatesRequest) throws FeignException, What3WordsException {
+    return delegate.convertToCoordinates(key, coordinatesRequest);
+  }
+
+  /**
+   * Get a registry of available languages to validate language codes before requests are sent.
+   *
+   * @return the registry of the current languages
+   * @throws FeignException      if languages are not loaded yet and a remote server is not
+   *                             available or returns unknown error
+   * @throws What3WordsException if languages are not loaded yet and <em>what3words</em> API returns
+   *                             error
+   */
+  public LanguageRegistry getRegistry() throws FeignException, What3WordsException {
+    return languages.snapshot().registry();
+  }
+
+  /**
+   * Get a registry of available languages of an API key.
+   *
+   * @param key API key
+   * @return the registry of the current languages
+   * @throws FeignException      if languages are not loaded yet and a remote server is not
+   *                             available or returns unknown error
+   * @throws What3WordsException if languages are not loaded yet and <em>what3words</em> API returns
+   *                             error
+   */
+  public LanguageRegistry getRegistry(@NotNull String key)
+      throws FeignException, What3WordsException {
+    return view(key).snapshot().registry();
+  }
+
+  /**
+   * Get a number of failed requests of available languages.
+   *
+   * @return failure count
+   */
+  public long getFailureCount() {
+    return failures.sum();
+  }
+
+  /**
+   * Get a number of requests of available languages that were sent to the delegate.
+   *
+   * @return request count
+   */
+  public long getRequestCount() {
+    return refreshes.sum();
+  }
+
+  private View view(String key) {
+    View view = keys.get(Objects.requireNonNull(key, "key is null"));
+
+    if (null == view) {
+      view = keys.computeIfAbsent(key,
+          newKey -> new View(() -> delegate.availableLanguages(newKey)));
+    }
+
+    return view;
+  }
+
+  private static final class Snapshot {
+
+    private final Collection<Language> languages;
+    private final long refreshAt;
+    private LanguageRegistry registry;
+
+    private Snapshot(Collection<Language> languages, long refreshAt) {
+      this.languages = languages;
+      this.refreshAt = refreshAt;
+    }
+
+    private LanguageRegistry registry() {
+      LanguageRegistry value = registry;
+
+      if (null == value) {
+        registry = value = LanguageRegistry.of(languages);
+      }
+
+      return value;
+    }
+
+  }
+
+  private final class View {
+
+    private final Supplier<Collection<Language>> loader;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile Snapshot snapshot;
+
+    private View(Supplier<Collection<Language>> loader) {
+      this.loader = loader;
+    }
+
+    private Snapshot snapshot() {
+      Snapshot current = snapshot;
+
+      if (null == current) {
+        return load();
+      }
+      if (0 <= ticker.getAsLong() - current.refreshAt && refreshing.compareAndSet(false, true)) {
+        try {
+          executor.execute(this::refresh);
+        } catch (RejectedExecutionException exception) {
+          refreshing.set(false);
+        }
+      }
+
+      return current;
+    }
+
+    private synchronized Snapshot load() {
+      Snapshot current = snapshot;
+
+      if (null == current) {
+        Collection<Language> languages = fetch();
+
+        snapshot = current = new Snapshot(languages, ticker.getAsLong() + refreshInterval);
+      }
+
+      return current;
+    }
+
+    private void refresh() {
+      try {
+        Collection<Language> languages = fetch();
+
+        snapshot = new Snapshot(languages, ticker.getAsLong() + refreshInterval);
+      } catch (RuntimeException exception) {
+        // keep the last known languages
+        Snapshot current = snapshot;
+
+        snapshot = new Snapshot(current.languages, ticker.getAsLong() + retryInterval);
+      } finally {
+        refreshing.set(false);
+      }
+    }
+
+    private Collection<Language> fetch() {
+      refreshes.increment();
+      try {
+        return Collections.unmodifiableList(new ArrayList<>(loader.get()));
+      } catch (RuntimeException exception) {
+        failures.increment();
+        throw exception;
+      }
+    }
+
+  }
+
+  /**
+   * Helper to build the decorator.
+   *
+   * @since 1.2.0
+   */
+  public static class LanguagesCachingWhat3WordsBuilder {
+
+    private static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofHours(1);
+    private static final Duration DEFAULT_RETRY_INTERVAL = Duration.ofMinutes(1);
+
+    private What3Words delegate;
+    private Executor executor = ForkJoinPool.commonPool();
+    private Duration refreshInterval = DEFAULT_REFRESH_INTERVAL;
+    private Duration retryInterval = DEFAULT_RETRY_INTERVAL;
+    private LongSupplier ticker = System::nanoTime;
+
+    private LanguagesCachingWhat3WordsBuilder() {
+    }
+
+    /**
+     * Build the decorator.
+     *
+     * @return the decorator
+     * @throws NullPointerException if the delegate is null
+     */
+    public LanguagesCachingWhat3Words build() throws NullPointerException {
+      Objects.requireNonNull(delegate, "delegate is null");
+      return new LanguagesCachingWhat3Words(this);
+    }
+
+    /**
+     * Set the decorated API.
+     *
+     * @param delegate <em>what3words</em> API
+     * @return the builder
+     */
+    public LanguagesCachingWhat3WordsBuilder delegate(@NotNull What3Words delegate) {
+      this.delegate = delegate;
+      return this;
+    }
+
+    /**
+     * Set executor of background refreshes, default is the common fork-join pool.
+     *
+     * @param executor executor
+     * @return the builder
+     */
+    public LanguagesCachingWhat3WordsBuilder executor(@NotNull Executor executor) {
+      this.executor = Objects.requireNonNull(executor, "executor is null");
+      return this;
+    }
+
+    /**
+     * Set age of languages when they are refreshed, default is one hour.
+     *
+     * @param refreshInterval refresh interval
+     * @return the builder
+     * @throws IllegalArgumentException if the interval is not positive
+     */
+    public LanguagesCachingWhat3WordsBuilder refreshInterval(@NotNull Duration refreshInterval)
+        throws IllegalArgumentException {
+      if (refreshInterval.isNegative() || refreshInterval.isZero()) {
+        throw new IllegalArgumentException("refresh interval must be positive");
+      }
+      this.refreshInterval = refreshInterval;
+      return this;
+    }
+
+    /**
+     * Set time after a failed refresh when it is retried, default is one minute.
+     *
+     * @param retryInterval retry interval
+     * @return the builder
+     * @throws IllegalArgumentException if the interval is not positive
+     */
+    public LanguagesCachingWhat3WordsBuilder retryInterval(@NotNull Duration retryInterval)
+        throws IllegalArgumentException {
+      if (retryInterval.isNegative() || retryInterval.isZero()) {
+        throw new IllegalArgumentException("retry interval must be positive");
+      }
+      this.retryInterval = retryInterval;
+      return this;
+    }
+
+    LanguagesCachingWhat3WordsBuilder ticker(LongSupplier ticker) {
+      this.ticker = ticker;
+      return this;
+    }
+
+  }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2021,2022 Witalij Berdinskich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.w3w;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations in nanoseconds.
+ * <p>
+ * Buckets are log-linear like HdrHistogram has: every power of two is split into 16 buckets of
+ * equal width, so a recorded value is kept with relative error less than 1/16. Values less than
+ * 16 have their own buckets. Recording is an increment of an atomic counter, the histogram does
+ * not allocate.
+ */
+final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final AtomicLong max = new AtomicLong();
+  private final LongAdder sum = new LongAdder();
+
+  static int index(long value) {
+    if (SUB_BUCKETS > value) {
+      return (int) value;
+    }
+
+    int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  /*
+   * The highest value of a bucket.
+   */
+  static long highest(int index) {
+    if (SUB_BUCKETS > index) {
+      return index;
+    }
+
+    int shift = index / SUB_BUCKETS - 1;
+    long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+
+    return lowest + (1L << shift) - 1;
+  }
+
+  void record(long nanos) {
+    long value = Math.max(0, nanos);
+    long current;
+
+    counts.incrementAndGet(index(value));
+    sum.add(value);
+    do {
+      current = max.get();
+    } while (current < value && !max.compareAndSet(current, value));
+  }
+
+  MetricsWhat3Words.Latency snapshot() {
+    long[] values = new long[BUCKETS];
+
+    for (int i = 0; BUCKETS > i; i++) {
+      values[i] = counts.get(i);
+    }
+
+    return new MetricsWhat3Words.Latency(values, sum.sum(), max.get());
+  }
+
+}
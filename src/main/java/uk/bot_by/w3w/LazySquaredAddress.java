@@ -0,0 +1,142 @@
+/*
+ * Copyright 2021,2022 Witalij Berdinskich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.w3w;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.StringJoiner;
+
+/**
+ * {@link SquaredAddress} that is backed by the bytes of a response.
+ * <p>
+ * {@link What3WordsStreamingDecoder} finds positions of the properties, a value is parsed on first
+ * call of its getter and then it is kept. Values are the same as
+ * {@link SquaredAddress.BasicSquaredAddress} has, a malformed value is reported by its getter.
+ */
+final class LazySquaredAddress implements SquaredAddress {
+
+  private final byte[] bytes;
+  private final int[] positions;
+  private Coordinates coordinates;
+  private String country;
+  private Language language;
+  private URL map;
+  private String nearestPlace;
+  private Square square;
+  private Words words;
+
+  LazySquaredAddress(byte[] bytes, int[] positions) {
+    this.bytes = bytes;
+    this.positions = positions;
+  }
+
+  @Override
+  public String getCountry() {
+    String value = country;
+
+    if (null == value) {
+      country = value = reader(Field.COUNTRY).nextString();
+    }
+
+    return value;
+  }
+
+  @Override
+  public Square getSquare() {
+    Square value = square;
+
+    if (null == value) {
+      square = value = What3WordsStreamingDecoder.readSquare(reader(Field.SQUARE));
+    }
+
+    return value;
+  }
+
+  @Override
+  public String getNearestPlace() {
+    String value = nearestPlace;
+
+    if (null == value) {
+      nearestPlace = value = reader(Field.NEAREST_PLACE).nextString();
+    }
+
+    return value;
+  }
+
+  @Override
+  public Coordinates getCoordinates() {
+    Coordinates value = coordinates;
+
+    if (null == value) {
+      coordinates = value = What3WordsStreamingDecoder.readCoordinates(reader(Field.COORDINATES));
+    }
+
+    return value;
+  }
+
+  @Override
+  public Words getWords() {
+    Words value = words;
+
+    if (null == value) {
+      words = value = Words.builder().words(reader(Field.WORDS).nextString()).build();
+    }
+
+    return value;
+  }
+
+  @Override
+  public Language getLanguage() {
+    Language value = language;
+
+    if (null == value) {
+      language = value = LanguageRegistry.bundled()
+          .valueOf(reader(Field.LANGUAGE).nextString());
+    }
+
+    return value;
+  }
+
+  @Override
+  public URL getMap() {
+    URL value = map;
+
+    if (null == value) {
+      try {
+        map = value = new URL(reader(Field.MAP).nextString());
+      } catch (MalformedURLException exception) {
+        throw new IllegalArgumentException("map link", exception);
+      }
+    }
+
+    return value;
+  }
+
+  private JsonReader reader(Field field) {
+    int position = positions[field.ordinal()];
+
+    return new JsonReader(bytes, position, bytes.length - position);
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(",", "{", "}").add("country='" + getCountry() + "'")
+        .add("square=" + getSquare()).add("nearestPlace='" + getNearestPlace() + "'")
+        .add("coordinates=" + getCoordinates()).add("words=" + getWords())
+        .add("language=" + getLanguage()).add("map=" + getMap()).toString();
+  }
+
+}
@@ -0,0 +1,489 @@
+/*
+ * Copyright 2021,2022 Witalij Berdinskich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.w3w;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Disk store of squared addresses in a memory-mapped file.
+ * <p>
+ * The file has a header, two open-addressing indexes and a data region of appended records. The
+ * words index is keyed by words, the coordinates index is keyed by a grid cell about 11m high and
+ * a language: a square is indexed in every cell it covers, a point is looked up in its cell and
+ * the squares of the cell are checked if they contain it like
+ * {@link SquareCachingWhat3Words} does. A slot of an index is a long of the key hash and the
+ * record offset, a slot is found by linear probing and its record is compared to the key, so hash
+ * collisions never give a wrong address.
+ * <p>
+ * Records are never moved or removed, the store is full when it has the maximum number of
+ * addresses or its data region is over, then new addresses are not kept. The file survives
+ * restarts: an existing file is opened with its own geometry. Records are written by
+ * {@link SquaredAddressCodec} right to the mapped file.
+ * <p>
+ * There is a single writer: {@link #put(SquaredAddress)} is synchronized and the file should be
+ * opened for writing by one process only. Readers are not blocked, a record and the counters are
+ * written before the index slot that publishes them, slots are written with release and read with
+ * acquire semantics. Other processes could open the file {@linkplain
+ * MappedAddressStoreBuilder#readOnly(boolean) read-only} and see new addresses without reopening.
+ * <pre><code class="language-java">
+ * try (MappedAddressStore store = MappedAddressStore.builder()
+ *                                     .file(Path.of("addresses.w3w"))
+ *                                     .capacity(1_000_000)
+ *                                     .build()) {
+ *   What3Words api = new ReadThroughWhat3Words(feignApi, store);
+ * }
+ * </code></pre>
+ *
+ * @since 1.2.0
+ */
+public class MappedAddressStore implements Closeable {
+
+  /**
+   * The language of requests without language, it is the default language of the API.
+   */
+  static final Language DEFAULT_LANGUAGE = LanguageRegistry.bundled().language("en");
+
+  private static final int CAPACITY = 24;
+  private static final int CELL_SHIFT = 10;
+  private static final int COUNT = 20;
+  private static final int DATA_END = 16;
+  private static final int DATA_SIZE = 12;
+  private static final int HEADER_SIZE = 64;
+  private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class,
+      ByteOrder.BIG_ENDIAN);
+  private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class,
+      ByteOrder.BIG_ENDIAN);
+  private static final int MAGIC = 0x57335753;
+  private static final int MAX_CELLS_PER_SQUARE = 4;
+  private static final int SLOTS = 8;
+  private static final int VERSION = 2;
+
+  private final MappedByteBuffer buffer;
+  private final int capacity;
+  private final int coordinatesIndex;
+  private final int coordinatesSlots;
+  private final int data;
+  private final int dataSize;
+  private final boolean readOnly;
+  private final int wordsIndex;
+  private final int wordsSlots;
+  private final ByteBuffer writer;
+  private volatile boolean closed;
+
+  private MappedAddressStore(MappedByteBuffer buffer, boolean readOnly) {
+    this.buffer = buffer;
+    this.readOnly = readOnly;
+    wordsSlots = buffer.getInt(SLOTS);
+    dataSize = buffer.getInt(DATA_SIZE);
+    capacity = buffer.getInt(CAPACITY);
+    coordinatesSlots = wordsSlots * MAX_CELLS_PER_SQUARE;
+    wordsIndex = HEADER_SIZE;
+    coordinatesIndex = wordsIndex + wordsSlots * Long.BYTES;
+    data = coordinatesIndex + coordinatesSlots * Long.BYTES;
+    writer = buffer.duplicate();
+  }
+
+  /**
+   * Get a builder of the store.
+   *
+   * @return a builder
+   */
+  public static MappedAddressStoreBuilder builder() {
+    return new MappedAddressStoreBuilder();
+  }
+
+  private static long fileSize(long wordsSlots, int dataSize) {
+    return HEADER_SIZE + wordsSlots * Long.BYTES * (1 + MAX_CELLS_PER_SQUARE) + dataSize;
+  }
+
+  /*
+   * Indexes are at most half full.
+   */
+  private static long wordsSlots(int capacity) {
+    return (long) Integer.highestOneBit(capacity - 1) << 2;
+  }
+
+  private static MappedAddressStore open(MappedAddressStoreBuilder builder) throws IOException {
+    StandardOpenOption[] options = builder.readOnly ? new StandardOpenOption[]{
+        StandardOpenOption.READ} : new StandardOpenOption[]{StandardOpenOption.READ,
+        StandardOpenOption.WRITE, StandardOpenOption.CREATE};
+
+    try (FileChannel channel = FileChannel.open(builder.file, options)) {
+      MapMode mode = builder.readOnly ? MapMode.READ_ONLY : MapMode.READ_WRITE;
+
+      if (0 == channel.size()) {
+        if (builder.readOnly) {
+          throw new IOException("store is empty: " + builder.file);
+        }
+
+        int wordsSlots = (int) wordsSlots(builder.capacity);
+        MappedByteBuffer buffer = channel.map(mode, 0, fileSize(wordsSlots, builder.dataSize));
+
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(Integer.BYTES, VERSION);
+        buffer.putInt(SLOTS, wordsSlots);
+        buffer.putInt(DATA_SIZE, builder.dataSize);
+        buffer.putInt(CAPACITY, builder.capacity);
+        return new MappedAddressStore(buffer, false);
+      }
+
+      MappedByteBuffer header = channel.map(MapMode.READ_ONLY, 0,
+          Math.min(channel.size(), HEADER_SIZE));
+
+      if (HEADER_SIZE != header.limit() || MAGIC != header.getInt(0)) {
+        throw new IOException("not a store: " + builder.file);
+      }
+      if (VERSION != header.getInt(Integer.BYTES)) {
+        throw new IOException("unsupported version of store: " + header.getInt(Integer.BYTES));
+      }
+
+      long fileSize = fileSize(header.getInt(SLOTS), header.getInt(DATA_SIZE));
+
+      if (fileSize != channel.size()) {
+        throw new IOException("store is damaged: " + builder.file);
+      }
+
+      return new MappedAddressStore(channel.map(mode, 0, fileSize), builder.readOnly);
+    }
+  }
+
+  /*
+   * The hash is never zero, zero is an empty slot.
+   */
+  private static int hash(long value) {
+    int hash = (int) ((value * 0x9e3779b97f4a7c15L) >>> Integer.SIZE);
+
+    return (0 == hash) ? 1 : hash;
+  }
+
+  private static int cellHash(long cell, Language language) {
+    return hash(31 * cell + language.getCode().hashCode());
+  }
+
+  private static int wordsHash(Words words) {
+    return hash(words.toString().hashCode());
+  }
+
+  /**
+   * Get an address by its words.
+   *
+   * @param words words
+   * @return the address or {@code null} if the store does not have it
+   */
+  public @Nullable SquaredAddress get(@NotNull Words words) {
+    checkOpen();
+
+    int hash = wordsHash(words);
+    String text = words.toString();
+
+    for (int slot = hash & (wordsSlots - 1); ; slot = (slot + 1) & (wordsSlots - 1)) {
+      long entry = slot(wordsIndex, slot);
+
+      if (0 == entry) {
+        return null;
+      }
+      if (hash == (int) (entry >>> Integer.SIZE)) {
+        SquaredAddress squaredAddress = read((int) entry);
+
+        if (text.equals(squaredAddress.getWords().toString())) {
+          return squaredAddress;
+        }
+      }
+    }
+  }
+
+  /**
+   * Get an address by a point inside its square.
+   *
+   * @param coordinates coordinates of the point
+   * @param language    language of the address, {@code null} is English
+   * @return the address or {@code null} if the store does not have it
+   */
+  public @Nullable SquaredAddress get(@NotNull Coordinates coordinates,
+      @Nullable Language language) {
+    checkOpen();
+
+    Language expected = (null == language) ? DEFAULT_LANGUAGE : language;
+    double latitude = coordinates.getLatitudeAsDouble();
+    double longitude = coordinates.getLongitudeAsDouble();
+    int hash = cellHash(SquareCachingWhat3Words.cell(coordinates.getLatitudeE7() >> CELL_SHIFT,
+        coordinates.getLongitudeE7() >> CELL_SHIFT), expected);
+
+    for (int slot = hash & (coordinatesSlots - 1); ;
+        slot = (slot + 1) & (coordinatesSlots - 1)) {
+      long entry = slot(coordinatesIndex, slot);
+
+      if (0 == entry) {
+        return null;
+      }
+      if (hash == (int) (entry >>> Integer.SIZE)) {
+        SquaredAddress squaredAddress = read((int) entry);
+
+        if (expected.equals(squaredAddress.getLanguage())
+            && SquareCachingWhat3Words.contains(squaredAddress.getSquare(), latitude, longitude)) {
+          return squaredAddress;
+        }
+      }
+    }
+  }
+
+  /**
+   * Keep an address.
+   * <p>
+   * The address is indexed by its words, and by its square and its language. Squares that cross
+   * the antimeridian or cover too many cells are indexed by words only.
+   *
+   * @param squaredAddress the address
+   * @return {@code true} if the address is kept, {@code false} if the store has it already or the
+   * store is full
+   * @throws UnsupportedOperationException if the store is read-only
+   */
+  public synchronized boolean put(@NotNull SquaredAddress squaredAddress)
+      throws UnsupportedOperationException {
+    checkOpen();
+    if (readOnly) {
+      throw new UnsupportedOperationException("store is read-only");
+    }
+    if (capacity <= size() || null != get(squaredAddress.getWords())) {
+      return false;
+    }
+
+    int dataEnd = (int) INT.getAcquire(buffer, DATA_END);
+    int position = data + dataEnd;
+
+    if (dataSize - dataEnd <= Integer.BYTES) {
+      return false;
+    }
+    writer.limit(data + dataSize).position(position + Integer.BYTES);
+    try {
+      SquaredAddressCodec.encode(squaredAddress, writer);
+    } catch (BufferOverflowException exception) {
+      return false;
+    }
+    writer.putInt(position, writer.position() - position - Integer.BYTES);
+    // the record is counted before it is published, a crash leaves an orphan record only
+    INT.setRelease(buffer, DATA_END, writer.position() - data);
+    INT.setRelease(buffer, COUNT, size() + 1);
+    publish(wordsIndex, wordsSlots, wordsHash(squaredAddress.getWords()), dataEnd);
+
+    Coordinates northeast = squaredAddress.getSquare().getNortheast();
+    Coordinates southwest = squaredAddress.getSquare().getSouthwest();
+    long north = northeast.getLatitudeE7() >> CELL_SHIFT;
+    long east = northeast.getLongitudeE7() >> CELL_SHIFT;
+    long south = southwest.getLatitudeE7() >> CELL_SHIFT;
+    long west = southwest.getLongitudeE7() >> CELL_SHIFT;
+
+    if (north >= south && east >= west
+        && MAX_CELLS_PER_SQUARE >= (north - south + 1) * (east - west + 1)) {
+      for (long latitude = south; north >= latitude; latitude++) {
+        for (long longitude = west; east >= longitude; longitude++) {
+          publish(coordinatesIndex, coordinatesSlots,
+              cellHash(SquareCachingWhat3Words.cell(latitude, longitude),
+                  squaredAddress.getLanguage()), dataEnd);
+        }
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Get a number of kept addresses.
+   *
+   * @return the number of addresses
+   */
+  public int size() {
+    return (int) INT.getAcquire(buffer, COUNT);
+  }
+
+  /**
+   * Get maximum number of addresses.
+   *
+   * @return the capacity
+   */
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * Check if the store does not take new addresses.
+   *
+   * @return {@code true} if the store is read-only
+   */
+  public boolean isReadOnly() {
+    return readOnly;
+  }
+
+  /**
+   * Write changes to the storage device.
+   */
+  public void force() {
+    checkOpen();
+    if (!readOnly) {
+      buffer.force();
+    }
+  }
+
+  /**
+   * Write changes to the storage device and close the store.
+   * <p>
+   * The mapping is released by the garbage collector.
+   */
+  @Override
+  public void close() {
+    if (!closed) {
+      force();
+      closed = true;
+    }
+  }
+
+  private void checkOpen() {
+    if (closed) {
+      throw new IllegalStateException("store is closed");
+    }
+  }
+
+  private long slot(int index, int slot) {
+    return (long) LONG.getAcquire(buffer, index + slot * Long.BYTES);
+  }
+
+  private void publish(int index, int slots, int hash, int offset) {
+    int slot = hash & (slots - 1);
+
+    while (0 != slot(index, slot)) {
+      slot = (slot + 1) & (slots - 1);
+    }
+    LONG.setRelease(buffer, index + slot * Long.BYTES,
+        (long) hash << Integer.SIZE | offset & 0xffffffffL);
+  }
+
+  private SquaredAddress read(int offset) {
+    ByteBuffer record = buffer.duplicate();
+    int position = data + offset;
+
+    record.position(position + Integer.BYTES)
+        .limit(position + Integer.BYTES + record.getInt(position));
+
+    return SquaredAddressCodec.decodeSquaredAddress(record);
+  }
+
+  /**
+   * Helper to open the store.
+   *
+   * @since 1.2.0
+   */
+  public static class MappedAddressStoreBuilder {
+
+    private static final int DEFAULT_CAPACITY = 100_000;
+    private static final int DEFAULT_DATA_SIZE = 32 << 20;
+
+    private int capacity = DEFAULT_CAPACITY;
+    private int dataSize = DEFAULT_DATA_SIZE;
+    private Path file;
+    private boolean readOnly;
+
+    private MappedAddressStoreBuilder() {
+    }
+
+    /**
+     * Open or create the store.
+     *
+     * @return the store
+     * @throws IOException              if the file could not be opened or it is not a store
+     * @throws IllegalArgumentException if the file would be larger than 2GB
+     * @throws NullPointerException     if the file is null
+     */
+    public MappedAddressStore build()
+        throws IOException, IllegalArgumentException, NullPointerException {
+      Objects.requireNonNull(file, "file is null");
+      if (Integer.MAX_VALUE < fileSize(wordsSlots(capacity), dataSize)) {
+        throw new IllegalArgumentException("store is too large");
+      }
+      return open(this);
+    }
+
+    /**
+     * Set maximum number of addresses of a new store, default is 100000.
+     * <p>
+     * An index slot is 8 bytes, the store has 10 to 20 slots per address.
+     *
+     * @param capacity maximum number of addresses
+     * @return the builder
+     * @throws IllegalArgumentException if the capacity is less than two
+     */
+    public MappedAddressStoreBuilder capacity(int capacity) throws IllegalArgumentException {
+      if (2 > capacity) {
+        throw new IllegalArgumentException("capacity must be at least two");
+      }
+      this.capacity = capacity;
+      return this;
+    }
+
+    /**
+     * Set size of the data region of a new store, default is 32MB.
+     *
+     * @param dataSize size in bytes
+     * @return the builder
+     * @throws IllegalArgumentException if the size is not positive
+     */
+    public MappedAddressStoreBuilder dataSize(int dataSize) throws IllegalArgumentException {
+      if (0 >= dataSize) {
+        throw new IllegalArgumentException("data size must be positive");
+      }
+      this.dataSize = dataSize;
+      return this;
+    }
+
+    /**
+     * Set the file of the store.
+     *
+     * @param file the file
+     * @return the builder
+     */
+    public MappedAddressStoreBuilder file(@NotNull Path file) {
+      this.file = file;
+      return this;
+    }
+
+    /**
+     * Open the store for reading only, a read-only store is not created if the file does not
+     * exist. Default is {@code false}.
+     *
+     * @param readOnly read-only
+     * @return the builder
+     */
+    public MappedAddressStoreBuilder readOnly(boolean readOnly) {
+      this.readOnly = readOnly;
+      return this;
+    }
+
+  }
+
+}
@@ -0,0 +1,450 @@
+/*
+ * Copyright 2021,2022 Witalij Berdinskich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.w3w;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.sun.net.httpserver.HttpHandler;
+import feign.FeignException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Decorator of {@link What3Words} that measures latency and counts errors of every endpoint.
+ * <p>
+ * Latency of a call is recorded to a lock-free histogram of its endpoint, failed calls are
+ * recorded too. Errors are counted by {@link What3WordsException#getCode() the error code} of
+ * <em>what3words</em> API and by HTTP status of {@link What3WordsException} and
+ * {@link FeignException}, an I/O error has the status {@code -1}.
+ * <p>
+ * {@link #snapshot()} copies the current values, {@link #prometheusHandler()} serves them in
+ * Prometheus text format.
+ * <pre><code class="language-java">
+ * MetricsWhat3Words api = new MetricsWhat3Words(feignApi);
+ * HttpServer server = HttpServer.create(new InetSocketAddress(9090), 0);
+ *
+ * server.createContext("/metrics", api.prometheusHandler());
+ * server.start();
+ * </code></pre>
+ *
+ * @since 1.2.0
+ */
+public class MetricsWhat3Words implements What3Words {
+
+  private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+  private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+  private final What3Words delegate;
+  private final Meter[] meters = new Meter[Endpoint.values().length];
+  private final LongSupplier ticker;
+
+  /**
+   * Create the decorator.
+   *
+   * @param delegate <em>what3words</em> API
+   */
+  public MetricsWhat3Words(@NotNull What3Words delegate) {
+    this(delegate, System::nanoTime);
+  }
+
+  MetricsWhat3Words(What3Words delegate, LongSupplier ticker) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate is null");
+    this.ticker = ticker;
+    for (int i = 0; meters.length > i; i++) {
+      meters[i] = new Meter();
+    }
+  }
+
+  @Override
+  public @NotNull Collection<Language> availableLanguages()
+      throws FeignException, What3WordsException {
+    return measure(Endpoint.AVAILABLE_LANGUAGES, delegate::availableLanguages);
+  }
+
+  @Override
+  public @NotNull Collection<Language> availableLanguages(@NotNull String key)
+      throws FeignException, What3WordsException {
+    return measure(Endpoint.AVAILABLE_LANGUAGES, () -> delegate.availableLanguages(key));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToAddress(Map<String, Object> queryParameters)
+      throws FeignException, What3WordsException {
+    return measure(Endpoint.CONVERT_TO_3WA, () -> delegate.convertToAddress(queryParameters));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToAddress(WordsRequest wordsRequest)
+      throws FeignException, What3WordsException {
+    return measure(Endpoint.CONVERT_TO_3WA, () -> delegate.convertToAddress(wordsRequest));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToAddress(@NotNull String key, WordsRequest wordsRequest)
+      throws FeignException, What3WordsException {
+    return measure(Endpoint.CONVERT_TO_3WA, () -> delegate.convertToAddress(key, wordsRequest));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToCoordinates(Map<String, Object> queryParameters)
+      throws FeignException, What3WordsException {
+    return measure(Endpoint.CONVERT_TO_COORDINATES,
+        () -> delegate.convertToCoordinates(queryParameters));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToCoordinates(CoordinatesRequest coordinatesRequest)
+      throws FeignException, What3WordsException {
+    return measure(Endpoint.CONVERT_TO_COORDINATES,
+        () -> delegate.convertToCoordinates(coordinatesRequest));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToCoordinates(String key,
+      CoordinatesRequest coordinatesRequest) throws FeignException, What3WordsException {
+    return measure(Endpoint.CONVERT_TO_COORDINATES,
+        () -> delegate.convertToCoordinates(key, coordinatesRequest));
+  }
+
+  /**
+   * Get a handler of the JDK HTTP server that responds with metrics in Prometheus text format.
+   *
+   * @return HTTP handler
+   */
+  public HttpHandler prometheusHandler() {
+    return exchange -> {
+      byte[] body = snapshot().toPrometheus().getBytes(UTF_8);
+
+      exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream responseBody = exchange.getResponseBody()) {
+        responseBody.write(body);
+      }
+    };
+  }
+
+  /**
+   * Copy current metrics.
+   *
+   * @return metrics
+   */
+  public Metrics snapshot() {
+    Map<Endpoint, Latency> latencies = new EnumMap<>(Endpoint.class);
+    Map<Endpoint, Long> errors = new EnumMap<>(Endpoint.class);
+    Map<Endpoint, Map<String, Long>> codes = new EnumMap<>(Endpoint.class);
+    Map<Endpoint, Map<Integer, Long>> statuses = new EnumMap<>(Endpoint.class);
+
+    for (Endpoint endpoint : Endpoint.values()) {
+      Meter meter = meters[endpoint.ordinal()];
+
+      latencies.put(endpoint, meter.latency.snapshot());
+      errors.put(endpoint, meter.errors.sum());
+      codes.put(endpoint, copy(meter.codes));
+      statuses.put(endpoint, copy(meter.statuses));
+    }
+
+    return new Metrics(latencies, errors, codes, statuses);
+  }
+
+  private static <K> Map<K, Long> copy(Map<K, LongAdder> counters) {
+    Map<K, Long> values = new TreeMap<>();
+
+    counters.forEach((key, counter) -> values.put(key, counter.sum()));
+
+    return Collections.unmodifiableMap(values);
+  }
+
+  private <T> T measure(Endpoint endpoint, Supplier<T> call) {
+    Meter meter = meters[endpoint.ordinal()];
+    long start = ticker.getAsLong();
+
+    try {
+      return call.get();
+    } catch (RuntimeException exception) {
+      meter.error(exception);
+      throw exception;
+    } finally {
+      meter.latency.record(ticker.getAsLong() - start);
+    }
+  }
+
+  /**
+   * Endpoints of <em>what3words</em> API.
+   *
+   * @since 1.2.0
+   */
+  public enum Endpoint {
+
+    AVAILABLE_LANGUAGES("available-languages"), CONVERT_TO_3WA("convert-to-3wa"),
+    CONVERT_TO_COORDINATES("convert-to-coordinates");
+
+    private final String path;
+
+    Endpoint(String path) {
+      this.path = path;
+    }
+
+    /**
+     * Get the last segment of the endpoint path, it is the label of the endpoint.
+     *
+     * @return path
+     */
+    public String getPath() {
+      return path;
+    }
+
+  }
+
+  private static final class Meter {
+
+    private final ConcurrentMap<String, LongAdder> codes = new ConcurrentHashMap<>();
+    private final LongAdder errors = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final ConcurrentMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    private static void increment(ConcurrentMap<Integer, LongAdder> counters, int key) {
+      counters.computeIfAbsent(key, newKey -> new LongAdder()).increment();
+    }
+
+    private void error(RuntimeException exception) {
+      errors.increment();
+      if (exception instanceof What3WordsException) {
+        What3WordsException what3WordsException = (What3WordsException) exception;
+
+        if (null != what3WordsException.getCode()) {
+          codes.computeIfAbsent(what3WordsException.getCode(), newKey -> new LongAdder())
+              .increment();
+        }
+        increment(statuses, what3WordsException.getStatus());
+      } else if (exception instanceof FeignException) {
+        increment(statuses, ((FeignException) exception).status());
+      }
+    }
+
+  }
+
+  /**
+   * Latency histogram of an endpoint, durations are in nanoseconds.
+   *
+   * @since 1.2.0
+   */
+  public static final class Latency {
+
+    private final long count;
+    private final long[] counts;
+    private final long max;
+    private final long sum;
+
+    Latency(long[] counts, long sum, long max) {
+      long count = 0;
+
+      for (long value : counts) {
+        count += value;
+      }
+      this.count = count;
+      this.counts = counts;
+      this.max = max;
+      this.sum = sum;
+    }
+
+    /**
+     * Get a number of calls.
+     *
+     * @return call count
+     */
+    public long getCount() {
+      return count;
+    }
+
+    /**
+     * Get the longest duration.
+     *
+     * @return maximum duration
+     */
+    public long getMax() {
+      return max;
+    }
+
+    /**
+     * Get total duration of calls.
+     *
+     * @return sum of durations
+     */
+    public long getSum() {
+      return sum;
+    }
+
+    /**
+     * Get a duration that is not less than the quantile of durations, its relative error is less
+     * than 1/16.
+     *
+     * @param quantile quantile, for example {@code 0.99}
+     * @return duration or zero if there are no calls
+     * @throws IllegalArgumentException if the quantile is not between 0 and 1
+     */
+    public long getQuantile(double quantile) throws IllegalArgumentException {
+      if (0 > quantile || 1 < quantile) {
+        throw new IllegalArgumentException("quantile must be between 0 and 1");
+      }
+      if (0 == count) {
+        return 0;
+      }
+
+      long rank = Math.max(1, (long) Math.ceil(quantile * count));
+      long cumulative = 0;
+
+      for (int i = 0; counts.length > i; i++) {
+        cumulative += counts[i];
+        if (rank <= cumulative) {
+          return Math.min(LatencyHistogram.highest(i), max);
+        }
+      }
+
+      return max;
+    }
+
+  }
+
+  /**
+   * Metrics of all endpoints.
+   *
+   * @since 1.2.0
+   */
+  public static final class Metrics {
+
+    private final Map<Endpoint, Map<String, Long>> codes;
+    private final Map<Endpoint, Long> errors;
+    private final Map<Endpoint, Latency> latencies;
+    private final Map<Endpoint, Map<Integer, Long>> statuses;
+
+    private Metrics(Map<Endpoint, Latency> latencies, Map<Endpoint, Long> errors,
+        Map<Endpoint, Map<String, Long>> codes, Map<Endpoint, Map<Integer, Long>> statuses) {
+      this.codes = codes;
+      this.errors = errors;
+      this.latencies = latencies;
+      this.statuses = statuses;
+    }
+
+    private static String escape(String value) {
+      return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String seconds(long nanos) {
+      return Double.toString(nanos / 1e9);
+    }
+
+    /**
+     * Get a number of failed calls of an endpoint.
+     *
+     * @param endpoint endpoint
+     * @return error count
+     */
+    public long getErrorCount(@NotNull Endpoint endpoint) {
+      return errors.get(endpoint);
+    }
+
+    /**
+     * Get numbers of errors of an endpoint by error codes of <em>what3words</em> API.
+     *
+     * @param endpoint endpoint
+     * @return error counts by code
+     */
+    public Map<String, Long> getErrorsByCode(@NotNull Endpoint endpoint) {
+      return codes.get(endpoint);
+    }
+
+    /**
+     * Get numbers of errors of an endpoint by HTTP status.
+     *
+     * @param endpoint endpoint
+     * @return error counts by status
+     */
+    public Map<Integer, Long> getErrorsByStatus(@NotNull Endpoint endpoint) {
+      return statuses.get(endpoint);
+    }
+
+    /**
+     * Get latency of an endpoint.
+     *
+     * @param endpoint endpoint
+     * @return latency histogram
+     */
+    public Latency getLatency(@NotNull Endpoint endpoint) {
+      return latencies.get(endpoint);
+    }
+
+    /**
+     * Format metrics in Prometheus text format, latency is a summary in seconds.
+     *
+     * @return metrics
+     */
+    public String toPrometheus() {
+      StringBuilder text = new StringBuilder();
+
+      text.append("# HELP w3w_request_duration_seconds Latency of what3words API calls.\n")
+          .append("# TYPE w3w_request_duration_seconds summary\n");
+      latencies.forEach((endpoint, latency) -> {
+        String label = "endpoint=\"" + endpoint.path + "\"";
+
+        for (double quantile : QUANTILES) {
+          text.append("w3w_request_duration_seconds{").append(label).append(",quantile=\"")
+              .append(quantile).append("\"} ").append(seconds(latency.getQuantile(quantile)))
+              .append('\n');
+        }
+        text.append("w3w_request_duration_seconds_sum{").append(label).append("} ")
+            .append(seconds(latency.sum)).append('\n')
+            .append("w3w_request_duration_seconds_count{").append(label).append("} ")
+            .append(latency.count).append('\n');
+      });
+      text.append("# HELP w3w_request_duration_seconds_max Longest what3words API call.\n")
+          .append("# TYPE w3w_request_duration_seconds_max gauge\n");
+      latencies.forEach((endpoint, latency) -> text.append(
+              "w3w_request_duration_seconds_max{endpoint=\"").append(endpoint.path).append("\"} ")
+          .append(seconds(latency.max)).append('\n'));
+      text.append("# HELP w3w_request_errors_total Failed what3words API calls.\n")
+          .append("# TYPE w3w_request_errors_total counter\n");
+      errors.forEach((endpoint, count) -> text.append("w3w_request_errors_total{endpoint=\"")
+          .append(endpoint.path).append("\"} ").append(count).append('\n'));
+      text.append("# HELP w3w_request_errors_by_code_total Failed what3words API calls by error"
+              + " code.\n")
+          .append("# TYPE w3w_request_errors_by_code_total counter\n");
+      codes.forEach((endpoint, counts) -> counts.forEach((code, count) -> text.append(
+              "w3w_request_errors_by_code_total{endpoint=\"").append(endpoint.path)
+          .append("\",code=\"").append(escape(code)).append("\"} ").append(count).append('\n')));
+      text.append("# HELP w3w_request_errors_by_status_total Failed what3words API calls by HTTP"
+              + " status.\n")
+          .append("# TYPE w3w_request_errors_by_status_total counter\n");
+      statuses.forEach((endpoint, counts) -> counts.forEach((status, count) -> text.append(
+              "w3w_request_errors_by_status_total{endpoint=\"").append(endpoint.path)
+          .append("\",status=\"").append(status).append("\"} ").append(count).append('\n')));
+
+      return text.toString();
+    }
+
+  }
+
+}
@@ -0,0 +1,377 @@
+/*
+ * Copyright 2021,2022 Witalij Berdinskich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.w3w;
+
+import feign.Capability;
+import feign.Client;
+import feign.Feign;
+import feign.InvocationHandlerFactory;
+import feign.codec.Decoder;
+import feign.codec.ErrorDecoder;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Feign's capability that times phases of every call.
+ * <p>
+ * A call of a Feign client is split into phases:
+ * <ul>
+ *   <li>{@linkplain Phase#ENCODE encode} is the time before a request is sent: expansion of the
+ *   request template, the query map encoder, request interceptors like {@link KeyInterceptor}
+ *   and a retryer's back-off before the next attempt;</li>
+ *   <li>{@linkplain Phase#NETWORK network} is the time of the client, it includes reading of the
+ *   body if the client buffers it;</li>
+ *   <li>{@linkplain Phase#DECODE decode} is the time of the decoder and the error decoder, it
+ *   includes reading of the body if the client streams it.</li>
+ * </ul>
+ * The remainder of {@linkplain Phase#TOTAL the total time} is spent by Feign's response
+ * handling, for example by its logger. When a call is finished, its {@link Timing} is passed to
+ * the listeners on the calling thread and recorded to the histograms of phases.
+ * <p>
+ * If the capability is not added, a client does not have any overhead. If it is
+ * {@linkplain #setEnabled(boolean) disabled}, a call reads one volatile field in every phase.
+ * Only synchronous clients are timed: the phases are tracked by a thread-local record, methods
+ * of asynchronous clients that return a future are passed through.
+ * <pre><code class="language-java">
+ * PhaseTimer timer = PhaseTimer.builder()
+ *                              .listener(timing -&gt; log.debug("{}", timing))
+ *                              .build();
+ * What3Words api = Feign.builder()
+ *                       .addCapability(timer)
+ *                       .decoder(new What3WordsDecoder())
+ *                       .errorDecoder(new What3WordsErrorDecoder())
+ *                       .requestInterceptor(new KeyInterceptor("what3words-api-key"))
+ *                       .target(What3Words.class, What3Words.W3W_API);
+ *
+ * timer.getLatency(PhaseTimer.Phase.NETWORK).getQuantile(0.99);
+ * </code></pre>
+ *
+ * @since 1.2.0
+ */
+public class PhaseTimer implements Capability {
+
+  private final ThreadLocal<Timing> current = new ThreadLocal<>();
+  private final LatencyHistogram[] histograms = new LatencyHistogram[Phase.values().length];
+  private final List<Consumer<Timing>> listeners;
+  private final LongSupplier ticker;
+  private volatile boolean enabled = true;
+
+  private PhaseTimer(PhaseTimerBuilder builder) {
+    listeners = List.copyOf(builder.listeners);
+    ticker = builder.ticker;
+    for (int i = 0; histograms.length > i; i++) {
+      histograms[i] = new LatencyHistogram();
+    }
+  }
+
+  /**
+   * Get a builder of the timer.
+   *
+   * @return a builder
+   */
+  public static PhaseTimerBuilder builder() {
+    return new PhaseTimerBuilder();
+  }
+
+  @Override
+  public Client enrich(Client client) {
+    return (request, options) -> {
+      Timing timing = enabled ? current.get() : null;
+
+      if (null == timing) {
+        return client.execute(request, options);
+      }
+      timing.encode += timing.mark(ticker.getAsLong());
+      timing.attempts++;
+      try {
+        return client.execute(request, options);
+      } finally {
+        timing.network += timing.mark(ticker.getAsLong());
+      }
+    };
+  }
+
+  @Override
+  public Decoder enrich(Decoder decoder) {
+    return (response, type) -> {
+      Timing timing = enabled ? current.get() : null;
+
+      if (null == timing) {
+        return decoder.decode(response, type);
+      }
+      timing.mark(ticker.getAsLong());
+      try {
+        return decoder.decode(response, type);
+      } finally {
+        timing.decode += timing.mark(ticker.getAsLong());
+      }
+    };
+  }
+
+  @Override
+  public ErrorDecoder enrich(ErrorDecoder errorDecoder) {
+    return (methodKey, response) -> {
+      Timing timing = enabled ? current.get() : null;
+
+      if (null == timing) {
+        return errorDecoder.decode(methodKey, response);
+      }
+      timing.mark(ticker.getAsLong());
+      try {
+        return errorDecoder.decode(methodKey, response);
+      } finally {
+        timing.decode += timing.mark(ticker.getAsLong());
+      }
+    };
+  }
+
+  @Override
+  public InvocationHandlerFactory enrich(InvocationHandlerFactory invocationHandlerFactory) {
+    return (target, dispatch) -> {
+      InvocationHandler handler = invocationHandlerFactory.create(target, dispatch);
+      Map<Method, String> methodKeys = new HashMap<>();
+
+      // an async call returns before its phases, it is not timed
+      dispatch.keySet().stream()
+          .filter(method -> !Future.class.isAssignableFrom(method.getReturnType()))
+          .forEach(method -> methodKeys.put(method, Feign.configKey(target.type(), method)));
+
+      return (proxy, method, arguments) -> {
+        if (!enabled) {
+          return handler.invoke(proxy, method, arguments);
+        }
+
+        String methodKey = methodKeys.get(method);
+
+        if (null == methodKey) {
+          return handler.invoke(proxy, method, arguments);
+        }
+
+        Timing outer = current.get();
+        Timing timing = new Timing(methodKey, ticker.getAsLong());
+
+        current.set(timing);
+        try {
+          return handler.invoke(proxy, method, arguments);
+        } catch (Throwable exception) {
+          timing.failed = true;
+          throw exception;
+        } finally {
+          timing.total = ticker.getAsLong() - timing.start;
+          if (null == outer) {
+            current.remove();
+          } else {
+            current.set(outer);
+          }
+          finish(timing);
+        }
+      };
+    };
+  }
+
+  /**
+   * Get the histogram of a phase, durations are in nanoseconds.
+   *
+   * @param phase phase
+   * @return latency of the phase
+   */
+  public MetricsWhat3Words.Latency getLatency(@NotNull Phase phase) {
+    return histograms[phase.ordinal()].snapshot();
+  }
+
+  /**
+   * Check if calls are timed.
+   *
+   * @return {@code true} if the timer is enabled
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Enable or disable timing of calls, it is enabled by default.
+   *
+   * @param enabled {@code false} to disable the timer
+   */
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  private void finish(Timing timing) {
+    histograms[Phase.ENCODE.ordinal()].record(timing.encode);
+    histograms[Phase.NETWORK.ordinal()].record(timing.network);
+    histograms[Phase.DECODE.ordinal()].record(timing.decode);
+    histograms[Phase.TOTAL.ordinal()].record(timing.total);
+    for (Consumer<Timing> listener : listeners) {
+      try {
+        listener.accept(timing);
+      } catch (RuntimeException exception) {
+        // a listener must not break the call
+      }
+    }
+  }
+
+  /**
+   * Phases of a call.
+   *
+   * @since 1.2.0
+   */
+  public enum Phase {
+
+    ENCODE, NETWORK, DECODE, TOTAL
+
+  }
+
+  /**
+   * Durations of phases of a call in nanoseconds.
+   *
+   * @since 1.2.0
+   */
+  public static final class Timing {
+
+    private final String methodKey;
+    private final long start;
+    private int attempts;
+    private long decode;
+    private long encode;
+    private boolean failed;
+    private long mark;
+    private long network;
+    private long total;
+
+    private Timing(String methodKey, long start) {
+      this.methodKey = methodKey;
+      this.start = start;
+      mark = start;
+    }
+
+    /*
+     * Returns the time since the previous mark.
+     */
+    private long mark(long now) {
+      long elapsed = now - mark;
+
+      mark = now;
+
+      return elapsed;
+    }
+
+    /**
+     * Get a number of requests that were sent, it is more than one if requests were retried.
+     *
+     * @return attempt count
+     */
+    public int getAttempts() {
+      return attempts;
+    }
+
+    /**
+     * Get a duration of a phase.
+     *
+     * @param phase phase
+     * @return duration
+     */
+    public long getDuration(@NotNull Phase phase) {
+      switch (phase) {
+        case ENCODE:
+          return encode;
+        case NETWORK:
+          return network;
+        case DECODE:
+          return decode;
+        default:
+          return total;
+      }
+    }
+
+    /**
+     * Get Feign's key of the method, for example {@code What3Words#availableLanguages()}.
+     *
+     * @return method key
+     */
+    public String getMethodKey() {
+      return methodKey;
+    }
+
+    /**
+     * Check if the call has thrown an exception.
+     *
+     * @return {@code true} if the call has failed
+     */
+    public boolean isFailed() {
+      return failed;
+    }
+
+    @Override
+    public String toString() {
+      return new StringJoiner(",", "{", "}").add("method='" + methodKey + "'")
+          .add("encode=" + encode).add("network=" + network).add("decode=" + decode)
+          .add("total=" + total).add("attempts=" + attempts).add("failed=" + failed).toString();
+    }
+
+  }
+
+  /**
+   * Helper to build the timer.
+   *
+   * @since 1.2.0
+   */
+  public static class PhaseTimerBuilder {
+
+    private final List<Consumer<Timing>> listeners = new ArrayList<>();
+    private LongSupplier ticker = System::nanoTime;
+
+    private PhaseTimerBuilder() {
+    }
+
+    /**
+     * Build the timer.
+     *
+     * @return the timer
+     */
+    public PhaseTimer build() {
+      return new PhaseTimer(this);
+    }
+
+    /**
+     * Add a listener of finished calls, it is called on the calling thread.
+     *
+     * @param listener listener
+     * @return the builder
+     */
+    public PhaseTimerBuilder listener(@NotNull Consumer<Timing> listener) {
+      listeners.add(Objects.requireNonNull(listener, "listener is null"));
+      return this;
+    }
+
+    PhaseTimerBuilder ticker(LongSupplier ticker) {
+      this.ticker = ticker;
+      return this;
+    }
+
+  }
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2021,2022 Witalij Berdinskich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.w3w;
+
+import feign.Response;
+import feign.codec.Decoder;
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Decoder that builds only the properties of a squared address that are requested.
+ */
+interface ProjectingDecoder extends Decoder {
+
+  /**
+   * Decode a squared address.
+   *
+   * @param response a response
+   * @param fields   properties to decode, all of them if it is {@code null}
+   * @return the squared address
+   * @throws IOException if the response could not be read
+   */
+  SquaredAddress decodeSquaredAddress(Response response, Set<SquaredAddress.Field> fields)
+      throws IOException;
+
+}
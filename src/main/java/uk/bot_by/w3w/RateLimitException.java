@@ -0,0 +1,43 @@
+/*
+ * Copyright 2021,2022 Witalij Berdinskich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.w3w;
+
+/**
+ * Client-side rate limit is exceeded, the request was not sent.
+ * <p>
+ * It has the status {@code 429} like the server-side one so it could be handled the same way.
+ *
+ * @see RateLimiter
+ * @since 1.2.0
+ */
+public class RateLimitException extends What3WordsException {
+
+  /**
+   * Error code of the exception.
+   */
+  public static final String CODE = "ClientRateLimit";
+
+  private static final long serialVersionUID = 1L;
+  private static final int TOO_MANY_REQUESTS = 429;
+
+  /**
+   * Create the exception.
+   */
+  public RateLimitException() {
+    super(TOO_MANY_REQUESTS, CODE, "Client-side rate limit is exceeded");
+  }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2021,2022 Witalij Berdinskich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.w3w;
+
+import feign.FeignException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Decorator of {@link What3Words} that takes a token of {@link RateLimiter} before every call.
+ * <p>
+ * Throttling is reported to the limiter when the delegate throws {@link What3WordsException} or
+ * {@link FeignException} with the status {@code 429}. {@link What3WordsException} does not keep
+ * response headers so {@code Retry-After} is seen only with {@link FeignException}, use
+ * {@link RateLimiter#errorDecoder(feign.codec.ErrorDecoder)} to see it with
+ * {@link What3WordsErrorDecoder}.
+ * <pre><code class="language-java">
+ * What3Words api = new RateLimitedWhat3Words(feignApi, RateLimiter.builder()
+ *                                                        .rate(10)
+ *                                                        .mode(RateLimiter.Mode.FAIL_FAST)
+ *                                                        .build());
+ * </code></pre>
+ *
+ * @since 1.2.0
+ */
+public class RateLimitedWhat3Words implements What3Words {
+
+  private static final String RETRY_AFTER = "Retry-After";
+  private static final int TOO_MANY_REQUESTS = 429;
+
+  private final What3Words delegate;
+  private final RateLimiter rateLimiter;
+
+  /**
+   * Create the decorator.
+   *
+   * @param delegate    <em>what3words</em> API
+   * @param rateLimiter rate limiter
+   */
+  public RateLimitedWhat3Words(@NotNull What3Words delegate, @NotNull RateLimiter rateLimiter) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate is null");
+    this.rateLimiter = Objects.requireNonNull(rateLimiter, "rate limiter is null");
+  }
+
+  @Override
+  public @NotNull Collection<Language> availableLanguages()
+      throws FeignException, What3WordsException {
+    return limited(delegate::availableLanguages);
+  }
+
+  @Override
+  public @NotNull Collection<Language> availableLanguages(@NotNull String key)
+      throws FeignException, What3WordsException {
+    return limited(() -> delegate.availableLanguages(key));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToAddress(Map<String, Object> queryParameters)
+      throws FeignException, What3WordsException {
+    return limited(() -> delegate.convertToAddress(queryParameters));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToAddress(WordsRequest wordsRequest)
+      throws FeignException, What3WordsException {
+    return limited(() -> delegate.convertToAddress(wordsRequest));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToAddress(@NotNull String key, WordsRequest wordsRequest)
+      throws FeignException, What3WordsException {
+    return limited(() -> delegate.convertToAddress(key, wordsRequest));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToCoordinates(Map<String, Object> queryParameters)
+      throws FeignException, What3WordsException {
+    return limited(() -> delegate.convertToCoordinates(queryParameters));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToCoordinates(CoordinatesRequest coordinatesRequest)
+      throws FeignException, What3WordsException {
+    return limited(() -> delegate.convertToCoordinates(coordinatesRequest));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToCoordinates(String key,
+      CoordinatesRequest coordinatesRequest) throws FeignException, What3WordsException {
+    return limited(() -> delegate.convertToCoordinates(key, coordinatesRequest));
+  }
+
+  private static Duration retryAfter(FeignException exception) {
+    Collection<String> values = exception.responseHeaders().get(RETRY_AFTER);
+
+    if (null == values || values.isEmpty()) {
+      return Duration.ZERO;
+    }
+
+    return RateLimiter.parseRetryAfter(values.iterator().next());
+  }
+
+  private <T> T limited(Supplier<T> call) {
+    rateLimiter.acquire();
+    try {
+      return call.get();
+    } catch (RateLimitException exception) {
+      // the limiter of a nested decorator or interceptor
+      throw exception;
+    } catch (What3WordsException exception) {
+      if (TOO_MANY_REQUESTS == exception.getStatus()) {
+        rateLimiter.throttled(Duration.ZERO);
+      }
+      throw exception;
+    } catch (FeignException exception) {
+      if (TOO_MANY_REQUESTS == exception.status()) {
+        rateLimiter.throttled(retryAfter(exception));
+      }
+      throw exception;
+    }
+  }
+
+}
@@ -0,0 +1,444 @@
+/*
+ * Copyright 2021,2022 Witalij Berdinskich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.w3w;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.codec.ErrorDecoder;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Client-side token bucket rate limiter that adapts to throttling of <em>what3words</em> API.
+ * <p>
+ * The bucket is refilled at the configured rate and holds up to the configured number of tokens
+ * for bursts, every request takes one token. When the API responds with the status {@code 429}
+ * the rate is decreased by the configured factor and no token is issued until the time of the
+ * {@code Retry-After} header passes. After that the rate is recovered linearly to the configured
+ * one.
+ * <p>
+ * If there are no tokens the limiter {@linkplain Mode#BLOCK waits for one},
+ * {@linkplain Mode#FAIL_FAST fails} or {@linkplain Mode#TIMEOUT waits for a while and fails},
+ * the failure is {@link RateLimitException}.
+ * <p>
+ * Attach it to Feign as the request interceptor and wrap the error decoder to see throttling:
+ * <pre><code class="language-java">
+ * RateLimiter rateLimiter = RateLimiter.builder()
+ *                                      .rate(10)
+ *                                      .capacity(20)
+ *                                      .mode(RateLimiter.Mode.TIMEOUT)
+ *                                      .timeout(Duration.ofSeconds(5))
+ *                                      .build();
+ *
+ * api = Feign.builder()
+ *            .client(new Http2Client())
+ *            .decoder(new What3WordsDecoder())
+ *            .errorDecoder(rateLimiter.errorDecoder(new What3WordsErrorDecoder()))
+ *            .requestInterceptor(rateLimiter)
+ *            .target(What3Words.class, What3Words.W3W_API);
+ * </code></pre>
+ * or use {@link RateLimitedWhat3Words}, only one of the ways should be used with the same
+ * limiter.
+ *
+ * @since 1.2.0
+ */
+public class RateLimiter implements RequestInterceptor {
+
+  private static final double DEFAULT_FRACTION = 0.1;
+  private static final String RETRY_AFTER = "Retry-After";
+  private static final int TOO_MANY_REQUESTS = 429;
+
+  private final double capacity;
+  private final double decreaseFactor;
+  private final double maxRate;
+  private final double minRate;
+  private final Mode mode;
+  private final double recovery;
+  private final LongSupplier ticker;
+  private final long timeout;
+
+  private long nextFreeTicket;
+  private double rate;
+  private double storedTokens;
+  private double throttledRate;
+  private long throttledAt;
+
+  private RateLimiter(RateLimiterBuilder builder) {
+    capacity = builder.capacity;
+    decreaseFactor = builder.decreaseFactor;
+    maxRate = builder.rate;
+    minRate = (0 == builder.minRate) ? maxRate * DEFAULT_FRACTION : builder.minRate;
+    mode = builder.mode;
+    recovery = (0 == builder.recovery) ? maxRate * DEFAULT_FRACTION : builder.recovery;
+    ticker = builder.ticker;
+    timeout = builder.timeout.toNanos();
+
+    nextFreeTicket = ticker.getAsLong();
+    rate = maxRate;
+    storedTokens = capacity;
+    throttledRate = maxRate;
+    throttledAt = nextFreeTicket;
+  }
+
+  /**
+   * Get a builder of the rate limiter.
+   *
+   * @return a builder
+   */
+  public static RateLimiterBuilder builder() {
+    return new RateLimiterBuilder();
+  }
+
+  /*
+   * Retry-After is either delay seconds or HTTP date, returns zero if it could not be parsed.
+   */
+  static Duration parseRetryAfter(String value) {
+    String trimmed = value.trim();
+
+    try {
+      return Duration.ofSeconds(Math.max(0, Long.parseLong(trimmed)));
+    } catch (NumberFormatException exception) {
+      try {
+        long millis = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME)
+            .toInstant().toEpochMilli() - System.currentTimeMillis();
+
+        return Duration.ofMillis(Math.max(0, millis));
+      } catch (DateTimeParseException dateException) {
+        return Duration.ZERO;
+      }
+    }
+  }
+
+  /*
+   * Parking could return earlier, so the deadline is checked by the ticker. An interrupted wait
+   * fails the acquire and keeps the interrupt status.
+   */
+  private void sleep(long nanos) throws RateLimitException {
+    long deadline = ticker.getAsLong() + nanos;
+
+    for (long left = nanos; 0 < left; left = deadline - ticker.getAsLong()) {
+      LockSupport.parkNanos(left);
+      if (Thread.interrupted()) {
+        Thread.currentThread().interrupt();
+        throw new RateLimitException();
+      }
+    }
+  }
+
+  /**
+   * Take a token, the behaviour depends on the {@linkplain Mode mode}.
+   *
+   * @throws RateLimitException if a token is not available or the thread is interrupted while
+   *                            it waits for a token
+   */
+  public void acquire() throws RateLimitException {
+    long wait;
+
+    switch (mode) {
+      case FAIL_FAST:
+        wait = reserve(0);
+        break;
+      case TIMEOUT:
+        wait = reserve(timeout);
+        break;
+      default:
+        wait = reserve(Long.MAX_VALUE);
+    }
+    if (0 > wait) {
+      throw new RateLimitException();
+    }
+    sleep(wait);
+  }
+
+  /**
+   * Take a token before a request is sent.
+   *
+   * @param template a request template
+   * @throws RateLimitException if a token is not available
+   */
+  @Override
+  public void apply(RequestTemplate template) throws RateLimitException {
+    acquire();
+  }
+
+  /**
+   * Wrap an error decoder to track responses with the status {@code 429}.
+   *
+   * @param errorDecoder an error decoder
+   * @return the wrapped error decoder
+   */
+  public ErrorDecoder errorDecoder(@NotNull ErrorDecoder errorDecoder) {
+    Objects.requireNonNull(errorDecoder, "error decoder is null");
+    return (methodKey, response) -> {
+      if (TOO_MANY_REQUESTS == response.status()) {
+        throttled(retryAfter(response));
+      }
+      return errorDecoder.decode(methodKey, response);
+    };
+  }
+
+  /**
+   * Get the current rate.
+   *
+   * @return tokens per second
+   */
+  public synchronized double getRate() {
+    resync(ticker.getAsLong());
+    return rate;
+  }
+
+  /**
+   * Report throttling: the rate is decreased and no token is issued until the time passes.
+   *
+   * @param retryAfter time to wait, could be zero
+   */
+  public synchronized void throttled(@NotNull Duration retryAfter) {
+    long now = ticker.getAsLong();
+
+    Objects.requireNonNull(retryAfter, "retry after is null");
+    resync(now);
+    throttledRate = Math.max(minRate, rate * decreaseFactor);
+    throttledAt = now + Math.max(0, retryAfter.toNanos());
+    // the rate is not recovered until the server allows requests
+    rate = throttledRate;
+    storedTokens = 0;
+    nextFreeTicket = Math.max(nextFreeTicket, throttledAt);
+  }
+
+  /*
+   * Feign keeps response headers case-insensitive.
+   */
+  private static Duration retryAfter(Response response) {
+    Collection<String> values = response.headers().get(RETRY_AFTER);
+
+    if (null == values || values.isEmpty()) {
+      return Duration.ZERO;
+    }
+
+    return parseRetryAfter(values.iterator().next());
+  }
+
+  /*
+   * Returns nanoseconds to wait for a reserved token or -1 if the token is not available
+   * in the time. The next free ticket is the time when stored tokens were counted, a missing
+   * part of the token is paid by waiting.
+   */
+  private synchronized long reserve(long maxWait) {
+    long now = ticker.getAsLong();
+
+    resync(now);
+
+    double fromStored = Math.min(1, storedTokens);
+    long ready = nextFreeTicket + (long) ((1 - fromStored) * TimeUnit.SECONDS.toNanos(1) / rate);
+
+    if (maxWait < ready - now) {
+      return -1;
+    }
+    nextFreeTicket = ready;
+    storedTokens -= fromStored;
+
+    return Math.max(0, ready - now);
+  }
+
+  private void resync(long now) {
+    if (rate < maxRate && now > throttledAt) {
+      rate = Math.min(maxRate,
+          throttledRate + recovery * (now - throttledAt) / TimeUnit.SECONDS.toNanos(1));
+    }
+    if (now > nextFreeTicket) {
+      storedTokens = Math.min(capacity,
+          storedTokens + (now - nextFreeTicket) * rate / TimeUnit.SECONDS.toNanos(1));
+      nextFreeTicket = now;
+    }
+  }
+
+  /**
+   * What to do if there are no tokens.
+   *
+   * @since 1.2.0
+   */
+  public enum Mode {
+
+    /**
+     * Wait for a token.
+     */
+    BLOCK,
+    /**
+     * Fail immediately.
+     */
+    FAIL_FAST,
+    /**
+     * Wait for a token for the configured time and fail.
+     */
+    TIMEOUT
+
+  }
+
+  /**
+   * Helper to build the rate limiter.
+   *
+   * @since 1.2.0
+   */
+  public static class RateLimiterBuilder {
+
+    private static final double DEFAULT_DECREASE_FACTOR = 0.5;
+    private static final double DEFAULT_RATE = 10;
+
+    private double capacity = DEFAULT_RATE;
+    private double decreaseFactor = DEFAULT_DECREASE_FACTOR;
+    // zero is a tenth of the rate
+    private double minRate;
+    private Mode mode = Mode.BLOCK;
+    private double rate = DEFAULT_RATE;
+    private double recovery;
+    private LongSupplier ticker = System::nanoTime;
+    private Duration timeout = Duration.ZERO;
+
+    private RateLimiterBuilder() {
+    }
+
+    /**
+     * Build the rate limiter.
+     *
+     * @return the rate limiter
+     * @throws IllegalArgumentException if the minimal rate is greater than the rate
+     */
+    public RateLimiter build() throws IllegalArgumentException {
+      if (0 != minRate && minRate > rate) {
+        throw new IllegalArgumentException("minimal rate is greater than rate");
+      }
+      return new RateLimiter(this);
+    }
+
+    /**
+     * Set maximum number of tokens for bursts, default is 10.
+     *
+     * @param capacity maximum number of tokens
+     * @return the builder
+     * @throws IllegalArgumentException if the capacity is less than one
+     */
+    public RateLimiterBuilder capacity(double capacity) throws IllegalArgumentException {
+      if (1 > capacity) {
+        throw new IllegalArgumentException("capacity must be at least one");
+      }
+      this.capacity = capacity;
+      return this;
+    }
+
+    /**
+     * Set the factor of the rate decrease on throttling, default is 0.5.
+     *
+     * @param decreaseFactor the factor
+     * @return the builder
+     * @throws IllegalArgumentException if the factor is not between 0 and 1
+     */
+    public RateLimiterBuilder decreaseFactor(double decreaseFactor)
+        throws IllegalArgumentException {
+      if (0 >= decreaseFactor || 1 < decreaseFactor) {
+        throw new IllegalArgumentException("decrease factor must be in the range of 0 to 1");
+      }
+      this.decreaseFactor = decreaseFactor;
+      return this;
+    }
+
+    /**
+     * Set minimal rate, it is not decreased below it. Default is a tenth of the rate.
+     *
+     * @param minRate minimal tokens per second
+     * @return the builder
+     * @throws IllegalArgumentException if the rate is not positive
+     */
+    public RateLimiterBuilder minRate(double minRate) throws IllegalArgumentException {
+      if (0 >= minRate) {
+        throw new IllegalArgumentException("minimal rate must be positive");
+      }
+      this.minRate = minRate;
+      return this;
+    }
+
+    /**
+     * Set what to do if there are no tokens, default is {@link Mode#BLOCK}.
+     *
+     * @param mode the mode
+     * @return the builder
+     */
+    public RateLimiterBuilder mode(@NotNull Mode mode) {
+      this.mode = Objects.requireNonNull(mode, "mode is null");
+      return this;
+    }
+
+    /**
+     * Set rate, default is 10.
+     *
+     * @param rate tokens per second
+     * @return the builder
+     * @throws IllegalArgumentException if the rate is not positive
+     */
+    public RateLimiterBuilder rate(double rate) throws IllegalArgumentException {
+      if (0 >= rate) {
+        throw new IllegalArgumentException("rate must be positive");
+      }
+      this.rate = rate;
+      return this;
+    }
+
+    /**
+     * Set how fast the rate is recovered after throttling, default is a tenth of the rate.
+     *
+     * @param recovery tokens per second that are added to the rate every second
+     * @return the builder
+     * @throws IllegalArgumentException if the recovery is not positive
+     */
+    public RateLimiterBuilder recovery(double recovery) throws IllegalArgumentException {
+      if (0 >= recovery) {
+        throw new IllegalArgumentException("recovery must be positive");
+      }
+      this.recovery = recovery;
+      return this;
+    }
+
+    /**
+     * Set time to wait for a token in the mode {@link Mode#TIMEOUT}.
+     *
+     * @param timeout time to wait
+     * @return the builder
+     * @throws IllegalArgumentException if the timeout is negative
+     */
+    public RateLimiterBuilder timeout(@NotNull Duration timeout) throws IllegalArgumentException {
+      if (timeout.isNegative()) {
+        throw new IllegalArgumentException("timeout is negative");
+      }
+      this.timeout = timeout;
+      return this;
+    }
+
+    RateLimiterBuilder ticker(LongSupplier ticker) {
+      this.ticker = ticker;
+      return this;
+    }
+
+  }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2021,2022 Witalij Berdinskich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.w3w;
+
+import feign.FeignException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Decorator of {@link What3Words} that reads addresses through {@link MappedAddressStore}.
+ * <p>
+ * {@link #convertToCoordinates(CoordinatesRequest) convertToCoordinates} is looked up by words,
+ * {@link #convertToAddress(WordsRequest) convertToAddress} is looked up by coordinates and
+ * language, a request without language is looked up in English. Addresses of the delegate are
+ * put to the store, if the store is full, read-only or closed they are just returned.
+ * <p>
+ * Query maps are served if they could be converted to requests, see {@link CachingWhat3Words}.
+ * Available languages go to the delegate. API keys are not a part of the lookup: the store keeps
+ * answers of the API, they do not depend on the key.
+ * <pre><code class="language-java">
+ * What3Words api = new ReadThroughWhat3Words(feignApi, store);
+ * </code></pre>
+ *
+ * @since 1.2.0
+ */
+public class ReadThroughWhat3Words implements What3Words {
+
+  private final What3Words delegate;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final MappedAddressStore store;
+
+  /**
+   * Create the decorator.
+   *
+   * @param delegate <em>what3words</em> API
+   * @param store    the store
+   */
+  public ReadThroughWhat3Words(@NotNull What3Words delegate, @NotNull MappedAddressStore store) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate is null");
+    this.store = Objects.requireNonNull(store, "store is null");
+  }
+
+  @Override
+  public @NotNull Collection<Language> availableLanguages()
+      throws FeignException, What3WordsException {
+    return delegate.availableLanguages();
+  }
+
+  @Override
+  public @NotNull Collection<Language> availableLanguages(@NotNull String key)
+      throws FeignException, What3WordsException {
+    return delegate.availableLanguages(key);
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToAddress(Map<String, Object> queryParameters)
+      throws FeignException, What3WordsException {
+    return lookUp(CachingWhat3Words.toWordsRequest(queryParameters),
+        () -> delegate.convertToAddress(queryParameters));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToAddress(WordsRequest wordsRequest)
+      throws FeignException, What3WordsException {
+    return lookUp(wordsRequest, () -> delegate.convertToAddress(wordsRequest));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToAddress(@NotNull String key, WordsRequest wordsRequest)
+      throws FeignException, What3WordsException {
+    return lookUp(wordsRequest, () -> delegate.convertToAddress(key, wordsRequest));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToCoordinates(Map<String, Object> queryParameters)
+      throws FeignException, What3WordsException {
+    return lookUp(CachingWhat3Words.toCoordinatesRequest(queryParameters),
+        () -> delegate.convertToCoordinates(queryParameters));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToCoordinates(CoordinatesRequest coordinatesRequest)
+      throws FeignException, What3WordsException {
+    return lookUp(coordinatesRequest, () -> delegate.convertToCoordinates(coordinatesRequest));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToCoordinates(String key,
+      CoordinatesRequest coordinatesRequest) throws FeignException, What3WordsException {
+    return lookUp(coordinatesRequest,
+        () -> delegate.convertToCoordinates(key, coordinatesRequest));
+  }
+
+  /**
+   * Get a number of requests that were served by the store.
+   *
+   * @return hit count
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Get a number of requests that went to the delegate.
+   *
+   * @return miss count
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  private SquaredAddress lookUp(WordsRequest request, Supplier<SquaredAddress> call) {
+    if (null == request) {
+      return call.get();
+    }
+    return lookUp(store.get(request.getCoordinates(), request.getLanguage()), call);
+  }
+
+  private SquaredAddress lookUp(CoordinatesRequest request, Supplier<SquaredAddress> call) {
+    if (null == request) {
+      return call.get();
+    }
+    return lookUp(store.get(request.getWords()), call);
+  }
+
+  private SquaredAddress lookUp(SquaredAddress stored, Supplier<SquaredAddress> call) {
+    if (null != stored) {
+      hits.increment();
+      return stored;
+    }
+    misses.increment();
+
+    SquaredAddress squaredAddress = call.get();
+
+    if (null != squaredAddress && !store.isReadOnly()) {
+      try {
+        store.put(squaredAddress);
+      } catch (IllegalStateException exception) {
+        // the store is closed, the address is just returned
+      }
+    }
+
+    return squaredAddress;
+  }
+
+}
@@ -0,0 +1,353 @@
+/*
+ * Copyright 2021,2022 Witalij Berdinskich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.w3w;
+
+import feign.FeignException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Decorator of {@link What3Words} that answers
+ * {@link #convertToAddress(WordsRequest) convertToAddress} by known squares.
+ * <p>
+ * Every <abbr class="tooltip">3wa<span class="tooltiptext">3 word address</span></abbr> comes with
+ * its 3m square, any point inside the square gets the same words. The decorator keeps squares of
+ * received addresses in a grid of cells about 2.5m high, a cell is a packed long of its latitude
+ * and longitude indexes. A request is served locally if its point lies in a known square of the
+ * requested language: the south and west edges belong to the square, the north and east ones do
+ * not. The grid is bounded by a number of cells and its entries expire like the ones of
+ * {@link CachingWhat3Words}.
+ * <p>
+ * Query maps are served if they could be converted to {@link WordsRequest}, see
+ * {@link CachingWhat3Words}. Other methods go to the delegate.
+ * <pre><code class="language-java">
+ * What3Words api = SquareCachingWhat3Words.builder()
+ *                      .delegate(feignApi)
+ *                      .maximumSize(100_000)
+ *                      .build();
+ * </code></pre>
+ *
+ * @since 1.2.0
+ */
+public class SquareCachingWhat3Words implements What3Words {
+
+  private static final int CELL_SHIFT = 8;
+  private static final int MAX_CELLS_PER_SQUARE = 64;
+
+  private final TinyLfuCache<Cell, SquaredAddress[]> cells;
+  private final What3Words delegate;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  private SquareCachingWhat3Words(SquareCachingWhat3WordsBuilder builder) {
+    cells = new TinyLfuCache<>(builder.maximumSize, builder.timeToLive.toNanos(),
+        builder.ticker);
+    delegate = builder.delegate;
+  }
+
+  /**
+   * Get a builder of the decorator.
+   *
+   * @return a builder
+   */
+  public static SquareCachingWhat3WordsBuilder builder() {
+    return new SquareCachingWhat3WordsBuilder();
+  }
+
+  @Override
+  public @NotNull Collection<Language> availableLanguages()
+      throws FeignException, What3WordsException {
+    return delegate.availableLanguages();
+  }
+
+  @Override
+  public @NotNull Collection<Language> availableLanguages(@NotNull String key)
+      throws FeignException, What3WordsException {
+    return delegate.availableLanguages(key);
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToAddress(Map<String, Object> queryParameters)
+      throws FeignException, What3WordsException {
+    return lookUp(CachingWhat3Words.toWordsRequest(queryParameters),
+        () -> delegate.convertToAddress(queryParameters));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToAddress(WordsRequest wordsRequest)
+      throws FeignException, What3WordsException {
+    return lookUp(wordsRequest, () -> delegate.convertToAddress(wordsRequest));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToAddress(@NotNull String key, WordsRequest wordsRequest)
+      throws FeignException, What3WordsException {
+    return lookUp(wordsRequest, () -> delegate.convertToAddress(key, wordsRequest));
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToCoordinates(Map<String, Object> queryParameters)
+      throws FeignException, What3WordsException {
+    return delegate.convertToCoordinates(queryParameters);
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToCoordinates(CoordinatesRequest coordinatesRequest)
+      throws FeignException, What3WordsException {
+    return delegate.convertToCoordinates(coordinatesRequest);
+  }
+
+  @Override
+  public @NotNull SquaredAddress convertToCoordinates(String key,
+      CoordinatesRequest coordinatesRequest) throws FeignException, What3WordsException {
+    return delegate.convertToCoordinates(key, coordinatesRequest);
+  }
+
+  /**
+   * Get a number of requests that were served by known squares.
+   *
+   * @return hit count
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Get a number of requests that went to the delegate.
+   *
+   * @return miss count
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * Get a number of cells that were evicted, expired or not admitted to the grid.
+   *
+   * @return eviction count
+   */
+  public long getEvictionCount() {
+    return cells.evictionCount();
+  }
+
+  static long cell(long latitudeIndex, long longitudeIndex) {
+    return latitudeIndex << Integer.SIZE | longitudeIndex & 0xffffffffL;
+  }
+
+  /*
+   * Half-open: the south and west edges are inside, the north and east ones are outside.
+   */
+  static boolean contains(Square square, double latitude, double longitude) {
+    Coordinates northeast = square.getNortheast();
+    Coordinates southwest = square.getSouthwest();
+
+    return southwest.getLatitudeAsDouble() <= latitude
+        && northeast.getLatitudeAsDouble() > latitude
+        && southwest.getLongitudeAsDouble() <= longitude
+        && northeast.getLongitudeAsDouble() > longitude;
+  }
+
+  private SquaredAddress lookUp(WordsRequest request, Supplier<SquaredAddress> call) {
+    if (null == request) {
+      return call.get();
+    }
+
+    Coordinates coordinates = request.getCoordinates();
+    double latitude = coordinates.getLatitudeAsDouble();
+    double longitude = coordinates.getLongitudeAsDouble();
+    SquaredAddress[] squaredAddresses = cells.get(
+        new Cell(cell(coordinates.getLatitudeE7() >> CELL_SHIFT,
+            coordinates.getLongitudeE7() >> CELL_SHIFT), request.getLanguage()));
+
+    if (null != squaredAddresses) {
+      for (SquaredAddress squaredAddress : squaredAddresses) {
+        if (contains(squaredAddress.getSquare(), latitude, longitude)) {
+          hits.increment();
+          return squaredAddress;
+        }
+      }
+    }
+    misses.increment();
+
+    SquaredAddress squaredAddress = call.get();
+
+    if (null != squaredAddress) {
+      put(squaredAddress, request.getLanguage());
+    }
+
+    return squaredAddress;
+  }
+
+  /*
+   * Squares that cross the antimeridian or cover too many cells are not kept.
+   */
+  private void put(SquaredAddress squaredAddress, Language language) {
+    Coordinates northeast = squaredAddress.getSquare().getNortheast();
+    Coordinates southwest = squaredAddress.getSquare().getSouthwest();
+    long north = northeast.getLatitudeE7() >> CELL_SHIFT;
+    long east = northeast.getLongitudeE7() >> CELL_SHIFT;
+    long south = southwest.getLatitudeE7() >> CELL_SHIFT;
+    long west = southwest.getLongitudeE7() >> CELL_SHIFT;
+
+    if (north < south || east < west
+        || MAX_CELLS_PER_SQUARE < (north - south + 1) * (east - west + 1)) {
+      return;
+    }
+    for (long latitude = south; north >= latitude; latitude++) {
+      for (long longitude = west; east >= longitude; longitude++) {
+        cells.merge(new Cell(cell(latitude, longitude), language),
+            new SquaredAddress[]{squaredAddress},
+            (squaredAddresses, added) -> add(squaredAddresses, squaredAddress));
+      }
+    }
+  }
+
+  private static SquaredAddress[] add(SquaredAddress[] squaredAddresses,
+      SquaredAddress squaredAddress) {
+    if (Arrays.asList(squaredAddresses).contains(squaredAddress)) {
+      return squaredAddresses;
+    }
+
+    SquaredAddress[] merged = Arrays.copyOf(squaredAddresses, squaredAddresses.length + 1);
+
+    merged[squaredAddresses.length] = squaredAddress;
+
+    return merged;
+  }
+
+  private static final class Cell {
+
+    private final long cell;
+    private final Language language;
+
+    private Cell(long cell, Language language) {
+      this.cell = cell;
+      this.language = language;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Cell)) {
+        return false;
+      }
+
+      Cell that = (Cell) o;
+
+      return cell == that.cell && Objects.equals(language, that.language);
+    }
+
+    /*
+     * Long.hashCode(cell) is latitude index xor longitude index, it collides for neighbouring
+     * cells so the cell is mixed first.
+     */
+    @Override
+    public int hashCode() {
+      return 31 * Long.hashCode(cell * 0x9e3779b97f4a7c15L) + Objects.hashCode(language);
+    }
+
+  }
+
+  /**
+   * Helper to build the decorator.
+   *
+   * @since 1.2.0
+   */
+  public static class SquareCachingWhat3WordsBuilder {
+
+    private static final int DEFAULT_MAXIMUM_SIZE = 100_000;
+    private static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofDays(1);
+
+    private What3Words delegate;
+    private int maximumSize = DEFAULT_MAXIMUM_SIZE;
+    private LongSupplier ticker = System::nanoTime;
+    private Duration timeToLive = DEFAULT_TIME_TO_LIVE;
+
+    private SquareCachingWhat3WordsBuilder() {
+    }
+
+    /**
+     * Build the decorator.
+     *
+     * @return the decorator
+     * @throws NullPointerException if the delegate is null
+     */
+    public SquareCachingWhat3Words build() throws NullPointerException {
+      Objects.requireNonNull(delegate, "delegate is null");
+      return new SquareCachingWhat3Words(this);
+    }
+
+    /**
+     * Set the decorated API.
+     *
+     * @param delegate <em>what3words</em> API
+     * @return the builder
+     */
+    public SquareCachingWhat3WordsBuilder delegate(@NotNull What3Words delegate) {
+      this.delegate = delegate;
+      return this;
+    }
+
+    /**
+     * Set maximum number of grid cells, default is 100000. A square covers one to four cells in
+     * the middle latitudes.
+     *
+     * @param maximumSize maximum number of cells
+     * @return the builder
+     * @throws IllegalArgumentException if the size is not positive
+     */
+    public SquareCachingWhat3WordsBuilder maximumSize(int maximumSize)
+        throws IllegalArgumentException {
+      if (0 >= maximumSize) {
+        throw new IllegalArgumentException("maximum size must be positive");
+      }
+      this.maximumSize = maximumSize;
+      return this;
+    }
+
+    /**
+     * Set time to live of a cell, default is one day.
+     *
+     * @param timeToLive time to live
+     * @return the builder
+     * @throws IllegalArgumentException if the time is not positive
+     */
+    public SquareCachingWhat3WordsBuilder timeToLive(@NotNull Duration timeToLive)
+        throws IllegalArgumentException {
+      if (timeToLive.isNegative() || timeToLive.isZero()) {
+        throw new IllegalArgumentException("time to live must be positive");
+      }
+      this.timeToLive = timeToLive;
+      return this;
+    }
+
+    SquareCachingWhat3WordsBuilder ticker(LongSupplier ticker) {
+      this.ticker = ticker;
+      return this;
+    }
+
+  }
+
+}
@@ -20,6 +20,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.StringJoiner;
 import org.jetbrains.annotations.NotNull;
 
@@ -113,6 +114,30 @@ public interface SquaredAddress {
    */
   URL getMap();
 
+  /**
+   * Properties of a squared address, a projection of a request is a set of them.
+   *
+   * @see HttpClientWhat3Words#convertToAddress(WordsRequest, Field...)
+   * @see HttpClientWhat3Words#convertToCoordinates(CoordinatesRequest, Field...)
+   * @since 1.2.0
+   */
+  enum Field {
+
+    COUNTRY("country"), SQUARE("square"), NEAREST_PLACE("nearest place"),
+    COORDINATES("coordinates"), WORDS("words"), LANGUAGE("language"), MAP("map");
+
+    private final String label;
+
+    Field(String label) {
+      this.label = label;
+    }
+
+    String getLabel() {
+      return label;
+    }
+
+  }
+
   /**
    * Basic implementation of {@link SquaredAddress}.
    *
@@ -183,6 +208,81 @@ public interface SquaredAddress {
 
   }
 
+  /**
+   * Squared address that has only some properties.
+   * <p>
+   * Getters of properties that are not in the projection throw {@link IllegalStateException}.
+   *
+   * @since 1.2.0
+   */
+  class ProjectedSquaredAddress extends BasicSquaredAddress {
+
+    private final Set<Field> fields;
+
+    private ProjectedSquaredAddress(SquaredAddressBuilder builder, Set<Field> fields) {
+      super(builder);
+      this.fields = fields;
+    }
+
+    /**
+     * Get properties of the address.
+     *
+     * @return the projection
+     */
+    public Set<Field> getFields() {
+      return fields;
+    }
+
+    private void check(Field field) {
+      if (!fields.contains(field)) {
+        throw new IllegalStateException(field.getLabel() + " is not projected");
+      }
+    }
+
+    @Override
+    public String getCountry() {
+      check(Field.COUNTRY);
+      return super.getCountry();
+    }
+
+    @Override
+    public Square getSquare() {
+      check(Field.SQUARE);
+      return super.getSquare();
+    }
+
+    @Override
+    public String getNearestPlace() {
+      check(Field.NEAREST_PLACE);
+      return super.getNearestPlace();
+    }
+
+    @Override
+    public Coordinates getCoordinates() {
+      check(Field.COORDINATES);
+      return super.getCoordinates();
+    }
+
+    @Override
+    public Words getWords() {
+      check(Field.WORDS);
+      return super.getWords();
+    }
+
+    @Override
+    public Language getLanguage() {
+      check(Field.LANGUAGE);
+      return super.getLanguage();
+    }
+
+    @Override
+    public URL getMap() {
+      check(Field.MAP);
+      return super.getMap();
+    }
+
+  }
+
   /**
    * Helper to constraint What3Words response.
    *
@@ -220,6 +320,40 @@ public interface SquaredAddress {
       return new BasicSquaredAddress(this);
     }
 
+    /*
+     * Like build() but only properties of the projection are checked, all of them if it is null.
+     */
+    SquaredAddress build(Set<Field> fields) throws NullPointerException {
+      if (null == fields || Field.values().length == fields.size()) {
+        return build();
+      }
+      for (Field field : fields) {
+        if (null == get(field)) {
+          throw new NullPointerException(field.getLabel() + " is null");
+        }
+      }
+      return new ProjectedSquaredAddress(this, fields);
+    }
+
+    private Object get(Field field) {
+      switch (field) {
+        case COUNTRY:
+          return country;
+        case SQUARE:
+          return square;
+        case NEAREST_PLACE:
+          return nearestPlace;
+        case COORDINATES:
+          return coordinates;
+        case WORDS:
+          return words;
+        case LANGUAGE:
+          return language;
+        default:
+          return map;
+      }
+    }
+
     /**
      * Set a country.
      *
@@ -0,0 +1,580 @@
+/*
+ * Copyright 2021,2022 Witalij Berdinskich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.w3w;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.math.BigDecimal;
+import java.net.URL;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Compact binary encoding of {@link SquaredAddress} and its parts.
+ * <p>
+ * Coordinates are fixed-point ints in units of 10<sup>-7</sup> degree with the scale of their
+ * decimal values, so they are decoded equal to the encoded ones. Corners of a square are
+ * variable-length deltas from its centre, a squared address uses its coordinates as the centre.
+ * Country codes of two letters and language codes of the API are small ids, the map link is a
+ * flag if it is the usual link of the words. Strings are UTF-8 with a variable-length size.
+ * Values that do not fit the compact form, e.g. coordinates with more than 7 fraction digits,
+ * are written as they are.
+ * <p>
+ * A squared address of the API takes about 60 bytes while its JSON takes about 300. Encoding does
+ * not allocate objects except for the rare values that are written as they are. A buffer is read
+ * and written from its position, an encoded value is decoded by the method of its type.
+ * <pre><code class="language-java">
+ * ByteBuffer buffer = ByteBuffer.allocate(256);
+ *
+ * SquaredAddressCodec.encode(squaredAddress, buffer);
+ * buffer.flip();
+ * SquaredAddress decoded = SquaredAddressCodec.decodeSquaredAddress(buffer);
+ * </code></pre>
+ *
+ * @since 1.2.0
+ */
+public final class SquaredAddressCodec {
+
+  /*
+   * A language id is an id of the bundled registry plus one, zero is a language out of it.
+   */
+  private static final LanguageRegistry LANGUAGES = LanguageRegistry.bundled();
+  private static final String MAP_LINK = "https://w3w.co/";
+  private static final int COUNTRY_IDS = 26 * 26;
+  private static final int DECIMAL = 10;
+  private static final int DOUBLE = 9;
+  private static final int FORMAT = 1;
+  private static final int MAX_SCALE = 7;
+  private static final int NAMES = 0x80;
+  private static final int NO_SCALE = 8;
+  private static final int NO_SCALE_VALUE = -1;
+
+  private SquaredAddressCodec() {
+  }
+
+  /**
+   * Write a squared address.
+   *
+   * @param squaredAddress the squared address
+   * @param buffer         the buffer
+   * @throws BufferOverflowException if the buffer does not have enough space
+   */
+  public static void encode(@NotNull SquaredAddress squaredAddress, @NotNull ByteBuffer buffer)
+      throws BufferOverflowException {
+    Coordinates coordinates = squaredAddress.getCoordinates();
+    Words words = squaredAddress.getWords();
+
+    buffer.put((byte) FORMAT);
+    putCountry(buffer, squaredAddress.getCountry());
+    encode(squaredAddress.getLanguage(), buffer);
+    encode(words, buffer);
+    putCoordinates(buffer, coordinates, 0, 0, false);
+    putCoordinates(buffer, squaredAddress.getSquare().getNortheast(),
+        coordinates.getLatitudeE7(), coordinates.getLongitudeE7(), true);
+    putCoordinates(buffer, squaredAddress.getSquare().getSouthwest(),
+        coordinates.getLatitudeE7(), coordinates.getLongitudeE7(), true);
+    putString(buffer, squaredAddress.getNearestPlace());
+    if (isMapLink(squaredAddress.getMap(), words)) {
+      buffer.put((byte) 0);
+    } else {
+      buffer.put((byte) 1);
+      putString(buffer, squaredAddress.getMap().toString());
+    }
+  }
+
+  /**
+   * Write a square.
+   *
+   * @param square the square
+   * @param buffer the buffer
+   * @throws BufferOverflowException if the buffer does not have enough space
+   */
+  public static void encode(@NotNull Square square, @NotNull ByteBuffer buffer)
+      throws BufferOverflowException {
+    Coordinates northeast = square.getNortheast();
+    Coordinates southwest = square.getSouthwest();
+    int latitude = (int) ((northeast.getLatitudeE7() + southwest.getLatitudeE7()) / 2);
+    int longitude = (int) ((northeast.getLongitudeE7() + southwest.getLongitudeE7()) / 2);
+
+    buffer.putInt(latitude).putInt(longitude);
+    putCoordinates(buffer, northeast, latitude, longitude, true);
+    putCoordinates(buffer, southwest, latitude, longitude, true);
+  }
+
+  /**
+   * Write coordinates.
+   *
+   * @param coordinates the coordinates
+   * @param buffer      the buffer
+   * @throws BufferOverflowException if the buffer does not have enough space
+   */
+  public static void encode(@NotNull Coordinates coordinates, @NotNull ByteBuffer buffer)
+      throws BufferOverflowException {
+    putCoordinates(buffer, coordinates, 0, 0, false);
+  }
+
+  /**
+   * Write words.
+   *
+   * @param words the words
+   * @param buffer the buffer
+   * @throws BufferOverflowException if the buffer does not have enough space
+   */
+  public static void encode(@NotNull Words words, @NotNull ByteBuffer buffer)
+      throws BufferOverflowException {
+    putString(buffer, words.getFirst());
+    putString(buffer, words.getSecond());
+    putString(buffer, words.getThird());
+  }
+
+  /**
+   * Write a language.
+   * <p>
+   * A language of the API without names takes one byte.
+   *
+   * @param language the language
+   * @param buffer   the buffer
+   * @throws BufferOverflowException if the buffer does not have enough space
+   */
+  public static void encode(@NotNull Language language, @NotNull ByteBuffer buffer)
+      throws BufferOverflowException {
+    String code = language.getCode();
+    int id = languageId(language);
+    // names of a language without them are its code
+    String name = code.equals(language.getName()) ? null : language.getName();
+    String nativeName = code.equals(language.getNativeName()) ? null : language.getNativeName();
+    boolean names = null != name || null != nativeName;
+
+    buffer.put((byte) (names ? id | NAMES : id));
+    if (0 == id) {
+      putString(buffer, code);
+    }
+    if (names) {
+      putNullableString(buffer, name);
+      putNullableString(buffer, nativeName);
+    }
+  }
+
+  /**
+   * Read a squared address.
+   *
+   * @param buffer the buffer
+   * @return the squared address
+   * @throws BufferUnderflowException if the buffer ends before the squared address
+   * @throws IllegalArgumentException if the buffer does not contain a squared address
+   */
+  public static SquaredAddress decodeSquaredAddress(@NotNull ByteBuffer buffer)
+      throws BufferUnderflowException, IllegalArgumentException {
+    if (FORMAT != buffer.get()) {
+      throw new IllegalArgumentException("unknown format of squared address");
+    }
+
+    SquaredAddress.SquaredAddressBuilder builder = SquaredAddress.builder();
+    String country = getCountry(buffer);
+    Language language = decodeLanguage(buffer);
+    Words words = decodeWords(buffer);
+    Coordinates coordinates = getCoordinates(buffer, 0, 0, false);
+    long latitude = coordinates.getLatitudeE7();
+    long longitude = coordinates.getLongitudeE7();
+
+    builder.country(country).language(language).words(words).coordinates(coordinates)
+        .square(getCoordinates(buffer, latitude, longitude, true),
+            getCoordinates(buffer, latitude, longitude, true))
+        .nearestPlace(getString(buffer));
+    if (0 == buffer.get()) {
+      builder.map(MAP_LINK + words);
+    } else {
+      builder.map(getString(buffer));
+    }
+
+    return builder.build();
+  }
+
+  /**
+   * Read a square.
+   *
+   * @param buffer the buffer
+   * @return the square
+   * @throws BufferUnderflowException if the buffer ends before the square
+   */
+  public static Square decodeSquare(@NotNull ByteBuffer buffer) throws BufferUnderflowException {
+    int latitude = buffer.getInt();
+    int longitude = buffer.getInt();
+
+    return Square.builder().northeast(getCoordinates(buffer, latitude, longitude, true))
+        .southwest(getCoordinates(buffer, latitude, longitude, true)).build();
+  }
+
+  /**
+   * Read coordinates.
+   *
+   * @param buffer the buffer
+   * @return the coordinates
+   * @throws BufferUnderflowException if the buffer ends before the coordinates
+   */
+  public static Coordinates decodeCoordinates(@NotNull ByteBuffer buffer)
+      throws BufferUnderflowException {
+    return getCoordinates(buffer, 0, 0, false);
+  }
+
+  /**
+   * Read words.
+   *
+   * @param buffer the buffer
+   * @return the words
+   * @throws BufferUnderflowException if the buffer ends before the words
+   */
+  public static Words decodeWords(@NotNull ByteBuffer buffer) throws BufferUnderflowException {
+    return Words.builder().first(getString(buffer)).second(getString(buffer))
+        .third(getString(buffer)).build();
+  }
+
+  /**
+   * Read a language.
+   * <p>
+   * Languages of the API without names are shared instances.
+   *
+   * @param buffer the buffer
+   * @return the language
+   * @throws BufferUnderflowException if the buffer ends before the language
+   * @throws IllegalArgumentException if the language id is unknown
+   */
+  public static Language decodeLanguage(@NotNull ByteBuffer buffer)
+      throws BufferUnderflowException, IllegalArgumentException {
+    int value = Byte.toUnsignedInt(buffer.get());
+    int id = value & ~NAMES;
+
+    if (LANGUAGES.size() < id) {
+      throw new IllegalArgumentException("unknown language id " + id);
+    }
+
+    String code = (0 == id) ? getString(buffer) : LANGUAGES.get(id - 1).getCode();
+
+    if (0 == (value & NAMES)) {
+      return (0 == id) ? Language.builder().code(code).build() : LANGUAGES.get(id - 1);
+    }
+
+    Language.LanguageBuilder builder = Language.builder().code(code);
+    String name = getNullableString(buffer);
+    String nativeName = getNullableString(buffer);
+
+    if (null != name) {
+      builder.name(name);
+    }
+    if (null != nativeName) {
+      builder.nativeName(nativeName);
+    }
+
+    return builder.build();
+  }
+
+  private static int languageId(Language language) {
+    return LANGUAGES.id(language) + 1;
+  }
+
+  private static boolean isMapLink(URL map, Words words) {
+    String text = words.toString();
+    String path = map.getPath();
+
+    return "https".equals(map.getProtocol()) && "w3w.co".equals(map.getHost())
+        && -1 == map.getPort() && null == map.getQuery() && null == map.getRef()
+        && null == map.getUserInfo() && path.length() == text.length() + 1
+        && '/' == path.charAt(0) && path.regionMatches(1, text, 0, text.length());
+  }
+
+  private static boolean isLetter(char character) {
+    return 'A' <= character && 'Z' >= character;
+  }
+
+  private static void putCountry(ByteBuffer buffer, String country) {
+    if (2 == country.length() && isLetter(country.charAt(0)) && isLetter(country.charAt(1))) {
+      putVarint(buffer, (country.charAt(0) - 'A') * 26 + country.charAt(1) - 'A' + 1);
+    } else {
+      putVarint(buffer, 0);
+      putString(buffer, country);
+    }
+  }
+
+  private static String getCountry(ByteBuffer buffer) {
+    int id = getVarint(buffer);
+
+    if (0 == id) {
+      return getString(buffer);
+    }
+    if (COUNTRY_IDS < id) {
+      throw new IllegalArgumentException("unknown country id " + id);
+    }
+    id--;
+
+    return new String(new char[]{(char) ('A' + id / 26), (char) ('A' + id % 26)});
+  }
+
+  /*
+   * A code is a scale of 0 to 7, NO_SCALE for BigDecimal.valueOf(double), or a value that is
+   * written as it is: DOUBLE is a double with its scale, DECIMAL is a decimal text.
+   */
+  private static int code(Coordinates coordinates, boolean latitude) {
+    double value = latitude ? coordinates.getLatitudeAsDouble()
+        : coordinates.getLongitudeAsDouble();
+    long e7 = latitude ? coordinates.getLatitudeE7() : coordinates.getLongitudeE7();
+
+    if (coordinates instanceof Coordinates.DoubleCoordinates) {
+      Coordinates.DoubleCoordinates doubleCoordinates = (Coordinates.DoubleCoordinates) coordinates;
+      int scale = latitude ? doubleCoordinates.getLatitudeScale()
+          : doubleCoordinates.getLongitudeScale();
+
+      if (value != e7 / Coordinates.E7 || MAX_SCALE < scale) {
+        return DOUBLE;
+      }
+      return (NO_SCALE_VALUE == scale) ? NO_SCALE : scale;
+    }
+
+    int scale = (latitude ? coordinates.getLatitude() : coordinates.getLongitude()).scale();
+
+    return (0 <= scale && MAX_SCALE >= scale) ? scale : DECIMAL;
+  }
+
+  private static void putCoordinates(ByteBuffer buffer, Coordinates coordinates, long latitude,
+      long longitude, boolean delta) {
+    int latitudeCode = code(coordinates, true);
+    int longitudeCode = code(coordinates, false);
+
+    buffer.put((byte) (latitudeCode << 4 | longitudeCode));
+    putValue(buffer, coordinates, true, latitudeCode, latitude, delta);
+    putValue(buffer, coordinates, false, longitudeCode, longitude, delta);
+  }
+
+  private static void putValue(ByteBuffer buffer, Coordinates coordinates, boolean latitude,
+      int code, long base, boolean delta) {
+    if (DOUBLE == code) {
+      Coordinates.DoubleCoordinates doubleCoordinates = (Coordinates.DoubleCoordinates) coordinates;
+
+      buffer.putLong(Double.doubleToLongBits(latitude ? doubleCoordinates.getLatitudeAsDouble()
+          : doubleCoordinates.getLongitudeAsDouble()));
+      buffer.put((byte) (latitude ? doubleCoordinates.getLatitudeScale()
+          : doubleCoordinates.getLongitudeScale()));
+    } else if (DECIMAL == code) {
+      putString(buffer,
+          (latitude ? coordinates.getLatitude() : coordinates.getLongitude()).toString());
+    } else {
+      long e7 = latitude ? coordinates.getLatitudeE7() : coordinates.getLongitudeE7();
+
+      if (delta) {
+        // a square across the antimeridian has a delta out of the int range
+        long difference = e7 - base;
+
+        putVarlong(buffer, difference << 1 ^ difference >> 63);
+      } else {
+        buffer.putInt((int) e7);
+      }
+    }
+  }
+
+  private static Coordinates getCoordinates(ByteBuffer buffer, long latitude, long longitude,
+      boolean delta) {
+    int codes = Byte.toUnsignedInt(buffer.get());
+    Coordinates.CoordinatesBuilder builder = Coordinates.builder();
+
+    getValue(buffer, builder, true, codes >>> 4, latitude, delta);
+    getValue(buffer, builder, false, codes & 0xf, longitude, delta);
+
+    return builder.build();
+  }
+
+  private static void getValue(ByteBuffer buffer, Coordinates.CoordinatesBuilder builder,
+      boolean latitude, int code, long base, boolean delta) {
+    if (DOUBLE == code) {
+      double value = Double.longBitsToDouble(buffer.getLong());
+      int scale = buffer.get();
+
+      if (latitude) {
+        builder.latitude(value, scale);
+      } else {
+        builder.longitude(value, scale);
+      }
+    } else if (DECIMAL == code) {
+      BigDecimal value = new BigDecimal(getString(buffer));
+
+      if (latitude) {
+        builder.latitude(value);
+      } else {
+        builder.longitude(value);
+      }
+    } else if (NO_SCALE >= code) {
+      long e7;
+
+      if (delta) {
+        long zigzag = getVarlong(buffer);
+
+        e7 = base + (zigzag >>> 1 ^ -(zigzag & 1));
+      } else {
+        e7 = buffer.getInt();
+      }
+
+      int scale = (NO_SCALE == code) ? NO_SCALE_VALUE : code;
+
+      if (latitude) {
+        builder.latitude(e7 / Coordinates.E7, scale);
+      } else {
+        builder.longitude(e7 / Coordinates.E7, scale);
+      }
+    } else {
+      throw new IllegalArgumentException("unknown coordinate code " + code);
+    }
+  }
+
+  private static void putVarint(ByteBuffer buffer, int value) {
+    while (0 != (value & ~0x7f)) {
+      buffer.put((byte) (value & 0x7f | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  private static void putVarlong(ByteBuffer buffer, long value) {
+    while (0 != (value & ~0x7fL)) {
+      buffer.put((byte) (value & 0x7f | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  private static int getVarint(ByteBuffer buffer) {
+    int value = 0;
+
+    for (int shift = 0; Integer.SIZE > shift; shift += 7) {
+      byte next = buffer.get();
+
+      value |= (next & 0x7f) << shift;
+      if (0 <= next) {
+        return value;
+      }
+    }
+
+    throw new IllegalArgumentException("variable-length int is too long");
+  }
+
+  private static long getVarlong(ByteBuffer buffer) {
+    long value = 0;
+
+    for (int shift = 0; Long.SIZE > shift; shift += 7) {
+      byte next = buffer.get();
+
+      value |= (next & 0x7fL) << shift;
+      if (0 <= next) {
+        return value;
+      }
+    }
+
+    throw new IllegalArgumentException("variable-length long is too long");
+  }
+
+  private static int utf8Length(String value) {
+    int length = value.length();
+
+    for (int i = 0; value.length() > i; i++) {
+      char character = value.charAt(i);
+
+      if (0x80 <= character) {
+        if (0x800 > character) {
+          length++;
+        } else if (!Character.isSurrogate(character)) {
+          length += 2;
+        } else if (Character.isHighSurrogate(character) && value.length() > i + 1
+            && Character.isLowSurrogate(value.charAt(i + 1))) {
+          length += 2;
+          i++;
+        }
+      }
+    }
+
+    return length;
+  }
+
+  /*
+   * UTF-8 without the encoder: it is the same as String.getBytes(UTF_8) but it does not allocate,
+   * a lone surrogate is written as '?' like the encoder does.
+   */
+  private static void putString(ByteBuffer buffer, String value) {
+    int length = utf8Length(value);
+
+    putVarint(buffer, length);
+    if (buffer.remaining() < length) {
+      throw new BufferOverflowException();
+    }
+    for (int i = 0; value.length() > i; i++) {
+      char character = value.charAt(i);
+
+      if (0x80 > character) {
+        buffer.put((byte) character);
+      } else if (0x800 > character) {
+        buffer.put((byte) (0xc0 | character >> 6)).put((byte) (0x80 | character & 0x3f));
+      } else if (Character.isSurrogate(character)) {
+        if (Character.isHighSurrogate(character) && value.length() > i + 1
+            && Character.isLowSurrogate(value.charAt(i + 1))) {
+          int codePoint = Character.toCodePoint(character, value.charAt(++i));
+
+          buffer.put((byte) (0xf0 | codePoint >> 18))
+              .put((byte) (0x80 | codePoint >> 12 & 0x3f))
+              .put((byte) (0x80 | codePoint >> 6 & 0x3f))
+              .put((byte) (0x80 | codePoint & 0x3f));
+        } else {
+          buffer.put((byte) '?');
+        }
+      } else {
+        buffer.put((byte) (0xe0 | character >> 12)).put((byte) (0x80 | character >> 6 & 0x3f))
+            .put((byte) (0x80 | character & 0x3f));
+      }
+    }
+  }
+
+  private static String getString(ByteBuffer buffer) {
+    int length = getVarint(buffer);
+
+    if (buffer.remaining() < length) {
+      throw new BufferUnderflowException();
+    }
+    if (buffer.hasArray()) {
+      String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+          UTF_8);
+
+      buffer.position(buffer.position() + length);
+      return value;
+    }
+
+    byte[] bytes = new byte[length];
+
+    buffer.get(bytes);
+
+    return new String(bytes, UTF_8);
+  }
+
+  private static void putNullableString(ByteBuffer buffer, String value) {
+    if (null == value) {
+      buffer.put((byte) 0);
+    } else {
+      buffer.put((byte) 1);
+      putString(buffer, value);
+    }
+  }
+
+  private static String getNullableString(ByteBuffer buffer) {
+    return (0 == buffer.get()) ? null : getString(buffer);
+  }
+
+}
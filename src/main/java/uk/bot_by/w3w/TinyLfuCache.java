@@ -0,0 +1,327 @@
+/*
+ * Copyright 2021,2022 Witalij Berdinskich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.w3w;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BinaryOperator;
+import java.util.function.LongSupplier;
+
+/**
+ * Size-bounded cache with expiration.
+ * <p>
+ * Entries are spread over segments by a hash of their keys, each segment is an LRU list guarded by
+ * its own lock. When a segment is full a new entry is admitted only if it has been requested more
+ * often than the least recently used one (TinyLFU admission), so a scan of rarely used keys does
+ * not wash hot entries out. Frequencies are estimated by a count-min sketch with 4-bit counters
+ * that are halved periodically.
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ */
+final class TinyLfuCache<K, V> {
+
+  private static final int MAX_SEGMENTS = 16;
+  private static final int MIN_SEGMENT_SIZE_SHIFT = 6;
+
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final int segmentMask;
+  private final Segment<K, V>[] segments;
+  private final LongSupplier ticker;
+  private final long timeToLive;
+
+  /**
+   * Create a cache.
+   *
+   * @param maximumSize maximum number of entries
+   * @param timeToLive  time to live of an entry in nanoseconds
+   * @param ticker      source of nanoseconds like {@link System#nanoTime()}
+   */
+  TinyLfuCache(int maximumSize, long timeToLive, LongSupplier ticker) {
+    if (0 >= maximumSize) {
+      throw new IllegalArgumentException("maximum size must be positive");
+    }
+    if (0 >= timeToLive) {
+      throw new IllegalArgumentException("time to live must be positive");
+    }
+
+    // small segments make a poor sample of frequencies
+    int segmentCount = Math.min(MAX_SEGMENTS,
+        Integer.highestOneBit(Math.max(1, maximumSize >> MIN_SEGMENT_SIZE_SHIFT)));
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Segment<K, V>[] segments = new Segment[segmentCount];
+
+    segmentMask = segmentCount - 1;
+    for (int i = 0; segmentCount > i; i++) {
+      segments[i] = new Segment<>(
+          maximumSize / segmentCount + (maximumSize % segmentCount > i ? 1 : 0), evictions);
+    }
+    this.segments = segments;
+    this.ticker = ticker;
+    this.timeToLive = timeToLive;
+  }
+
+  /**
+   * Get a value, a missed value is counted as requested.
+   *
+   * @param key a key
+   * @return a value or {@code null} if it is missed or expired
+   */
+  V get(K key) {
+    int hash = spread(key.hashCode());
+    V value = segment(hash).get(key, hash, ticker.getAsLong());
+
+    if (null == value) {
+      misses.increment();
+    } else {
+      hits.increment();
+    }
+
+    return value;
+  }
+
+  /**
+   * Put a value, it could be rejected if the cache is full and the key is less frequent than the
+   * least recently used one. Evicted, expired and rejected entries are counted as evictions.
+   *
+   * @param key   a key
+   * @param value a value
+   */
+  void put(K key, V value) {
+    int hash = spread(key.hashCode());
+    long now = ticker.getAsLong();
+
+    segment(hash).put(key, hash, value, now, now + timeToLive);
+  }
+
+  /**
+   * Put a value or combine it with the present one atomically. Unlike {@link #get(Object)} it is
+   * not counted as a hit or miss and does not add to the frequency of the key.
+   *
+   * @param key       a key
+   * @param value     a value
+   * @param remapping a function of the present and the given value
+   */
+  void merge(K key, V value, BinaryOperator<V> remapping) {
+    int hash = spread(key.hashCode());
+    long now = ticker.getAsLong();
+
+    segment(hash).merge(key, hash, value, remapping, now, now + timeToLive);
+  }
+
+  long evictionCount() {
+    return evictions.sum();
+  }
+
+  long hitCount() {
+    return hits.sum();
+  }
+
+  long missCount() {
+    return misses.sum();
+  }
+
+  int size() {
+    int size = 0;
+
+    for (Segment<K, V> segment : segments) {
+      size += segment.size();
+    }
+
+    return size;
+  }
+
+  private static int spread(int hash) {
+    hash ^= hash >>> 16;
+    hash *= 0x45d9f3b;
+    return hash ^ (hash >>> 16);
+  }
+
+  private Segment<K, V> segment(int hash) {
+    return segments[(hash >>> 24) & segmentMask];
+  }
+
+  private static final class Entry<V> {
+
+    private final long expiresAt;
+    private final V value;
+
+    private Entry(V value, long expiresAt) {
+      this.expiresAt = expiresAt;
+      this.value = value;
+    }
+
+    private boolean isExpired(long now) {
+      return 0 <= now - expiresAt;
+    }
+
+  }
+
+  private static final class Segment<K, V> {
+
+    private final int capacity;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final LongAdder evictions;
+    private final FrequencySketch sketch;
+
+    private Segment(int capacity, LongAdder evictions) {
+      this.capacity = capacity;
+      this.evictions = evictions;
+      entries = new LinkedHashMap<>(16, 0.75f, true);
+      sketch = new FrequencySketch(capacity);
+    }
+
+    private synchronized V get(K key, int hash, long now) {
+      sketch.increment(hash);
+
+      Entry<V> entry = entries.get(key);
+
+      if (null == entry) {
+        return null;
+      }
+      if (entry.isExpired(now)) {
+        entries.remove(key);
+        evictions.increment();
+        return null;
+      }
+
+      return entry.value;
+    }
+
+    private synchronized void put(K key, int hash, V value, long now, long expiresAt) {
+      if (!entries.containsKey(key) && capacity == entries.size()) {
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        Map.Entry<K, Entry<V>> victim = iterator.next();
+
+        while (victim.getValue().isExpired(now)) {
+          iterator.remove();
+          evictions.increment();
+          if (!iterator.hasNext()) {
+            break;
+          }
+          victim = iterator.next();
+        }
+        if (capacity == entries.size()) {
+          evictions.increment();
+          if (sketch.frequency(hash) <= sketch.frequency(spread(victim.getKey().hashCode()))) {
+            // the candidate is rejected
+            return;
+          }
+          iterator.remove();
+        }
+      }
+      entries.put(key, new Entry<>(value, expiresAt));
+    }
+
+    private synchronized void merge(K key, int hash, V value, BinaryOperator<V> remapping,
+        long now, long expiresAt) {
+      Entry<V> entry = entries.get(key);
+
+      if (null != entry) {
+        if (entry.isExpired(now)) {
+          entries.remove(key);
+          evictions.increment();
+        } else {
+          value = remapping.apply(entry.value, value);
+        }
+      }
+      put(key, hash, value, now, expiresAt);
+    }
+
+    private synchronized int size() {
+      return entries.size();
+    }
+
+  }
+
+  /*
+   * Count-min sketch of four rows, each counter takes four bits so a long holds sixteen counters.
+   */
+  private static final class FrequencySketch {
+
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+        0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final int sampleSize;
+    private final long[] table;
+    private int additions;
+
+    private FrequencySketch(int capacity) {
+      int length = Integer.highestOneBit(Math.max(2, capacity - 1) << 1);
+
+      sampleSize = 10 * Math.max(1, capacity);
+      table = new long[length];
+    }
+
+    private int frequency(int hash) {
+      int frequency = Integer.MAX_VALUE;
+
+      for (int row = 0; SEEDS.length > row; row++) {
+        int index = index(hash, row);
+
+        frequency = Math.min(frequency, (int) ((table[index >>> 4] >>> offset(index)) & 0xfL));
+      }
+
+      return frequency;
+    }
+
+    private void increment(int hash) {
+      boolean added = false;
+
+      for (int row = 0; SEEDS.length > row; row++) {
+        int index = index(hash, row);
+        int offset = offset(index);
+
+        if (0xfL != ((table[index >>> 4] >>> offset) & 0xfL)) {
+          table[index >>> 4] += 1L << offset;
+          added = true;
+        }
+      }
+      if (added && sampleSize == ++additions) {
+        reset();
+      }
+    }
+
+    /*
+     * Index of a counter: the high bits select a long, the low four bits select a counter in it.
+     */
+    private int index(int hash, int row) {
+      long value = (hash + SEEDS[row]) * SEEDS[row];
+
+      value += value >>> 32;
+      return (int) value & ((table.length << 4) - 1);
+    }
+
+    private static int offset(int index) {
+      return (index & 0xf) << 2;
+    }
+
+    private void reset() {
+      for (int i = 0; table.length > i; i++) {
+        table[i] = (table[i] >>> 1) & RESET_MASK;
+      }
+      additions /= 2;
+    }
+
+  }
+
+}
@@ -0,0 +1,391 @@
+/*
+ * Copyright 2021,2022 Witalij Berdinskich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.w3w;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Convert ordered GPS fixes of tracks to run-length encoded segments of
+ * <abbr class="tooltip">3wa<span class="tooltiptext">3 word address</span></abbr>es.
+ * <p>
+ * The compressor keeps the last squared address of every track. A fix that lies in its square
+ * extends the current segment, the API is called only when a fix leaves the square: then the
+ * segment is closed and returned, the fix starts the next one. The south and west edges belong
+ * to a square, the north and east ones do not, like {@link SquareCachingWhat3Words} does.
+ * <p>
+ * Fixes of a track must be added in order of time, fixes of different tracks may be added by
+ * different threads. If the API fails, its exception is thrown and the fix is not added. A track
+ * is kept until it is {@linkplain #close(String) closed}.
+ * <pre><code class="language-java">
+ * TraceCompressor compressor = TraceCompressor.builder()
+ *                                             .api(api)
+ *                                             .language("de")
+ *                                             .build();
+ *
+ * for (Fix fix : fixes) {
+ *   TraceCompressor.Segment segment = compressor.add(fix.vehicle(), fix.coordinates(), fix.time());
+ *
+ *   if (null != segment) {
+ *     output.write(segment);
+ *   }
+ * }
+ * compressor.closeAll().forEach(output::write);
+ * </code></pre>
+ *
+ * @since 1.2.0
+ */
+public class TraceCompressor {
+
+  private final What3Words api;
+  private final LongAdder fixes = new LongAdder();
+  private final Language language;
+  private final LongAdder requests = new LongAdder();
+  private final Map<String, Track> tracks = new ConcurrentHashMap<>();
+
+  private TraceCompressor(TraceCompressorBuilder builder) {
+    api = builder.api;
+    language = builder.language;
+  }
+
+  /**
+   * Get a builder of the compressor.
+   *
+   * @return a builder
+   */
+  public static TraceCompressorBuilder builder() {
+    return new TraceCompressorBuilder();
+  }
+
+  /**
+   * Add a fix of a track.
+   *
+   * @param track     track identifier
+   * @param fix       coordinates of the fix
+   * @param timestamp time of the fix, for example milliseconds since the epoch
+   * @return the segment that is closed by the fix or {@code null} if the fix is in the square of
+   * the current segment
+   * @throws IllegalArgumentException if the fix is earlier than the previous fix of the track
+   */
+  public @Nullable Segment add(@NotNull String track, @NotNull Coordinates fix, long timestamp)
+      throws IllegalArgumentException {
+    Objects.requireNonNull(track, "track is null");
+    Objects.requireNonNull(fix, "fix is null");
+
+    while (true) {
+      Track state = tracks.computeIfAbsent(track, Track::new);
+
+      synchronized (state) {
+        if (state.closed) {
+          // the track has been closed concurrently, the fix starts a new one
+          continue;
+        }
+
+        Segment closed = null;
+
+        if (null != state.squaredAddress) {
+          if (timestamp < state.lastTimestamp) {
+            throw new IllegalArgumentException("fix is earlier than the previous one");
+          }
+          if (SquareCachingWhat3Words.contains(state.squaredAddress.getSquare(),
+              fix.getLatitudeAsDouble(), fix.getLongitudeAsDouble())) {
+            state.count++;
+            state.lastTimestamp = timestamp;
+            fixes.increment();
+            return null;
+          }
+        }
+
+        SquaredAddress squaredAddress = api.convertToAddress(
+            WordsRequest.builder().coordinates(fix).language(language).build());
+
+        requests.increment();
+        fixes.increment();
+        if (null != state.squaredAddress) {
+          if (state.squaredAddress.getWords().equals(squaredAddress.getWords())) {
+            // the fix is on the edge of the square, the API has rounded it back
+            state.count++;
+            state.lastTimestamp = timestamp;
+            return null;
+          }
+          closed = state.segment();
+        }
+        state.squaredAddress = squaredAddress;
+        state.firstTimestamp = timestamp;
+        state.lastTimestamp = timestamp;
+        state.count = 1;
+
+        return closed;
+      }
+    }
+  }
+
+  /**
+   * Close the current segment of a track and forget the track.
+   *
+   * @param track track identifier
+   * @return the last segment or {@code null} if the track is unknown
+   */
+  public @Nullable Segment close(@NotNull String track) {
+    while (true) {
+      Track state = tracks.get(track);
+
+      if (null == state) {
+        return null;
+      }
+      synchronized (state) {
+        if (state.closed) {
+          // the track has been closed concurrently, check if it is started again
+          continue;
+        }
+        tracks.remove(track, state);
+        state.closed = true;
+        return (null == state.squaredAddress) ? null : state.segment();
+      }
+    }
+  }
+
+  /**
+   * Close current segments of all tracks.
+   *
+   * @return last segments of tracks
+   */
+  public List<Segment> closeAll() {
+    List<Segment> segments = new ArrayList<>();
+
+    for (String track : tracks.keySet()) {
+      Segment segment = close(track);
+
+      if (null != segment) {
+        segments.add(segment);
+      }
+    }
+
+    return segments;
+  }
+
+  /**
+   * Get a number of added fixes.
+   *
+   * @return fix count
+   */
+  public long getFixCount() {
+    return fixes.sum();
+  }
+
+  /**
+   * Get a number of requests that were sent to the API.
+   *
+   * @return request count
+   */
+  public long getRequestCount() {
+    return requests.sum();
+  }
+
+  private static final class Track {
+
+    private final String track;
+    private boolean closed;
+    private int count;
+    private long firstTimestamp;
+    private long lastTimestamp;
+    private SquaredAddress squaredAddress;
+
+    private Track(String track) {
+      this.track = track;
+    }
+
+    private Segment segment() {
+      return new Segment(track, squaredAddress.getWords(), firstTimestamp, lastTimestamp, count);
+    }
+
+  }
+
+  /**
+   * Fixes of a track in a row that lie in the same square.
+   *
+   * @since 1.2.0
+   */
+  public static final class Segment {
+
+    private final int count;
+    private final long firstTimestamp;
+    private final long lastTimestamp;
+    private final String track;
+    private final Words words;
+
+    private Segment(String track, Words words, long firstTimestamp, long lastTimestamp,
+        int count) {
+      this.count = count;
+      this.firstTimestamp = firstTimestamp;
+      this.lastTimestamp = lastTimestamp;
+      this.track = track;
+      this.words = words;
+    }
+
+    /**
+     * Get a number of fixes.
+     *
+     * @return fix count
+     */
+    public int getCount() {
+      return count;
+    }
+
+    /**
+     * Get time of the first fix.
+     *
+     * @return timestamp
+     */
+    public long getFirstTimestamp() {
+      return firstTimestamp;
+    }
+
+    /**
+     * Get time of the last fix.
+     *
+     * @return timestamp
+     */
+    public long getLastTimestamp() {
+      return lastTimestamp;
+    }
+
+    /**
+     * Get the track identifier.
+     *
+     * @return track
+     */
+    public String getTrack() {
+      return track;
+    }
+
+    /**
+     * Get <abbr class="tooltip">3wa<span class="tooltiptext">3 word address</span></abbr> of the
+     * square.
+     *
+     * @return 3 word address
+     */
+    public Words getWords() {
+      return words;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Segment)) {
+        return false;
+      }
+
+      Segment that = (Segment) o;
+
+      if (count != that.count || firstTimestamp != that.firstTimestamp
+          || lastTimestamp != that.lastTimestamp) {
+        return false;
+      }
+      if (!track.equals(that.track)) {
+        return false;
+      }
+      return words.equals(that.words);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = track.hashCode();
+      result = 31 * result + words.hashCode();
+      result = 31 * result + Long.hashCode(firstTimestamp);
+      result = 31 * result + Long.hashCode(lastTimestamp);
+      result = 31 * result + count;
+      return result;
+    }
+
+    @Override
+    public String toString() {
+      return new StringJoiner(",", "{", "}").add("track='" + track + "'").add("words=" + words)
+          .add("first=" + firstTimestamp).add("last=" + lastTimestamp).add("count=" + count)
+          .toString();
+    }
+
+  }
+
+  /**
+   * Helper to build the compressor.
+   *
+   * @since 1.2.0
+   */
+  public static class TraceCompressorBuilder {
+
+    private What3Words api;
+    private Language language;
+
+    private TraceCompressorBuilder() {
+    }
+
+    /**
+     * Build the compressor.
+     *
+     * @return the compressor
+     * @throws NullPointerException if API is not set
+     */
+    public TraceCompressor build() throws NullPointerException {
+      Objects.requireNonNull(api, "API is null");
+      return new TraceCompressor(this);
+    }
+
+    /**
+     * Set API.
+     *
+     * @param api <em>what3words</em> API
+     * @return the builder
+     */
+    public TraceCompressorBuilder api(@NotNull What3Words api) {
+      this.api = api;
+      return this;
+    }
+
+    /**
+     * Set language of addresses, by default the API uses its own one.
+     *
+     * @param language language
+     * @return the builder
+     */
+    public TraceCompressorBuilder language(@Nullable Language language) {
+      this.language = language;
+      return this;
+    }
+
+    /**
+     * Set language of addresses by its code.
+     *
+     * @param languageCode language code
+     * @return the builder
+     */
+    public TraceCompressorBuilder language(@NotNull String languageCode) {
+      this.language = LanguageRegistry.bundled().valueOf(languageCode);
+      return this;
+    }
+
+  }
+
+}
@@ -19,12 +19,12 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 
 import feign.FeignException;
 import feign.Response;
-import feign.codec.Decoder;
 import java.io.IOException;
 import java.io.Reader;
 import java.lang.reflect.Type;
 import java.util.HashSet;
 import java.util.Set;
+import org.jetbrains.annotations.Nullable;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.json.JSONTokener;
@@ -34,7 +34,7 @@ import org.json.JSONTokener;
  *
  * @since 1.0.0
  */
-public class What3WordsDecoder implements Decoder {
+public class What3WordsDecoder implements ProjectingDecoder {
 
   private final Type languagesType;
   private final Type squaredAddressType;
@@ -60,13 +60,35 @@ public class What3WordsDecoder implements Decoder {
       if (languagesType.equals(type)) {
         return getAvailableLanguages(json.getJSONArray("languages"));
       } else if (squaredAddressType.equals(type)) {
-        return getSquaredAddress(json);
+        return getSquaredAddress(json, null);
       }
     }
 
     throw new UnsupportedOperationException(String.format("Type %s is not supported", type));
   }
 
+  /**
+   * Decode a squared address, properties that are not in the projection are neither read nor
+   * required.
+   *
+   * @param response a response
+   * @param fields   properties to decode, all of them if it is {@code null}
+   * @return the squared address
+   * @throws IOException if the response could not be read
+   * @since 1.2.0
+   */
+  @Override
+  public SquaredAddress decodeSquaredAddress(Response response,
+      @Nullable Set<SquaredAddress.Field> fields) throws IOException {
+    if (null == response.body()) {
+      throw new IllegalArgumentException("Empty body");
+    }
+
+    try (Reader reader = response.body().asReader(UTF_8)) {
+      return getSquaredAddress(new JSONObject(new JSONTokener(reader)), fields);
+    }
+  }
+
   private Object getAvailableLanguages(JSONArray languages) {
     Set<Language> availableLanguages = new HashSet<>();
 
@@ -81,18 +103,38 @@ public class What3WordsDecoder implements Decoder {
     return availableLanguages;
   }
 
-  private SquaredAddress getSquaredAddress(JSONObject squaredAddress) {
+  private SquaredAddress getSquaredAddress(JSONObject squaredAddress,
+      Set<SquaredAddress.Field> fields) {
     SquaredAddress.SquaredAddressBuilder builder = SquaredAddress.builder();
 
-    builder.country(squaredAddress.getString("country"));
-    builder.square(getSquare(squaredAddress.getJSONObject("square")));
-    builder.nearestPlace(squaredAddress.getString("nearestPlace"));
-    builder.coordinates(getCoordinates(squaredAddress.getJSONObject("coordinates")));
-    builder.words(squaredAddress.getString("words"));
-    builder.language(getLanguage(squaredAddress.getString("language")));
-    builder.map(squaredAddress.getString("map"));
+    if (isProjected(fields, SquaredAddress.Field.COUNTRY)) {
+      builder.country(squaredAddress.getString("country"));
+    }
+    if (isProjected(fields, SquaredAddress.Field.SQUARE)) {
+      builder.square(getSquare(squaredAddress.getJSONObject("square")));
+    }
+    if (isProjected(fields, SquaredAddress.Field.NEAREST_PLACE)) {
+      builder.nearestPlace(squaredAddress.getString("nearestPlace"));
+    }
+    if (isProjected(fields, SquaredAddress.Field.COORDINATES)) {
+      builder.coordinates(getCoordinates(squaredAddress.getJSONObject("coordinates")));
+    }
+    if (isProjected(fields, SquaredAddress.Field.WORDS)) {
+      builder.words(squaredAddress.getString("words"));
+    }
+    if (isProjected(fields, SquaredAddress.Field.LANGUAGE)) {
+      builder.language(getLanguage(squaredAddress.getString("language")));
+    }
+    if (isProjected(fields, SquaredAddress.Field.MAP)) {
+      builder.map(squaredAddress.getString("map"));
+    }
+
+    return builder.build(fields);
+  }
 
-    return builder.build();
+  private static boolean isProjected(Set<SquaredAddress.Field> fields,
+      SquaredAddress.Field field) {
+    return null == fields || fields.contains(field);
   }
 
   private Coordinates getCoordinates(JSONObject coordinates) {
@@ -101,7 +143,7 @@ public class What3WordsDecoder implements Decoder {
   }
 
   private Language getLanguage(String language) {
-    return Language.builder().code(language).build();
+    return LanguageRegistry.bundled().valueOf(language);
   }
 
   private Square getSquare(JSONObject square) {
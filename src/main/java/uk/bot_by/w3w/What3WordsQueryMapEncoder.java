@@ -0,0 +1,93 @@
+/*
+ * Copyright 2021,2022 Witalij Berdinskich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.w3w;
+
+import feign.QueryMapEncoder;
+import feign.querymap.FieldQueryMapEncoder;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Query map encoder of {@link WordsRequest} and {@link CoordinatesRequest} without reflection.
+ * <p>
+ * Feign's default encoder reads fields of a query map object by reflection. This encoder writes
+ * the query parameters {@code coordinates}, {@code language} and {@code words} directly. The
+ * strings of coordinates and words are rendered once and kept by their objects, so a request
+ * that is sent many times is formatted once. Other objects are encoded by
+ * {@link FieldQueryMapEncoder}.
+ * <pre><code class="language-java">
+ * api = Feign.builder()
+ *            .client(new Http2Client())
+ *            .decoder(new What3WordsDecoder())
+ *            .errorDecoder(new What3WordsErrorDecoder())
+ *            .queryMapEncoder(new What3WordsQueryMapEncoder())
+ *            .target(What3Words.class, What3Words.W3W_API);
+ * </code></pre>
+ *
+ * @since 1.2.0
+ */
+public class What3WordsQueryMapEncoder implements QueryMapEncoder {
+
+  private static final String COORDINATES = "coordinates";
+  private static final String LANGUAGE = "language";
+  private static final String WORDS = "words";
+
+  private final QueryMapEncoder fieldEncoder = new FieldQueryMapEncoder();
+
+  private static Map<String, Object> encode(WordsRequest wordsRequest) {
+    Coordinates coordinates = wordsRequest.getCoordinates();
+    Language language = wordsRequest.getLanguage();
+
+    if (null == coordinates) {
+      return (null == language) ? Collections.emptyMap()
+          : Collections.singletonMap(LANGUAGE, language.getCode());
+    }
+    if (null == language) {
+      return Collections.singletonMap(COORDINATES, coordinates.toString());
+    }
+
+    // the order of parameters is stable
+    Map<String, Object> parameters = new LinkedHashMap<>(4);
+
+    parameters.put(COORDINATES, coordinates.toString());
+    parameters.put(LANGUAGE, language.getCode());
+
+    return parameters;
+  }
+
+  /**
+   * Encode a query map object.
+   *
+   * @param object {@link WordsRequest}, {@link CoordinatesRequest} or another query map object
+   * @return query parameters
+   */
+  @Override
+  public Map<String, Object> encode(Object object) {
+    if (object instanceof WordsRequest) {
+      return encode((WordsRequest) object);
+    }
+    if (object instanceof CoordinatesRequest) {
+      Words words = ((CoordinatesRequest) object).getWords();
+
+      return (null == words) ? Collections.emptyMap()
+          : Collections.singletonMap(WORDS, words.toString());
+    }
+
+    return fieldEncoder.encode(object);
+  }
+
+}
@@ -0,0 +1,403 @@
+/*
+ * Copyright 2021,2022 Witalij Berdinskich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.w3w;
+
+import feign.FeignException;
+import feign.Response;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.HashSet;
+import java.util.Set;
+import org.jetbrains.annotations.Nullable;
+import org.json.JSONException;
+
+/**
+ * Decode response of <em>what3words</em> API in a single pass.
+ * <p>
+ * Unlike {@link What3WordsDecoder} it does not build a {@linkplain org.json.JSONObject JSON tree}:
+ * the response is tokenized once and values are written straight into the builders of
+ * {@link SquaredAddress}, {@link Square}, {@link Coordinates} and {@link Language}. Unknown
+ * properties are skipped. The results are the same as the ones of {@link What3WordsDecoder}.
+ * <p>
+ * The decoder reads UTF-8 bytes of {@linkplain Response.Body#asInputStream() the response body}
+ * to a buffer that is reused by the current thread, property names are compared as bytes and
+ * strings are created only for values that are kept.
+ * <pre><code class="language-java">
+ * api = Feign.builder()
+ *            .client(new Http2Client())
+ *            .decoder(new What3WordsStreamingDecoder())
+ *            .errorDecoder(new What3WordsStreamingErrorDecoder())
+ *            .target(What3Words.class, What3Words.W3W_API);
+ * </code></pre>
+ * <p>
+ * In the lazy mode a squared address keeps the bytes of the response: when it is decoded only
+ * positions of its properties are found, a value is parsed on first call of its getter. Missing
+ * properties are reported by the decoder, {@code null} values are rejected like
+ * {@link SquaredAddress.SquaredAddressBuilder#build()} does, any other error of a value is
+ * reported by its getter.
+ *
+ * @since 1.2.0
+ */
+public class What3WordsStreamingDecoder implements ProjectingDecoder {
+
+  private static final byte[] CODE = JsonReader.name("code");
+  private static final byte[] COORDINATES = JsonReader.name("coordinates");
+  private static final byte[] COUNTRY = JsonReader.name("country");
+  private static final byte[] LANGUAGE = JsonReader.name("language");
+  private static final byte[] LANGUAGES = JsonReader.name("languages");
+  private static final byte[] LATITUDE = JsonReader.name("lat");
+  private static final byte[] LONGITUDE = JsonReader.name("lng");
+  private static final byte[] MAP = JsonReader.name("map");
+  private static final byte[] NAME = JsonReader.name("name");
+  private static final byte[] NATIVE_NAME = JsonReader.name("nativeName");
+  private static final byte[] NEAREST_PLACE = JsonReader.name("nearestPlace");
+  private static final byte[] NORTHEAST = JsonReader.name("northeast");
+  private static final byte[] SOUTHWEST = JsonReader.name("southwest");
+  private static final byte[] SQUARE = JsonReader.name("square");
+  private static final byte[] WORDS = JsonReader.name("words");
+
+  private static final int ALL_FIELDS = -1;
+  private static final int COUNTRY_FIELD = mask(SquaredAddress.Field.COUNTRY);
+  private static final int SQUARE_FIELD = mask(SquaredAddress.Field.SQUARE);
+  private static final int NEAREST_PLACE_FIELD = mask(SquaredAddress.Field.NEAREST_PLACE);
+  private static final int COORDINATES_FIELD = mask(SquaredAddress.Field.COORDINATES);
+  private static final int WORDS_FIELD = mask(SquaredAddress.Field.WORDS);
+  private static final int LANGUAGE_FIELD = mask(SquaredAddress.Field.LANGUAGE);
+  private static final int MAP_FIELD = mask(SquaredAddress.Field.MAP);
+
+  private final Type languagesType;
+  private final boolean lazy;
+  private final Type squaredAddressType;
+
+  public What3WordsStreamingDecoder() {
+    this(false);
+  }
+
+  /**
+   * Create a decoder.
+   *
+   * @param lazy if {@code true} then values of a squared address are parsed on first access
+   */
+  public What3WordsStreamingDecoder(boolean lazy) {
+    this.lazy = lazy;
+    try {
+      languagesType = What3Words.class.getMethod("availableLanguages").getGenericReturnType();
+      squaredAddressType = SquaredAddress.class;
+    } catch (NoSuchMethodException exception) {
+      throw new IllegalStateException("could not initialize " + getClass().getName(), exception);
+    }
+  }
+
+  @Override
+  public Object decode(Response response, Type type) throws IOException, FeignException {
+    if (null == response.body()) {
+      throw new IllegalArgumentException("Empty body");
+    }
+    if (!languagesType.equals(type) && !squaredAddressType.equals(type)) {
+      throw new UnsupportedOperationException(String.format("Type %s is not supported", type));
+    }
+
+    try (InputStream stream = response.body().asInputStream()) {
+      if (languagesType.equals(type)) {
+        return readAvailableLanguages(JsonReader.pooled(stream));
+      }
+      if (lazy) {
+        byte[] bytes = stream.readAllBytes();
+
+        return readLazySquaredAddress(new JsonReader(bytes, 0, bytes.length), bytes);
+      }
+      return readSquaredAddress(JsonReader.pooled(stream), null);
+    }
+  }
+
+  /**
+   * Decode a squared address, values of properties that are not in the projection are skipped
+   * and they are not required.
+   * <p>
+   * The lazy mode ignores the projection because it parses values on access anyway.
+   *
+   * @param response a response
+   * @param fields   properties to decode, all of them if it is {@code null}
+   * @return the squared address
+   * @throws IOException if the response could not be read
+   * @since 1.2.0
+   */
+  @Override
+  public SquaredAddress decodeSquaredAddress(Response response,
+      @Nullable Set<SquaredAddress.Field> fields) throws IOException {
+    if (null == response.body()) {
+      throw new IllegalArgumentException("Empty body");
+    }
+    if (lazy) {
+      return (SquaredAddress) decode(response, squaredAddressType);
+    }
+
+    try (InputStream stream = response.body().asInputStream()) {
+      return readSquaredAddress(JsonReader.pooled(stream), fields);
+    }
+  }
+
+  private static int mask(SquaredAddress.Field field) {
+    return 1 << field.ordinal();
+  }
+
+  private static JSONException notFound(String name) {
+    return new JSONException("JSONObject[\"" + name + "\"] not found.");
+  }
+
+  private Set<Language> readAvailableLanguages(JsonReader reader) {
+    Set<Language> availableLanguages = null;
+
+    reader.beginObject();
+    while (reader.nextName()) {
+      if (reader.isName(LANGUAGES)) {
+        availableLanguages = readLanguages(reader);
+      } else {
+        reader.skipValue();
+      }
+    }
+    if (null == availableLanguages) {
+      throw notFound("languages");
+    }
+
+    return availableLanguages;
+  }
+
+  private Set<Language> readLanguages(JsonReader reader) {
+    Set<Language> languages = new HashSet<>();
+
+    reader.beginArray();
+    while (reader.hasNextElement()) {
+      languages.add(readLanguage(reader));
+    }
+
+    return languages;
+  }
+
+  private Language readLanguage(JsonReader reader) {
+    String code = null;
+    String languageName = null;
+    String nativeName = null;
+
+    reader.beginObject();
+    while (reader.nextName()) {
+      if (reader.isName(CODE)) {
+        code = reader.nextString();
+      } else if (reader.isName(NAME)) {
+        languageName = reader.nextString();
+      } else if (reader.isName(NATIVE_NAME)) {
+        nativeName = reader.nextString();
+      } else {
+        reader.skipValue();
+      }
+    }
+    if (null == code) {
+      throw notFound("code");
+    }
+    if (null == languageName) {
+      throw notFound("name");
+    }
+    if (null == nativeName) {
+      throw notFound("nativeName");
+    }
+
+    return Language.builder().code(code).name(languageName).nativeName(nativeName).build();
+  }
+
+  private SquaredAddress readSquaredAddress(JsonReader reader,
+      Set<SquaredAddress.Field> projection) {
+    SquaredAddress.SquaredAddressBuilder builder = SquaredAddress.builder();
+    int fields = 0;
+    int projected = ALL_FIELDS;
+
+    if (null != projection) {
+      projected = 0;
+      for (SquaredAddress.Field field : projection) {
+        projected |= mask(field);
+      }
+    }
+    reader.beginObject();
+    while (reader.nextName()) {
+      SquaredAddress.Field field = field(reader);
+
+      if (null == field || 0 == (projected & mask(field))) {
+        reader.skipValue();
+        continue;
+      }
+      switch (field) {
+        case COUNTRY:
+          builder.country(reader.nextString());
+          break;
+        case SQUARE:
+          builder.square(readSquare(reader));
+          break;
+        case NEAREST_PLACE:
+          builder.nearestPlace(reader.nextString());
+          break;
+        case COORDINATES:
+          builder.coordinates(readCoordinates(reader));
+          break;
+        case WORDS:
+          builder.words(reader.nextString());
+          break;
+        case LANGUAGE:
+          builder.language(LanguageRegistry.bundled().valueOf(reader.nextString()));
+          break;
+        default:
+          builder.map(reader.nextString());
+      }
+      fields |= mask(field);
+    }
+    checkFields(fields | ~projected);
+
+    return builder.build(projection);
+  }
+
+  private SquaredAddress readLazySquaredAddress(JsonReader reader, byte[] bytes) {
+    int[] positions = new int[SquaredAddress.Field.values().length];
+    int fields = 0;
+
+    reader.beginObject();
+    while (reader.nextName()) {
+      SquaredAddress.Field field = field(reader);
+
+      if (null == field) {
+        reader.skipValue();
+      } else if (reader.nextNull()) {
+        throw new NullPointerException(field.getLabel() + " is null");
+      } else {
+        positions[field.ordinal()] = reader.position();
+        reader.skipValue();
+        fields |= mask(field);
+      }
+    }
+    checkFields(fields);
+
+    return new LazySquaredAddress(bytes, positions);
+  }
+
+  private static SquaredAddress.Field field(JsonReader reader) {
+    if (reader.isName(COUNTRY)) {
+      return SquaredAddress.Field.COUNTRY;
+    } else if (reader.isName(SQUARE)) {
+      return SquaredAddress.Field.SQUARE;
+    } else if (reader.isName(NEAREST_PLACE)) {
+      return SquaredAddress.Field.NEAREST_PLACE;
+    } else if (reader.isName(COORDINATES)) {
+      return SquaredAddress.Field.COORDINATES;
+    } else if (reader.isName(WORDS)) {
+      return SquaredAddress.Field.WORDS;
+    } else if (reader.isName(LANGUAGE)) {
+      return SquaredAddress.Field.LANGUAGE;
+    } else if (reader.isName(MAP)) {
+      return SquaredAddress.Field.MAP;
+    }
+
+    return null;
+  }
+
+  private void checkFields(int fields) {
+    if (0 == (fields & COUNTRY_FIELD)) {
+      throw notFound("country");
+    }
+    if (0 == (fields & SQUARE_FIELD)) {
+      throw notFound("square");
+    }
+    if (0 == (fields & NEAREST_PLACE_FIELD)) {
+      throw notFound("nearestPlace");
+    }
+    if (0 == (fields & COORDINATES_FIELD)) {
+      throw notFound("coordinates");
+    }
+    if (0 == (fields & WORDS_FIELD)) {
+      throw notFound("words");
+    }
+    if (0 == (fields & LANGUAGE_FIELD)) {
+      throw notFound("language");
+    }
+    if (0 == (fields & MAP_FIELD)) {
+      throw notFound("map");
+    }
+  }
+
+  static Coordinates readCoordinates(JsonReader reader) {
+    Coordinates.CoordinatesBuilder builder = Coordinates.builder();
+    boolean latitude = false;
+    boolean longitude = false;
+
+    reader.beginObject();
+    while (reader.nextName()) {
+      if (reader.isName(LATITUDE)) {
+        double value = reader.nextShortDouble();
+
+        if (Double.isNaN(value)) {
+          builder.latitude(reader.nextDecimal());
+        } else {
+          builder.latitude(value, reader.scale());
+        }
+        latitude = true;
+      } else if (reader.isName(LONGITUDE)) {
+        double value = reader.nextShortDouble();
+
+        if (Double.isNaN(value)) {
+          builder.longitude(reader.nextDecimal());
+        } else {
+          builder.longitude(value, reader.scale());
+        }
+        longitude = true;
+      } else {
+        reader.skipValue();
+      }
+    }
+    if (!latitude) {
+      throw notFound("lat");
+    }
+    if (!longitude) {
+      throw notFound("lng");
+    }
+
+    return builder.build();
+  }
+
+  static Square readSquare(JsonReader reader) {
+    Square.SquareBuilder builder = Square.builder();
+    boolean northeast = false;
+    boolean southwest = false;
+
+    reader.beginObject();
+    while (reader.nextName()) {
+      if (reader.isName(NORTHEAST)) {
+        builder.northeast(readCoordinates(reader));
+        northeast = true;
+      } else if (reader.isName(SOUTHWEST)) {
+        builder.southwest(readCoordinates(reader));
+        southwest = true;
+      } else {
+        reader.skipValue();
+      }
+    }
+    if (!northeast) {
+      throw notFound("northeast");
+    }
+    if (!southwest) {
+      throw notFound("southwest");
+    }
+
+    return builder.build();
+  }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2021,2022 Witalij Berdinskich
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.w3w;
+
+import static feign.FeignException.errorStatus;
+
+import feign.Response;
+import feign.codec.ErrorDecoder;
+import java.io.IOException;
+import java.io.InputStream;
+import org.json.JSONException;
+
+/**
+ * Decode error response of <em>what3words</em> API from UTF-8 bytes.
+ * <p>
+ * It is a counterpart of {@link What3WordsStreamingDecoder}: the body is read as bytes from
+ * {@linkplain Response.Body#asInputStream() the input stream} and parsed without a character
+ * decoder. If the body is not an error of <em>what3words</em> API the read bytes are passed to
+ * Feign's error processing.
+ *
+ * @since 1.2.0
+ */
+public class What3WordsStreamingErrorDecoder implements ErrorDecoder {
+
+  private static final byte[] CODE = JsonReader.name("code");
+  private static final byte[] ERROR = JsonReader.name("error");
+  private static final byte[] MESSAGE = JsonReader.name("message");
+
+  @Override
+  public Exception decode(String methodKey, Response response) {
+    if (null != response.body()) {
+      byte[] body;
+
+      try (InputStream stream = response.body().asInputStream()) {
+        body = stream.readAllBytes();
+      } catch (IOException exception) {
+        return exception;
+      }
+      try {
+        What3WordsException exception = readError(new JsonReader(body, 0, body.length),
+            response.status());
+
+        if (null != exception) {
+          return exception;
+        }
+      } catch (JSONException exception) {
+        // do nothing, it is not JSON, go to Feign's error processing
+      }
+      response = response.toBuilder().body(body).build();
+    }
+
+    return errorStatus(methodKey, response);
+  }
+
+  private What3WordsException readError(JsonReader reader, int status) {
+    reader.beginObject();
+    while (reader.nextName()) {
+      if (reader.isName(ERROR)) {
+        String code = null;
+        String message = null;
+
+        reader.beginObject();
+        while (reader.nextName()) {
+          if (reader.isName(CODE)) {
+            code = reader.nextString();
+          } else if (reader.isName(MESSAGE)) {
+            message = reader.nextString();
+          } else {
+            reader.skipValue();
+          }
+        }
+        if (null == code || null == message) {
+          return null;
+        }
+
+        return new What3WordsException(status, code, message);
+      }
+      reader.skipValue();
+    }
+
+    return null;
+  }
+
+}
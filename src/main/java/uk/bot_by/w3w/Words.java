@@ -18,7 +18,6 @@ package uk.bot_by.w3w;
 import java.util.List;
 import java.util.Objects;
 import java.util.StringJoiner;
-import java.util.regex.Pattern;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -83,6 +82,7 @@ public interface Words {
     private final String first;
     private final String second;
     private final String third;
+    private String text;
 
     private BasicWords(WordsBuilder builder) {
       first = builder.first;
@@ -113,7 +113,14 @@ public interface Words {
      */
     @Override
     public String toString() {
-      return new StringJoiner(".").add(first).add(second).add(third).toString();
+      String value = text;
+
+      if (null == value) {
+        // it is rendered for every request, a race only renders it twice
+        text = value = new StringJoiner(".").add(first).add(second).add(third).toString();
+      }
+
+      return value;
     }
 
     @Override
@@ -155,10 +162,9 @@ public interface Words {
   class WordsBuilder {
 
     private static final int FIRST_NON_SLASH = 3;
+    private static final boolean[] FORBIDDEN_CHARS = forbiddenChars(
+        "0123456789`~!@#$%^&*()+-_=[{}\\|'<,.>?/\";:£§º©® \t\n\u000B\f\r");
     private static final String THREE_LEADING_SLASHES = "///";
-    private static final String WORD_ADDRESS_DELIMITER_PATTERN = "[・.。]";
-    private static final Pattern WORD_ADDRESS_PATTERN = Pattern.compile(
-        "^[^0-9`~!@#$%^&*()+\\-_=\\[{}\\\\|'<,.>?/\";:£§º©®\\s]{1,}$");
 
     private String first;
     private String second;
@@ -235,6 +241,9 @@ public interface Words {
      *     <li>first・second・third</li>
      *     <li>first。second。third</li>
      * </ul>
+     * <p>
+     * The string is scanned once without regular expressions, the result is the same as of
+     * splitting it by the delimiter pattern and checking each word by the word pattern.
      *
      * @param words 3 word address
      * @return the builder
@@ -243,15 +252,63 @@ public interface Words {
      *                                  address</span></abbr> does not match pattern
      */
     public WordsBuilder words(@NotNull String words) throws IllegalArgumentException {
-      if (words.isBlank()) {
-        throw new IllegalArgumentException("empty words");
+      int length = words.length();
+      int start = 0;
+
+      while (words.startsWith(THREE_LEADING_SLASHES, start)) {
+        start += FIRST_NON_SLASH;
       }
 
-      if (words.startsWith(THREE_LEADING_SLASHES)) {
-        return words(words.substring(FIRST_NON_SLASH));
+      // bit N is about word N, only three words are checked like the array variant does
+      int blankWords = 0b111;
+      int badWords = 0;
+      int delimiters = 0;
+      int firstEnd = length;
+      int secondEnd = length;
+      int thirdEnd = length;
+      boolean hasThirdWord = false;
+
+      for (int i = start; i < length && (3 > delimiters || !hasThirdWord); i++) {
+        char current = words.charAt(i);
+
+        if (isDelimiter(current)) {
+          if (0 == delimiters) {
+            firstEnd = i;
+          } else if (1 == delimiters) {
+            secondEnd = i;
+          } else if (2 == delimiters) {
+            thirdEnd = i;
+          }
+          delimiters++;
+        } else {
+          hasThirdWord |= 2 <= delimiters;
+          if (3 > delimiters) {
+            int word = 1 << delimiters;
+
+            if (!Character.isWhitespace(current)) {
+              blankWords &= ~word;
+            }
+            if (isForbidden(current)) {
+              badWords |= word;
+            }
+          }
+        }
       }
+      if (0 == delimiters && 0 != (blankWords & 1)) {
+        throw new IllegalArgumentException("empty words");
+      }
+      // trailing empty words are not counted
+      if (!hasThirdWord) {
+        throw new IllegalArgumentException("3 words are required");
+      }
+      for (int word = 1; 0b111 >= word; word <<= 1) {
+        isValidWord(0 != (blankWords & word), 0 != (badWords & word));
+      }
+      first = words.substring(start, firstEnd);
+      second = words.substring(firstEnd + 1, secondEnd);
+      third = words.substring(secondEnd + 1, thirdEnd);
 
-      return words(words.split(WORD_ADDRESS_DELIMITER_PATTERN));
+      return this;
     }
 
     /**
@@ -290,11 +347,40 @@ public interface Words {
       return words(words.toArray(new String[0]));
     }
 
-    private void isValidWord(String word) {
-      if (word.isBlank()) {
+    private static boolean[] forbiddenChars(String chars) {
+      boolean[] forbiddenChars = new boolean[chars.chars().max().orElse(0) + 1];
+
+      chars.chars().forEach(forbiddenChar -> forbiddenChars[forbiddenChar] = true);
+
+      return forbiddenChars;
+    }
+
+    private static boolean isDelimiter(char value) {
+      return '.' == value || '・' == value || '。' == value;
+    }
+
+    private static boolean isForbidden(char value) {
+      return FORBIDDEN_CHARS.length > value && FORBIDDEN_CHARS[value];
+    }
+
+    private static void isValidWord(String word) {
+      boolean blank = true;
+      boolean bad = false;
+
+      for (int i = 0; i < word.length(); i++) {
+        char current = word.charAt(i);
+
+        blank &= Character.isWhitespace(current);
+        bad |= isForbidden(current);
+      }
+      isValidWord(blank, bad);
+    }
+
+    private static void isValidWord(boolean blank, boolean bad) {
+      if (blank) {
         throw new IllegalArgumentException("empty word");
       }
-      if (!WORD_ADDRESS_PATTERN.matcher(word).matches()) {
+      if (bad) {
         throw new IllegalArgumentException("bad word");
       }
     }
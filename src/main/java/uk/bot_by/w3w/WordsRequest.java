@@ -63,6 +63,30 @@ public class WordsRequest {
     return language;
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof WordsRequest)) {
+      return false;
+    }
+
+    WordsRequest that = (WordsRequest) o;
+
+    if (!coordinates.equals(that.coordinates)) {
+      return false;
+    }
+    return Objects.equals(language, that.language);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = coordinates.hashCode();
+    result = 31 * result + Objects.hashCode(language);
+    return result;
+  }
+
   /**
    * Helper to constraint <abbr class="tooltip">3wa<span class="tooltiptext">3 word
    * address</span></abbr> query parameters.
@@ -152,7 +176,7 @@ public class WordsRequest {
      * @return the builder
      */
     public WordsRequestBuilder language(@NotNull String languageCode) {
-      this.language = Language.builder().code(languageCode).build();
+      this.language = LanguageRegistry.bundled().valueOf(languageCode);
       return this;
     }
 
@@ -65,6 +65,20 @@
  * <pre><code class="language-java">
  * Collection&lt;Language&gt; languages = api.availableLanguages("xyz-api-key");
  * </code></pre>
+ * <h3>Asynchronous API</h3>
+ * <p>{@link uk.bot_by.w3w.AsyncWhat3Words} has the same methods that return
+ * {@link java.util.concurrent.CompletableFuture}s, instantiate it with the async builder:</p>
+ * <pre><code class="language-java">
+ * asyncApi = AsyncFeign.builder()
+ *                      .client(new Http2Client())
+ *                      .decoder(new What3WordsDecoder())
+ *                      .errorDecoder(new What3WordsErrorDecoder())
+ *                      .requestInterceptor(new KeyInterceptor("qwerty-api-key"))
+ *                      .target(AsyncWhat3Words.class, What3Words.W3W_API);
+ *
+ * asyncApi.convertToAddress(wordsRequest)
+ *         .thenAccept(squaredAddress -&gt; System.out.println(squaredAddress.getWords()));
+ * </code></pre>
  *
  * @see <a href="https://developer.what3words.com/public-api/docs"><em>what3words</em>: API
  * Reference Docs</a>
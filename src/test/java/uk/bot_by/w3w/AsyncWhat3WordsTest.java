@@ -0,0 +1,145 @@
+package uk.bot_by.w3w;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+import static org.hamcrest.collection.IsIterableContainingInAnyOrder.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import feign.AsyncClient;
+import feign.AsyncFeign;
+import feign.Request;
+import feign.Response;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("fast")
+class AsyncWhat3WordsTest {
+
+  private AsyncWhat3Words api;
+  private AtomicReference<Request> request;
+  private AtomicReference<Response.Builder> response;
+
+  private static Response.Builder response(int status, String body) {
+    return Response.builder().status(status).reason("reason").headers(Collections.emptyMap())
+        .body(body, UTF_8);
+  }
+
+  @BeforeEach
+  void setUp() {
+    AsyncClient<Object> client = (request, options, context) -> {
+      this.request.set(request);
+      return CompletableFuture.supplyAsync(() -> response.get().request(request).build());
+    };
+
+    request = new AtomicReference<>();
+    response = new AtomicReference<>();
+    api = AsyncFeign.builder().client(client).decoder(new What3WordsDecoder())
+        .errorDecoder(new What3WordsErrorDecoder())
+        .requestInterceptor(new KeyInterceptor("abc-api-key"))
+        .target(AsyncWhat3Words.class, "http://localhost");
+  }
+
+  @DisplayName("Available languages")
+  @Test
+  void availableLanguages() throws ExecutionException, InterruptedException {
+    // given
+    response.set(response(200, "{\"languages\":[{\"code\":\"de\",\"name\":\"German\","
+        + "\"nativeName\":\"Deutsch\"},{\"code\":\"no\",\"name\":\"\",\"nativeName\":\"\"}]}"));
+
+    // when
+    Collection<Language> languages = api.availableLanguages("xyz-api-key").get();
+
+    // then
+    assertAll("Available languages",
+        () -> assertThat("two languages", languages, hasSize(2)),
+        () -> assertThat("german, norwegian", languages,
+            containsInAnyOrder(Language.builder().code("de").build(),
+                Language.builder().code("no").build())),
+        () -> assertEquals("http://localhost/v3/available-languages", request.get().url(), "url"),
+        () -> assertEquals(Collections.singletonList("xyz-api-key"),
+            request.get().headers().get("X-Api-Key"), "API key"));
+  }
+
+  @DisplayName("Convert coordinates to a 3 word address")
+  @Test
+  void convertToAddress() throws ExecutionException, InterruptedException {
+    // given
+    WordsRequest wordsRequest = WordsRequest.builder().coordinates(51.381051d, -2.359591d)
+        .language("en").build();
+
+    response.set(response(200, readSquaredAddress()));
+
+    // when
+    SquaredAddress squaredAddress = api.convertToAddress(wordsRequest).get();
+
+    // then
+    assertAll("Squared address",
+        () -> assertEquals("spring.tops.issued", squaredAddress.getWords().toString(), "3wa"),
+        () -> assertEquals(
+            "http://localhost/v3/convert-to-3wa?coordinates=51.381051%2C-2.359591&language=en",
+            request.get().url(), "url"),
+        () -> assertEquals(Collections.singletonList("abc-api-key"),
+            request.get().headers().get("X-Api-Key"), "API key"));
+  }
+
+  @DisplayName("Convert 3 word address into coordinates")
+  @Test
+  void convertToCoordinates() throws ExecutionException, InterruptedException {
+    // given
+    CoordinatesRequest coordinatesRequest = CoordinatesRequest.builder()
+        .words("spring.tops.issued").build();
+
+    response.set(response(200, readSquaredAddress()));
+
+    // when
+    Coordinates coordinates = api.convertToCoordinates(coordinatesRequest).get()
+        .getCoordinates();
+
+    // then
+    assertAll("Coordinates",
+        () -> assertEquals("51.381051,-2.359591", coordinates.toString(), "coordinates"),
+        () -> assertEquals("http://localhost/v3/convert-to-coordinates?words=spring.tops.issued",
+            request.get().url(), "url"));
+  }
+
+  @DisplayName("Error of what3words API")
+  @Test
+  void error() {
+    // given
+    response.set(response(400, "{\"error\":{\"code\":\"BadWords\","
+        + "\"message\":\"words must be a valid 3 word address\"}}"));
+
+    // when
+    CompletableFuture<SquaredAddress> future = api.convertToCoordinates("xyz-api-key",
+        CoordinatesRequest.builder().words("spring.tops.issued").build());
+
+    // then
+    Exception exception = assertThrows(ExecutionException.class, future::get);
+
+    assertAll("Error", () -> assertTrue(exception.getCause() instanceof What3WordsException),
+        () -> assertEquals("BadWords", ((What3WordsException) exception.getCause()).getCode(),
+            "code"));
+  }
+
+  private String readSquaredAddress() {
+    BufferedReader squaredAddressReader = new BufferedReader(
+        new InputStreamReader(getClass().getResourceAsStream("/squared_address.json")));
+
+    return squaredAddressReader.lines().collect(Collectors.joining("\n"));
+  }
+
+}
@@ -0,0 +1,265 @@
+package uk.bot_by.w3w;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsIterableContainingInAnyOrder.containsInAnyOrder;
+import static org.hamcrest.number.OrderingComparison.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("fast")
+class BatchConverterTest {
+
+  @Mock
+  private What3Words api;
+  @Mock
+  private AsyncWhat3Words asyncApi;
+  @Mock
+  private SquaredAddress squaredAddress;
+
+  private ExecutorService executor;
+
+  @BeforeEach
+  void setUp() {
+    executor = Executors.newFixedThreadPool(8);
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    executor.shutdown();
+    executor.awaitTermination(1, TimeUnit.SECONDS);
+  }
+
+  /*
+   * The latch is opened when the batch has taken all items.
+   */
+  private static <T> Iterator<T> iterator(List<T> items, CountDownLatch exhausted) {
+    Iterator<T> iterator = items.iterator();
+
+    return new Iterator<>() {
+
+      @Override
+      public boolean hasNext() {
+        boolean hasNext = iterator.hasNext();
+
+        if (!hasNext) {
+          exhausted.countDown();
+        }
+
+        return hasNext;
+      }
+
+      @Override
+      public T next() {
+        return iterator.next();
+      }
+
+    };
+  }
+
+  @DisplayName("Results are in input order, equal running requests are sent once")
+  @Test
+  void inputOrder() {
+    // given
+    CountDownLatch exhausted = new CountDownLatch(1);
+    CoordinatesRequest good = CoordinatesRequest.builder().words("spring.tops.issued").build();
+    CoordinatesRequest bad = CoordinatesRequest.builder().words("spring.tops.issue").build();
+    What3WordsException exception = new What3WordsException(400, "BadWords", "bad words");
+    BatchConverter converter = BatchConverter.builder().api(api, executor).maxInFlight(2)
+        .build();
+
+    // requests are running until the batch has taken all items
+    when(api.convertToCoordinates(good)).then(invocation -> {
+      exhausted.await();
+      return squaredAddress;
+    });
+    when(api.convertToCoordinates(bad)).then(invocation -> {
+      exhausted.await();
+      throw exception;
+    });
+
+    // when
+    List<BatchConverter.Result<CoordinatesRequest>> results = converter.convertToCoordinates(
+        iterator(Arrays.asList(good, bad,
+            CoordinatesRequest.builder().words("spring.tops.issued").build(), bad), exhausted));
+
+    // then
+    verify(api).convertToCoordinates(good);
+    verify(api).convertToCoordinates(bad);
+    assertAll("Results", () -> assertEquals(4, results.size(), "size"),
+        () -> assertSame(squaredAddress, results.get(0).getSquaredAddress(), "first"),
+        () -> assertTrue(results.get(0).isSuccessful(), "first is successful"),
+        () -> assertSame(exception, results.get(1).getException(), "second"),
+        () -> assertFalse(results.get(1).isSuccessful(), "second is failed"),
+        () -> assertNull(results.get(1).getSquaredAddress(), "second has no address"),
+        () -> assertSame(squaredAddress, results.get(2).getSquaredAddress(), "third"),
+        () -> assertSame(exception, results.get(3).getException(), "fourth"),
+        () -> assertSame(bad, results.get(3).getRequest(), "fourth request"));
+  }
+
+  @DisplayName("Number of running requests is bounded")
+  @Test
+  void maxInFlight() {
+    // given
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    BatchConverter converter = BatchConverter.builder().api(api, executor).maxInFlight(3)
+        .build();
+    List<WordsRequest> requests = IntStream.range(0, 50)
+        .mapToObj(i -> WordsRequest.builder().coordinates(i, i).build())
+        .collect(Collectors.toList());
+
+    when(api.convertToAddress(any(WordsRequest.class))).then(invocation -> {
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      Thread.sleep(2);
+      running.decrementAndGet();
+      return squaredAddress;
+    });
+
+    // when
+    List<BatchConverter.Result<WordsRequest>> results = converter.convertToAddress(
+        requests.iterator());
+
+    // then
+    verify(api, times(50)).convertToAddress(any(WordsRequest.class));
+    assertAll("Bounded concurrency", () -> assertEquals(50, results.size(), "size"),
+        () -> assertThat("max running", maxRunning.get(), lessThanOrEqualTo(3)),
+        () -> assertEquals(requests,
+            results.stream().map(BatchConverter.Result::getRequest).collect(Collectors.toList()),
+            "input order"));
+  }
+
+  @DisplayName("Results are passed in completion order")
+  @Test
+  void completionOrder() {
+    // given
+    WordsRequest first = WordsRequest.builder().coordinates(1, 1).build();
+    WordsRequest second = WordsRequest.builder().coordinates(2, 2).build();
+    CompletableFuture<SquaredAddress> firstFuture = new CompletableFuture<>();
+    List<WordsRequest> completed = Collections.synchronizedList(new ArrayList<>());
+    BatchConverter converter = BatchConverter.builder().api(asyncApi).build();
+
+    when(asyncApi.convertToAddress(first)).thenReturn(firstFuture);
+    when(asyncApi.convertToAddress(second)).thenReturn(
+        CompletableFuture.completedFuture(squaredAddress));
+
+    // when
+    CompletableFuture<Void> future = converter.convertToAddress(
+        Arrays.asList(first, second, first).iterator(),
+        result -> completed.add(result.getRequest()));
+
+    firstFuture.complete(squaredAddress);
+    future.join();
+
+    // then
+    verify(asyncApi).convertToAddress(first);
+    assertAll("Completion order", () -> assertEquals(second, completed.get(0), "second"),
+        () -> assertThat("all results", completed, containsInAnyOrder(first, second, first)));
+  }
+
+  @DisplayName("A completed request is shared in input order")
+  @Test
+  void completedRequest() {
+    // given
+    WordsRequest request = WordsRequest.builder().coordinates(1, 1).build();
+    BatchConverter converter = BatchConverter.builder().api(asyncApi).build();
+
+    when(asyncApi.convertToAddress(request)).thenReturn(
+        CompletableFuture.completedFuture(squaredAddress));
+
+    // when
+    List<BatchConverter.Result<WordsRequest>> results = converter.convertToAddress(
+        Arrays.asList(request, request));
+
+    // then
+    verify(asyncApi).convertToAddress(request);
+    assertEquals(2, results.size());
+  }
+
+  @DisplayName("A completed request is not kept in completion order")
+  @Test
+  void completedRequestInCompletionOrder() {
+    // given
+    WordsRequest request = WordsRequest.builder().coordinates(1, 1).build();
+    BatchConverter converter = BatchConverter.builder().api(asyncApi).build();
+    List<BatchConverter.Result<WordsRequest>> results = new CopyOnWriteArrayList<>();
+
+    when(asyncApi.convertToAddress(request)).thenReturn(
+        CompletableFuture.completedFuture(squaredAddress));
+
+    // when
+    converter.convertToAddress(Arrays.asList(request, request).iterator(), results::add).join();
+
+    // then
+    verify(asyncApi, times(2)).convertToAddress(request);
+    assertEquals(2, results.size());
+  }
+
+  @DisplayName("An interrupted batch is cancelled")
+  @Test
+  void interrupted() {
+    // given
+    BatchConverter converter = BatchConverter.builder().api(asyncApi).maxInFlight(1).build();
+
+    Thread.currentThread().interrupt();
+
+    // when
+    Exception exception = assertThrows(CancellationException.class,
+        () -> converter.convertToAddress(
+            List.of(WordsRequest.builder().coordinates(1, 1).build()).iterator(), result -> {
+            }));
+
+    // then
+    verify(asyncApi, never()).convertToAddress(any(WordsRequest.class));
+    assertAll("Interrupted", () -> assertTrue(Thread.interrupted(), "interrupt status"),
+        () -> assertEquals("batch is interrupted", exception.getMessage(), "exception message"));
+  }
+
+  @DisplayName("API is required")
+  @Test
+  void apiIsNull() {
+    // given
+    BatchConverter.BatchConverterBuilder builder = BatchConverter.builder();
+
+    // when
+    Exception exception = assertThrows(NullPointerException.class, builder::build);
+
+    // then
+    assertEquals("API is null", exception.getMessage(), "exception message");
+  }
+
+}
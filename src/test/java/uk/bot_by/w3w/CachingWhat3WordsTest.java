@@ -0,0 +1,175 @@
+package uk.bot_by.w3w;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("fast")
+class CachingWhat3WordsTest {
+
+  @Mock
+  private What3Words delegate;
+  @Mock
+  private SquaredAddress squaredAddress;
+
+  private CachingWhat3Words api;
+  private AtomicLong time;
+
+  @BeforeEach
+  void setUp() {
+    time = new AtomicLong();
+    api = CachingWhat3Words.builder().delegate(delegate).maximumSize(100)
+        .timeToLive(Duration.ofMinutes(1)).ticker(time::get).build();
+  }
+
+  @DisplayName("Typed requests are cached")
+  @Test
+  void typedRequests() {
+    // given
+    when(delegate.convertToAddress(any(WordsRequest.class))).thenReturn(squaredAddress);
+    when(delegate.convertToCoordinates(any(CoordinatesRequest.class))).thenReturn(
+        squaredAddress);
+
+    // when
+    api.convertToAddress(WordsRequest.builder().coordinates(51.381051, -2.359591).build());
+    api.convertToAddress(WordsRequest.builder().coordinates(51.381051, -2.359591).build());
+    api.convertToCoordinates(CoordinatesRequest.builder().words("spring.tops.issued").build());
+
+    SquaredAddress cachedAddress = api.convertToCoordinates(
+        CoordinatesRequest.builder().words("///spring.tops.issued").build());
+
+    // then
+    verify(delegate).convertToAddress(any(WordsRequest.class));
+    verify(delegate).convertToCoordinates(any(CoordinatesRequest.class));
+    assertAll("Statistics", () -> assertSame(squaredAddress, cachedAddress, "cached value"),
+        () -> assertEquals(2, api.getHitCount(), "hits"),
+        () -> assertEquals(2, api.getMissCount(), "misses"),
+        () -> assertEquals(2, api.getSize(), "size"));
+  }
+
+  @DisplayName("Query maps, typed requests and requests with API key share the cache")
+  @Test
+  void sharedCache() {
+    // given
+    when(delegate.convertToAddress(anyMap())).thenReturn(squaredAddress);
+    when(delegate.convertToCoordinates(anyMap())).thenReturn(squaredAddress);
+
+    // when
+    api.convertToAddress(Map.of("coordinates", "51.381051,-2.359591", "language", "en"));
+    api.convertToAddress(
+        WordsRequest.builder().coordinates(51.381051, -2.359591).language("en").build());
+    api.convertToAddress("qwerty",
+        WordsRequest.builder().coordinates(51.381051, -2.359591).language("en").build());
+    api.convertToCoordinates(Map.of("words", "spring.tops.issued", "key", "qwerty"));
+    api.convertToCoordinates(CoordinatesRequest.builder().words("spring.tops.issued").build());
+    api.convertToCoordinates("qwerty",
+        CoordinatesRequest.builder().words("spring", "tops", "issued").build());
+
+    // then
+    verify(delegate).convertToAddress(anyMap());
+    verify(delegate).convertToCoordinates(anyMap());
+    assertAll("Statistics", () -> assertEquals(4, api.getHitCount(), "hits"),
+        () -> assertEquals(2, api.getMissCount(), "misses"));
+  }
+
+  @DisplayName("Query maps with unknown parameters are not cached")
+  @Test
+  void unknownParameters() {
+    // given
+    when(delegate.convertToCoordinates(anyMap())).thenReturn(squaredAddress);
+
+    // when
+    api.convertToCoordinates(Map.of("words", "spring.tops.issued", "format", "geojson"));
+    api.convertToCoordinates(Map.of("words", "spring.tops.issued", "format", "geojson"));
+    api.convertToCoordinates(Map.of("words", "spring.tops"));
+
+    // then
+    verify(delegate, times(3)).convertToCoordinates(anyMap());
+    assertAll("Statistics", () -> assertEquals(0, api.getHitCount(), "hits"),
+        () -> assertEquals(0, api.getMissCount(), "misses"));
+  }
+
+  @DisplayName("Entries expire")
+  @Test
+  void expiration() {
+    // given
+    CoordinatesRequest request = CoordinatesRequest.builder().words("spring.tops.issued").build();
+
+    when(delegate.convertToCoordinates(anyString(), any(CoordinatesRequest.class))).thenReturn(
+        squaredAddress);
+
+    // when
+    api.convertToCoordinates("qwerty", request);
+    time.addAndGet(Duration.ofMinutes(1).toNanos());
+    api.convertToCoordinates("qwerty", request);
+
+    // then
+    verify(delegate, times(2)).convertToCoordinates("qwerty", request);
+    assertAll("Statistics", () -> assertEquals(0, api.getHitCount(), "hits"),
+        () -> assertEquals(2, api.getMissCount(), "misses"),
+        () -> assertEquals(1, api.getEvictionCount(), "evictions"));
+  }
+
+  @DisplayName("Errors are not cached")
+  @Test
+  void errors() {
+    // given
+    CoordinatesRequest request = CoordinatesRequest.builder().words("spring.tops.issued").build();
+
+    when(delegate.convertToCoordinates(request)).thenThrow(
+        new What3WordsException(400, "BadWords", "bad words"));
+
+    // when
+    assertThrows(What3WordsException.class, () -> api.convertToCoordinates(request));
+    assertThrows(What3WordsException.class, () -> api.convertToCoordinates(request));
+
+    // then
+    verify(delegate, times(2)).convertToCoordinates(request);
+  }
+
+  @DisplayName("Available languages are not cached")
+  @Test
+  void availableLanguages() {
+    // when
+    api.availableLanguages();
+    api.availableLanguages();
+    api.availableLanguages("qwerty");
+
+    // then
+    verify(delegate, times(2)).availableLanguages();
+    verify(delegate).availableLanguages("qwerty");
+  }
+
+  @DisplayName("Delegate is required")
+  @Test
+  void delegateIsNull() {
+    // given
+    CachingWhat3Words.CachingWhat3WordsBuilder builder = CachingWhat3Words.builder();
+
+    // when
+    Exception exception = assertThrows(NullPointerException.class, builder::build);
+
+    // then
+    assertEquals("delegate is null", exception.getMessage(), "exception message");
+  }
+
+}
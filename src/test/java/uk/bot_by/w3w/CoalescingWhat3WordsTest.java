@@ -0,0 +1,177 @@
+package uk.bot_by.w3w;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("fast")
+class CoalescingWhat3WordsTest {
+
+  private static final int THREADS = 8;
+
+  @Mock
+  private What3Words delegate;
+  @Mock
+  private SquaredAddress squaredAddress;
+
+  private CoalescingWhat3Words api;
+  private ExecutorService executor;
+  private CountDownLatch release;
+
+  @BeforeEach
+  void setUp() {
+    api = new CoalescingWhat3Words(delegate);
+    executor = Executors.newFixedThreadPool(THREADS);
+    release = new CountDownLatch(1);
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    release.countDown();
+    executor.shutdown();
+    executor.awaitTermination(1, TimeUnit.SECONDS);
+  }
+
+  @DisplayName("Equal requests in flight share the result")
+  @Test
+  void sharedResult() throws InterruptedException {
+    // given
+    when(delegate.convertToCoordinates(any(CoordinatesRequest.class))).then(invocation -> {
+      release.await();
+      return squaredAddress;
+    });
+
+    // when
+    List<CompletableFuture<SquaredAddress>> futures = callConcurrently(
+        () -> api.convertToCoordinates(
+            CoordinatesRequest.builder().words("spring.tops.issued").build()));
+
+    // then
+    verify(delegate).convertToCoordinates(any(CoordinatesRequest.class));
+    for (CompletableFuture<SquaredAddress> future : futures) {
+      assertSame(squaredAddress, future.join());
+    }
+    assertEquals(THREADS - 1, api.getCoalescedCount(), "coalesced calls");
+  }
+
+  @DisplayName("Equal requests in flight share the exception")
+  @Test
+  void sharedException() throws InterruptedException {
+    // given
+    What3WordsException exception = new What3WordsException(400, "BadWords", "bad words");
+
+    when(delegate.convertToAddress(any(WordsRequest.class))).then(invocation -> {
+      release.await();
+      throw exception;
+    });
+
+    // when
+    List<CompletableFuture<SquaredAddress>> futures = callConcurrently(
+        () -> api.convertToAddress(WordsRequest.builder().coordinates(51.381051d, -2.359591d)
+            .language("en").build()));
+
+    // then
+    verify(delegate).convertToAddress(any(WordsRequest.class));
+    for (CompletableFuture<SquaredAddress> future : futures) {
+      assertSame(exception, assertThrows(CompletionException.class, future::join).getCause());
+    }
+  }
+
+  @DisplayName("Requests with different API keys are not coalesced, query maps are")
+  @Test
+  void apiKeys() throws InterruptedException {
+    // given
+    CountDownLatch entered = new CountDownLatch(2);
+    CoordinatesRequest request = CoordinatesRequest.builder().words("spring.tops.issued").build();
+
+    when(delegate.convertToCoordinates(anyString(), any(CoordinatesRequest.class))).then(
+        invocation -> {
+          entered.countDown();
+          release.await();
+          return squaredAddress;
+        });
+
+    CompletableFuture<SquaredAddress> first = CompletableFuture.supplyAsync(
+        () -> api.convertToCoordinates("abc", request), executor);
+    CompletableFuture<SquaredAddress> second = CompletableFuture.supplyAsync(
+        () -> api.convertToCoordinates("xyz", request), executor);
+
+    entered.await();
+
+    // when
+    CompletableFuture<SquaredAddress> third = CompletableFuture.supplyAsync(
+        () -> api.convertToCoordinates(Map.of("words", "spring.tops.issued", "key", "xyz")),
+        executor);
+
+    while (1 > api.getCoalescedCount()) {
+      Thread.sleep(1);
+    }
+    release.countDown();
+
+    // then
+    assertAll("Coalesced requests", () -> assertSame(squaredAddress, first.join(), "first"),
+        () -> assertSame(squaredAddress, second.join(), "second"),
+        () -> assertSame(squaredAddress, third.join(), "third"),
+        () -> assertEquals(1, api.getCoalescedCount(), "coalesced calls"));
+    verify(delegate, times(2)).convertToCoordinates(anyString(), any(CoordinatesRequest.class));
+  }
+
+  @DisplayName("Sequential requests are not coalesced")
+  @Test
+  void sequential() {
+    // given
+    release.countDown();
+    when(delegate.availableLanguages()).thenReturn(List.of());
+
+    // when
+    api.availableLanguages();
+    api.availableLanguages();
+
+    // then
+    verify(delegate, times(2)).availableLanguages();
+  }
+
+  private List<CompletableFuture<SquaredAddress>> callConcurrently(Supplier<SquaredAddress> call)
+      throws InterruptedException {
+    List<CompletableFuture<SquaredAddress>> futures = new ArrayList<>();
+
+    for (int i = 0; THREADS > i; i++) {
+      futures.add(CompletableFuture.supplyAsync(call, executor));
+    }
+    while (THREADS - 1 > api.getCoalescedCount()) {
+      Thread.sleep(1);
+    }
+    release.countDown();
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).exceptionally(e -> null)
+        .join();
+
+    return futures;
+  }
+
+}
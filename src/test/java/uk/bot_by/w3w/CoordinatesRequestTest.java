@@ -2,6 +2,7 @@ package uk.bot_by.w3w;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
 import java.util.Arrays;
 import org.junit.jupiter.api.DisplayName;
@@ -72,4 +73,22 @@ class CoordinatesRequestTest {
         () -> assertEquals("third", request.getWords().getThird()));
   }
 
+  @DisplayName("Equals and hash code")
+  @Test
+  public void equalsAndHashCode() {
+    // given
+    CoordinatesRequest request = CoordinatesRequest.builder().words("first.second.third").build();
+
+    // when
+    CoordinatesRequest sameRequest = CoordinatesRequest.builder()
+        .words("first", "second", "third").build();
+    CoordinatesRequest anotherRequest = CoordinatesRequest.builder()
+        .words("first.second.fourth").build();
+
+    // then
+    assertAll("Equals and hash code", () -> assertEquals(request, sameRequest, "equal"),
+        () -> assertEquals(request.hashCode(), sameRequest.hashCode(), "hash code"),
+        () -> assertNotEquals(request, anotherRequest, "another words"));
+  }
+
 }
@@ -2,13 +2,16 @@ package uk.bot_by.w3w;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.math.BigDecimal;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
 @Tag("fast")
@@ -41,6 +44,19 @@ class CoordinatesTest {
         "exception message");
   }
 
+  @DisplayName("Latitude is not a number")
+  @ParameterizedTest
+  @ValueSource(doubles = {Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY})
+  public void latitudeIsNotNumber(double latitude) {
+    // when
+    Exception exception = assertThrows(IllegalArgumentException.class,
+        () -> Coordinates.builder().latitude(latitude));
+
+    // then
+    assertEquals("latitude must be in the range of -90 to 90", exception.getMessage(),
+        "exception message");
+  }
+
   @DisplayName("Latitude is missing")
   @Test
   public void longitudeIsNull() {
@@ -124,4 +140,80 @@ class CoordinatesTest {
     assertEquals("51.381051,-2.359591", coordinates.toString());
   }
 
+  @DisplayName("Double coordinates are equal to BigDecimal ones")
+  @ParameterizedTest(name = "{arguments}")
+  @CsvSource({"51.381051,-2.359591", "0.0001,-0.00005", "-90,180", "0,-0"})
+  public void doubleCoordinates(double latitude, double longitude) {
+    // given
+    Coordinates expectedCoordinates = Coordinates.builder()
+        .latitude(BigDecimal.valueOf(latitude)).longitude(BigDecimal.valueOf(longitude)).build();
+
+    // when
+    Coordinates coordinates = Coordinates.builder().coordinates(latitude, longitude).build();
+
+    // then
+    assertAll("Double coordinates",
+        () -> assertTrue(coordinates instanceof Coordinates.DoubleCoordinates, "implementation"),
+        () -> assertEquals(expectedCoordinates, coordinates, "equals"),
+        () -> assertEquals(coordinates, expectedCoordinates, "symmetric equals"),
+        () -> assertEquals(expectedCoordinates.hashCode(), coordinates.hashCode(), "hash code"),
+        () -> assertEquals(expectedCoordinates.toString(), coordinates.toString(), "to string"),
+        () -> assertEquals(latitude, coordinates.getLatitudeAsDouble(), "latitude"),
+        () -> assertEquals(longitude, coordinates.getLongitudeAsDouble(), "longitude"),
+        () -> assertEquals(expectedCoordinates.getLatitudeE7(), coordinates.getLatitudeE7(),
+            "latitude E7"),
+        () -> assertEquals(expectedCoordinates.getLongitudeE7(), coordinates.getLongitudeE7(),
+            "longitude E7"));
+  }
+
+  @DisplayName("Double coordinates keep the scale of a text")
+  @ParameterizedTest(name = "{arguments}")
+  @CsvSource({"50,-2.35957", "51.3810,-2.000", "-0.5,0.0001"})
+  public void scaleOfText(String latitude, String longitude) {
+    // given
+    BigDecimal expectedLatitude = new BigDecimal(latitude);
+    BigDecimal expectedLongitude = new BigDecimal(longitude);
+
+    // when
+    Coordinates coordinates = Coordinates.builder()
+        .latitude(expectedLatitude.doubleValue(), expectedLatitude.scale())
+        .longitude(expectedLongitude.doubleValue(), expectedLongitude.scale()).build();
+
+    // then
+    assertAll("Scale of text",
+        () -> assertEquals(expectedLatitude, coordinates.getLatitude(), "latitude"),
+        () -> assertEquals(expectedLongitude, coordinates.getLongitude(), "longitude"),
+        () -> assertEquals(
+            Coordinates.builder().coordinates(expectedLatitude, expectedLongitude).build(),
+            coordinates, "equals"));
+  }
+
+  @DisplayName("Coordinates with different scale are not equal")
+  @Test
+  public void differentScale() {
+    // given
+    Coordinates coordinates = Coordinates.builder().coordinates(50d, 1d).build();
+
+    // when
+    Coordinates anotherCoordinates = Coordinates.builder().latitude(50d, 0).longitude(1d, 0)
+        .build();
+
+    // then
+    assertNotEquals(coordinates, anotherCoordinates);
+  }
+
+  @DisplayName("Mixed double and BigDecimal values")
+  @Test
+  public void mixedValues() {
+    // when
+    Coordinates coordinates = Coordinates.builder().latitude(51.381051d)
+        .longitude(BigDecimal.valueOf(-2.359591d)).build();
+
+    // then
+    assertAll("Mixed values",
+        () -> assertEquals(BigDecimal.valueOf(51.381051d), coordinates.getLatitude(), "latitude"),
+        () -> assertEquals(BigDecimal.valueOf(-2.359591d), coordinates.getLongitude(),
+            "longitude"));
+  }
+
 }
@@ -0,0 +1,247 @@
+package uk.bot_by.w3w;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sun.net.httpserver.HttpServer;
+import feign.Feign;
+import feign.FeignException;
+import feign.RetryableException;
+import feign.Retryer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("fast")
+class HttpClientWhat3WordsTest {
+
+  private static final String LANGUAGES = "{\"languages\":[{\"code\":\"en\",\"name\":\"English\","
+      + "\"nativeName\":\"English\"}]}";
+
+  private final AtomicReference<String> apiKey = new AtomicReference<>();
+  private final AtomicReference<String> query = new AtomicReference<>();
+  private final AtomicReference<String> responseBody = new AtomicReference<>(LANGUAGES);
+  private final AtomicReference<Integer> responseStatus = new AtomicReference<>(200);
+  private HttpServer server;
+  private String url;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/", exchange -> {
+      byte[] bytes = responseBody.get().getBytes(UTF_8);
+
+      apiKey.set(exchange.getRequestHeaders().getFirst("X-Api-Key"));
+      query.set(exchange.getRequestURI().getRawQuery());
+      exchange.sendResponseHeaders(responseStatus.get(), bytes.length);
+      try (OutputStream response = exchange.getResponseBody()) {
+        response.write(bytes);
+      }
+    });
+    server.start();
+    url = "http://localhost:" + server.getAddress().getPort();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  @DisplayName("Answers are the same as Feign's ones")
+  @Test
+  void sameAsFeign() throws IOException {
+    // given
+    WordsRequest wordsRequest = WordsRequest.builder().coordinates(51.381051, -2.359591)
+        .language("fr").build();
+    CoordinatesRequest badWords = CoordinatesRequest.builder().words("spring.tops.issued")
+        .build();
+
+    try (SyntheticServer synthetic = SyntheticServer.start(0)) {
+      What3Words feign = Feign.builder().decoder(new What3WordsDecoder())
+          .errorDecoder(new What3WordsErrorDecoder())
+          .target(What3Words.class, synthetic.getUrl());
+      What3Words api = HttpClientWhat3Words.builder().url(synthetic.getUrl() + "/").build();
+
+      // when
+      SquaredAddress address = api.convertToAddress(wordsRequest);
+      CoordinatesRequest coordinatesRequest = CoordinatesRequest.builder()
+          .words(address.getWords()).build();
+
+      // then
+      // squared addresses do not implement equals
+      assertAll("Same answers",
+          () -> assertEquals(feign.convertToAddress(wordsRequest).toString(), address.toString(),
+              "address"),
+          () -> assertEquals(feign.convertToCoordinates(coordinatesRequest).toString(),
+              api.convertToCoordinates("abc", coordinatesRequest).toString(), "coordinates"),
+          () -> assertEquals(
+              feign.convertToAddress(Map.of("coordinates", "51.381051,-2.359591")).toString(),
+              api.convertToAddress(Map.of("coordinates", "51.381051,-2.359591")).toString(),
+              "query map"),
+          () -> assertEquals(feign.availableLanguages(), api.availableLanguages(), "languages"),
+          () -> assertEquals("BadWords", assertThrows(What3WordsException.class,
+              () -> api.convertToCoordinates(badWords)).getCode(), "error"));
+    }
+  }
+
+  @DisplayName("The key of the builder is sent as the header")
+  @Test
+  void builderKey() {
+    // given
+    What3Words api = HttpClientWhat3Words.builder().url(url).key("builder-key").build();
+
+    // when
+    api.availableLanguages();
+
+    // then
+    assertEquals("builder-key", apiKey.get());
+  }
+
+  @DisplayName("The key parameter overrides the key of the builder")
+  @Test
+  void parameterKey() {
+    // given
+    What3Words api = HttpClientWhat3Words.builder().url(url).key("builder-key").build();
+
+    // when
+    api.availableLanguages("parameter-key");
+
+    // then
+    assertEquals("parameter-key", apiKey.get());
+  }
+
+  @DisplayName("A query map with the key is sent without the header")
+  @Test
+  void queryKey() {
+    // given
+    What3Words api = HttpClientWhat3Words.builder().url(url).key("builder-key").build();
+    Map<String, Object> queryParameters = new LinkedHashMap<>();
+
+    queryParameters.put("words", "index.home.raft");
+    queryParameters.put("key", "query key");
+    queryParameters.put("format", null);
+    responseBody.set("{}");
+
+    // when
+    assertThrows(FeignException.class, () -> api.convertToCoordinates(queryParameters));
+
+    // then
+    assertAll("Query key", () -> assertNull(apiKey.get(), "header"),
+        () -> assertEquals("words=index.home.raft&key=query%20key", query.get(), "query"));
+  }
+
+  @DisplayName("The projection is decoded and it is not sent")
+  @Test
+  void projection() {
+    // given
+    HttpClientWhat3Words api = HttpClientWhat3Words.builder().url(url)
+        .decoder(new What3WordsStreamingDecoder()).build();
+    WordsRequest wordsRequest = WordsRequest.builder().coordinates(51.381051, -2.359591).build();
+
+    responseBody.set("{\"words\":\"spring.tops.issued\",\"map\":\"not a link\"}");
+
+    // when
+    SquaredAddress squaredAddress = api.convertToAddress(wordsRequest,
+        SquaredAddress.Field.WORDS);
+
+    // then
+    assertAll("Projection",
+        () -> assertEquals("spring.tops.issued", squaredAddress.getWords().toString(), "words"),
+        () -> assertThrows(IllegalStateException.class, squaredAddress::getMap, "map"),
+        () -> assertEquals("fields are empty", assertThrows(IllegalArgumentException.class,
+            () -> api.convertToCoordinates(CoordinatesRequest.builder()
+                .words("spring.tops.issued").build(), new SquaredAddress.Field[0]))
+            .getMessage(), "empty"),
+        () -> assertEquals("coordinates=51.381051%2C-2.359591", query.get(), "query"));
+  }
+
+  @DisplayName("Query values are encoded")
+  @Test
+  void encoding() {
+    // given
+    What3Words api = HttpClientWhat3Words.builder().url(url).build();
+    CoordinatesRequest coordinatesRequest = CoordinatesRequest.builder()
+        .words("шейна.читалня.мишка").build();
+    responseBody.set("{}");
+
+    // when
+    assertThrows(FeignException.class, () -> api.convertToCoordinates(coordinatesRequest));
+
+    // then
+    assertEquals("words=%D1%88%D0%B5%D0%B9%D0%BD%D0%B0.%D1%87%D0%B8%D1%82%D0%B0%D0%BB%D0%BD"
+        + "%D1%8F.%D0%BC%D0%B8%D1%88%D0%BA%D0%B0", query.get());
+  }
+
+  @DisplayName("Unknown error is Feign's exception")
+  @Test
+  void unknownError() {
+    // given
+    What3Words api = HttpClientWhat3Words.builder().url(url).build();
+    responseBody.set("Service Unavailable");
+    responseStatus.set(503);
+
+    // when
+    FeignException exception = assertThrows(FeignException.class, api::availableLanguages);
+
+    // then
+    assertAll("Unknown error", () -> assertEquals(503, exception.status(), "status"),
+        () -> assertThat("method key", exception.getMessage(),
+            containsString("What3Words#availableLanguages()")));
+  }
+
+  @DisplayName("I/O error is retryable")
+  @Test
+  void ioError() throws IOException {
+    // given
+    int port;
+
+    try (ServerSocket socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+
+    What3Words api = HttpClientWhat3Words.builder().url("http://localhost:" + port)
+        .retryer(Retryer.NEVER_RETRY).build();
+
+    // when
+    RetryableException exception = assertThrows(RetryableException.class,
+        api::availableLanguages);
+
+    // then
+    assertEquals(-1, exception.status());
+  }
+
+  @DisplayName("Wrong builder values")
+  @Test
+  void wrongBuilderValues() {
+    // given
+    HttpClientWhat3Words.HttpClientWhat3WordsBuilder builder = HttpClientWhat3Words.builder();
+
+    // when
+    Exception relativeUrl = assertThrows(IllegalArgumentException.class,
+        () -> builder.url("/v3"));
+    Exception zeroTimeout = assertThrows(IllegalArgumentException.class,
+        () -> builder.readTimeout(Duration.ZERO));
+    Exception nullDecoder = assertThrows(NullPointerException.class, () -> builder.decoder(null));
+
+    // then
+    assertAll("Builder", () -> assertEquals("url is not absolute", relativeUrl.getMessage()),
+        () -> assertEquals("read timeout must be positive", zeroTimeout.getMessage()),
+        () -> assertEquals("decoder is null", nullDecoder.getMessage()));
+  }
+
+}
@@ -0,0 +1,142 @@
+package uk.bot_by.w3w;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import org.json.JSONException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+@Tag("fast")
+class JsonReaderTest {
+
+  private static JsonReader reader(String json) {
+    byte[] bytes = json.getBytes(UTF_8);
+
+    return new JsonReader(bytes, 0, bytes.length);
+  }
+
+  @DisplayName("Numbers keep their scale")
+  @ParameterizedTest(name = "{arguments}")
+  @ValueSource(strings = {"50", "-2.359591", "51.381051", "-0.0", "1.5E+3", "2e-2",
+      "12345678901234567890.5"})
+  public void decimal(String number) {
+    // when
+    BigDecimal decimal = reader(" " + number + " ").nextDecimal();
+
+    // then
+    assertEquals(new BigDecimal(number), decimal);
+  }
+
+  @DisplayName("Short numbers are read as doubles")
+  @ParameterizedTest(name = "{arguments}")
+  @ValueSource(strings = {"50", "-2.359591", "51.381051", "-0.0", "0.000001", "123456789.012345"})
+  public void shortDouble(String number) {
+    // given
+    JsonReader reader = reader(" " + number + " ");
+
+    // when
+    double value = reader.nextShortDouble();
+
+    // then
+    assertAll("Short double",
+        () -> assertEquals(Double.parseDouble(number), value, "value"),
+        () -> assertEquals(new BigDecimal(number).scale(), reader.scale(), "scale"));
+  }
+
+  @DisplayName("Long numbers are left to BigDecimal")
+  @ParameterizedTest(name = "{arguments}")
+  @ValueSource(strings = {"1.5E+3", "2e-2", "1234567890.123456"})
+  public void longDouble(String number) {
+    // given
+    JsonReader reader = reader(" " + number + " ");
+
+    // when
+    double value = reader.nextShortDouble();
+
+    // then
+    assertAll("Long double", () -> assertTrue(Double.isNaN(value), "not a number"),
+        () -> assertEquals(new BigDecimal(number), reader.nextDecimal(), "decimal"));
+  }
+
+  @DisplayName("Not a number")
+  @ParameterizedTest(name = "{arguments}")
+  @ValueSource(strings = {"\"1\"", "-", "1e"})
+  public void notNumber(String number) {
+    // when and then
+    assertThrows(JSONException.class, () -> reader(number).nextDecimal());
+  }
+
+  @DisplayName("Strings")
+  @Test
+  public void strings() {
+    // given
+    JsonReader reader = reader("[\"Bath, Somerset\", \"зрання\", \"a\\\"b\\\\c\\/d\\u0411\\n\"]");
+
+    // when
+    reader.beginArray();
+
+    // then
+    assertAll("Strings", () -> assertEquals("Bath, Somerset", reader.nextString()),
+        () -> assertTrue(reader.hasNextElement()),
+        () -> assertEquals("зрання", reader.nextString()),
+        () -> assertTrue(reader.hasNextElement()),
+        () -> assertEquals("a\"b\\c/dБ\n", reader.nextString()),
+        () -> assertFalse(reader.hasNextElement()));
+  }
+
+  @DisplayName("Names and skipped values")
+  @Test
+  public void names() {
+    // given
+    JsonReader reader = reader(
+        "{\"a\": {\"b\": [1, 2.5, true, false, null, \"}\"]}, \"key\" : \"value\"}");
+    byte[] key = JsonReader.name("key");
+
+    // when
+    reader.beginObject();
+
+    // then
+    assertAll("Names", () -> assertTrue(reader.nextName()),
+        () -> assertFalse(reader.isName(key)),
+        () -> reader.skipValue(),
+        () -> assertTrue(reader.nextName()),
+        () -> assertTrue(reader.isName(key)),
+        () -> assertEquals("value", reader.nextString()),
+        () -> assertFalse(reader.nextName()));
+  }
+
+  @DisplayName("Unterminated string")
+  @Test
+  public void unterminatedString() {
+    // when and then
+    assertThrows(JSONException.class, () -> reader("\"abc").nextString());
+  }
+
+  @DisplayName("Read a stream that is bigger than the pooled buffer")
+  @Test
+  public void pooled() throws IOException {
+    // given
+    char[] value = new char[10000];
+    Arrays.fill(value, 'x');
+
+    // when
+    JsonReader reader = JsonReader.pooled(
+        new ByteArrayInputStream(("\"" + new String(value) + "\"").getBytes(UTF_8)));
+
+    // then
+    assertEquals(new String(value), reader.nextString());
+  }
+
+}
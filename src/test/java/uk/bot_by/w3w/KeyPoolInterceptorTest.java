@@ -0,0 +1,232 @@
+package uk.bot_by.w3w;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsMapContaining.hasKey;
+import static org.hamcrest.core.IsNot.not;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import feign.Request;
+import feign.Request.HttpMethod;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.codec.ErrorDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("fast")
+class KeyPoolInterceptorTest {
+
+  @Mock
+  private ErrorDecoder errorDecoder;
+
+  private AtomicLong time;
+
+  @BeforeEach
+  void setUp() {
+    time = new AtomicLong();
+  }
+
+  @DisplayName("Round-robin rotation")
+  @Test
+  void roundRobin() {
+    // given
+    KeyPoolInterceptor interceptor = KeyPoolInterceptor.builder().key("a").key("b").key("c")
+        .ticker(time::get).build();
+
+    // when
+    List<String> keys = apply(interceptor, 6);
+
+    // then
+    assertAll("Keys", () -> assertEquals(List.of("a", "b", "c", "a", "b", "c"), keys, "order"),
+        () -> assertEquals(2, interceptor.getCallCount("a"), "calls of a"),
+        () -> assertEquals(2, interceptor.getCallCount("c"), "calls of c"),
+        () -> assertEquals(0, interceptor.getCallCount("unknown"), "unknown key"));
+  }
+
+  @DisplayName("Least-used rotation")
+  @Test
+  void leastUsed() {
+    // given
+    KeyPoolInterceptor interceptor = KeyPoolInterceptor.builder().keys(List.of("a", "b"))
+        .rotation(KeyPoolInterceptor.Rotation.LEAST_USED).ticker(time::get).build();
+
+    interceptor.report("b", 429);
+    apply(interceptor, 3);
+    time.addAndGet(TimeUnit.MINUTES.toNanos(2));
+
+    // when
+    List<String> keys = apply(interceptor, 4);
+
+    // then
+    assertEquals(List.of("b", "b", "b", "a"), keys);
+  }
+
+  @DisplayName("Failed keys are sidelined")
+  @ParameterizedTest
+  @CsvSource({"401, 1441", "402, 61", "429, 2"})
+  void sidelined(int status, long minutes) {
+    // given
+    KeyPoolInterceptor interceptor = KeyPoolInterceptor.builder().key("a").key("b")
+        .ticker(time::get).build();
+
+    // when
+    interceptor.report("a", status);
+
+    List<String> sidelinedKeys = apply(interceptor, 3);
+    boolean sidelined = interceptor.isSidelined("a");
+
+    time.addAndGet(TimeUnit.MINUTES.toNanos(minutes));
+
+    // then
+    assertAll("Sidelined key",
+        () -> assertEquals(List.of("b", "b", "b"), sidelinedKeys, "keys"),
+        () -> assertTrue(sidelined, "sidelined"),
+        () -> assertEquals(1, interceptor.getFailureCount("a"), "failures"),
+        () -> assertFalse(interceptor.isSidelined("a"), "released"));
+  }
+
+  @DisplayName("Other statuses do not sideline keys")
+  @Test
+  void otherStatus() {
+    // given
+    KeyPoolInterceptor interceptor = KeyPoolInterceptor.builder().key("a").ticker(time::get)
+        .build();
+
+    // when
+    interceptor.report("a", 400);
+
+    // then
+    assertAll("Available key", () -> assertFalse(interceptor.isSidelined("a"), "sidelined"),
+        () -> assertEquals(0, interceptor.getFailureCount("a"), "failures"));
+  }
+
+  @DisplayName("If all keys are sidelined the key that is released first is used")
+  @Test
+  void allSidelined() {
+    // given
+    KeyPoolInterceptor interceptor = KeyPoolInterceptor.builder().key("a").key("b").key("c")
+        .ticker(time::get).build();
+
+    interceptor.report("a", 402);
+    interceptor.report("b", 429);
+    interceptor.report("c", 401);
+
+    // when
+    List<String> keys = apply(interceptor, 3);
+
+    // then
+    assertEquals(List.of("b", "b", "b"), keys);
+  }
+
+  @DisplayName("Error decoder reports the key of a response")
+  @Test
+  void errorDecoder() {
+    // given
+    KeyPoolInterceptor interceptor = KeyPoolInterceptor.builder().key("a").key("b")
+        .ticker(time::get).build();
+    ErrorDecoder decoder = interceptor.errorDecoder(errorDecoder);
+    What3WordsException decodedException = new What3WordsException(402, "QuotaExceeded",
+        "Quota exceeded");
+
+    when(errorDecoder.decode(anyString(), any(Response.class))).thenReturn(decodedException);
+
+    // when
+    Exception exception = decoder.decode("test",
+        response(402, Map.of("X-Api-Key", List.of("b"))));
+
+    // then
+    assertAll("Reported key", () -> assertSame(decodedException, exception, "decoded exception"),
+        () -> assertTrue(interceptor.isSidelined("b"), "sidelined"),
+        () -> assertFalse(interceptor.isSidelined("a"), "available"));
+  }
+
+  @DisplayName("The API key query parameter exists")
+  @Test
+  void queryParameterExists() {
+    // given
+    KeyPoolInterceptor interceptor = KeyPoolInterceptor.builder().key("a").build();
+    RequestTemplate requestTemplate = new RequestTemplate();
+
+    requestTemplate.query("key", "xyz");
+
+    // when
+    interceptor.apply(requestTemplate);
+
+    // then
+    assertAll("HTTP header with API key",
+        () -> assertThat("HTTP header with API key", requestTemplate.headers(),
+            not(hasKey("X-Api-Key"))),
+        () -> assertEquals(0, interceptor.getCallCount("a"), "calls"));
+  }
+
+  @DisplayName("There are no keys")
+  @Test
+  void noKeys() {
+    // given
+    KeyPoolInterceptor.KeyPoolInterceptorBuilder builder = KeyPoolInterceptor.builder();
+
+    // when
+    Exception exception = assertThrows(IllegalArgumentException.class, builder::build);
+
+    // then
+    assertEquals("there are no keys", exception.getMessage());
+  }
+
+  @DisplayName("Negative sideline time")
+  @Test
+  void negativeSidelineTime() {
+    // given
+    KeyPoolInterceptor.KeyPoolInterceptorBuilder builder = KeyPoolInterceptor.builder();
+
+    // when
+    Exception exception = assertThrows(IllegalArgumentException.class,
+        () -> builder.throttledTime(Duration.ofSeconds(-1)));
+
+    // then
+    assertEquals("sideline time is negative", exception.getMessage());
+  }
+
+  private static List<String> apply(KeyPoolInterceptor interceptor, int count) {
+    List<String> keys = new ArrayList<>();
+
+    for (int i = 0; count > i; i++) {
+      RequestTemplate requestTemplate = new RequestTemplate();
+
+      interceptor.apply(requestTemplate);
+      keys.add(requestTemplate.headers().get("X-Api-Key").iterator().next());
+    }
+
+    return keys;
+  }
+
+  private static Response response(int status, Map<String, Collection<String>> headers) {
+    return Response.builder().status(status)
+        .request(Request.create(HttpMethod.GET, "/api", headers, null, StandardCharsets.UTF_8,
+            null)).build();
+  }
+
+}
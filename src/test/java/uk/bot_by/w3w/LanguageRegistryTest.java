@@ -0,0 +1,162 @@
+package uk.bot_by.w3w;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+@Tag("fast")
+class LanguageRegistryTest {
+
+  @DisplayName("Bundled registry")
+  @Test
+  void bundled() {
+    // when
+    LanguageRegistry registry = LanguageRegistry.bundled();
+
+    // then
+    assertAll("Bundled registry", () -> assertSame(registry, LanguageRegistry.bundled(), "shared"),
+        () -> assertEquals(74, registry.size(), "size"),
+        () -> assertEquals("af", registry.get(0).getCode(), "first"),
+        () -> assertEquals("en", registry.get(12).getCode(), "English"),
+        () -> assertEquals(12, registry.id(Language.builder().code("en").build()), "id"),
+        () -> assertEquals("en", registry.get("en").getName(), "name"),
+        () -> assertTrue(registry.contains("de"), "contains"),
+        () -> assertFalse(registry.contains("x-klingon"), "unknown"));
+  }
+
+  @DisplayName("Ids are dense")
+  @Test
+  void ids() {
+    // given
+    LanguageRegistry registry = LanguageRegistry.bundled();
+
+    // when and then
+    for (int id = 0; registry.size() > id; id++) {
+      LanguageRegistry.RegisteredLanguage language = registry.get(id);
+
+      assertAll("Language " + id, () -> assertSame(language, registry.get(language.getCode())),
+          () -> assertEquals(language.getId(), registry.id(language)));
+    }
+  }
+
+  @DisplayName("Registry of available languages")
+  @Test
+  void of() {
+    // given
+    Language german = Language.builder().code("de").name("German").nativeName("Deutsch").build();
+    Language klingon = Language.builder().code("x-klingon").name("Klingon").build();
+    Language english = Language.builder().code("en").name("English").nativeName("English")
+        .build();
+
+    // when
+    LanguageRegistry registry = LanguageRegistry.of(Arrays.asList(klingon, german, english));
+
+    // then
+    assertAll("Registry", () -> assertEquals(3, registry.size(), "size"),
+        () -> assertThat("codes are sorted", registry.languages(),
+            contains(german, english, klingon)),
+        () -> assertEquals("Deutsch", registry.language("de").getNativeName(), "native name"),
+        () -> assertEquals(2, registry.language("x-klingon").getId(), "id"),
+        () -> assertEquals(-1, registry.id(Language.builder().code("fr").build()), "unknown"),
+        () -> assertEquals(10, LanguageRegistry.bundled().id(registry.language("de")),
+            "id of another registry"));
+  }
+
+  @DisplayName("Duplicate code")
+  @Test
+  void duplicate() {
+    // given
+    Language german = Language.builder().code("de").name("German").build();
+
+    // when
+    Exception exception = assertThrows(IllegalArgumentException.class,
+        () -> LanguageRegistry.of(Arrays.asList(german, Language.builder().code("de").build())));
+
+    // then
+    assertEquals("duplicate language code de", exception.getMessage(), "exception message");
+  }
+
+  @DisplayName("Unknown id")
+  @ParameterizedTest
+  @ValueSource(ints = {-1, 74})
+  void unknownId(int id) {
+    // when
+    Exception exception = assertThrows(IllegalArgumentException.class,
+        () -> LanguageRegistry.bundled().get(id));
+
+    // then
+    assertEquals("unknown language id " + id, exception.getMessage(), "exception message");
+  }
+
+  @DisplayName("Unknown code")
+  @ParameterizedTest
+  @ValueSource(strings = {"aa", "EN", "x-klingon", ""})
+  void unknownCode(String code) {
+    // when
+    Exception exception = assertThrows(IllegalArgumentException.class,
+        () -> LanguageRegistry.bundled().language(code));
+
+    // then
+    assertAll("Unknown code", () -> assertNull(LanguageRegistry.bundled().get(code), "get"),
+        () -> assertEquals("unknown language code " + code, exception.getMessage(),
+            "exception message"));
+  }
+
+  @DisplayName("Value of a code")
+  @Test
+  void valueOf() {
+    // given
+    LanguageRegistry registry = LanguageRegistry.bundled();
+
+    // when
+    Language english = registry.valueOf("en");
+    Language klingon = registry.valueOf("x-klingon");
+
+    // then
+    assertAll("Value of", () -> assertSame(english, registry.valueOf("en"), "interned"),
+        () -> assertNotSame(klingon, registry.valueOf("x-klingon"), "not interned"),
+        () -> assertEquals("x-klingon", klingon.getCode(), "code"));
+  }
+
+  @DisplayName("Language code is null")
+  @Test
+  void nullCode() {
+    // when
+    Exception exception = assertThrows(NullPointerException.class,
+        () -> LanguageRegistry.bundled().valueOf(null));
+
+    // then
+    assertEquals("language code is null", exception.getMessage(), "exception message");
+  }
+
+  @DisplayName("Registered languages are equal to other languages")
+  @Test
+  void equalsAndHashCode() {
+    // given
+    Language english = Language.builder().code("en").name("English").build();
+
+    // when
+    Language registered = LanguageRegistry.bundled().get("en");
+
+    // then
+    assertAll("Equals and hash code", () -> assertEquals(english, registered, "equals"),
+        () -> assertEquals(registered, english, "symmetric"),
+        () -> assertEquals(english.hashCode(), registered.hashCode(), "hash code"),
+        () -> assertEquals("en", registered.toString(), "string"));
+  }
+
+}
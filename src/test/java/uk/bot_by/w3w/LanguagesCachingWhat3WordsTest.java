@@ -0,0 +1,216 @@
+package uk.bot_by.w3w;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("fast")
+class LanguagesCachingWhat3WordsTest {
+
+  private static final Language ENGLISH = Language.builder().code("en").name("English").build();
+  private static final Language GERMAN = Language.builder().code("de").name("German").build();
+
+  @Mock
+  private What3Words delegate;
+
+  private LanguagesCachingWhat3Words api;
+  private List<Runnable> refreshes;
+  private AtomicLong time;
+
+  @BeforeEach
+  void setUp() {
+    refreshes = new ArrayList<>();
+    time = new AtomicLong();
+    api = LanguagesCachingWhat3Words.builder().delegate(delegate).executor(refreshes::add)
+        .refreshInterval(Duration.ofMinutes(10)).retryInterval(Duration.ofMinutes(1))
+        .ticker(time::get).build();
+  }
+
+  @DisplayName("Languages are loaded once")
+  @Test
+  void cached() {
+    // given
+    when(delegate.availableLanguages()).thenReturn(List.of(ENGLISH));
+
+    // when
+    Collection<Language> languages = api.availableLanguages();
+
+    // then
+    verify(delegate).availableLanguages();
+    assertAll("Cached languages", () -> assertSame(languages, api.availableLanguages(), "cached"),
+        () -> assertThat("languages", languages, contains(ENGLISH)),
+        () -> assertEquals(1, api.getRequestCount(), "requests"),
+        () -> assertTrue(refreshes.isEmpty(), "no refresh"));
+  }
+
+  @DisplayName("Stale languages are returned while they are refreshed")
+  @Test
+  void staleWhileRevalidate() {
+    // given
+    when(delegate.availableLanguages()).thenReturn(List.of(ENGLISH))
+        .thenReturn(List.of(ENGLISH, GERMAN));
+
+    Collection<Language> languages = api.availableLanguages();
+
+    time.set(Duration.ofMinutes(10).toNanos());
+
+    // when
+    Collection<Language> staleLanguages = api.availableLanguages();
+
+    api.availableLanguages();
+    refreshes.forEach(Runnable::run);
+
+    // then
+    assertAll("Refresh", () -> assertSame(languages, staleLanguages, "stale"),
+        () -> assertEquals(1, refreshes.size(), "one refresh at a time"),
+        () -> assertThat("refreshed", api.availableLanguages(), contains(ENGLISH, GERMAN)),
+        () -> assertEquals(2, api.getRequestCount(), "requests"));
+  }
+
+  @DisplayName("The last known languages are kept if the refresh fails")
+  @Test
+  void fallback() {
+    // given
+    when(delegate.availableLanguages()).thenReturn(List.of(ENGLISH))
+        .thenThrow(new What3WordsException(500, "InternalServerError", "Internal error"))
+        .thenReturn(List.of(GERMAN));
+
+    Collection<Language> languages = api.availableLanguages();
+
+    time.set(Duration.ofMinutes(10).toNanos());
+    api.availableLanguages();
+    refreshes.remove(0).run();
+
+    // when
+    Collection<Language> keptLanguages = api.availableLanguages();
+
+    time.addAndGet(Duration.ofMinutes(1).toNanos());
+    api.availableLanguages();
+    refreshes.remove(0).run();
+
+    // then
+    assertAll("Fallback", () -> assertSame(languages, keptLanguages, "kept"),
+        () -> assertThat("retried", api.availableLanguages(), contains(GERMAN)),
+        () -> assertEquals(3, api.getRequestCount(), "requests"),
+        () -> assertEquals(1, api.getFailureCount(), "failures"));
+  }
+
+  @DisplayName("The first failure is thrown")
+  @Test
+  void firstFailure() {
+    // given
+    when(delegate.availableLanguages()).thenThrow(
+        new What3WordsException(500, "InternalServerError", "Internal error"));
+
+    // when
+    assertThrows(What3WordsException.class, () -> api.availableLanguages());
+    assertThrows(What3WordsException.class, () -> api.availableLanguages());
+
+    // then
+    verify(delegate, times(2)).availableLanguages();
+    assertEquals(2, api.getFailureCount(), "failures");
+  }
+
+  @DisplayName("Every API key has its own languages")
+  @Test
+  void keys() {
+    // given
+    when(delegate.availableLanguages("qwerty")).thenReturn(List.of(ENGLISH));
+    when(delegate.availableLanguages("asdfgh")).thenReturn(List.of(GERMAN));
+
+    // when
+    api.availableLanguages("qwerty");
+    api.availableLanguages("asdfgh");
+
+    // then
+    verify(delegate).availableLanguages("qwerty");
+    verify(delegate).availableLanguages("asdfgh");
+    assertAll("Keys", () -> assertThat(api.availableLanguages("qwerty"), contains(ENGLISH)),
+        () -> assertThat(api.availableLanguages("asdfgh"), contains(GERMAN)),
+        () -> assertEquals(2, api.getRequestCount(), "requests"));
+  }
+
+  @DisplayName("Registry of available languages")
+  @Test
+  void registry() {
+    // given
+    when(delegate.availableLanguages()).thenReturn(List.of(ENGLISH, GERMAN));
+
+    // when
+    LanguageRegistry registry = api.getRegistry();
+
+    // then
+    assertAll("Registry", () -> assertSame(registry, api.getRegistry(), "cached"),
+        () -> assertEquals("German", registry.language("de").getName(), "name"),
+        () -> assertThrows(IllegalArgumentException.class, () -> registry.language("fr"),
+            "unknown language"));
+  }
+
+  @DisplayName("Conversions are not cached")
+  @Test
+  void conversions() {
+    // given
+    WordsRequest wordsRequest = WordsRequest.builder().coordinates(51.381051, -2.359591).build();
+
+    // when
+    api.convertToAddress(wordsRequest);
+    api.convertToAddress(wordsRequest);
+
+    // then
+    verify(delegate, times(2)).convertToAddress(any(WordsRequest.class));
+  }
+
+  @DisplayName("Delegate is required")
+  @Test
+  void noDelegate() {
+    // when
+    Exception exception = assertThrows(NullPointerException.class,
+        () -> LanguagesCachingWhat3Words.builder().build());
+
+    // then
+    assertEquals("delegate is null", exception.getMessage());
+  }
+
+  @DisplayName("Intervals must be positive")
+  @ParameterizedTest
+  @ValueSource(longs = {0, -1})
+  void intervals(long minutes) {
+    // given
+    Duration interval = Duration.ofMinutes(minutes);
+
+    // when and then
+    assertAll("Intervals", () -> assertEquals("refresh interval must be positive",
+            assertThrows(IllegalArgumentException.class,
+                () -> LanguagesCachingWhat3Words.builder().refreshInterval(interval))
+                .getMessage(), "refresh"),
+        () -> assertEquals("retry interval must be positive",
+            assertThrows(IllegalArgumentException.class,
+                () -> LanguagesCachingWhat3Words.builder().retryInterval(interval))
+                .getMessage(), "retry"));
+  }
+
+}
@@ -0,0 +1,64 @@
+package uk.bot_by.w3w;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+@Tag("fast")
+class LatencyHistogramTest {
+
+  @DisplayName("A value lies in its bucket")
+  @ParameterizedTest
+  @ValueSource(longs = {0, 1, 15, 16, 17, 31, 32, 33, 1_000, 1_234_567, 999_999_999,
+      Long.MAX_VALUE})
+  void bucket(long value) {
+    // when
+    int index = LatencyHistogram.index(value);
+
+    // then
+    assertAll("Bucket", () -> assertTrue(LatencyHistogram.BUCKETS > index, "index"),
+        () -> assertTrue(value <= LatencyHistogram.highest(index), "highest"),
+        () -> assertTrue(0 == index || value > LatencyHistogram.highest(index - 1), "lowest"),
+        () -> assertTrue(value / 16 >= LatencyHistogram.highest(index) - value, "error"));
+  }
+
+  @DisplayName("Buckets are contiguous")
+  @Test
+  void contiguous() {
+    // when and then
+    for (int i = 1; LatencyHistogram.BUCKETS > i; i++) {
+      assertEquals(i, LatencyHistogram.index(LatencyHistogram.highest(i - 1) + 1), "bucket " + i);
+    }
+  }
+
+  @DisplayName("Snapshot")
+  @Test
+  void snapshot() {
+    // given
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    for (int i = 1; 100 >= i; i++) {
+      histogram.record(i * 1_000_000L);
+    }
+    histogram.record(-1);
+
+    // when
+    MetricsWhat3Words.Latency latency = histogram.snapshot();
+
+    // then
+    assertAll("Latency", () -> assertEquals(101, latency.getCount(), "count"),
+        () -> assertEquals(5_050_000_000L, latency.getSum(), "sum"),
+        () -> assertEquals(100_000_000L, latency.getMax(), "max"),
+        () -> assertEquals(0, latency.getQuantile(0), "min"),
+        () -> assertEquals(100_000_000L, latency.getQuantile(1), "max quantile"),
+        () -> assertTrue(50_000_000L <= latency.getQuantile(0.5)
+            && 53_125_000L >= latency.getQuantile(0.5), "median"));
+  }
+
+}
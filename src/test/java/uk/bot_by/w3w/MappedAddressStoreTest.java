@@ -0,0 +1,256 @@
+package uk.bot_by.w3w;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@Tag("fast")
+class MappedAddressStoreTest {
+
+  private final SyntheticWhat3Words synthetic = new SyntheticWhat3Words();
+  private final Language german = Language.builder().code("de").build();
+
+  @TempDir
+  Path directory;
+  private Path file;
+
+  @BeforeEach
+  void setUp() {
+    file = directory.resolve("addresses.w3w");
+  }
+
+  private SquaredAddress address(double latitude, double longitude, Language language) {
+    return synthetic.convertToAddress(
+        WordsRequest.builder().coordinates(latitude, longitude).language(language).build());
+  }
+
+  @DisplayName("Get an address by words and by coordinates")
+  @Test
+  void get() throws IOException {
+    // given
+    SquaredAddress squaredAddress = address(51.381051, -2.359591, german);
+
+    try (MappedAddressStore store = MappedAddressStore.builder().file(file).capacity(16)
+        .build()) {
+      // when
+      boolean kept = store.put(squaredAddress);
+
+      // then
+      assertAll("Get", () -> assertTrue(kept, "kept"),
+          () -> assertEquals(squaredAddress.toString(),
+              store.get(squaredAddress.getWords()).toString(), "by words"),
+          () -> assertEquals(squaredAddress.toString(),
+              store.get(Coordinates.builder().coordinates(51.38104, -2.35960).build(), german)
+                  .toString(), "by coordinates"),
+          () -> assertNull(
+              store.get(Coordinates.builder().coordinates(51.38104, -2.35960).build(), null),
+              "another language"),
+          () -> assertNull(
+              store.get(Coordinates.builder().coordinates(51.38107, -2.35960).build(), german),
+              "another square"),
+          () -> assertEquals(1, store.size(), "size"));
+    }
+  }
+
+  @DisplayName("A request without language is looked up in English")
+  @Test
+  void defaultLanguage() throws IOException {
+    // given
+    SquaredAddress squaredAddress = address(-33.856784, 151.215297, null);
+
+    try (MappedAddressStore store = MappedAddressStore.builder().file(file).capacity(16)
+        .build()) {
+      // when
+      store.put(squaredAddress);
+
+      // then
+      assertNotNull(store.get(squaredAddress.getCoordinates(), null));
+    }
+  }
+
+  @DisplayName("Addresses survive reopening")
+  @Test
+  void reopen() throws IOException {
+    // given
+    Random random = new Random(17);
+    List<SquaredAddress> addresses = new ArrayList<>();
+
+    for (int i = 0; 1000 > i; i++) {
+      addresses.add(
+          address(random.nextDouble() * 160 - 80, random.nextDouble() * 360 - 180, null));
+    }
+    try (MappedAddressStore store = MappedAddressStore.builder().file(file).capacity(1000)
+        .build()) {
+      addresses.forEach(store::put);
+    }
+
+    // when
+    try (MappedAddressStore store = MappedAddressStore.builder().file(file).capacity(2)
+        .readOnly(true).build()) {
+      // then
+      assertAll("Reopen", () -> assertEquals(1000, store.size(), "size"),
+          () -> assertEquals(1000, store.capacity(), "capacity of the file"),
+          () -> addresses.forEach(squaredAddress -> assertAll(squaredAddress.getNearestPlace(),
+              () -> assertEquals(squaredAddress.toString(),
+                  store.get(squaredAddress.getWords()).toString(), "words"),
+              () -> assertEquals(squaredAddress.toString(),
+                  store.get(squaredAddress.getCoordinates(), null).toString(), "coordinates"))),
+          () -> assertTrue(store.isReadOnly(), "read-only store"),
+          () -> assertThrows(UnsupportedOperationException.class,
+              () -> store.put(address(10, 10, null)), "read-only"));
+    }
+  }
+
+  @DisplayName("A full store does not keep new addresses")
+  @Test
+  void full() throws IOException {
+    // given
+    try (MappedAddressStore store = MappedAddressStore.builder().file(file).capacity(2)
+        .build()) {
+      store.put(address(10, 10, null));
+
+      // when
+      boolean duplicate = store.put(address(10, 10, null));
+      boolean second = store.put(address(20, 20, null));
+      boolean third = store.put(address(30, 30, null));
+
+      // then
+      assertAll("Full", () -> assertFalse(duplicate, "duplicate"),
+          () -> assertTrue(second, "second"), () -> assertFalse(third, "third"),
+          () -> assertEquals(2, store.size(), "size"));
+    }
+  }
+
+  @DisplayName("A full data region does not keep new addresses")
+  @Test
+  void fullData() throws IOException {
+    // given
+    try (MappedAddressStore store = MappedAddressStore.builder().file(file).capacity(16)
+        .dataSize(100).build()) {
+      // when
+      boolean first = store.put(address(10, 10, null));
+      boolean second = store.put(address(20, 20, null));
+
+      // then
+      assertAll("Full", () -> assertTrue(first, "first"), () -> assertFalse(second, "second"));
+    }
+  }
+
+  @DisplayName("Readers see addresses of the writer")
+  @Test
+  void concurrentReaders() throws Exception {
+    // given
+    Random random = new Random(23);
+    List<SquaredAddress> addresses = new ArrayList<>();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    for (int i = 0; 2000 > i; i++) {
+      addresses.add(
+          address(random.nextDouble() * 160 - 80, random.nextDouble() * 360 - 180, null));
+    }
+    try (MappedAddressStore store = MappedAddressStore.builder().file(file).capacity(2000)
+        .build()) {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<Integer>> readers = new ArrayList<>();
+
+      for (int i = 0; 3 > i; i++) {
+        readers.add(executor.submit(() -> {
+          int found = 0;
+
+          start.await();
+          for (SquaredAddress squaredAddress : addresses) {
+            SquaredAddress stored = store.get(squaredAddress.getWords());
+
+            if (null != stored) {
+              assertEquals(squaredAddress.toString(), stored.toString());
+              found++;
+            }
+          }
+          return found;
+        }));
+      }
+
+      // when
+      start.countDown();
+      addresses.forEach(store::put);
+
+      // then
+      for (Future<Integer> reader : readers) {
+        reader.get(1, TimeUnit.MINUTES);
+      }
+      assertEquals(2000, store.size());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @DisplayName("Not a store")
+  @Test
+  void notStore() throws IOException {
+    // given
+    Files.writeString(file, "addresses");
+
+    // when
+    Exception exception = assertThrows(IOException.class,
+        () -> MappedAddressStore.builder().file(file).build());
+
+    // then
+    assertEquals("not a store: " + file, exception.getMessage());
+  }
+
+  @DisplayName("Closed store")
+  @Test
+  void closed() throws IOException {
+    // given
+    MappedAddressStore store = MappedAddressStore.builder().file(file).capacity(2).build();
+
+    // when
+    store.close();
+
+    // then
+    assertThrows(IllegalStateException.class, () -> store.get(address(10, 10, null).getWords()));
+  }
+
+  @DisplayName("Wrong builder values")
+  @Test
+  void wrongBuilderValues() {
+    // given
+    MappedAddressStore.MappedAddressStoreBuilder builder = MappedAddressStore.builder();
+
+    // when
+    Exception capacity = assertThrows(IllegalArgumentException.class, () -> builder.capacity(1));
+    Exception dataSize = assertThrows(IllegalArgumentException.class, () -> builder.dataSize(0));
+    Exception nullFile = assertThrows(NullPointerException.class, builder::build);
+    Exception tooLarge = assertThrows(IllegalArgumentException.class,
+        () -> builder.file(file).capacity(Integer.MAX_VALUE).build());
+
+    // then
+    assertAll("Builder",
+        () -> assertEquals("capacity must be at least two", capacity.getMessage()),
+        () -> assertEquals("data size must be positive", dataSize.getMessage()),
+        () -> assertEquals("file is null", nullFile.getMessage()),
+        () -> assertEquals("store is too large", tooLarge.getMessage()));
+  }
+
+}
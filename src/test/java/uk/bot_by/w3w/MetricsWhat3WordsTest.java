@@ -0,0 +1,186 @@
+package uk.bot_by.w3w;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import com.sun.net.httpserver.HttpServer;
+import feign.FeignException;
+import feign.Request;
+import feign.Request.HttpMethod;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("fast")
+class MetricsWhat3WordsTest {
+
+  @Mock
+  private What3Words delegate;
+  @Mock
+  private SquaredAddress squaredAddress;
+
+  private MetricsWhat3Words api;
+  private AtomicLong time;
+
+  @BeforeEach
+  void setUp() {
+    time = new AtomicLong();
+    // every call takes 1 ms
+    api = new MetricsWhat3Words(delegate, () -> time.getAndAdd(500_000));
+  }
+
+  @DisplayName("Latency is recorded by endpoint")
+  @Test
+  void latency() {
+    // given
+    when(delegate.convertToAddress(any(WordsRequest.class))).thenReturn(squaredAddress);
+
+    // when
+    api.convertToAddress(WordsRequest.builder().coordinates(51.381051, -2.359591).build());
+    api.convertToAddress(Map.of("coordinates", "51.381051,-2.359591"));
+
+    MetricsWhat3Words.Metrics metrics = api.snapshot();
+
+    // then
+    MetricsWhat3Words.Latency latency = metrics.getLatency(
+        MetricsWhat3Words.Endpoint.CONVERT_TO_3WA);
+
+    assertAll("Latency", () -> assertEquals(2, latency.getCount(), "count"),
+        () -> assertEquals(1_000_000, latency.getSum(), "sum"),
+        () -> assertEquals(500_000, latency.getMax(), "max"),
+        () -> assertEquals(0, metrics.getLatency(MetricsWhat3Words.Endpoint.AVAILABLE_LANGUAGES)
+            .getCount(), "another endpoint"),
+        () -> assertEquals(0, metrics.getErrorCount(MetricsWhat3Words.Endpoint.CONVERT_TO_3WA),
+            "errors"));
+  }
+
+  @DisplayName("Errors are counted by code and status")
+  @Test
+  void errors() {
+    // given
+    CoordinatesRequest request = CoordinatesRequest.builder().words("spring.tops.issued").build();
+
+    when(delegate.convertToCoordinates(any(CoordinatesRequest.class))).thenThrow(
+        new What3WordsException(400, "BadWords", "Invalid words"),
+        new FeignException.ServiceUnavailable("Service unavailable",
+            Request.create(HttpMethod.GET, "https://api.what3words.com", Collections.emptyMap(),
+                null, UTF_8, null), null, Collections.emptyMap()),
+        new What3WordsException(400, "BadWords", "Invalid words"));
+
+    // when
+    for (int i = 0; 3 > i; i++) {
+      assertThrows(RuntimeException.class, () -> api.convertToCoordinates(request));
+    }
+
+    MetricsWhat3Words.Metrics metrics = api.snapshot();
+
+    // then
+    MetricsWhat3Words.Endpoint endpoint = MetricsWhat3Words.Endpoint.CONVERT_TO_COORDINATES;
+
+    assertAll("Errors", () -> assertEquals(3, metrics.getErrorCount(endpoint), "errors"),
+        () -> assertEquals(Map.of("BadWords", 2L), metrics.getErrorsByCode(endpoint), "codes"),
+        () -> assertEquals(Map.of(400, 2L, 503, 1L), metrics.getErrorsByStatus(endpoint),
+            "statuses"),
+        () -> assertEquals(3, metrics.getLatency(endpoint).getCount(), "failed calls"));
+  }
+
+  @DisplayName("Prometheus text format")
+  @Test
+  void prometheus() {
+    // given
+    when(delegate.availableLanguages("qwerty")).thenThrow(
+        new What3WordsException(401, "InvalidKey", "Authentication failed"));
+
+    assertThrows(What3WordsException.class, () -> api.availableLanguages("qwerty"));
+
+    // when
+    String text = api.snapshot().toPrometheus();
+
+    // then
+    assertAll("Prometheus", () -> assertThat(text,
+            containsString("w3w_request_duration_seconds{endpoint=\"available-languages\","
+                + "quantile=\"0.99\"} 5.0E-4\n")),
+        () -> assertThat(text, containsString(
+            "w3w_request_duration_seconds_count{endpoint=\"convert-to-3wa\"} 0\n")),
+        () -> assertThat(text,
+            containsString("w3w_request_errors_total{endpoint=\"available-languages\"} 1\n")),
+        () -> assertThat(text, containsString("w3w_request_errors_by_code_total"
+            + "{endpoint=\"available-languages\",code=\"InvalidKey\"} 1\n")),
+        () -> assertThat(text, containsString("w3w_request_errors_by_status_total"
+            + "{endpoint=\"available-languages\",status=\"401\"} 1\n")));
+  }
+
+  @DisplayName("Metrics are served by the JDK HTTP server")
+  @Test
+  void handler() throws IOException {
+    // given
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+
+    server.createContext("/metrics", api.prometheusHandler());
+    server.start();
+    try {
+      HttpURLConnection connection = (HttpURLConnection) new URL(
+          "http://localhost:" + server.getAddress().getPort() + "/metrics").openConnection();
+
+      // when
+      String body;
+
+      try (InputStream input = connection.getInputStream()) {
+        body = new String(input.readAllBytes(), UTF_8);
+      }
+
+      // then
+      assertAll("Response", () -> assertEquals(200, connection.getResponseCode(), "status"),
+          () -> assertThat(connection.getContentType(), containsString("version=0.0.4")),
+          () -> assertEquals(api.snapshot().toPrometheus(), body, "body"));
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  @DisplayName("Quantile must be between 0 and 1")
+  @Test
+  void wrongQuantile() {
+    // given
+    MetricsWhat3Words.Latency latency = api.snapshot()
+        .getLatency(MetricsWhat3Words.Endpoint.CONVERT_TO_3WA);
+
+    // when
+    Exception exception = assertThrows(IllegalArgumentException.class,
+        () -> latency.getQuantile(1.5));
+
+    // then
+    assertEquals("quantile must be between 0 and 1", exception.getMessage());
+  }
+
+  @DisplayName("Delegate is required")
+  @Test
+  void noDelegate() {
+    // when
+    Exception exception = assertThrows(NullPointerException.class,
+        () -> new MetricsWhat3Words(null));
+
+    // then
+    assertEquals("delegate is null", exception.getMessage());
+  }
+
+}
@@ -0,0 +1,191 @@
+package uk.bot_by.w3w;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import feign.AsyncClient;
+import feign.AsyncFeign;
+import feign.Client;
+import feign.Feign;
+import feign.Response;
+import feign.Retryer;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("fast")
+class PhaseTimerTest {
+
+  private static final String LANGUAGES = "{\"languages\":[{\"code\":\"en\",\"name\":\"English\","
+      + "\"nativeName\":\"English\"}]}";
+
+  private List<PhaseTimer.Timing> timings;
+  private PhaseTimer timer;
+  private AtomicLong time;
+
+  @BeforeEach
+  void setUp() {
+    timings = new ArrayList<>();
+    time = new AtomicLong();
+    // every reading of the ticker takes 1 µs
+    timer = PhaseTimer.builder().listener(timings::add).ticker(() -> time.getAndAdd(1_000))
+        .build();
+  }
+
+  private What3Words api(Client client) {
+    return Feign.builder().addCapability(timer).client(client).decoder(new What3WordsDecoder())
+        .errorDecoder(new What3WordsErrorDecoder()).retryer(new Retryer.Default(1, 1, 2))
+        .target(What3Words.class, "http://localhost");
+  }
+
+  private static Response response(feign.Request request, int status, String body) {
+    return Response.builder().request(request).status(status).headers(Map.of())
+        .body(body, UTF_8).build();
+  }
+
+  @DisplayName("Phases of a call")
+  @Test
+  void phases() {
+    // given
+    What3Words api = api((request, options) -> response(request, 200, LANGUAGES));
+
+    // when
+    api.availableLanguages();
+
+    // then
+    PhaseTimer.Timing timing = timings.get(0);
+
+    assertAll("Timing", () -> assertEquals(1, timings.size(), "listener"),
+        () -> assertEquals("What3Words#availableLanguages()", timing.getMethodKey(), "method"),
+        () -> assertEquals(1_000, timing.getDuration(PhaseTimer.Phase.ENCODE), "encode"),
+        () -> assertEquals(1_000, timing.getDuration(PhaseTimer.Phase.NETWORK), "network"),
+        () -> assertEquals(1_000, timing.getDuration(PhaseTimer.Phase.DECODE), "decode"),
+        () -> assertEquals(5_000, timing.getDuration(PhaseTimer.Phase.TOTAL), "total"),
+        () -> assertEquals(1, timing.getAttempts(), "attempts"),
+        () -> assertFalse(timing.isFailed(), "failed"));
+  }
+
+  @DisplayName("The error decoder is the decode phase")
+  @Test
+  void error() {
+    // given
+    What3Words api = api((request, options) -> response(request, 400,
+        "{\"error\":{\"code\":\"BadWords\",\"message\":\"Invalid words\"}}"));
+
+    // when
+    assertThrows(What3WordsException.class, () -> api.convertToCoordinates(
+        CoordinatesRequest.builder().words("spring.tops.issued").build()));
+
+    // then
+    PhaseTimer.Timing timing = timings.get(0);
+
+    assertAll("Timing", () -> assertTrue(timing.isFailed(), "failed"),
+        () -> assertEquals(1_000, timing.getDuration(PhaseTimer.Phase.DECODE), "decode"));
+  }
+
+  @DisplayName("Retried requests are attempts of one call")
+  @Test
+  void attempts() {
+    // given
+    AtomicInteger calls = new AtomicInteger();
+    What3Words api = api((request, options) -> {
+      if (0 == calls.getAndIncrement()) {
+        throw new IOException("connection reset");
+      }
+      return response(request, 200, LANGUAGES);
+    });
+
+    // when
+    api.availableLanguages("qwerty");
+
+    // then
+    PhaseTimer.Timing timing = timings.get(0);
+
+    assertAll("Timing", () -> assertEquals(1, timings.size(), "one call"),
+        () -> assertEquals(2, timing.getAttempts(), "attempts"),
+        () -> assertEquals(2_000, timing.getDuration(PhaseTimer.Phase.NETWORK), "network"));
+  }
+
+  @DisplayName("Summary of phases")
+  @Test
+  void summary() {
+    // given
+    What3Words api = api((request, options) -> response(request, 200, LANGUAGES));
+
+    // when
+    api.availableLanguages();
+    api.availableLanguages();
+
+    // then
+    MetricsWhat3Words.Latency network = timer.getLatency(PhaseTimer.Phase.NETWORK);
+
+    assertAll("Summary", () -> assertEquals(2, network.getCount(), "count"),
+        () -> assertEquals(2_000, network.getSum(), "sum"),
+        () -> assertEquals(5_000, timer.getLatency(PhaseTimer.Phase.TOTAL).getMax(), "total"));
+  }
+
+  @DisplayName("Disabled timer")
+  @Test
+  void disabled() {
+    // given
+    What3Words api = api((request, options) -> response(request, 200, LANGUAGES));
+
+    timer.setEnabled(false);
+
+    // when
+    api.availableLanguages();
+
+    // then
+    assertAll("Disabled", () -> assertFalse(timer.isEnabled(), "enabled"),
+        () -> assertTrue(timings.isEmpty(), "listener"),
+        () -> assertEquals(0, time.get(), "ticker"),
+        () -> assertEquals(0, timer.getLatency(PhaseTimer.Phase.TOTAL).getCount(), "summary"));
+  }
+
+  @DisplayName("Async calls are not timed")
+  @Test
+  void async() throws ExecutionException, InterruptedException {
+    // given
+    AsyncClient<Object> client = (request, options, context) -> CompletableFuture.supplyAsync(
+        () -> response(request, 200, LANGUAGES));
+    AsyncWhat3Words api = AsyncFeign.builder().addCapability(timer).client(client)
+        .decoder(new What3WordsDecoder()).target(AsyncWhat3Words.class, "http://localhost");
+
+    // when
+    api.availableLanguages().get();
+
+    // then
+    assertAll("Async", () -> assertTrue(timings.isEmpty(), "listener"),
+        () -> assertEquals(0, time.get(), "ticker"),
+        () -> assertEquals(0, timer.getLatency(PhaseTimer.Phase.TOTAL).getCount(), "summary"));
+  }
+
+  @DisplayName("A listener does not break the call")
+  @Test
+  void listenerFails() {
+    // given
+    PhaseTimer failingTimer = PhaseTimer.builder().listener(timing -> {
+      throw new IllegalStateException("test");
+    }).build();
+    What3Words api = Feign.builder().addCapability(failingTimer)
+        .client((request, options) -> response(request, 200, LANGUAGES))
+        .decoder(new What3WordsDecoder()).target(What3Words.class, "http://localhost");
+
+    // when and then
+    assertEquals(1, api.availableLanguages().size());
+  }
+
+}
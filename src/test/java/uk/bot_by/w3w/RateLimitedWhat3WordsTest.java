@@ -0,0 +1,122 @@
+package uk.bot_by.w3w;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Request.HttpMethod;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("fast")
+class RateLimitedWhat3WordsTest {
+
+  @Mock
+  private What3Words delegate;
+  @Mock
+  private SquaredAddress squaredAddress;
+
+  private What3Words api;
+  private RateLimiter rateLimiter;
+  private AtomicLong time;
+
+  @BeforeEach
+  void setUp() {
+    time = new AtomicLong();
+    rateLimiter = RateLimiter.builder().rate(10).capacity(2).mode(RateLimiter.Mode.FAIL_FAST)
+        .ticker(time::get).build();
+    api = new RateLimitedWhat3Words(delegate, rateLimiter);
+  }
+
+  @DisplayName("Calls take tokens")
+  @Test
+  void tokens() {
+    // given
+    WordsRequest request = WordsRequest.builder().coordinates(51.381051, -2.359591).build();
+
+    when(delegate.convertToAddress(any(WordsRequest.class))).thenReturn(squaredAddress);
+
+    // when
+    SquaredAddress result = api.convertToAddress(request);
+
+    api.convertToAddress(request);
+
+    // then
+    verify(delegate, times(2)).convertToAddress(request);
+    assertAll("Tokens", () -> assertSame(squaredAddress, result, "squared address"),
+        () -> assertThrows(RateLimitException.class, () -> api.convertToAddress(request),
+            "empty bucket"));
+  }
+
+  @DisplayName("What3WordsException with the status 429 throttles the limiter")
+  @Test
+  void what3WordsException() {
+    // given
+    What3WordsException exception = new What3WordsException(429, "QuotaExceeded",
+        "Quota exceeded");
+
+    when(delegate.availableLanguages()).thenThrow(exception);
+
+    // when
+    Exception thrown = assertThrows(What3WordsException.class, api::availableLanguages);
+
+    // then
+    assertAll("Throttled", () -> assertSame(exception, thrown, "exception"),
+        () -> assertEquals(5, rateLimiter.getRate(), 1e-9, "rate"));
+  }
+
+  @DisplayName("FeignException with the status 429 throttles the limiter with Retry-After")
+  @Test
+  void feignException() {
+    // given
+    Map<String, Collection<String>> headers = Map.of("Retry-After", List.of("3"));
+
+    when(delegate.availableLanguages()).thenThrow(
+        new FeignException.TooManyRequests("Too many requests",
+            Request.create(HttpMethod.GET, "/api", Collections.emptyMap(), null,
+                StandardCharsets.UTF_8, null), null, headers));
+
+    // when
+    assertThrows(FeignException.TooManyRequests.class, api::availableLanguages);
+
+    // then
+    time.addAndGet(TimeUnit.SECONDS.toNanos(2));
+    assertAll("Throttled", () -> assertEquals(5, rateLimiter.getRate(), 1e-9, "rate"),
+        () -> assertThrows(RateLimitException.class, api::availableLanguages, "retry after"));
+  }
+
+  @DisplayName("Other errors do not throttle the limiter")
+  @Test
+  void otherErrors() {
+    // given
+    when(delegate.availableLanguages()).thenThrow(new What3WordsException(400, "BadWords",
+        "Invalid or non-existent 3 word address"));
+
+    // when
+    assertThrows(What3WordsException.class, api::availableLanguages);
+
+    // then
+    assertEquals(10, rateLimiter.getRate(), 1e-9);
+  }
+
+}
@@ -0,0 +1,303 @@
+package uk.bot_by.w3w;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import feign.Request;
+import feign.Request.HttpMethod;
+import feign.Response;
+import feign.codec.ErrorDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("fast")
+class RateLimiterTest {
+
+  @Mock
+  private ErrorDecoder errorDecoder;
+
+  private AtomicLong time;
+
+  @BeforeEach
+  void setUp() {
+    time = new AtomicLong();
+  }
+
+  @DisplayName("Fail fast when the bucket is empty")
+  @Test
+  void failFast() {
+    // given
+    RateLimiter rateLimiter = RateLimiter.builder().rate(1).capacity(2)
+        .mode(RateLimiter.Mode.FAIL_FAST).ticker(time::get).build();
+
+    // when
+    rateLimiter.acquire();
+    rateLimiter.acquire();
+
+    // then
+    RateLimitException exception = assertThrows(RateLimitException.class, rateLimiter::acquire);
+
+    time.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    assertAll("Exception and refilled token",
+        () -> assertEquals(429, exception.getStatus(), "status"),
+        () -> assertEquals(RateLimitException.CODE, exception.getCode(), "code"),
+        () -> assertDoesNotThrow(rateLimiter::acquire, "refilled token"),
+        () -> assertThrows(RateLimitException.class, rateLimiter::acquire, "empty bucket"));
+  }
+
+  @DisplayName("The bucket is not overfilled")
+  @Test
+  void capacity() {
+    // given
+    RateLimiter rateLimiter = RateLimiter.builder().rate(10).capacity(3)
+        .mode(RateLimiter.Mode.FAIL_FAST).ticker(time::get).build();
+    int acquired = 0;
+
+    // when
+    time.addAndGet(TimeUnit.MINUTES.toNanos(1));
+    try {
+      for (; 10 > acquired; acquired++) {
+        rateLimiter.acquire();
+      }
+    } catch (RateLimitException exception) {
+      // the bucket is empty
+    }
+
+    // then
+    assertEquals(3, acquired);
+  }
+
+  @DisplayName("Wait for a token no longer than the timeout")
+  @Test
+  void timeout() {
+    // given
+    RateLimiter rateLimiter = RateLimiter.builder().rate(1000).capacity(2)
+        .mode(RateLimiter.Mode.TIMEOUT).timeout(Duration.ofNanos(500_000)).ticker(time::get)
+        .build();
+    RateLimiter waitingRateLimiter = RateLimiter.builder().rate(1000).capacity(1)
+        .mode(RateLimiter.Mode.TIMEOUT).timeout(Duration.ofMillis(2)).build();
+
+    // when
+    rateLimiter.acquire();
+    rateLimiter.acquire();
+    waitingRateLimiter.acquire();
+
+    // then
+    assertAll("Timeout",
+        () -> assertThrows(RateLimitException.class, rateLimiter::acquire, "too long"),
+        () -> assertDoesNotThrow(waitingRateLimiter::acquire, "in time"));
+  }
+
+  @DisplayName("An interrupted wait fails")
+  @Test
+  void interrupted() {
+    // given
+    RateLimiter rateLimiter = RateLimiter.builder().rate(1).capacity(1).build();
+
+    rateLimiter.acquire();
+    Thread.currentThread().interrupt();
+
+    // when
+    long start = System.nanoTime();
+
+    assertThrows(RateLimitException.class, rateLimiter::acquire);
+
+    // then
+    assertAll("Interrupted", () -> assertTrue(Thread.interrupted(), "interrupt status"),
+        () -> assertThat(System.nanoTime() - start,
+            lessThan(TimeUnit.MILLISECONDS.toNanos(500))));
+  }
+
+  @DisplayName("Block until a token is available")
+  @Test
+  void block() {
+    // given
+    RateLimiter rateLimiter = RateLimiter.builder().rate(100).capacity(1).build();
+    long start = System.nanoTime();
+
+    // when
+    for (int i = 0; 6 > i; i++) {
+      rateLimiter.acquire();
+    }
+
+    // then
+    assertThat(System.nanoTime() - start, greaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50)));
+  }
+
+  @DisplayName("Throttling decreases the rate that is recovered later")
+  @Test
+  void throttled() {
+    // given
+    RateLimiter rateLimiter = RateLimiter.builder().rate(8).minRate(3).recovery(1)
+        .ticker(time::get).build();
+
+    // when
+    rateLimiter.throttled(Duration.ZERO);
+
+    double throttledRate = rateLimiter.getRate();
+
+    rateLimiter.throttled(Duration.ZERO);
+
+    double minRate = rateLimiter.getRate();
+
+    time.addAndGet(TimeUnit.SECONDS.toNanos(2));
+
+    double recoveredRate = rateLimiter.getRate();
+
+    time.addAndGet(TimeUnit.MINUTES.toNanos(1));
+
+    // then
+    assertAll("Rates", () -> assertEquals(4, throttledRate, 1e-9, "throttled"),
+        () -> assertEquals(3, minRate, 1e-9, "minimal"),
+        () -> assertEquals(5, recoveredRate, 1e-9, "recovered"),
+        () -> assertEquals(8, rateLimiter.getRate(), 1e-9, "maximal"));
+  }
+
+  @DisplayName("Minimal rate and recovery are a tenth of a rate below one")
+  @Test
+  void slowRate() {
+    // given
+    RateLimiter rateLimiter = RateLimiter.builder().rate(0.5).ticker(time::get).build();
+
+    // when
+    for (int i = 0; 10 > i; i++) {
+      rateLimiter.throttled(Duration.ZERO);
+    }
+
+    double minRate = rateLimiter.getRate();
+
+    time.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+    // then
+    assertAll("Rates", () -> assertEquals(0.05, minRate, 1e-9, "minimal"),
+        () -> assertEquals(0.1, rateLimiter.getRate(), 1e-9, "recovered"));
+  }
+
+  @DisplayName("No tokens until Retry-After passes")
+  @Test
+  void retryAfter() {
+    // given
+    RateLimiter rateLimiter = RateLimiter.builder().rate(10).capacity(10)
+        .mode(RateLimiter.Mode.FAIL_FAST).ticker(time::get).build();
+
+    // when
+    rateLimiter.throttled(Duration.ofSeconds(30));
+    time.addAndGet(TimeUnit.SECONDS.toNanos(29));
+
+    // then
+    assertThrows(RateLimitException.class, rateLimiter::acquire, "before");
+
+    time.addAndGet(TimeUnit.SECONDS.toNanos(2));
+    assertAll("After", () -> assertDoesNotThrow(rateLimiter::acquire, "token"),
+        () -> assertEquals(6, rateLimiter.getRate(), 1e-9, "rate is recovered after it"));
+  }
+
+  @DisplayName("Error decoder reports 429 and Retry-After")
+  @Test
+  void errorDecoder() {
+    // given
+    RateLimiter rateLimiter = RateLimiter.builder().rate(10).mode(RateLimiter.Mode.FAIL_FAST)
+        .ticker(time::get).build();
+    ErrorDecoder decoder = rateLimiter.errorDecoder(errorDecoder);
+    What3WordsException decodedException = new What3WordsException(429, "QuotaExceeded",
+        "Quota exceeded");
+
+    when(errorDecoder.decode(anyString(), any(Response.class))).thenReturn(decodedException);
+
+    // when
+    Exception exception = decoder.decode("test", response(429,
+        Map.of("retry-after", List.of("5"))));
+
+    // then
+    time.addAndGet(TimeUnit.SECONDS.toNanos(4));
+    assertAll("Throttled", () -> assertSame(decodedException, exception, "decoded exception"),
+        () -> assertEquals(5, rateLimiter.getRate(), 1e-9, "rate"),
+        () -> assertThrows(RateLimitException.class, rateLimiter::acquire, "retry after"));
+  }
+
+  @DisplayName("Error decoder ignores other statuses")
+  @Test
+  void otherStatus() {
+    // given
+    RateLimiter rateLimiter = RateLimiter.builder().rate(10).ticker(time::get).build();
+    ErrorDecoder decoder = rateLimiter.errorDecoder(errorDecoder);
+
+    // when
+    decoder.decode("test", response(400, Collections.emptyMap()));
+
+    // then
+    assertEquals(10, rateLimiter.getRate(), 1e-9);
+  }
+
+  @DisplayName("Parse Retry-After")
+  @ParameterizedTest
+  @ValueSource(strings = {"120", " 120 ", "http-date"})
+  void parseRetryAfter(String value) {
+    // given
+    if ("http-date".equals(value)) {
+      value = ZonedDateTime.now().plusSeconds(125).format(DateTimeFormatter.RFC_1123_DATE_TIME);
+    }
+
+    // when
+    Duration retryAfter = RateLimiter.parseRetryAfter(value);
+
+    // then
+    assertThat(retryAfter.getSeconds(), greaterThanOrEqualTo(119L));
+  }
+
+  @DisplayName("Wrong Retry-After")
+  @Test
+  void wrongRetryAfter() {
+    // when and then
+    assertAll("Zero", () -> assertEquals(Duration.ZERO, RateLimiter.parseRetryAfter("soon")),
+        () -> assertEquals(Duration.ZERO, RateLimiter.parseRetryAfter("-5")));
+  }
+
+  @DisplayName("Minimal rate is greater than rate")
+  @Test
+  void wrongMinRate() {
+    // given
+    RateLimiter.RateLimiterBuilder builder = RateLimiter.builder().rate(1).minRate(2);
+
+    // when
+    Exception exception = assertThrows(IllegalArgumentException.class, builder::build);
+
+    // then
+    assertEquals("minimal rate is greater than rate", exception.getMessage());
+  }
+
+  private static Response response(int status, Map<String, Collection<String>> headers) {
+    return Response.builder().status(status).headers(headers)
+        .request(Request.create(HttpMethod.GET, "/api", Collections.emptyMap(), null,
+            StandardCharsets.UTF_8, null)).build();
+  }
+
+}
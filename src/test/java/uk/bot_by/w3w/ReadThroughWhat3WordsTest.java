@@ -0,0 +1,141 @@
+package uk.bot_by.w3w;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("fast")
+class ReadThroughWhat3WordsTest {
+
+  @Mock
+  private What3Words delegate;
+  @TempDir
+  Path directory;
+
+  private ReadThroughWhat3Words api;
+  private SquaredAddress squaredAddress;
+  private MappedAddressStore store;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    squaredAddress = SquaredAddress.builder().country("GB").nearestPlace("Bath, Somerset")
+        .square(Coordinates.builder().coordinates(51.381064d, -2.359570d).build(),
+            Coordinates.builder().coordinates(51.381037d, -2.359613d).build())
+        .coordinates(51.381051d, -2.359591d).words("spring.tops.issued")
+        .language(Language.builder().code("en").build())
+        .map("https://w3w.co/spring.tops.issued").build();
+    store = MappedAddressStore.builder().file(directory.resolve("addresses.w3w")).capacity(16)
+        .build();
+    api = new ReadThroughWhat3Words(delegate, store);
+  }
+
+  @AfterEach
+  void tearDown() {
+    store.close();
+  }
+
+  @DisplayName("Coordinates are read through the store")
+  @Test
+  void convertToAddress() {
+    // given
+    when(delegate.convertToAddress(any(WordsRequest.class))).thenReturn(squaredAddress);
+    api.convertToAddress(WordsRequest.builder().coordinates(51.381051d, -2.359591d).build());
+
+    // when
+    SquaredAddress stored = api.convertToAddress(
+        WordsRequest.builder().coordinates(51.38104d, -2.3596d).language("en").build());
+
+    // then
+    verify(delegate).convertToAddress(any(WordsRequest.class));
+    assertAll("Read through", () -> assertEquals("spring.tops.issued",
+            stored.getWords().toString(), "words"),
+        () -> assertEquals(1, api.getHitCount(), "hits"),
+        () -> assertEquals(1, api.getMissCount(), "misses"));
+  }
+
+  @DisplayName("Words are read through the store")
+  @Test
+  void convertToCoordinates() {
+    // given
+    when(delegate.convertToCoordinates(anyString(), any(CoordinatesRequest.class))).thenReturn(
+        squaredAddress);
+    api.convertToCoordinates("abc",
+        CoordinatesRequest.builder().words("spring.tops.issued").build());
+
+    // when
+    SquaredAddress stored = api.convertToCoordinates(
+        Map.of("words", "spring.tops.issued", "key", "xyz"));
+
+    // then
+    verify(delegate).convertToCoordinates(anyString(), any(CoordinatesRequest.class));
+    assertAll("Read through", () -> assertEquals(squaredAddress.toString(), stored.toString(),
+            "address"),
+        () -> assertEquals(1, api.getHitCount(), "hits"),
+        () -> assertEquals(1, api.getMissCount(), "misses"));
+  }
+
+  @DisplayName("An address is returned if the store is closed meanwhile")
+  @Test
+  void closedStore() {
+    // given
+    when(delegate.convertToCoordinates(any(CoordinatesRequest.class))).thenAnswer(invocation -> {
+      store.close();
+      return squaredAddress;
+    });
+
+    // when
+    SquaredAddress returned = api.convertToCoordinates(
+        CoordinatesRequest.builder().words("spring.tops.issued").build());
+
+    // then
+    assertAll("Closed store", () -> assertSame(squaredAddress, returned, "address"),
+        () -> assertEquals(1, api.getMissCount(), "misses"));
+  }
+
+  @DisplayName("Query maps that are not requests go to the delegate")
+  @Test
+  void wrongQueryMap() {
+    // given
+    when(delegate.convertToAddress(anyMap())).thenReturn(squaredAddress);
+
+    // when
+    api.convertToAddress(Map.of("coordinates", "51.381051"));
+    api.convertToAddress(Map.of("coordinates", "51.381051"));
+
+    // then
+    assertAll("Not a request", () -> assertEquals(0, api.getHitCount(), "hits"),
+        () -> assertEquals(0, api.getMissCount(), "misses"));
+  }
+
+  @DisplayName("Available languages go to the delegate")
+  @Test
+  void availableLanguages() {
+    // when
+    api.availableLanguages();
+    api.availableLanguages("abc");
+
+    // then
+    verify(delegate).availableLanguages();
+    verify(delegate).availableLanguages("abc");
+  }
+
+}
@@ -0,0 +1,131 @@
+package uk.bot_by.w3w;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("fast")
+class SquareCachingWhat3WordsTest {
+
+  @Mock
+  private What3Words delegate;
+
+  private SquareCachingWhat3Words api;
+  private SquaredAddress squaredAddress;
+  private AtomicLong time;
+
+  private static SquaredAddress squaredAddress(String language) {
+    return SquaredAddress.builder().country("GB").nearestPlace("Bath, Somerset")
+        .square(Coordinates.builder().coordinates(51.381064d, -2.359570d).build(),
+            Coordinates.builder().coordinates(51.381037d, -2.359613d).build())
+        .coordinates(51.381051d, -2.359591d).words("spring.tops.issued")
+        .language(Language.builder().code(language).build())
+        .map("https://w3w.co/spring.tops.issued").build();
+  }
+
+  @BeforeEach
+  void setUp() {
+    squaredAddress = squaredAddress("en");
+    time = new AtomicLong();
+    api = SquareCachingWhat3Words.builder().delegate(delegate).maximumSize(100)
+        .timeToLive(Duration.ofMinutes(1)).ticker(time::get).build();
+  }
+
+  @DisplayName("Points in a known square")
+  @ParameterizedTest(name = "{arguments}")
+  @CsvSource({"51.381051,-2.359591", "51.381037,-2.359613", "51.3810639,-2.3595701",
+      "51.38105,-2.35960"})
+  void insideSquare(double latitude, double longitude) {
+    // given
+    when(delegate.convertToAddress(any(WordsRequest.class))).thenReturn(squaredAddress);
+    api.convertToAddress(WordsRequest.builder().coordinates(51.381051d, -2.359591d).build());
+
+    // when
+    SquaredAddress cachedAddress = api.convertToAddress(
+        WordsRequest.builder().coordinates(latitude, longitude).build());
+
+    // then
+    verify(delegate).convertToAddress(any(WordsRequest.class));
+    assertAll("Known square", () -> assertSame(squaredAddress, cachedAddress, "cached value"),
+        () -> assertEquals(1, api.getHitCount(), "hits"),
+        () -> assertEquals(1, api.getMissCount(), "misses"));
+  }
+
+  @DisplayName("Points outside a known square, the north and east edges are outside")
+  @ParameterizedTest(name = "{arguments}")
+  @CsvSource({"51.381064,-2.359591", "51.381051,-2.359570", "51.381036,-2.359591",
+      "51.381051,-2.359614", "-51.381051,2.359591"})
+  void outsideSquare(double latitude, double longitude) {
+    // given
+    when(delegate.convertToAddress(any(WordsRequest.class))).thenReturn(squaredAddress);
+    api.convertToAddress(WordsRequest.builder().coordinates(51.381051d, -2.359591d).build());
+
+    // when
+    api.convertToAddress(WordsRequest.builder().coordinates(latitude, longitude).build());
+
+    // then
+    verify(delegate, times(2)).convertToAddress(any(WordsRequest.class));
+    assertAll("Unknown square", () -> assertEquals(0, api.getHitCount(), "hits"),
+        () -> assertEquals(2, api.getMissCount(), "misses"));
+  }
+
+  @DisplayName("Squares are kept per language")
+  @Test
+  void language() {
+    // given
+    SquaredAddress germanAddress = squaredAddress("de");
+
+    when(delegate.convertToAddress(any(WordsRequest.class))).thenReturn(squaredAddress);
+    when(delegate.convertToAddress(any(String.class), any(WordsRequest.class))).thenReturn(
+        germanAddress);
+    api.convertToAddress(WordsRequest.builder().coordinates(51.381051d, -2.359591d).build());
+
+    // when
+    SquaredAddress firstAddress = api.convertToAddress("qwerty",
+        WordsRequest.builder().coordinates(51.38105d, -2.3596d).language("de").build());
+    SquaredAddress secondAddress = api.convertToAddress(
+        Map.of("coordinates", "51.38104,-2.3596", "language", "de"));
+
+    // then
+    verify(delegate).convertToAddress(any(WordsRequest.class));
+    verify(delegate).convertToAddress(any(String.class), any(WordsRequest.class));
+    verify(delegate, times(0)).convertToAddress(anyMap());
+    assertAll("Languages", () -> assertSame(germanAddress, firstAddress, "first address"),
+        () -> assertSame(germanAddress, secondAddress, "second address"));
+  }
+
+  @DisplayName("Squares expire")
+  @Test
+  void expiration() {
+    // given
+    when(delegate.convertToAddress(any(WordsRequest.class))).thenReturn(squaredAddress);
+    api.convertToAddress(WordsRequest.builder().coordinates(51.381051d, -2.359591d).build());
+    time.addAndGet(Duration.ofMinutes(1).toNanos());
+
+    // when
+    api.convertToAddress(WordsRequest.builder().coordinates(51.381051d, -2.359591d).build());
+
+    // then
+    verify(delegate, times(2)).convertToAddress(any(WordsRequest.class));
+  }
+
+}
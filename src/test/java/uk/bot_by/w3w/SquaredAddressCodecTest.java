@@ -0,0 +1,249 @@
+package uk.bot_by.w3w;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import feign.Request;
+import feign.Request.HttpMethod;
+import feign.Response;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+@Tag("fast")
+class SquaredAddressCodecTest {
+
+  private static final String JSON = "{\"country\":\"GB\",\"square\":{\"southwest\":"
+      + "{\"lng\":-0.195543,\"lat\":51.520833},\"northeast\":{\"lng\":-0.195499,"
+      + "\"lat\":51.52086}},\"nearestPlace\":\"Bayswater, London\",\"coordinates\":"
+      + "{\"lng\":-0.195521,\"lat\":51.520847},\"words\":\"filled.count.soap\","
+      + "\"language\":\"en\",\"map\":\"https://w3w.co/filled.count.soap\"}";
+
+  private static SquaredAddress roundTrip(SquaredAddress squaredAddress) {
+    ByteBuffer buffer = ByteBuffer.allocate(1024);
+
+    SquaredAddressCodec.encode(squaredAddress, buffer);
+    buffer.flip();
+
+    SquaredAddress decoded = SquaredAddressCodec.decodeSquaredAddress(buffer);
+
+    assertFalse(buffer.hasRemaining(), "the whole buffer is read");
+
+    return decoded;
+  }
+
+  private static void assertSameAddress(SquaredAddress expected, SquaredAddress actual) {
+    assertAll("Squared address " + expected.getWords(),
+        () -> assertEquals(expected.getCountry(), actual.getCountry(), "country"),
+        () -> assertEquals(expected.getSquare(), actual.getSquare(), "square"),
+        () -> assertEquals(expected.getNearestPlace(), actual.getNearestPlace(), "nearest place"),
+        () -> assertEquals(expected.getCoordinates(), actual.getCoordinates(), "coordinates"),
+        () -> assertEquals(expected.getCoordinates().getLatitudeAsDouble(),
+            actual.getCoordinates().getLatitudeAsDouble(), "latitude as double"),
+        () -> assertEquals(expected.getWords(), actual.getWords(), "words"),
+        () -> assertEquals(expected.getLanguage(), actual.getLanguage(), "language"),
+        () -> assertEquals(expected.getMap(), actual.getMap(), "map"),
+        () -> assertEquals(expected.toString(), actual.toString(), "text"));
+  }
+
+  @DisplayName("A response of the API round-trips and it is compact")
+  @Test
+  void response() throws IOException {
+    // given
+    Response response = Response.builder().status(200).body(JSON, UTF_8)
+        .request(Request.create(HttpMethod.GET, "/", Collections.emptyMap(), null, UTF_8, null))
+        .build();
+    SquaredAddress squaredAddress = (SquaredAddress) new What3WordsDecoder().decode(response,
+        SquaredAddress.class);
+    ByteBuffer buffer = ByteBuffer.allocate(1024);
+
+    // when
+    SquaredAddressCodec.encode(squaredAddress, buffer);
+
+    // then
+    assertAll("Response", () -> assertSameAddress(squaredAddress, roundTrip(squaredAddress)),
+        () -> assertThat("size", buffer.position(), lessThan(JSON.length() / 4)));
+  }
+
+  @DisplayName("Addresses of the streaming decoder and the synthetic API round-trip")
+  @Test
+  void synthetic() throws IOException {
+    // given
+    SyntheticWhat3Words api = new SyntheticWhat3Words();
+    Random random = new Random(31);
+    Response response = Response.builder().status(200).body(JSON, UTF_8)
+        .request(Request.create(HttpMethod.GET, "/", Collections.emptyMap(), null, UTF_8, null))
+        .build();
+
+    // when
+    SquaredAddress streamed = (SquaredAddress) new What3WordsStreamingDecoder().decode(response,
+        SquaredAddress.class);
+
+    // then
+    assertSameAddress(streamed, roundTrip(streamed));
+    for (int i = 0; 1000 > i; i++) {
+      SquaredAddress squaredAddress = api.convertToAddress(
+          WordsRequest.builder().coordinates(random.nextDouble() * 180 - 90,
+              random.nextDouble() * 360 - 180).language("fr").build());
+
+      assertSameAddress(squaredAddress, roundTrip(squaredAddress));
+    }
+  }
+
+  @DisplayName("Values that do not fit the compact form round-trip")
+  @Test
+  void notCompact() {
+    // given
+    SquaredAddress squaredAddress = SquaredAddress.builder().country("Zone 51")
+        .square(Coordinates.builder().coordinates(new BigDecimal("51.381064000"),
+                new BigDecimal("-2.4E+1")).build(),
+            Coordinates.builder().coordinates(51.3810371234567, -2.359613).build())
+        .nearestPlace("Мишка 🐻").coordinates(0.1, 0.2).words("шейна.читалня.мишка")
+        .language(Language.builder().code("x-klingon").name("Klingon").build())
+        .map("http://example.com/map?words=1").build();
+
+    // when
+    SquaredAddress decoded = roundTrip(squaredAddress);
+
+    // then
+    assertSameAddress(squaredAddress, decoded);
+  }
+
+  @DisplayName("A square across the antimeridian round-trips")
+  @Test
+  void antimeridian() {
+    // given
+    SquaredAddress squaredAddress = SquaredAddress.builder().country("FJ")
+        .square(Coordinates.builder().coordinates(-16.999980, -179.999990).build(),
+            Coordinates.builder().coordinates(-17.000010, 179.999980).build())
+        .nearestPlace("Taveuni").coordinates(-16.999995, 179.999995).words("index.home.raft")
+        .language(Language.builder().code("en").name("English").build())
+        .map("https://w3w.co/index.home.raft").build();
+
+    // when
+    SquaredAddress decoded = roundTrip(squaredAddress);
+
+    // then
+    assertSameAddress(squaredAddress, decoded);
+  }
+
+  @DisplayName("Coordinates")
+  @ParameterizedTest(name = "{arguments}")
+  @CsvSource({"51.381051,-2.359591", "-90,180", "0.0000001,-0.0000001", "51.38105100,-2.3",
+      "1E+1,-179.9999999"})
+  void coordinates(BigDecimal latitude, BigDecimal longitude) {
+    // given
+    Coordinates coordinates = Coordinates.builder().coordinates(latitude, longitude).build();
+    Coordinates doubleCoordinates = Coordinates.builder()
+        .coordinates(latitude.doubleValue(), longitude.doubleValue()).build();
+    ByteBuffer buffer = ByteBuffer.allocate(64);
+
+    // when
+    SquaredAddressCodec.encode(coordinates, buffer);
+    SquaredAddressCodec.encode(doubleCoordinates, buffer);
+    buffer.flip();
+
+    // then
+    assertAll("Coordinates",
+        () -> assertEquals(coordinates, SquaredAddressCodec.decodeCoordinates(buffer), "decimal"),
+        () -> assertEquals(doubleCoordinates, SquaredAddressCodec.decodeCoordinates(buffer),
+            "double"));
+  }
+
+  @DisplayName("Square")
+  @Test
+  void square() {
+    // given
+    Square square = Square.builder().northeast(51.381064, -2.359570)
+        .southwest(51.381037, -2.359613).build();
+    ByteBuffer buffer = ByteBuffer.allocate(64);
+
+    // when
+    SquaredAddressCodec.encode(square, buffer);
+    buffer.flip();
+
+    // then
+    assertAll("Square", () -> assertEquals(square, SquaredAddressCodec.decodeSquare(buffer)),
+        () -> assertEquals(18, buffer.limit(), "size"));
+  }
+
+  @DisplayName("Languages of the API are one byte and shared")
+  @Test
+  void language() {
+    // given
+    ByteBuffer buffer = ByteBuffer.allocate(64);
+    Language german = Language.builder().code("de").name("German").nativeName("Deutsch").build();
+
+    // when
+    SquaredAddressCodec.encode(Language.builder().code("de").build(), buffer);
+    SquaredAddressCodec.encode(Language.builder().code("de").build(), buffer);
+    SquaredAddressCodec.encode(german, buffer);
+    buffer.flip();
+
+    // then
+    assertAll("Language",
+        () -> assertSame(SquaredAddressCodec.decodeLanguage(buffer),
+            SquaredAddressCodec.decodeLanguage(buffer), "shared"),
+        () -> {
+          Language decoded = SquaredAddressCodec.decodeLanguage(buffer);
+
+          assertAll("Names", () -> assertEquals("German", decoded.getName(), "name"),
+              () -> assertEquals("Deutsch", decoded.getNativeName(), "native name"));
+        });
+  }
+
+  @DisplayName("Words")
+  @Test
+  void words() {
+    // given
+    Words words = Words.builder().words("index.home.raft").build();
+    ByteBuffer buffer = ByteBuffer.allocate(64);
+
+    // when
+    SquaredAddressCodec.encode(words, buffer);
+    buffer.flip();
+
+    // then
+    assertEquals(words, SquaredAddressCodec.decodeWords(buffer));
+  }
+
+  @DisplayName("A small buffer")
+  @Test
+  void overflow() {
+    // given
+    ByteBuffer buffer = ByteBuffer.allocate(10);
+    Words words = Words.builder().words("index.home.raft").build();
+
+    // when and then
+    assertThrows(BufferOverflowException.class, () -> SquaredAddressCodec.encode(words, buffer));
+  }
+
+  @DisplayName("Not a squared address")
+  @Test
+  void unknownFormat() {
+    // given
+    ByteBuffer buffer = ByteBuffer.wrap(new byte[]{42});
+
+    // when
+    Exception exception = assertThrows(IllegalArgumentException.class,
+        () -> SquaredAddressCodec.decodeSquaredAddress(buffer));
+
+    // then
+    assertEquals("unknown format of squared address", exception.getMessage());
+  }
+
+}
@@ -0,0 +1,159 @@
+package uk.bot_by.w3w;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Local HTTP endpoint of {@link SyntheticWhat3Words}.
+ * <p>
+ * It serves {@code /v3/available-languages}, {@code /v3/convert-to-3wa} and
+ * {@code /v3/convert-to-coordinates} in the format of <em>what3words</em> API, errors are
+ * responded with the status 400 and the error object.
+ * <pre><code class="language-java">
+ * try (SyntheticServer server = SyntheticServer.start(0)) {
+ *   What3Words api = Feign.builder()
+ *                         .decoder(new What3WordsDecoder())
+ *                         .errorDecoder(new What3WordsErrorDecoder())
+ *                         .target(What3Words.class, server.getUrl());
+ * }
+ * </code></pre>
+ */
+class SyntheticServer implements AutoCloseable {
+
+  private static final int BACKLOG = 1024;
+  private static final int OK = 200;
+
+  private final SyntheticWhat3Words api = new SyntheticWhat3Words();
+  private final ExecutorService executor;
+  private final HttpServer server;
+
+  private SyntheticServer(int port) throws IOException {
+    // otherwise Nagle's algorithm and delayed ACK add 40ms to every response
+    System.setProperty("sun.net.httpserver.nodelay", "true");
+    executor = Executors.newCachedThreadPool();
+    server = HttpServer.create(new InetSocketAddress("localhost", port), BACKLOG);
+    server.createContext("/v3/available-languages",
+        exchange -> respond(exchange, parameters -> languages()));
+    server.createContext("/v3/convert-to-3wa", exchange -> respond(exchange,
+        parameters -> squaredAddress(api.convertToAddress(parameters))));
+    server.createContext("/v3/convert-to-coordinates", exchange -> respond(exchange,
+        parameters -> squaredAddress(api.convertToCoordinates(parameters))));
+    server.setExecutor(executor);
+  }
+
+  /**
+   * Start the server.
+   *
+   * @param port port, zero to choose a free one
+   * @return the server
+   * @throws IOException if the server could not be started
+   */
+  static SyntheticServer start(int port) throws IOException {
+    SyntheticServer server = new SyntheticServer(port);
+
+    server.server.start();
+
+    return server;
+  }
+
+  private static JSONObject coordinates(Coordinates coordinates) {
+    return new JSONObject().put("lat", coordinates.getLatitude())
+        .put("lng", coordinates.getLongitude());
+  }
+
+  private static Map<String, Object> parameters(String query) {
+    Map<String, Object> parameters = new HashMap<>();
+
+    if (null != query) {
+      for (String parameter : query.split("&")) {
+        int equals = parameter.indexOf('=');
+
+        if (0 < equals) {
+          parameters.put(URLDecoder.decode(parameter.substring(0, equals), UTF_8),
+              URLDecoder.decode(parameter.substring(equals + 1), UTF_8));
+        }
+      }
+    }
+
+    return parameters;
+  }
+
+  private static JSONObject squaredAddress(SquaredAddress squaredAddress) {
+    return new JSONObject().put("country", squaredAddress.getCountry())
+        .put("square", new JSONObject()
+            .put("southwest", coordinates(squaredAddress.getSquare().getSouthwest()))
+            .put("northeast", coordinates(squaredAddress.getSquare().getNortheast())))
+        .put("nearestPlace", squaredAddress.getNearestPlace())
+        .put("coordinates", coordinates(squaredAddress.getCoordinates()))
+        .put("words", squaredAddress.getWords().toString())
+        .put("language", squaredAddress.getLanguage().getCode())
+        .put("map", squaredAddress.getMap().toString());
+  }
+
+  /**
+   * Get the base URL of the server.
+   *
+   * @return the URL like {@code http://localhost:9876}
+   */
+  String getUrl() {
+    return "http://localhost:" + server.getAddress().getPort();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  private JSONObject languages() {
+    JSONArray languages = new JSONArray();
+
+    for (Language language : api.availableLanguages()) {
+      languages.put(new JSONObject().put("code", language.getCode())
+          .put("name", language.getName()).put("nativeName", language.getNativeName()));
+    }
+
+    return new JSONObject().put("languages", languages);
+  }
+
+  private void respond(HttpExchange exchange, Function<Map<String, Object>, JSONObject> call)
+      throws IOException {
+    JSONObject body;
+    int status;
+
+    try (InputStream request = exchange.getRequestBody()) {
+      request.readAllBytes();
+    }
+    try {
+      body = call.apply(parameters(exchange.getRequestURI().getRawQuery()));
+      status = OK;
+    } catch (What3WordsException exception) {
+      body = new JSONObject().put("error", new JSONObject().put("code", exception.getCode())
+          .put("message", exception.getMessage()));
+      status = exception.getStatus();
+    }
+
+    byte[] bytes = body.toString().getBytes(UTF_8);
+
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream response = exchange.getResponseBody()) {
+      response.write(bytes);
+    }
+  }
+
+}
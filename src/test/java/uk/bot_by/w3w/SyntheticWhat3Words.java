@@ -0,0 +1,265 @@
+package uk.bot_by.w3w;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-process fake of <em>what3words</em> API that answers any request without a network.
+ * <p>
+ * The globe is cut into a grid of squares 0.00003° (about 3.3m) high and wide, a square is
+ * numbered by its row and column. The number, the language index and a check value are packed
+ * into 54 bits, scrambled by a reversible permutation and written as three words of 18 bits, each
+ * word is three syllables of 64 ones. So every square has its own words in every language and
+ * words give back the square and the language. A random triple of syllable words passes the
+ * check with the chance about 3%, others are rejected as <em>BadWords</em>.
+ * <p>
+ * Answers are deterministic: the same request always gets the same squared address. Errors are
+ * {@link What3WordsException} with the codes of the real API. API keys are ignored.
+ */
+class SyntheticWhat3Words implements What3Words {
+
+  static final int COLUMNS = 12_000_000;
+  static final int ROWS = 6_000_000;
+  static final long SQUARES = (long) COLUMNS * ROWS;
+  /*
+   * Size of a square in 1e-7 degrees.
+   */
+  static final int STEP_E7 = 300;
+
+  private static final int BAD_REQUEST = 400;
+  private static final int BITS = 54;
+  private static final int CHECK_BITS = 4;
+  private static final String CONSONANTS = "bcdfghjklmnprstv";
+  private static final int INDEX_BITS = 47;
+  private static final int LANGUAGE_BITS = 3;
+  private static final long MASK = (1L << BITS) - 1;
+  private static final long MULTIPLIER = 0x2545f4914f6cdL;
+  private static final long MULTIPLIER_INVERSE = inverse(MULTIPLIER);
+  private static final int SHIFT = BITS / 2;
+  private static final int SYLLABLE_BITS = 6;
+  private static final String VOWELS = "aeio";
+  private static final int WORD_BITS = 18;
+
+  private static final List<Language> LANGUAGES = List.of(language("en", "English", "English"),
+      language("de", "German", "Deutsch"), language("fr", "French", "Français"),
+      language("es", "Spanish", "Español"), language("no", "Norwegian", "Norsk"));
+
+  private static Language language(String code, String name, String nativeName) {
+    return Language.builder().code(code).name(name).nativeName(nativeName).build();
+  }
+
+  /*
+   * Inverse of an odd number modulo 2^54 by Newton's iterations.
+   */
+  private static long inverse(long value) {
+    long inverse = value;
+
+    for (int i = 0; 6 > i; i++) {
+      inverse *= 2 - value * inverse;
+    }
+
+    return inverse & MASK;
+  }
+
+  private static long check(long index, int language) {
+    long hash = (index ^ (long) language << INDEX_BITS) * 0x9e3779b97f4a7c15L;
+
+    return hash >>> (Long.SIZE - CHECK_BITS);
+  }
+
+  private static long scramble(long value) {
+    value = (value * MULTIPLIER) & MASK;
+    value ^= value >>> SHIFT;
+    value = (value * MULTIPLIER) & MASK;
+    return value ^ value >>> SHIFT;
+  }
+
+  private static long unscramble(long value) {
+    value ^= value >>> SHIFT;
+    value = (value * MULTIPLIER_INVERSE) & MASK;
+    value ^= value >>> SHIFT;
+    return (value * MULTIPLIER_INVERSE) & MASK;
+  }
+
+  private static String word(long bits) {
+    StringBuilder word = new StringBuilder(6);
+
+    for (int shift = WORD_BITS - SYLLABLE_BITS; 0 <= shift; shift -= SYLLABLE_BITS) {
+      int syllable = (int) (bits >>> shift) & 0x3f;
+
+      word.append(CONSONANTS.charAt(syllable >>> 2)).append(VOWELS.charAt(syllable & 3));
+    }
+
+    return word.toString();
+  }
+
+  /*
+   * Returns -1 if it is not a word of syllables.
+   */
+  private static long bits(String word) {
+    if (6 != word.length()) {
+      return -1;
+    }
+
+    long bits = 0;
+
+    for (int i = 0; 6 > i; i += 2) {
+      int consonant = CONSONANTS.indexOf(word.charAt(i));
+      int vowel = VOWELS.indexOf(word.charAt(i + 1));
+
+      if (0 > consonant || 0 > vowel) {
+        return -1;
+      }
+      bits = bits << SYLLABLE_BITS | consonant << 2 | vowel;
+    }
+
+    return bits;
+  }
+
+  private static BigDecimal degrees(long e7) {
+    return BigDecimal.valueOf(e7 / 10, 6);
+  }
+
+  private static Coordinates coordinates(long latitudeE7, long longitudeE7) {
+    return Coordinates.builder().latitude(degrees(latitudeE7)).longitude(degrees(longitudeE7))
+        .build();
+  }
+
+  /**
+   * Get a square number of coordinates.
+   *
+   * @param coordinates coordinates
+   * @return square number
+   */
+  static long index(Coordinates coordinates) {
+    long row = Math.min(ROWS - 1,
+        Math.floorDiv(coordinates.getLatitudeE7() + 900_000_000L, STEP_E7));
+    long column = Math.floorMod(Math.floorDiv(coordinates.getLongitudeE7() + 1_800_000_000L,
+        STEP_E7), COLUMNS);
+
+    return row * COLUMNS + column;
+  }
+
+  /**
+   * Get words of a square.
+   *
+   * @param index    square number
+   * @param language language
+   * @return words
+   */
+  static Words words(long index, Language language) {
+    int languageIndex = LANGUAGES.indexOf(language);
+    long bits = scramble(check(index, languageIndex) << (INDEX_BITS + LANGUAGE_BITS)
+        | (long) languageIndex << INDEX_BITS | index);
+
+    return Words.builder().first(word(bits >>> (2 * WORD_BITS)))
+        .second(word(bits >>> WORD_BITS & 0x3ffff)).third(word(bits & 0x3ffff)).build();
+  }
+
+  @Override
+  public Collection<Language> availableLanguages() {
+    return Collections.unmodifiableList(LANGUAGES);
+  }
+
+  @Override
+  public Collection<Language> availableLanguages(String key) {
+    return availableLanguages();
+  }
+
+  @Override
+  public SquaredAddress convertToAddress(Map<String, Object> queryParameters)
+      throws What3WordsException {
+    WordsRequest wordsRequest = CachingWhat3Words.toWordsRequest(queryParameters);
+
+    if (null == wordsRequest) {
+      throw new What3WordsException(BAD_REQUEST, "BadCoordinates",
+          "coordinates must be two comma separated lat,lng coordinates");
+    }
+
+    return convertToAddress(wordsRequest);
+  }
+
+  @Override
+  public SquaredAddress convertToAddress(WordsRequest wordsRequest) throws What3WordsException {
+    Language language = (null == wordsRequest.getLanguage()) ? LANGUAGES.get(0)
+        : wordsRequest.getLanguage();
+
+    if (!LANGUAGES.contains(language)) {
+      throw new What3WordsException(BAD_REQUEST, "BadLanguage",
+          "language must be an ISO 639-1 2 letter code, such as 'en' or 'fr'");
+    }
+
+    return squaredAddress(index(wordsRequest.getCoordinates()),
+        LANGUAGES.get(LANGUAGES.indexOf(language)));
+  }
+
+  @Override
+  public SquaredAddress convertToAddress(String key, WordsRequest wordsRequest)
+      throws What3WordsException {
+    return convertToAddress(wordsRequest);
+  }
+
+  @Override
+  public SquaredAddress convertToCoordinates(Map<String, Object> queryParameters)
+      throws What3WordsException {
+    CoordinatesRequest coordinatesRequest = CachingWhat3Words.toCoordinatesRequest(
+        queryParameters);
+
+    if (null == coordinatesRequest) {
+      throw badWords();
+    }
+
+    return convertToCoordinates(coordinatesRequest);
+  }
+
+  @Override
+  public SquaredAddress convertToCoordinates(CoordinatesRequest coordinatesRequest)
+      throws What3WordsException {
+    Words words = coordinatesRequest.getWords();
+    long first = bits(words.getFirst());
+    long second = bits(words.getSecond());
+    long third = bits(words.getThird());
+
+    if (0 > first || 0 > second || 0 > third) {
+      throw badWords();
+    }
+
+    long bits = unscramble(first << (2 * WORD_BITS) | second << WORD_BITS | third);
+    long index = bits & ((1L << INDEX_BITS) - 1);
+    int languageIndex = (int) (bits >>> INDEX_BITS) & ((1 << LANGUAGE_BITS) - 1);
+
+    if (SQUARES <= index || LANGUAGES.size() <= languageIndex
+        || check(index, languageIndex) != bits >>> (INDEX_BITS + LANGUAGE_BITS)) {
+      throw badWords();
+    }
+
+    return squaredAddress(index, LANGUAGES.get(languageIndex));
+  }
+
+  @Override
+  public SquaredAddress convertToCoordinates(String key, CoordinatesRequest coordinatesRequest)
+      throws What3WordsException {
+    return convertToCoordinates(coordinatesRequest);
+  }
+
+  private What3WordsException badWords() {
+    return new What3WordsException(BAD_REQUEST, "BadWords",
+        "Invalid or non-existent 3 word address");
+  }
+
+  private SquaredAddress squaredAddress(long index, Language language) {
+    long south = (index / COLUMNS) * STEP_E7 - 900_000_000L;
+    long west = (index % COLUMNS) * STEP_E7 - 1_800_000_000L;
+    Words words = words(index, language);
+
+    return SquaredAddress.builder().country("ZZ")
+        .square(coordinates(south + STEP_E7, west + STEP_E7), coordinates(south, west))
+        .nearestPlace("Square " + index)
+        .coordinates(coordinates(south + STEP_E7 / 2, west + STEP_E7 / 2)).words(words)
+        .language(language).map("https://w3w.co/" + words).build();
+  }
+
+}
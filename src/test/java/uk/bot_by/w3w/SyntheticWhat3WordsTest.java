@@ -0,0 +1,180 @@
+package uk.bot_by.w3w;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import feign.Feign;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("fast")
+class SyntheticWhat3WordsTest {
+
+  private SyntheticWhat3Words api;
+
+  @BeforeEach
+  void setUp() {
+    api = new SyntheticWhat3Words();
+  }
+
+  @DisplayName("Words give back the square and the language")
+  @Test
+  void roundTrip() {
+    // given
+    Random random = new Random(42);
+
+    for (int i = 0; 10_000 > i; i++) {
+      double latitude = random.nextDouble() * 180 - 90;
+      double longitude = random.nextDouble() * 360 - 180;
+
+      for (Language language : api.availableLanguages()) {
+        // when
+        SquaredAddress address = api.convertToAddress(
+            WordsRequest.builder().coordinates(latitude, longitude).language(language).build());
+        SquaredAddress coordinates = api.convertToCoordinates(
+            CoordinatesRequest.builder().words(address.getWords()).build());
+
+        // then
+        assertAll("Round trip " + latitude + "," + longitude + " " + language,
+            () -> assertEquals(address.getSquare(), coordinates.getSquare(), "square"),
+            () -> assertEquals(address.getCoordinates(), coordinates.getCoordinates(),
+                "coordinates"),
+            () -> assertEquals(language, coordinates.getLanguage(), "language"),
+            () -> assertTrue(
+                address.getSquare().getSouthwest().getLatitudeAsDouble() - 1e-7 <= latitude
+                    && address.getSquare().getNortheast().getLatitudeAsDouble() >= latitude,
+                "inside the square, coordinates are rounded to 1e-7"));
+      }
+    }
+  }
+
+  @DisplayName("Neighbouring squares and languages have different words")
+  @Test
+  void differentWords() {
+    // when
+    Words words = SyntheticWhat3Words.words(1_000_000, Language.builder().code("en").build());
+    Words next = SyntheticWhat3Words.words(1_000_001, Language.builder().code("en").build());
+    Words german = SyntheticWhat3Words.words(1_000_000, Language.builder().code("de").build());
+
+    // then
+    assertAll("Words", () -> assertNotEquals(words, next, "next square"),
+        () -> assertNotEquals(words, german, "another language"),
+        () -> assertEquals(words,
+            SyntheticWhat3Words.words(1_000_000, Language.builder().code("en").build()),
+            "deterministic"));
+  }
+
+  @DisplayName("Points of the same square get the same words")
+  @Test
+  void sameSquare() {
+    // when
+    SquaredAddress southwest = api.convertToAddress(
+        WordsRequest.builder().coordinates(51.38103, -2.35959).build());
+    SquaredAddress northeast = api.convertToAddress(
+        WordsRequest.builder().coordinates(51.381059, -2.359561).build());
+
+    // then
+    assertEquals(southwest.getWords(), northeast.getWords());
+  }
+
+  @DisplayName("Most random triples are bad words")
+  @Test
+  void badWords() {
+    // given
+    Random random = new Random(7);
+    String syllables = "bcdfghjklmnprstv";
+    int accepted = 0;
+
+    // when
+    for (int i = 0; 10_000 > i; i++) {
+      StringBuilder words = new StringBuilder();
+
+      for (int j = 0; 18 > j; j++) {
+        if (0 < j && 0 == j % 6) {
+          words.append('.');
+        }
+        words.append((0 == j % 2) ? syllables.charAt(random.nextInt(16))
+            : "aeio".charAt(random.nextInt(4)));
+      }
+      try {
+        api.convertToCoordinates(CoordinatesRequest.builder().words(words.toString()).build());
+        accepted++;
+      } catch (What3WordsException exception) {
+        // expected
+      }
+    }
+
+    // then
+    assertThat(accepted, lessThan(600));
+  }
+
+  @DisplayName("Errors")
+  @Test
+  void errors() {
+    // given
+    CoordinatesRequest notSyllables = CoordinatesRequest.builder().words("spring.tops.issued")
+        .build();
+    WordsRequest alienLanguage = WordsRequest.builder().coordinates(51.381051, -2.359591)
+        .language("al").build();
+
+    // when
+    What3WordsException badWords = assertThrows(What3WordsException.class,
+        () -> api.convertToCoordinates(notSyllables));
+    What3WordsException badLanguage = assertThrows(What3WordsException.class,
+        () -> api.convertToAddress(alienLanguage));
+    What3WordsException badCoordinates = assertThrows(What3WordsException.class,
+        () -> api.convertToAddress(Map.of("coordinates", "51.381051")));
+
+    // then
+    assertAll("Error codes", () -> assertEquals("BadWords", badWords.getCode(), "words"),
+        () -> assertEquals("BadLanguage", badLanguage.getCode(), "language"),
+        () -> assertEquals("BadCoordinates", badCoordinates.getCode(), "coordinates"),
+        () -> assertEquals(400, badWords.getStatus(), "status"));
+  }
+
+  @DisplayName("The server gives the same answers")
+  @Test
+  void server() throws IOException {
+    // given
+    WordsRequest wordsRequest = WordsRequest.builder().coordinates(51.381051, -2.359591)
+        .language("de").build();
+
+    try (SyntheticServer server = SyntheticServer.start(0)) {
+      What3Words client = Feign.builder().decoder(new What3WordsDecoder())
+          .errorDecoder(new What3WordsErrorDecoder())
+          .target(What3Words.class, server.getUrl());
+
+      // when
+      SquaredAddress address = client.convertToAddress(wordsRequest);
+      SquaredAddress coordinates = client.convertToCoordinates(
+          CoordinatesRequest.builder().words(address.getWords()).build());
+
+      // then
+      SquaredAddress expected = api.convertToAddress(wordsRequest);
+
+      assertAll("Server", () -> assertEquals(expected.getWords(), address.getWords(), "words"),
+          () -> assertEquals(expected.getLanguage(), address.getLanguage(), "language"),
+          () -> assertEquals(expected.getCoordinates().getLatitudeE7(),
+              coordinates.getCoordinates().getLatitudeE7(), "latitude"),
+          () -> assertEquals(expected.getSquare().getNortheast().getLongitudeE7(),
+              coordinates.getSquare().getNortheast().getLongitudeE7(), "square"),
+          () -> assertEquals(api.availableLanguages().size(), client.availableLanguages().size(),
+              "languages"),
+          () -> assertEquals("BadWords", assertThrows(What3WordsException.class,
+              () -> client.convertToCoordinates(
+                  CoordinatesRequest.builder().words("spring.tops.issued").build())).getCode(),
+              "error"));
+    }
+  }
+
+}
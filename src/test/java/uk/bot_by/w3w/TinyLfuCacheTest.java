@@ -0,0 +1,134 @@
+package uk.bot_by.w3w;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("fast")
+class TinyLfuCacheTest {
+
+  private AtomicLong time;
+
+  @BeforeEach
+  void setUp() {
+    time = new AtomicLong();
+  }
+
+  @DisplayName("Size is bounded")
+  @Test
+  void bounded() {
+    // given
+    TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>(100, 1000, time::get);
+
+    // when
+    for (int i = 0; 10_000 > i; i++) {
+      if (null == cache.get(i)) {
+        cache.put(i, i);
+      }
+    }
+
+    // then
+    assertAll("Bounded cache", () -> assertEquals(100, cache.size(), "size"),
+        () -> assertEquals(9_900, cache.evictionCount(), "evictions"),
+        () -> assertEquals(10_000, cache.missCount(), "misses"));
+  }
+
+  @DisplayName("A scan does not wash hot entries out")
+  @Test
+  void scanResistance() {
+    // given
+    TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>(64, 1000, time::get);
+    int scanned = 1000;
+
+    // when
+    for (int round = 0; 100 > round; round++) {
+      for (int i = 0; 32 > i; i++) {
+        if (null == cache.get(i)) {
+          cache.put(i, i);
+        }
+      }
+      for (int i = 0; 100 > i; i++, scanned++) {
+        if (null == cache.get(scanned)) {
+          cache.put(scanned, scanned);
+        }
+      }
+    }
+
+    long hits = cache.hitCount();
+
+    for (int i = 0; 32 > i; i++) {
+      cache.get(i);
+    }
+
+    // then
+    assertEquals(32, cache.hitCount() - hits, "hot entries are kept");
+  }
+
+  @DisplayName("Entries expire")
+  @Test
+  void expiration() {
+    // given
+    TinyLfuCache<String, String> cache = new TinyLfuCache<>(10, 1000, time::get);
+
+    cache.put("a", "b");
+    time.set(999);
+
+    // when
+    String value = cache.get("a");
+
+    time.set(1999);
+
+    // then
+    assertAll("Expiration", () -> assertEquals("b", value, "not expired"),
+        () -> assertNull(cache.get("a"), "expired"),
+        () -> assertEquals(1, cache.evictionCount(), "evictions"),
+        () -> assertEquals(0, cache.size(), "size"));
+  }
+
+  @DisplayName("Merged values are not counted")
+  @Test
+  void merge() {
+    // given
+    TinyLfuCache<String, String> cache = new TinyLfuCache<>(10, 1000, time::get);
+
+    cache.merge("a", "b", String::concat);
+    cache.merge("a", "c", String::concat);
+
+    // when
+    String value = cache.get("a");
+
+    time.set(1999);
+    cache.merge("a", "d", String::concat);
+
+    // then
+    assertAll("Merge", () -> assertEquals("bc", value, "merged"),
+        () -> assertEquals("d", cache.get("a"), "expired value is replaced"),
+        () -> assertEquals(2, cache.hitCount(), "hits"),
+        () -> assertEquals(0, cache.missCount(), "misses"),
+        () -> assertEquals(1, cache.evictionCount(), "evictions"));
+  }
+
+  @DisplayName("Wrong parameters")
+  @Test
+  void wrongParameters() {
+    // when
+    Exception size = assertThrows(IllegalArgumentException.class,
+        () -> new TinyLfuCache<>(0, 1, time::get));
+    Exception timeToLive = assertThrows(IllegalArgumentException.class,
+        () -> new TinyLfuCache<>(1, 0, time::get));
+
+    // then
+    assertAll("Wrong parameters",
+        () -> assertEquals("maximum size must be positive", size.getMessage(), "size"),
+        () -> assertEquals("time to live must be positive", timeToLive.getMessage(),
+            "time to live"));
+  }
+
+}
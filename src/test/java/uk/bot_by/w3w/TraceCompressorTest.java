@@ -0,0 +1,174 @@
+package uk.bot_by.w3w;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("fast")
+class TraceCompressorTest {
+
+  private What3Words api;
+  private TraceCompressor compressor;
+
+  @BeforeEach
+  void setUp() {
+    api = spy(new SyntheticWhat3Words());
+    compressor = TraceCompressor.builder().api(api).build();
+  }
+
+  private static void awaitBlocked(Thread thread) throws InterruptedException {
+    while (Thread.State.BLOCKED != thread.getState()) {
+      Thread.sleep(1);
+    }
+  }
+
+  private static Coordinates fix(double latitude, double longitude) {
+    return Coordinates.builder().coordinates(latitude, longitude).build();
+  }
+
+  @DisplayName("Fixes in the same square are one segment")
+  @Test
+  void sameSquare() {
+    // given
+    compressor.add("car", fix(51.381031, -2.359591), 1000);
+    compressor.add("car", fix(51.381035, -2.359595), 2000);
+    compressor.add("car", fix(51.381038, -2.359599), 3000);
+
+    // when
+    TraceCompressor.Segment segment = compressor.close("car");
+
+    // then
+    verify(api).convertToAddress(any(WordsRequest.class));
+    assertNotNull(segment, "segment");
+    assertAll("Segment", () -> assertEquals("car", segment.getTrack(), "track"),
+        () -> assertEquals(1000, segment.getFirstTimestamp(), "first"),
+        () -> assertEquals(3000, segment.getLastTimestamp(), "last"),
+        () -> assertEquals(3, segment.getCount(), "count"),
+        () -> assertEquals(api.convertToAddress(
+                WordsRequest.builder().coordinates(51.381031, -2.359591).build()).getWords(),
+            segment.getWords(), "words"),
+        () -> assertEquals(3, compressor.getFixCount(), "fixes"),
+        () -> assertEquals(1, compressor.getRequestCount(), "requests"),
+        () -> assertNull(compressor.close("car"), "closed"));
+  }
+
+  @DisplayName("A fix that leaves the square closes the segment")
+  @Test
+  void leaveSquare() {
+    // given
+    List<TraceCompressor.Segment> segments = new ArrayList<>();
+
+    // when
+    for (int i = 0; 100 > i; i++) {
+      // about 1m a second to the north
+      TraceCompressor.Segment segment = compressor.add("car", fix(51.38 + i * 0.00001, -2.3596),
+          i * 1000L);
+
+      if (null != segment) {
+        segments.add(segment);
+      }
+    }
+    segments.addAll(compressor.closeAll());
+
+    // then
+    assertAll("Segments", () -> assertEquals(34, segments.size(), "segments"),
+        () -> assertEquals(34, compressor.getRequestCount(), "requests"),
+        () -> assertEquals(100, segments.stream().mapToInt(TraceCompressor.Segment::getCount)
+            .sum(), "fixes"),
+        () -> assertEquals(99000, segments.get(segments.size() - 1).getLastTimestamp(), "last"),
+        () -> assertNotEquals(segments.get(0).getWords(), segments.get(1).getWords(), "words"));
+  }
+
+  @DisplayName("Tracks are independent")
+  @Test
+  void tracks() {
+    // when
+    compressor.add("car", fix(51.381031, -2.359591), 1000);
+    compressor.add("bus", fix(-33.856784, 151.215297), 1000);
+    compressor.add("car", fix(51.381035, -2.359595), 2000);
+    compressor.add("bus", fix(-33.856784, 151.215297), 2000);
+
+    // then
+    verify(api, times(2)).convertToAddress(any(WordsRequest.class));
+    assertEquals(2, compressor.closeAll().size());
+  }
+
+  @DisplayName("A fix is not lost when its track is closed concurrently")
+  @Test
+  void concurrentClose() throws InterruptedException {
+    // given
+    CountDownLatch called = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    List<TraceCompressor.Segment> segments = new CopyOnWriteArrayList<>();
+
+    doAnswer(invocation -> {
+      called.countDown();
+      release.await();
+      return invocation.callRealMethod();
+    }).when(api).convertToAddress(any(WordsRequest.class));
+
+    Thread first = new Thread(() -> compressor.add("car", fix(51.381031, -2.359591), 1000));
+    Thread second = new Thread(() -> compressor.add("car", fix(51.381035, -2.359595), 2000));
+    Thread closing = new Thread(() -> segments.add(compressor.close("car")));
+
+    // when
+    first.start();
+    called.await();
+    // the second fix and the close wait for the first fix that holds the track
+    second.start();
+    awaitBlocked(second);
+    closing.start();
+    awaitBlocked(closing);
+    release.countDown();
+    first.join();
+    second.join();
+    closing.join();
+    segments.addAll(compressor.closeAll());
+
+    // then
+    assertEquals(2, segments.stream().mapToInt(TraceCompressor.Segment::getCount).sum());
+  }
+
+  @DisplayName("A fix earlier than the previous one")
+  @Test
+  void earlierFix() {
+    // given
+    compressor.add("car", fix(51.381031, -2.359591), 2000);
+
+    // when
+    Exception exception = assertThrows(IllegalArgumentException.class,
+        () -> compressor.add("car", fix(51.381031, -2.359591), 1000));
+
+    // then
+    assertEquals("fix is earlier than the previous one", exception.getMessage());
+  }
+
+  @DisplayName("API is required")
+  @Test
+  void noApi() {
+    // when
+    Exception exception = assertThrows(NullPointerException.class,
+        () -> TraceCompressor.builder().build());
+
+    // then
+    assertEquals("API is null", exception.getMessage());
+  }
+
+}
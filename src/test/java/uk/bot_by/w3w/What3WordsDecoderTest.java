@@ -7,6 +7,7 @@ import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.Mockito.when;
@@ -22,6 +23,7 @@ import java.math.BigDecimal;
 import java.nio.charset.Charset;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.stream.Collectors;
 import org.json.JSONException;
 import org.junit.jupiter.api.BeforeEach;
@@ -139,8 +141,35 @@ class What3WordsDecoderTest {
         () -> assertEquals(BigDecimal.valueOf(51.381051d),
             squaredAddress.getCoordinates().getLatitude(), "latitude"),
         () -> assertEquals("spring.tops.issued", squaredAddress.getWords().toString(), "words"),
+        () -> assertSame(LanguageRegistry.bundled().get("en"), squaredAddress.getLanguage(),
+            "interned language"),
         () -> assertEquals("https://w3w.co/spring.tops.issued",
             squaredAddress.getMap().toExternalForm(), "map"));
   }
 
+  @DisplayName("Projected squared address")
+  @Test
+  public void projection() throws IOException {
+    // given
+    when(body.asReader(isA(Charset.class))).thenReturn(new StringReader(
+        "{\"words\":\"spring.tops.issued\",\"coordinates\":{\"lat\":51.381051,"
+            + "\"lng\":-2.359591},\"map\":\"not a link\"}"));
+
+    // when
+    SquaredAddress squaredAddress = decoder.decodeSquaredAddress(response,
+        EnumSet.of(SquaredAddress.Field.WORDS, SquaredAddress.Field.COORDINATES));
+
+    // then
+    assertAll("Projection",
+        () -> assertEquals("spring.tops.issued", squaredAddress.getWords().toString(), "words"),
+        () -> assertEquals("51.381051,-2.359591", squaredAddress.getCoordinates().toString(),
+            "coordinates"),
+        () -> assertEquals("map is not projected",
+            assertThrows(IllegalStateException.class, squaredAddress::getMap).getMessage(),
+            "map"),
+        () -> assertEquals("country is not projected",
+            assertThrows(IllegalStateException.class, squaredAddress::getCountry).getMessage(),
+            "country"));
+  }
+
 }
@@ -0,0 +1,123 @@
+package uk.bot_by.w3w;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import feign.Feign;
+import feign.QueryMapEncoder;
+import feign.Response;
+import feign.querymap.FieldQueryMapEncoder;
+import java.math.BigDecimal;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+@Tag("fast")
+class What3WordsQueryMapEncoderTest {
+
+  private QueryMapEncoder encoder;
+
+  @BeforeEach
+  void setUp() {
+    encoder = new What3WordsQueryMapEncoder();
+  }
+
+  static Stream<Arguments> requests() {
+    return Stream.of(
+        Arguments.of(WordsRequest.builder().coordinates(51.381051, -2.359591).build()),
+        Arguments.of(WordsRequest.builder().coordinates(51.381051, -2.359591).language("de")
+            .build()),
+        Arguments.of(WordsRequest.builder().coordinates(Coordinates.builder()
+            .latitude(new BigDecimal("51.3810510")).longitude(-2.359591).build())
+            .build()),
+        Arguments.of(CoordinatesRequest.builder().words("///spring.tops.issued").build()));
+  }
+
+  @DisplayName("The same query parameters as the field encoder")
+  @ParameterizedTest
+  @MethodSource("requests")
+  void sameAsFieldEncoder(Object request) {
+    // given
+    Map<String, String> expected = new HashMap<>();
+
+    new FieldQueryMapEncoder().encode(request)
+        .forEach((name, value) -> expected.put(name, value.toString()));
+
+    // when
+    Map<String, Object> parameters = encoder.encode(request);
+
+    // then
+    Map<String, String> actual = new HashMap<>();
+
+    parameters.forEach((name, value) -> actual.put(name, value.toString()));
+    assertEquals(expected, actual);
+  }
+
+  @DisplayName("Rendered strings are kept by the request")
+  @Test
+  void rendered() {
+    // given
+    WordsRequest wordsRequest = WordsRequest.builder().coordinates(51.381051, -2.359591).build();
+    CoordinatesRequest coordinatesRequest = CoordinatesRequest.builder()
+        .words("spring.tops.issued").build();
+
+    // when
+    Object coordinates = encoder.encode(wordsRequest).get("coordinates");
+    Object words = encoder.encode(coordinatesRequest).get("words");
+
+    // then
+    assertAll("Same strings",
+        () -> assertSame(coordinates, encoder.encode(wordsRequest).get("coordinates"),
+            "coordinates"),
+        () -> assertSame(words, encoder.encode(coordinatesRequest).get("words"), "words"));
+  }
+
+  @DisplayName("Other objects are encoded by fields")
+  @Test
+  void otherObjects() {
+    // given
+    Language language = Language.builder().code("en").name("English").nativeName("English")
+        .build();
+
+    // when
+    Map<String, Object> parameters = encoder.encode(language);
+
+    // then
+    assertEquals(Map.of("code", "en", "name", "English", "nativeName", "English"), parameters);
+  }
+
+  @DisplayName("Feign sends the query parameters")
+  @Test
+  void feign() {
+    // given
+    AtomicReference<String> url = new AtomicReference<>();
+    What3Words api = Feign.builder().queryMapEncoder(encoder).client((request, options) -> {
+      url.set(URLDecoder.decode(request.url(), StandardCharsets.UTF_8));
+      return Response.builder().request(request).status(404).headers(Map.of()).build();
+    }).target(What3Words.class, "http://localhost");
+
+    // when
+    try {
+      api.convertToAddress(WordsRequest.builder().coordinates(51.381051, -2.359591)
+          .language("de").build());
+    } catch (RuntimeException exception) {
+      // the status 404
+    }
+
+    // then
+    assertEquals("http://localhost/v3/convert-to-3wa?coordinates=51.381051,-2.359591&language=de",
+        url.get());
+  }
+
+}
@@ -0,0 +1,292 @@
+package uk.bot_by.w3w;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+import static org.hamcrest.collection.IsIterableContainingInAnyOrder.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import feign.Request;
+import feign.Response;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.stream.Collectors;
+import org.json.JSONException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("fast")
+class What3WordsStreamingDecoderTest {
+
+  @Mock
+  private Response.Body body;
+
+  private What3WordsStreamingDecoder decoder;
+  private Response response;
+
+  @BeforeEach
+  void setUp() {
+    decoder = new What3WordsStreamingDecoder();
+    response = Response.builder().request(
+            Request.create(Request.HttpMethod.GET, "/api", Collections.emptyMap(), null, UTF_8, null))
+        .status(200).reason("OK").headers(Collections.emptyMap()).body(body).build();
+  }
+
+  @DisplayName("Response without body")
+  @ParameterizedTest(name = "{arguments}")
+  @ValueSource(classes = {Collection.class, Coordinates.class, Words.class})
+  @SuppressWarnings("rawtypes")
+  public void bodyIsNull(Class type) {
+    // given
+    response = Response.builder().request(
+            Request.create(Request.HttpMethod.GET, "/api", Collections.emptyMap(), null, UTF_8, null))
+        .status(200).reason("OK").headers(Collections.emptyMap()).body((Response.Body) null)
+        .build();
+
+    // when
+    Exception exception = assertThrows(IllegalArgumentException.class,
+        () -> decoder.decode(response, type));
+
+    // then
+    assertEquals("Empty body", exception.getMessage(), "Exception message");
+  }
+
+  @DisplayName("Type is not supported")
+  @Test
+  public void typeIsNotSupported() {
+    // when
+    Exception exception = assertThrows(UnsupportedOperationException.class,
+        () -> decoder.decode(response, String.class));
+
+    // then
+    assertEquals("Type class java.lang.String is not supported", exception.getMessage(),
+        "Exception message");
+  }
+
+  @DisplayName("Response body is not JSON")
+  @Test
+  public void unknownResponse() throws IOException {
+    // given
+    when(body.asInputStream()).thenReturn(new ByteArrayInputStream("qwerty".getBytes(UTF_8)));
+
+    // when
+    assertThrows(JSONException.class, () -> decoder.decode(response, SquaredAddress.class));
+  }
+
+  @DisplayName("Required property is missing")
+  @Test
+  public void missedProperty() throws IOException {
+    // given
+    when(body.asInputStream()).thenReturn(new ByteArrayInputStream(
+        "{ \"country\": \"GB\", \"unknown\": [1, true, null, {\"a\": \"b\"}] }".getBytes(
+            UTF_8)));
+
+    // when
+    Exception exception = assertThrows(JSONException.class,
+        () -> decoder.decode(response, SquaredAddress.class));
+
+    // then
+    assertEquals("JSONObject[\"square\"] not found.", exception.getMessage(), "Exception message");
+  }
+
+  @DisplayName("Available languages")
+  @Test
+  @SuppressWarnings("unchecked")
+  public void availableLanguages() throws IOException, NoSuchMethodException {
+    // given
+    Type languageCollection = What3Words.class.getMethod("availableLanguages")
+        .getGenericReturnType();
+    Language expectedLanguage = Language.builder().code("aa").build();
+    Language anotherLanguage = Language.builder().code("bb").build();
+    when(body.asInputStream()).thenReturn(new ByteArrayInputStream(
+        ("{ \"languages\": [ { \"code\": \"aa\", \"name\": \"Name\", "
+            + "\"nativeName\": \"Native name\" }, { \"nativeName\": \"\\u0411\", "
+            + "\"name\": \"B\", \"code\": \"bb\" } ] }").getBytes(UTF_8)));
+
+    // when
+    Collection<Language> availableLanguages = (Collection<Language>) decoder.decode(response,
+        languageCollection);
+
+    // then
+    assertAll("Available languages", () -> assertNotNull(availableLanguages, "not null"),
+        () -> assertThat("two items", availableLanguages, hasSize(2)),
+        () -> assertThat("language codes are equal", availableLanguages,
+            containsInAnyOrder(expectedLanguage, anotherLanguage)));
+  }
+
+  @DisplayName("Squared address")
+  @Test
+  public void squaredAddress() throws IOException {
+    // given
+    String squaredAddressJson = readSquaredAddress();
+    Response anotherResponse = response.toBuilder().body(squaredAddressJson, UTF_8).build();
+    SquaredAddress expectedSquaredAddress = (SquaredAddress) new What3WordsDecoder().decode(
+        anotherResponse, SquaredAddress.class);
+
+    when(body.asInputStream()).thenReturn(
+        new ByteArrayInputStream(squaredAddressJson.getBytes(UTF_8)));
+
+    // when
+    SquaredAddress squaredAddress = (SquaredAddress) decoder.decode(response, SquaredAddress.class);
+
+    // then
+    assertAll("Squared address", () -> assertNotNull(squaredAddress, "not null"),
+        () -> assertEquals("GB", squaredAddress.getCountry(), "country"),
+        () -> assertEquals(BigDecimal.valueOf(-2.359591d),
+            squaredAddress.getCoordinates().getLongitude(), "longitude"),
+        () -> assertEquals(BigDecimal.valueOf(51.381051d),
+            squaredAddress.getCoordinates().getLatitude(), "latitude"),
+        () -> assertEquals("spring.tops.issued", squaredAddress.getWords().toString(), "words"),
+        () -> assertEquals("https://w3w.co/spring.tops.issued",
+            squaredAddress.getMap().toExternalForm(), "map"),
+        () -> assertSame(LanguageRegistry.bundled().get("en"), squaredAddress.getLanguage(),
+            "interned language"),
+        () -> assertEquals(expectedSquaredAddress.toString(), squaredAddress.toString(),
+            "the same as the tree decoder"));
+  }
+
+  @DisplayName("Lazy squared address")
+  @Test
+  public void lazySquaredAddress() throws IOException {
+    // given
+    String squaredAddressJson = readSquaredAddress();
+    Response anotherResponse = response.toBuilder().body(squaredAddressJson, UTF_8).build();
+    SquaredAddress expectedSquaredAddress = (SquaredAddress) decoder.decode(anotherResponse,
+        SquaredAddress.class);
+
+    when(body.asInputStream()).thenReturn(
+        new ByteArrayInputStream(squaredAddressJson.getBytes(UTF_8)));
+
+    // when
+    SquaredAddress squaredAddress = (SquaredAddress) new What3WordsStreamingDecoder(true).decode(
+        response, SquaredAddress.class);
+
+    // then
+    assertAll("Lazy squared address",
+        () -> assertEquals("spring.tops.issued", squaredAddress.getWords().toString(), "words"),
+        () -> assertSame(squaredAddress.getWords(), squaredAddress.getWords(), "kept"),
+        () -> assertEquals(expectedSquaredAddress.toString(), squaredAddress.toString(),
+            "the same as the eager decoder"));
+  }
+
+  @DisplayName("Lazy squared address: a value is parsed on first access")
+  @Test
+  public void lazyMalformedValue() throws IOException {
+    // given
+    when(body.asInputStream()).thenReturn(new ByteArrayInputStream(
+        ("{\"country\":\"GB\",\"square\":{},\"nearestPlace\":\"Bath\",\"coordinates\":"
+            + "{\"lat\":51.381051,\"lng\":-2.359591},\"words\":\"spring.tops.issued\","
+            + "\"language\":\"en\",\"map\":\"https://w3w.co/spring.tops.issued\"}").getBytes(
+            UTF_8)));
+
+    // when
+    SquaredAddress squaredAddress = (SquaredAddress) new What3WordsStreamingDecoder(true).decode(
+        response, SquaredAddress.class);
+
+    // then
+    assertAll("Malformed square",
+        () -> assertEquals("spring.tops.issued", squaredAddress.getWords().toString(), "words"),
+        () -> assertEquals("51.381051,-2.359591", squaredAddress.getCoordinates().toString(),
+            "coordinates"),
+        () -> assertEquals("JSONObject[\"northeast\"] not found.",
+            assertThrows(JSONException.class, squaredAddress::getSquare).getMessage(),
+            "square"));
+  }
+
+  @DisplayName("Lazy squared address: required property is missing")
+  @Test
+  public void lazyMissedProperty() throws IOException {
+    // given
+    when(body.asInputStream()).thenReturn(new ByteArrayInputStream(
+        "{ \"country\": \"GB\", \"unknown\": [1, true, null, {\"a\": \"b\"}] }".getBytes(
+            UTF_8)));
+
+    // when
+    Exception exception = assertThrows(JSONException.class,
+        () -> new What3WordsStreamingDecoder(true).decode(response, SquaredAddress.class));
+
+    // then
+    assertEquals("JSONObject[\"square\"] not found.", exception.getMessage(), "Exception message");
+  }
+
+  @DisplayName("Lazy squared address: required property is null")
+  @Test
+  public void lazyNullProperty() throws IOException {
+    // given
+    when(body.asInputStream()).thenReturn(new ByteArrayInputStream(
+        "{ \"country\": \"GB\", \"nearestPlace\": null }".getBytes(UTF_8)));
+
+    // when
+    Exception exception = assertThrows(NullPointerException.class,
+        () -> new What3WordsStreamingDecoder(true).decode(response, SquaredAddress.class));
+
+    // then
+    assertEquals("nearest place is null", exception.getMessage(), "Exception message");
+  }
+
+  @DisplayName("Projected squared address")
+  @Test
+  public void projection() throws IOException {
+    // given
+    when(body.asInputStream()).thenReturn(new ByteArrayInputStream(
+        ("{\"words\":\"spring.tops.issued\",\"square\":{\"southwest\":{\"lng\":-2.359613,"
+            + "\"lat\":51.381037},\"northeast\":{\"lng\":-2.35957,\"lat\":51.381064}},"
+            + "\"map\":\"not a link\"}").getBytes(UTF_8)));
+
+    // when
+    SquaredAddress squaredAddress = decoder.decodeSquaredAddress(response,
+        EnumSet.of(SquaredAddress.Field.WORDS, SquaredAddress.Field.SQUARE));
+
+    // then
+    assertAll("Projection",
+        () -> assertEquals("spring.tops.issued", squaredAddress.getWords().toString(), "words"),
+        () -> assertEquals(BigDecimal.valueOf(51.381064d),
+            squaredAddress.getSquare().getNortheast().getLatitude(), "square"),
+        () -> assertEquals("map is not projected",
+            assertThrows(IllegalStateException.class, squaredAddress::getMap).getMessage(),
+            "map"));
+  }
+
+  @DisplayName("Projected property is missing")
+  @Test
+  public void projectedPropertyIsMissing() throws IOException {
+    // given
+    when(body.asInputStream()).thenReturn(new ByteArrayInputStream(
+        "{\"country\":\"GB\"}".getBytes(UTF_8)));
+
+    // when
+    Exception exception = assertThrows(JSONException.class,
+        () -> decoder.decodeSquaredAddress(response, EnumSet.of(SquaredAddress.Field.WORDS)));
+
+    // then
+    assertEquals("JSONObject[\"words\"] not found.", exception.getMessage(), "Exception message");
+  }
+
+  private String readSquaredAddress() {
+    BufferedReader squaredAddressReader = new BufferedReader(
+        new InputStreamReader(getClass().getResourceAsStream("/squared_address.json")));
+
+    return squaredAddressReader.lines().collect(Collectors.joining("\n"));
+  }
+
+}
@@ -0,0 +1,112 @@
+package uk.bot_by.w3w;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.object.IsCompatibleType.typeCompatibleWith;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.when;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Collections;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("fast")
+class What3WordsStreamingErrorDecoderTest {
+
+  @Mock
+  private Response.Body body;
+
+  private What3WordsStreamingErrorDecoder decoder;
+
+  private Response response;
+
+  @BeforeEach
+  void setUp() {
+    decoder = new What3WordsStreamingErrorDecoder();
+    response = Response.builder().request(
+            Request.create(Request.HttpMethod.GET, "/api", Collections.emptyMap(), null, UTF_8, null))
+        .status(400).reason("Bad Request").headers(Collections.emptyMap()).body(body).build();
+  }
+
+  @DisplayName("Response without body")
+  @Test
+  public void bodyIsNull() {
+    // given
+    response = response.toBuilder().status(500).reason("Test Error Response")
+        .body((Response.Body) null).build();
+
+    // when
+    Exception exception = decoder.decode("qwerty", response);
+
+    // then
+    assertAll("Response has no body",
+        () -> assertThat("class", exception.getClass(), typeCompatibleWith(FeignException.class)),
+        () -> assertEquals("[500 Test Error Response] during [GET] to [/api] [qwerty]: []",
+            exception.getMessage(), "message"));
+  }
+
+  @DisplayName("Response body is not error")
+  @ParameterizedTest(name = "{arguments}")
+  @ValueSource(strings = {"xyz", "{\"warning\":\"xyz\"}", "{\"error\":{\"code\":\"Test\"}}"})
+  public void responseIsNotError(String bodyText) throws IOException {
+    // given
+    when(body.asInputStream()).thenReturn(new ByteArrayInputStream(bodyText.getBytes(UTF_8)));
+
+    // when
+    Exception exception = decoder.decode("qwerty", response);
+
+    // then
+    assertAll("Response body is not error",
+        () -> assertThat("class", exception.getClass(), typeCompatibleWith(FeignException.class)),
+        () -> assertEquals("[400 Bad Request] during [GET] to [/api] [qwerty]: [" + bodyText + "]",
+            exception.getMessage(), "message"));
+  }
+
+  @DisplayName("Body could not be read")
+  @Test
+  public void ioException() throws IOException {
+    // given
+    IOException expectedException = new IOException("test");
+    when(body.asInputStream()).thenThrow(expectedException);
+
+    // when
+    Exception exception = decoder.decode("qwerty", response);
+
+    // then
+    assertSame(expectedException, exception);
+  }
+
+  @DisplayName("Decode what3words API error")
+  @Test
+  public void decode() throws IOException {
+    // given
+    String bodyText = "{\"error\":{\"code\":\"Test\",\"message\":\"test \\\"error\\\"\"}}";
+    when(body.asInputStream()).thenReturn(new ByteArrayInputStream(bodyText.getBytes(UTF_8)));
+
+    // when
+    Exception exception = decoder.decode("qwerty", response);
+
+    // then
+    assertAll("Response body is error", () -> assertThat("class", exception.getClass(),
+            typeCompatibleWith(What3WordsException.class)),
+        () -> assertEquals("test \"error\"", exception.getMessage(), "message"),
+        () -> assertEquals("Test", ((What3WordsException) exception).getCode(), "code"),
+        () -> assertEquals(400, ((What3WordsException) exception).getStatus(), "status"));
+  }
+
+}
@@ -2,6 +2,7 @@ package uk.bot_by.w3w;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
 import java.math.BigDecimal;
@@ -111,4 +112,24 @@ class WordsRequestTest {
         () -> assertEquals(expectedLanguage, request.getLanguage(), "language"));
   }
 
+  @DisplayName("Equals and hash code")
+  @Test
+  public void equalsAndHashCode() {
+    // given
+    WordsRequest request = WordsRequest.builder().coordinates(51.381051d, -2.359591d)
+        .language("en").build();
+
+    // when
+    WordsRequest sameRequest = WordsRequest.builder()
+        .coordinates(BigDecimal.valueOf(51.381051d), BigDecimal.valueOf(-2.359591d))
+        .language(Language.builder().code("en").build()).build();
+    WordsRequest anotherRequest = WordsRequest.builder().coordinates(51.381051d, -2.359591d)
+        .build();
+
+    // then
+    assertAll("Equals and hash code", () -> assertEquals(request, sameRequest, "equal"),
+        () -> assertEquals(request.hashCode(), sameRequest.hashCode(), "hash code"),
+        () -> assertNotEquals(request, anotherRequest, "another language"));
+  }
+
 }
@@ -7,6 +7,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
+import java.util.regex.Pattern;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -18,6 +20,43 @@ import org.junit.jupiter.params.provider.ValueSource;
 @Tag("fast")
 class WordsTest {
 
+  private static final Pattern WORD_ADDRESS_PATTERN = Pattern.compile(
+      "^[^0-9`~!@#$%^&*()+\\-_=\\[{}\\\\|'<,.>?/\";:£§º©®\\s]{1,}$");
+
+  // it is how the builder parsed a string before the scanner
+  private static String splitAndMatch(String words) {
+    if (words.isBlank()) {
+      return "empty words";
+    }
+    if (words.startsWith("///")) {
+      return splitAndMatch(words.substring(3));
+    }
+
+    String[] parts = words.split("[・.。]");
+
+    if (3 > parts.length) {
+      return "3 words are required";
+    }
+    for (int i = 0; 3 > i; i++) {
+      if (parts[i].isBlank()) {
+        return "empty word";
+      }
+      if (!WORD_ADDRESS_PATTERN.matcher(parts[i]).matches()) {
+        return "bad word";
+      }
+    }
+
+    return parts[0] + "." + parts[1] + "." + parts[2];
+  }
+
+  private static String scan(String words) {
+    try {
+      return Words.builder().words(words).build().toString();
+    } catch (IllegalArgumentException exception) {
+      return exception.getMessage();
+    }
+  }
+
   @DisplayName("Word array is too short")
   @Test
   public void lengthOfArray() {
@@ -198,4 +237,37 @@ class WordsTest {
     assertEquals("spring.tops.issued", words.toString());
   }
 
+  @DisplayName("The scanner accepts the same strings as the regular expressions")
+  @ParameterizedTest(name = "{arguments}")
+  @ValueSource(strings = {"a.b.c", "///a.b.c", "//////a.b.c", "///", "//////", "/// ", "//a.b.c",
+      "a.b", "a.b.", "a.b..", "a.b..d", ".a.b", "..a", "...", "a..c", "a. .c", "a.b.c.d",
+      "a.b.c.$", "a.b.c.", "a b.c.d", "a\u2003b.c.d", "\u2003.b.c", "\u00a0.b.c",
+      "\u001c.b.c", "a.b.\u001c", "a]b.c.d", "a・b。c", "a・b・c・d", "зрання.вести.кава",
+      "a\nb.c.d", "\n.b.c", "b.c\t", "a.b.c\t", "\ud83d\ude00.b.c", "a.1.c", "£.b.c",
+      "a.b.®", "a.b.c®", "a.b®.c"})
+  public void sameAsRegularExpressions(String words) {
+    assertEquals(splitAndMatch(words), scan(words));
+  }
+
+  @DisplayName("The scanner accepts the same random strings as the regular expressions")
+  @Test
+  public void sameAsRegularExpressionsRandomly() {
+    // given
+    char[] alphabet = "ab /.・。 \t\u2003\u001c$1®".toCharArray();
+    Random random = new Random(42);
+
+    for (int i = 0; 20_000 > i; i++) {
+      char[] chars = new char[random.nextInt(10)];
+
+      for (int j = 0; chars.length > j; j++) {
+        chars[j] = alphabet[random.nextInt(alphabet.length)];
+      }
+
+      String words = new String(chars);
+
+      // when and then
+      assertEquals(splitAndMatch(words), scan(words), words);
+    }
+  }
+
 }